@@ -0,0 +1,83 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics.jfr;
+
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+
+/**
+ * Metrics listener emitting a {@link MessageEvent} to the Java Flight Recorder for each processed message, to
+ * correlate message types and sizes with latency spikes in the recordings.
+ *
+ * <p>Events are only created when the event type is enabled in the running recording. An optional delegate listener,
+ * such as an InMemoryMetrics, is notified as well since only one listener can be registered:
+ * <pre>
+ * Metrics.setListener(new JfrMetricsListener(new InMemoryMetrics()));
+ * </pre>
+ *
+ * @see Metrics#setListener(MetricsListener)
+ * @since 7.10.4
+ */
+public class JfrMetricsListener implements MetricsListener {
+
+	private final MetricsListener delegate;
+
+	public JfrMetricsListener() {
+		this(null);
+	}
+
+	/**
+	 * @param delegate optional listener to notify after emitting each event
+	 */
+	public JfrMetricsListener(final MetricsListener delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void completed(final Operation operation, final String id, final long size, final int tags, final long nanos, final int errors) {
+		final MessageEvent event = new MessageEvent();
+		if (event.shouldCommit()) {
+			event.operation = operation.name();
+			event.id = id;
+			event.size = size;
+			event.tags = tags;
+			event.errors = errors;
+			event.elapsed = nanos;
+			event.commit();
+		}
+		if (delegate != null) {
+			delegate.completed(operation, id, size, tags, nanos, errors);
+		}
+	}
+
+	@Override
+	public void failed(final Operation operation, final long nanos, final Throwable cause) {
+		final MessageEvent event = new MessageEvent();
+		if (event.shouldCommit()) {
+			event.operation = operation.name();
+			event.elapsed = nanos;
+			event.failed = true;
+			if (cause != null) {
+				event.failure = cause.toString();
+			}
+			event.commit();
+		}
+		if (delegate != null) {
+			delegate.failed(operation, nanos, cause);
+		}
+	}
+
+}
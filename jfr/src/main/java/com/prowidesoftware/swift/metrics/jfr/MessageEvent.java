@@ -0,0 +1,80 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a message processed by the parsers, writers or conversion services.
+ *
+ * <p>The event is created and committed once the operation finished, so its own duration is zero and the time spent
+ * is recorded in the {@link #elapsed} field.
+ *
+ * @see JfrMetricsListener
+ * @since 7.10.4
+ */
+@Name(MessageEvent.NAME)
+@Label("SWIFT Message")
+@Category({"Prowide", "SWIFT"})
+@Description("Message parsed, written or converted by Prowide Core")
+@StackTrace(false)
+public class MessageEvent extends Event {
+
+	/**
+	 * Event type name, to enable or filter the event in the recording settings
+	 */
+	public static final String NAME = "com.prowidesoftware.swift.Message";
+
+	@Label("Operation")
+	@Description("The instrumented operation, as in MetricsListener.Operation")
+	String operation;
+
+	@Label("Message Type")
+	@Description("The message type identifier, such as fin.103 or pacs.008.001.02")
+	String id;
+
+	@Label("Size")
+	@Description("Number of characters read or written")
+	@DataAmount
+	long size;
+
+	@Label("Tags")
+	@Description("Number of tags in the message text block")
+	int tags;
+
+	@Label("Errors")
+	@Description("Number of errors reported by the parser")
+	int errors;
+
+	@Label("Elapsed")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsed;
+
+	@Label("Failed")
+	boolean failed;
+
+	@Label("Failure")
+	@Description("Class and message of the error when the operation failed")
+	String failure;
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.prowidesoftware.swift.metrics.InMemoryMetrics;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test cases for {@link JfrMetricsListener}
+ *
+ * @since 7.10.4
+ */
+public class JfrMetricsListenerTest {
+
+	private static final String MT103 = "{1:F01AAAAUSC0ADDD0344000050}{2:O1031119051028ABCDUSNNXXXX00000000000510281519N}{4:\n" +
+			":20:REFERENCE\n" +
+			":23B:CRED\n" +
+			":32A:051028USD1,\n" +
+			":50K:/123\n" +
+			"ORDERING\n" +
+			":59:/456\n" +
+			"BENEFICIARY\n" +
+			":71A:OUR\n" +
+			"-}";
+
+	@After
+	public void tearDown() {
+		Metrics.setListener(null);
+	}
+
+	@Test
+	public void testEvents() throws IOException {
+		final InMemoryMetrics delegate = new InMemoryMetrics();
+		Metrics.setListener(new JfrMetricsListener(delegate));
+		final List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(MessageEvent.NAME);
+			recording.start();
+			SwiftMessage.parse(MT103);
+			new JfrMetricsListener().failed(Operation.MX_PARSE, 10, new IllegalArgumentException("bad xml"));
+			recording.stop();
+			events = read(recording);
+		}
+
+		assertEquals(2, events.size());
+		final RecordedEvent parse = events.get(0);
+		assertEquals("MT_PARSE", parse.getString("operation"));
+		assertEquals("fin.103", parse.getString("id"));
+		assertEquals(6, parse.getInt("tags"));
+		assertTrue(parse.getLong("size") > 0);
+		assertFalse(parse.getBoolean("failed"));
+
+		final RecordedEvent failed = events.get(1);
+		assertEquals("MX_PARSE", failed.getString("operation"));
+		assertTrue(failed.getBoolean("failed"));
+		assertEquals(10, failed.getLong("elapsed"));
+		assertEquals("java.lang.IllegalArgumentException: bad xml", failed.getString("failure"));
+
+		assertEquals(1, delegate.getCount(Operation.MT_PARSE));
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		final InMemoryMetrics delegate = new InMemoryMetrics();
+		Metrics.setListener(new JfrMetricsListener(delegate));
+		final List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.disable(MessageEvent.NAME);
+			recording.start();
+			SwiftMessage.parse(MT103);
+			recording.stop();
+			events = read(recording);
+		}
+		assertTrue(events.isEmpty());
+		assertEquals(1, delegate.getCount(Operation.MT_PARSE));
+	}
+
+	private static List<RecordedEvent> read(final Recording recording) throws IOException {
+		final Path file = Files.createTempFile("prowide", ".jfr");
+		try {
+			recording.dump(file);
+			final List<RecordedEvent> result = new ArrayList<>();
+			for (final RecordedEvent e : RecordingFile.readAllEvents(file)) {
+				if (e.getEventType().getName().equals(MessageEvent.NAME)) {
+					result.add(e);
+				}
+			}
+			return result;
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+/**
+ * Representative MT messages used by the benchmarks, in FIN format.
+ *
+ * <p>Statements and holdings are generated with a configurable number of entries, so the same message types can be
+ * measured both with a typical size and with several thousand tags.
+ *
+ * @since 7.10.4
+ */
+public final class MtCorpus {
+
+	/**
+	 * Number of entries of the large statements and holdings
+	 */
+	public static final int LARGE = 2000;
+
+	private static final String EOL = "\r\n";
+
+	// Suppress default constructor for noninstantiability
+	private MtCorpus() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Gets a message by name: MT103, MT202, MT535, MT940 and MT950 have a typical size, while the _LARGE suffix
+	 * gives statements and holdings with {@link #LARGE} entries.
+	 * @param name the message name
+	 * @return the message in FIN format
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static String get(final String name) {
+		if ("MT103".equals(name)) {
+			return mt103(1);
+		} else if ("MT202".equals(name)) {
+			return mt202(1);
+		} else if ("MT535".equals(name)) {
+			return mt535(10);
+		} else if ("MT535_LARGE".equals(name)) {
+			return mt535(LARGE);
+		} else if ("MT940".equals(name)) {
+			return mt940(20);
+		} else if ("MT940_LARGE".equals(name)) {
+			return mt940(LARGE);
+		} else if ("MT950".equals(name)) {
+			return mt950(20);
+		} else if ("MT950_LARGE".equals(name)) {
+			return mt950(LARGE);
+		}
+		throw new IllegalArgumentException("unknown message " + name);
+	}
+
+	/**
+	 * @param n sequence number used in the references
+	 * @return a customer credit transfer
+	 */
+	public static String mt103(final int n) {
+		return header("103", "{3:{108:MUR" + n + "}{121:eb6305c9-1f7f-49de-aed0-16487c27b42d}}") + "{4:" + EOL
+				+ ":20:REF" + n + EOL
+				+ ":23B:CRED" + EOL
+				+ ":32A:180417EUR1234567,89" + EOL
+				+ ":33B:EUR1234567,89" + EOL
+				+ ":50K:/DE89370400440532013000" + EOL + "ORDERING CUSTOMER NAME" + EOL + "STREET 123" + EOL + "CITY" + EOL
+				+ ":52A:FOOSEDR0" + EOL
+				+ ":57A:BARXXXXX" + EOL
+				+ ":59:/FR1420041010050500013M02606" + EOL + "BENEFICIARY NAME" + EOL + "AVENUE 456" + EOL + "PARIS" + EOL
+				+ ":70:INVOICE " + n + EOL + "PAYMENT OF GOODS" + EOL
+				+ ":71A:SHA" + EOL
+				+ "-}";
+	}
+
+	/**
+	 * @param n sequence number used in the references
+	 * @return a financial institution transfer
+	 */
+	public static String mt202(final int n) {
+		return header("202", "") + "{4:" + EOL
+				+ ":20:REF" + n + EOL
+				+ ":21:RELREF" + n + EOL
+				+ ":32A:180417USD1000000," + EOL
+				+ ":52A:FOOSEDR0" + EOL
+				+ ":57A:BARXXXXX" + EOL
+				+ ":58A:/12345678" + EOL + "BAZZUS33" + EOL
+				+ ":72:/BNF/INTERBANK TRANSFER" + EOL
+				+ "-}";
+	}
+
+	/**
+	 * @param entries number of statement lines
+	 * @return a customer statement with a 61 and 86 field per line
+	 */
+	public static String mt940(final int entries) {
+		final StringBuilder sb = new StringBuilder(header("940", "")).append("{4:").append(EOL);
+		sb.append(":20:STMT").append(EOL);
+		sb.append(":25:1234567890").append(EOL);
+		sb.append(":28C:00123/1").append(EOL);
+		sb.append(":60F:C180416EUR1000000,").append(EOL);
+		for (int i = 0; i < entries; i++) {
+			sb.append(":61:180417").append(i % 2 == 0 ? "C" : "D").append(100 + i).append(",").append(i % 100).append("NTRFREF").append(i).append("//BANKREF").append(i).append(EOL);
+			sb.append(":86:PAYMENT ").append(i).append(EOL).append("COUNTERPARTY ").append(i % 37).append(EOL);
+		}
+		sb.append(":62F:C180417EUR1000000,").append(EOL);
+		sb.append(":64:C180417EUR1000000,").append(EOL);
+		return sb.append("-}").toString();
+	}
+
+	/**
+	 * @param entries number of statement lines
+	 * @return a statement message with a 61 field per line
+	 */
+	public static String mt950(final int entries) {
+		final StringBuilder sb = new StringBuilder(header("950", "")).append("{4:").append(EOL);
+		sb.append(":20:STMT").append(EOL);
+		sb.append(":25:1234567890").append(EOL);
+		sb.append(":28C:00123/1").append(EOL);
+		sb.append(":60F:C180416USD1000000,").append(EOL);
+		for (int i = 0; i < entries; i++) {
+			sb.append(":61:180417").append(i % 2 == 0 ? "C" : "D").append(100 + i).append(",").append(i % 100).append("NTRFREF").append(i).append("//BANKREF").append(i).append(EOL);
+		}
+		sb.append(":62F:C180417USD1000000,").append(EOL);
+		return sb.append("-}").toString();
+	}
+
+	/**
+	 * @param holdings number of financial instruments in the sub-safekeeping account
+	 * @return a statement of holdings with one sub-safekeeping account
+	 */
+	public static String mt535(final int holdings) {
+		final StringBuilder sb = new StringBuilder(header("535", "")).append("{4:").append(EOL);
+		sb.append(":16R:GENL").append(EOL);
+		sb.append(":28E:1/ONLY").append(EOL);
+		sb.append(":20C::SEME//HOLD").append(EOL);
+		sb.append(":23G:NEWM").append(EOL);
+		sb.append(":98A::STAT//20180417").append(EOL);
+		sb.append(":22F::SFRE//DAIL").append(EOL);
+		sb.append(":22F::CODE//COMP").append(EOL);
+		sb.append(":22F::STTY//CUST").append(EOL);
+		sb.append(":22F::STBA//SETT").append(EOL);
+		sb.append(":97A::SAFE//1234567").append(EOL);
+		sb.append(":17B::ACTI//Y").append(EOL);
+		sb.append(":17B::CONS//N").append(EOL);
+		sb.append(":16S:GENL").append(EOL);
+		sb.append(":16R:SUBSAFE").append(EOL);
+		sb.append(":97A::SAFE//1234567").append(EOL);
+		for (int i = 0; i < holdings; i++) {
+			sb.append(":16R:FIN").append(EOL);
+			sb.append(":35B:ISIN US").append(String.format("%010d", i)).append(EOL).append("SECURITY ").append(i).append(EOL);
+			sb.append(":93B::AGGR//UNIT/").append(1000 + i).append(",").append(EOL);
+			sb.append(":16R:SUBBAL").append(EOL);
+			sb.append(":93C::AVAI//UNIT/AVAI/").append(1000 + i).append(",").append(EOL);
+			sb.append(":16S:SUBBAL").append(EOL);
+			sb.append(":16S:FIN").append(EOL);
+		}
+		sb.append(":16S:SUBSAFE").append(EOL);
+		return sb.append("-}").toString();
+	}
+
+	private static String header(final String type, final String block3) {
+		return "{1:F01FOOSEDR0AXXX0000000000}{2:I" + type + "BARXXXXXAXXXN}" + block3;
+	}
+}
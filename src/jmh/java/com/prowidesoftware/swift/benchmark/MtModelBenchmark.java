@@ -0,0 +1,114 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftTagListBlock;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.mt.AbstractMT;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+import com.prowidesoftware.swift.model.mt.mt5xx.MT535;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+
+/**
+ * Access to the parsed content: typed getters, tag lookups, sub blocks and field creation.
+ *
+ * @since 7.10.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MtModelBenchmark {
+
+	private String mt103;
+	private MT940 mt940;
+	private SwiftBlock4 mt940Block4;
+	private SwiftBlock4 mt535Block4;
+	private Tag[] mt103Tags;
+
+	@Setup
+	public void setup() throws IOException {
+		mt103 = MtCorpus.get("MT103");
+		mt103Tags = AbstractMT.parse(mt103).getSwiftMessage().getBlock4().getTags().toArray(new Tag[0]);
+		mt940 = MT940.parse(MtCorpus.get("MT940_LARGE"));
+		mt940Block4 = mt940.getSwiftMessage().getBlock4();
+		mt535Block4 = MT535.parse(MtCorpus.get("MT535_LARGE")).getSwiftMessage().getBlock4();
+	}
+
+	@Benchmark
+	public void mt103ParseAndGetters(final Blackhole bh) throws IOException {
+		final MT103 mt = (MT103) AbstractMT.parse(mt103);
+		bh.consume(mt.getField20());
+		bh.consume(mt.getField32A());
+		bh.consume(mt.getField50K());
+		bh.consume(mt.getField59());
+		bh.consume(mt.getField71A());
+	}
+
+	@Benchmark
+	public List<Field61> mt940Field61() {
+		return mt940.getField61();
+	}
+
+	@Benchmark
+	public String tagValueLast() {
+		// the closing balance is at the end of a large statement
+		return mt940Block4.getTagValue("62F");
+	}
+
+	@Benchmark
+	public Tag[] tagsByName() {
+		return mt940Block4.getTagsByName("61");
+	}
+
+	@Benchmark
+	public List<SwiftTagListBlock> subBlocksMT535() {
+		return mt535Block4.getSubBlocks("FIN");
+	}
+
+	@Benchmark
+	public List<MT535.SequenceB1> sequenceListMT535() {
+		return MT535.getSequenceB1List(mt535Block4);
+	}
+
+	@Benchmark
+	public void fieldGetField(final Blackhole bh) {
+		for (final Tag t : mt103Tags) {
+			bh.consume(Field.getField(t));
+		}
+	}
+}
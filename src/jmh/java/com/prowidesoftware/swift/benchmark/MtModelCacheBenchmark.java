@@ -0,0 +1,73 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prowidesoftware.swift.model.MtSwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Repeated calls to {@link MtSwiftMessage#modelMessage()} with each {@link MtSwiftMessage.ModelCache} strategy, where
+ * NONE parses the raw content on every call.
+ *
+ * @since 7.10.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MtModelCacheBenchmark {
+
+	@Param({"MT103", "MT535", "MT940", "MT940_LARGE"})
+	public String message;
+
+	@Param({"NONE", "COPY", "SHARED"})
+	public String mode;
+
+	private MtSwiftMessage mtsm;
+
+	@Setup
+	public void setup() {
+		MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.valueOf(mode));
+		mtsm = new MtSwiftMessage(MtCorpus.get(message));
+	}
+
+	@TearDown
+	public void tearDown() {
+		MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.NONE);
+	}
+
+	@Benchmark
+	public SwiftMessage modelMessage() {
+		return mtsm.modelMessage();
+	}
+}
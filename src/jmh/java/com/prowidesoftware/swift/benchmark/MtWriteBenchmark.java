@@ -0,0 +1,90 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessageUtils;
+
+/**
+ * Serialization of the generic MT model into FIN and checksum calculation.
+ *
+ * @since 7.10.4
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MtWriteBenchmark {
+
+	@Param({"MT103", "MT202", "MT535", "MT535_LARGE", "MT940", "MT940_LARGE", "MT950", "MT950_LARGE"})
+	public String message;
+
+	private SwiftMessage msg;
+
+	/*
+	 * discards the content, to measure the serialization only
+	 */
+	private final OutputStream discard = new OutputStream() {
+		@Override
+		public void write(final int b) {
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+		}
+	};
+
+	@Setup
+	public void setup() throws IOException {
+		msg = SwiftMessage.parse(MtCorpus.get(message));
+	}
+
+	@Benchmark
+	public StringBuilder writeMessage() {
+		final StringBuilder sb = new StringBuilder();
+		SwiftWriter.writeMessage(msg, sb);
+		return sb;
+	}
+
+	@Benchmark
+	public long writeMessageStream() {
+		return SwiftWriter.writeMessage(msg, discard);
+	}
+
+	@Benchmark
+	public String calculateChecksum() {
+		return SwiftMessageUtils.calculateChecksum(msg);
+	}
+}
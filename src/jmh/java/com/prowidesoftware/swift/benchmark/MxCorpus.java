@@ -0,0 +1,170 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.prowidesoftware.swift.utils.Lib;
+
+/**
+ * Representative MX messages used by the benchmarks, with header and document under a common root element.
+ *
+ * <p>The headers are taken from the sample files in the test resources: the legacy SWIFT Application Header for the
+ * customer credit transfer and the ISO Business Application Header for the statements. The documents are generated
+ * with a configurable number of transactions or entries, from a typical 2 KB pacs.008 up to a 100 MB camt.053.
+ *
+ * @since 7.10.4
+ */
+public final class MxCorpus {
+
+	/**
+	 * Name of the root element wrapping the header and the document
+	 */
+	public static final String ROOT = "Message";
+
+	private static final String EOL = "\n";
+
+	// Suppress default constructor for noninstantiability
+	private MxCorpus() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Gets a message by name: PACS008_2KB is a single transaction credit transfer while the CAMT053 names give
+	 * statements of approximately 100 KB, 1 MB, 10 MB or 100 MB.
+	 * @param name the message name
+	 * @return the message XML
+	 * @throws IllegalArgumentException if the name is unknown
+	 */
+	public static String get(final String name) {
+		if ("PACS008_2KB".equals(name)) {
+			return pacs008(1);
+		} else if ("CAMT053_100KB".equals(name)) {
+			return camt053(100 * 1024);
+		} else if ("CAMT053_1MB".equals(name)) {
+			return camt053(1024 * 1024);
+		} else if ("CAMT053_10MB".equals(name)) {
+			return camt053(10 * 1024 * 1024);
+		} else if ("CAMT053_100MB".equals(name)) {
+			return camt053(100 * 1024 * 1024);
+		}
+		throw new IllegalArgumentException("unknown message " + name);
+	}
+
+	/**
+	 * Absolute path of a repetitive element of the message, as expected by {@link com.prowidesoftware.swift.model.MxNode#find(String)}
+	 * @param name the message name
+	 * @return the path to the transactions or entries of the message
+	 */
+	public static String repetitivePath(final String name) {
+		return name.startsWith("PACS008") ? "/" + ROOT + "/Document/FIToFICstmrCdtTrf/CdtTrfTxInf" : "/" + ROOT + "/Document/BkToCstmrStmt/Stmt/Ntry";
+	}
+
+	/**
+	 * Absolute path of a single value in the message header
+	 * @param name the message name
+	 * @return the path to the header message reference
+	 */
+	public static String headerPath(final String name) {
+		return name.startsWith("PACS008") ? "/" + ROOT + "/AppHdr/MsgRef" : "/" + ROOT + "/AppHdr/BizMsgIdr";
+	}
+
+	/**
+	 * @param transactions number of credit transfer transactions
+	 * @return a customer credit transfer with the legacy application header
+	 */
+	public static String pacs008(final int transactions) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.07\">").append(EOL);
+		sb.append("<FIToFICstmrCdtTrf>").append(EOL);
+		sb.append("<GrpHdr><MsgId>MSG1</MsgId><CreDtTm>2018-04-17T10:00:00</CreDtTm><NbOfTxs>").append(transactions).append("</NbOfTxs>");
+		sb.append("<SttlmInf><SttlmMtd>CLRG</SttlmMtd></SttlmInf></GrpHdr>").append(EOL);
+		for (int i = 0; i < transactions; i++) {
+			sb.append("<CdtTrfTxInf>").append(EOL);
+			sb.append("<PmtId><InstrId>INSTR").append(i).append("</InstrId><EndToEndId>E2E").append(i).append("</EndToEndId>");
+			sb.append("<TxId>TX").append(i).append("</TxId><UETR>eb6305c9-1f7f-49de-aed0-").append(String.format("%012d", i)).append("</UETR></PmtId>").append(EOL);
+			sb.append("<IntrBkSttlmAmt Ccy=\"EUR\">").append(1000 + i).append(".50</IntrBkSttlmAmt><IntrBkSttlmDt>2018-04-17</IntrBkSttlmDt>").append(EOL);
+			sb.append("<ChrgBr>SHAR</ChrgBr>").append(EOL);
+			sb.append("<Dbtr><Nm>ORDERING CUSTOMER NAME</Nm><PstlAdr><StrtNm>STREET</StrtNm><BldgNb>123</BldgNb><TwnNm>CITY</TwnNm><Ctry>DE</Ctry></PstlAdr></Dbtr>").append(EOL);
+			sb.append("<DbtrAcct><Id><IBAN>DE89370400440532013000</IBAN></Id></DbtrAcct>").append(EOL);
+			sb.append("<DbtrAgt><FinInstnId><BICFI>FOOSEDR0XXX</BICFI></FinInstnId></DbtrAgt>").append(EOL);
+			sb.append("<CdtrAgt><FinInstnId><BICFI>BARXXXXXXXX</BICFI></FinInstnId></CdtrAgt>").append(EOL);
+			sb.append("<Cdtr><Nm>BENEFICIARY NAME</Nm><PstlAdr><StrtNm>AVENUE</StrtNm><BldgNb>456</BldgNb><TwnNm>PARIS</TwnNm><Ctry>FR</Ctry></PstlAdr></Cdtr>").append(EOL);
+			sb.append("<CdtrAcct><Id><IBAN>FR1420041010050500013M02606</IBAN></Id></CdtrAcct>").append(EOL);
+			sb.append("<RmtInf><Ustrd>INVOICE ").append(i).append(" PAYMENT OF GOODS</Ustrd></RmtInf>").append(EOL);
+			sb.append("</CdtTrfTxInf>").append(EOL);
+		}
+		sb.append("</FIToFICstmrCdtTrf>").append(EOL);
+		sb.append("</Document>");
+		return message(seed("mx_sample_header.xml"), sb.toString());
+	}
+
+	/**
+	 * @param size approximate size in characters of the generated message
+	 * @return a bank to customer statement with as many entries as needed to reach the size
+	 */
+	public static String camt053(final int size) {
+		final String header = StringUtils.replace(seed("mx_sample_bah.xml"), "seev.031.002.03", "camt.053.001.02");
+		final StringBuilder sb = new StringBuilder(size + 2048);
+		sb.append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\">").append(EOL);
+		sb.append("<BkToCstmrStmt>").append(EOL);
+		sb.append("<GrpHdr><MsgId>STMT1</MsgId><CreDtTm>2018-04-17T23:00:00</CreDtTm></GrpHdr>").append(EOL);
+		sb.append("<Stmt>").append(EOL);
+		sb.append("<Id>STMT1</Id><CreDtTm>2018-04-17T23:00:00</CreDtTm>").append(EOL);
+		sb.append("<Acct><Id><IBAN>DE89370400440532013000</IBAN></Id><Ccy>EUR</Ccy></Acct>").append(EOL);
+		sb.append("<Bal><Tp><CdOrPrtry><Cd>OPBD</Cd></CdOrPrtry></Tp><Amt Ccy=\"EUR\">1000000.00</Amt><CdtDbtInd>CRDT</CdtDbtInd><Dt><Dt>2018-04-16</Dt></Dt></Bal>").append(EOL);
+		final int limit = size - header.length() - 256;
+		for (int i = 0; i == 0 || sb.length() < limit; i++) {
+			sb.append("<Ntry>").append(EOL);
+			sb.append("<NtryRef>").append(i).append("</NtryRef>");
+			sb.append("<Amt Ccy=\"EUR\">").append(100 + i).append(".").append(String.format("%02d", i % 100)).append("</Amt>");
+			sb.append("<CdtDbtInd>").append(i % 2 == 0 ? "CRDT" : "DBIT").append("</CdtDbtInd><Sts>BOOK</Sts>").append(EOL);
+			sb.append("<BookgDt><Dt>2018-04-17</Dt></BookgDt><ValDt><Dt>2018-04-17</Dt></ValDt><AcctSvcrRef>BANKREF").append(i).append("</AcctSvcrRef>").append(EOL);
+			sb.append("<BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>RCDT</Cd><SubFmlyCd>ESCT</SubFmlyCd></Fmly></Domn></BkTxCd>").append(EOL);
+			sb.append("<NtryDtls><TxDtls><Refs><EndToEndId>E2E").append(i).append("</EndToEndId></Refs>");
+			sb.append("<RltdPties><Dbtr><Nm>COUNTERPARTY ").append(i % 37).append("</Nm></Dbtr></RltdPties>");
+			sb.append("<RmtInf><Ustrd>PAYMENT ").append(i).append("</Ustrd></RmtInf></TxDtls></NtryDtls>").append(EOL);
+			sb.append("</Ntry>").append(EOL);
+		}
+		sb.append("<Bal><Tp><CdOrPrtry><Cd>CLBD</Cd></CdOrPrtry></Tp><Amt Ccy=\"EUR\">1000000.00</Amt><CdtDbtInd>CRDT</CdtDbtInd><Dt><Dt>2018-04-17</Dt></Dt></Bal>").append(EOL);
+		sb.append("</Stmt>").append(EOL);
+		sb.append("</BkToCstmrStmt>").append(EOL);
+		sb.append("</Document>");
+		return message(header, sb.toString());
+	}
+
+	/**
+	 * Reads a sample file from the test resources, without the XML declaration
+	 */
+	private static String seed(final String resource) {
+		final String xml;
+		try {
+			xml = Lib.readResource(resource);
+		} catch (final IOException e) {
+			throw new IllegalStateException("cannot read " + resource, e);
+		}
+		if (StringUtils.isBlank(xml)) {
+			throw new IllegalStateException(resource + " not found in classpath");
+		}
+		return xml.startsWith("<?xml") ? xml.substring(xml.indexOf("?>") + 2).trim() : xml.trim();
+	}
+
+	private static String message(final String header, final String document) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + EOL + "<" + ROOT + ">" + EOL + header + EOL + document + EOL + "</" + ROOT + ">";
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.model.MxId;
+import com.prowidesoftware.swift.model.MxNode;
+import com.prowidesoftware.swift.model.mx.BusinessHeader;
+
+/**
+ * Parsing, detection and splitting of MX messages, from a 2 KB credit transfer up to a 100 MB statement.
+ *
+ * <p>Results are reported as average time per operation, so the growth with the document size can be compared
+ * directly. The parser caches the split of the message, so a new instance is created on each invocation.
+ *
+ * @since 7.10.4
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MxParseBenchmark {
+
+	@Param({"PACS008_2KB", "CAMT053_100KB", "CAMT053_1MB", "CAMT053_10MB", "CAMT053_100MB"})
+	public String message;
+
+	private String xml;
+
+	private MxNode tree;
+
+	private String repetitivePath;
+
+	private String headerPath;
+
+	@Setup
+	public void setup() {
+		xml = MxCorpus.get(message);
+		tree = new MxParser(xml).parse();
+		repetitivePath = MxCorpus.repetitivePath(message);
+		headerPath = MxCorpus.headerPath(message);
+	}
+
+	@Benchmark
+	public MxNode parse() {
+		return new MxParser(xml).parse();
+	}
+
+	@Benchmark
+	public MxId detectMessage() {
+		return new MxParser(xml).detectMessage();
+	}
+
+	@Benchmark
+	public MxParser.MxStructureInfo analyzeMessage() {
+		return new MxParser(xml).analyzeMessage();
+	}
+
+	@Benchmark
+	public String stripDocument() {
+		return new MxParser(xml).stripDocument();
+	}
+
+	@Benchmark
+	public String stripHeader() {
+		return new MxParser(xml).stripHeader();
+	}
+
+	@Benchmark
+	public BusinessHeader parseBusinessHeader() {
+		return new MxParser(xml).parseBusinessHeader();
+	}
+
+	@Benchmark
+	public List<MxNode> find() {
+		return tree.find(repetitivePath);
+	}
+
+	@Benchmark
+	public String singlePathValue() {
+		return tree.singlePathValue(headerPath);
+	}
+}
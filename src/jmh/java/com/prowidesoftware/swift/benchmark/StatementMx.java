@@ -0,0 +1,163 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.prowidesoftware.swift.model.mx.AbstractMX;
+
+/**
+ * Minimal camt.053 model used to measure the MX JSON serialization.
+ *
+ * <p>The library does not include the MX message model classes, so this class mimics their structure with a
+ * statement and a configurable number of entries.
+ *
+ * @since 7.10.4
+ */
+public class StatementMx extends AbstractMX {
+
+	private String id;
+	private String iban;
+	private BigDecimal openingBalance;
+	private BigDecimal closingBalance;
+	private final List<Entry> entries = new ArrayList<>();
+
+	/**
+	 * @param entries number of statement entries
+	 */
+	public StatementMx(final int entries) {
+		this.id = "STMT1";
+		this.iban = "DE89370400440532013000";
+		this.openingBalance = new BigDecimal("1000000.00");
+		BigDecimal balance = this.openingBalance;
+		for (int i = 0; i < entries; i++) {
+			final Entry e = new Entry(i);
+			this.entries.add(e);
+			balance = e.credit ? balance.add(e.amount) : balance.subtract(e.amount);
+		}
+		this.closingBalance = balance;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Class[] getClasses() {
+		return new Class[] {StatementMx.class, Entry.class};
+	}
+
+	@Override
+	public String getNamespace() {
+		return "urn:iso:std:iso:20022:tech:xsd:camt.053.001.02";
+	}
+
+	@Override
+	public String getBusinessProcess() {
+		return "camt";
+	}
+
+	@Override
+	public int getFunctionality() {
+		return 53;
+	}
+
+	@Override
+	public int getVariant() {
+		return 1;
+	}
+
+	@Override
+	public int getVersion() {
+		return 2;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getIban() {
+		return iban;
+	}
+
+	public BigDecimal getOpeningBalance() {
+		return openingBalance;
+	}
+
+	public BigDecimal getClosingBalance() {
+		return closingBalance;
+	}
+
+	public List<Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Statement entry
+	 */
+	public static class Entry {
+		private final String reference;
+		private final BigDecimal amount;
+		private final String currency;
+		private final boolean credit;
+		private final String bookingDate;
+		private final String endToEndId;
+		private final String counterparty;
+		private final String remittanceInformation;
+
+		Entry(final int i) {
+			this.reference = "BANKREF" + i;
+			this.amount = new BigDecimal((100 + i) + "." + String.format("%02d", i % 100));
+			this.currency = "EUR";
+			this.credit = i % 2 == 0;
+			this.bookingDate = "2018-04-17";
+			this.endToEndId = "E2E" + i;
+			this.counterparty = "COUNTERPARTY " + (i % 37);
+			this.remittanceInformation = "PAYMENT " + i;
+		}
+
+		public String getReference() {
+			return reference;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public String getCurrency() {
+			return currency;
+		}
+
+		public boolean isCredit() {
+			return credit;
+		}
+
+		public String getBookingDate() {
+			return bookingDate;
+		}
+
+		public String getEndToEndId() {
+			return endToEndId;
+		}
+
+		public String getCounterparty() {
+			return counterparty;
+		}
+
+		public String getRemittanceInformation() {
+			return remittanceInformation;
+		}
+	}
+}
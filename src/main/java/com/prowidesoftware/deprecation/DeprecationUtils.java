@@ -17,13 +17,31 @@ package com.prowidesoftware.deprecation;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 
 /**
  * Helper API to implement the http://www.prowidesoftware.com/resources/deprecation-policy
+ *
+ * <p>The {@link #PW_DEPRECATED} environment variable is read once, and again only when changed with
+ * {@link #setEnv(EnvironmentVariableKey...)} or {@link #clearEnv()}.
+ *
+ * <p>Every call to a deprecated API is counted by call site (class and method), and the counters can be retrieved
+ * with {@link #getUsageReport()}. The deprecation warning of each call site is logged at most once per
+ * {@link #setLogInterval(long, TimeUnit) interval}, from a background thread. The phase 2 pause is opt-in, with the
+ * {@link EnvironmentVariableKey#DELAY} keyword, so by default calling a deprecated API does not block the caller.
  * 
  * @author sebastian
  * @since 7.8.9
@@ -35,7 +53,30 @@ public class DeprecationUtils {
 	 * Environment variable used to switch off deprecation phase implementation
 	 */
 	public static final String PW_DEPRECATED = "PW_DEPRECATED";
-	
+
+	/**
+	 * Default interval between warnings of the same call site, ten minutes
+	 * @since 7.10.4
+	 */
+	public static final long DEFAULT_LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private static final long PHASE2_DELAY_MILLIS = 4000;
+
+	private static volatile Set<EnvironmentVariableKey> flags = readEnv();
+	private static volatile long logIntervalMillis = DEFAULT_LOG_INTERVAL_MILLIS;
+
+	@SuppressWarnings("rawtypes")
+	private static final ConcurrentMap<Class, ConcurrentMap<String, CallSite>> usage = new ConcurrentHashMap<>();
+
+	private static final ExecutorService logger = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread t = new Thread(r, "prowide-deprecation-log");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
 	// Suppress default constructor for noninstantiability
 	private DeprecationUtils() {
 		throw new AssertionError();
@@ -43,17 +84,25 @@ public class DeprecationUtils {
 	
 	/**
 	 * According to the deprecation policy this method implements the phase 2 which 
-	 * involves logging a warning and making a small pause in the execution thread.
+	 * involves logging a warning and, if enabled with {@link EnvironmentVariableKey#DELAY},
+	 * making a small pause in the execution thread.
 	 * @param message the log message
 	 */
 	@SuppressWarnings("rawtypes")
 	public static void phase2(final Class clazz, final String method, final String message) {
-		if (!isSet(EnvironmentVariableKey.NOLOG)) {
-			log.warning(notice(clazz, method) + message);
+		final CallSite site = callSite(clazz, method);
+		site.count.incrementAndGet();
+		if (!isSet(EnvironmentVariableKey.NOLOG) && site.shouldLog()) {
+			logger.execute(new Runnable() {
+				@Override
+				public void run() {
+					log.logp(Level.WARNING, clazz.getName(), method, notice(clazz, method) + message);
+				}
+			});
 		}
-		if (!isSet(EnvironmentVariableKey.NODELAY)) {
+		if (isSet(EnvironmentVariableKey.DELAY) && !isSet(EnvironmentVariableKey.NODELAY)) {
 			try {
-				Thread.sleep(4000);
+				Thread.sleep(PHASE2_DELAY_MILLIS);
 			} catch (InterruptedException e) {
 				Thread.currentThread().interrupt();
 				log.log(Level.WARNING, notice(clazz, method) + message, e);
@@ -80,6 +129,7 @@ public class DeprecationUtils {
 	@SuppressWarnings("rawtypes")
 	public static void phase3(final Class clazz, final String method, final String message) {
 		if (!isSet(EnvironmentVariableKey.NOEXCEPTION)) {
+			callSite(clazz, method).count.incrementAndGet();
 			throw new UnsupportedOperationException(notice(clazz, method) + message);
 		} else {
 			/*
@@ -88,13 +138,110 @@ public class DeprecationUtils {
 			phase2(clazz, method, message);
 		}
 	}
-	
+
+	/**
+	 * Gets the number of calls to deprecated APIs since the application started or the last
+	 * {@link #resetUsageReport()}, by call site.
+	 * @return a map sorted by call site, with keys in the form fully.qualified.ClassName#method and the number of calls as values
+	 * @since 7.10.4
+	 */
+	@SuppressWarnings("rawtypes")
+	public static Map<String, Long> getUsageReport() {
+		final Map<String, Long> result = new TreeMap<>();
+		for (final Map.Entry<Class, ConcurrentMap<String, CallSite>> c : usage.entrySet()) {
+			for (final Map.Entry<String, CallSite> m : c.getValue().entrySet()) {
+				final String key = c.getKey().getName() + (m.getKey().isEmpty() ? "" : "#" + m.getKey());
+				final Long previous = result.get(key);
+				result.put(key, m.getValue().count.get() + (previous != null ? previous : 0));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Clears the usage counters and the last warning time of all call sites.
+	 * @since 7.10.4
+	 */
+	public static void resetUsageReport() {
+		usage.clear();
+	}
+
+	/**
+	 * Sets the minimum time between two warnings of the same call site.
+	 * @param interval the interval, zero to log every call
+	 * @param unit the interval unit
+	 * @since 7.10.4
+	 */
+	public static void setLogInterval(final long interval, final TimeUnit unit) {
+		Validate.isTrue(interval >= 0, "the interval cannot be negative");
+		Validate.notNull(unit, "the interval unit cannot be null");
+		logIntervalMillis = unit.toMillis(interval);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static CallSite callSite(final Class clazz, final String method) {
+		ConcurrentMap<String, CallSite> methods = usage.get(clazz);
+		if (methods == null) {
+			final ConcurrentMap<String, CallSite> created = new ConcurrentHashMap<>();
+			methods = usage.putIfAbsent(clazz, created);
+			if (methods == null) {
+				methods = created;
+			}
+		}
+		final String key = method != null ? method : "";
+		CallSite site = methods.get(key);
+		if (site == null) {
+			final CallSite created = new CallSite();
+			site = methods.putIfAbsent(key, created);
+			if (site == null) {
+				site = created;
+			}
+		}
+		return site;
+	}
+
 	/**
 	 * Returns true if the environment variable {@link #PW_DEPRECATED} contains
 	 * the given key in its value
 	 */
 	private static final boolean isSet(final EnvironmentVariableKey key) {
-		return StringUtils.containsIgnoreCase(System.getenv(PW_DEPRECATED), key.name());
+		return flags.contains(key);
+	}
+
+	private static Set<EnvironmentVariableKey> readEnv() {
+		return parseEnv(System.getenv(PW_DEPRECATED));
+	}
+
+	/*
+	 * parses the keywords of the environment variable, separated by any non letter character;
+	 * keywords are matched whole because DELAY is contained in NODELAY
+	 */
+	static Set<EnvironmentVariableKey> parseEnv(final String value) {
+		final Set<EnvironmentVariableKey> result = EnumSet.noneOf(EnvironmentVariableKey.class);
+		if (value != null) {
+			for (final String token : value.split("[^A-Za-z]+")) {
+				for (final EnvironmentVariableKey key : EnvironmentVariableKey.values()) {
+					if (key.name().equalsIgnoreCase(token)) {
+						result.add(key);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * usage counter and last warning time of a call site
+	 */
+	private static final class CallSite {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong lastLogged = new AtomicLong(Long.MIN_VALUE);
+
+		boolean shouldLog() {
+			final long now = System.currentTimeMillis();
+			final long last = lastLogged.get();
+			return (last == Long.MIN_VALUE || now - last >= logIntervalMillis) && lastLogged.compareAndSet(last, now);
+		}
 	}
 	
 	/**
@@ -103,7 +250,12 @@ public class DeprecationUtils {
 	public enum EnvironmentVariableKey {
 		NOLOG,
 		NODELAY,
-		NOEXCEPTION
+		NOEXCEPTION,
+		/**
+		 * Enables the phase 2 pause in the execution thread
+		 * @since 7.10.4
+		 */
+		DELAY
 	}
 	
 	/**
@@ -124,6 +276,7 @@ public class DeprecationUtils {
 				value.append(key.name().toLowerCase());
 			}
 			setEnv(PW_DEPRECATED, value.toString());
+			flags = readEnv();
 		}
 	}
 	
@@ -133,6 +286,7 @@ public class DeprecationUtils {
 	 */
 	public static void clearEnv() {
 		setEnv(PW_DEPRECATED, "");
+		flags = readEnv();
 	}
 	
 	/**
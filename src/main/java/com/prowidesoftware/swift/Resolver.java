@@ -15,15 +15,35 @@
  */
 package com.prowidesoftware.swift;
 
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import com.prowidesoftware.swift.model.mx.MxRead;
 import com.prowidesoftware.swift.model.mx.MxWrite;
 
 /**
  * Helper class to find implementation of interfaces
  *
+ * <p>The implementations are resolved once and cached; the returned instances are shared and must be thread safe.
+ * The implementation used is, in order of precedence:
+ * <ol>
+ * 	<li>The one registered with {@link #register(MxRead)} or {@link #register(MxWrite)}</li>
+ * 	<li>The first one declared as a provider of the interface, for the {@link ServiceLoader}, in a
+ * 	META-INF/services resource of the classpath</li>
+ * 	<li>The Prowide Integrator implementation if available in the classpath</li>
+ * 	<li>The default Prowide Core implementation</li>
+ * </ol>
+ *
  * @since 7.6
  */
 public class Resolver {
+	private static final Logger log = Logger.getLogger(Resolver.class.getName());
+
+	private static volatile MxRead mxRead;
+	private static volatile MxWrite mxWrite;
 
 	private Resolver() {}
 	
@@ -32,11 +52,20 @@ public class Resolver {
 	 * @return a specific implementation of the MxWrite interface
 	 */
 	public static MxWrite mxWrite() {
-		try {
-			return (MxWrite) Class.forName("com.prowidesoftware.swift.model.mx.MxWriteIntegartorV1").newInstance();
-		} catch (Exception ignored) {
-			return new MxWriteCoreV1();
+		MxWrite result = mxWrite;
+		if (result == null) {
+			synchronized (Resolver.class) {
+				result = mxWrite;
+				if (result == null) {
+					result = discover(MxWrite.class, "com.prowidesoftware.swift.model.mx.MxWriteIntegartorV1");
+					if (result == null) {
+						result = new MxWriteCoreV1();
+					}
+					mxWrite = result;
+				}
+			}
 		}
+		return result;
 	}
 
 	/**
@@ -44,10 +73,56 @@ public class Resolver {
 	 * @return a specific implementation of the MxRead interface
 	 */
 	public static MxRead mxRead() {
+		MxRead result = mxRead;
+		if (result == null) {
+			synchronized (Resolver.class) {
+				result = mxRead;
+				if (result == null) {
+					result = discover(MxRead.class, "com.prowidesoftware.swift.model.mx.MxReadIntegratorV1");
+					if (result == null) {
+						result = new MxReadCoreV1();
+					}
+					mxRead = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the implementation of the MxRead interface to return by {@link #mxRead()}.
+	 * @param implementation the implementation to use, or null to resolve it again on the next call
+	 * @since 7.10.4
+	 */
+	public static void register(final MxRead implementation) {
+		mxRead = implementation;
+	}
+
+	/**
+	 * Sets the implementation of the MxWrite interface to return by {@link #mxWrite()}.
+	 * @param implementation the implementation to use, or null to resolve it again on the next call
+	 * @since 7.10.4
+	 */
+	public static void register(final MxWrite implementation) {
+		mxWrite = implementation;
+	}
+
+	/*
+	 * looks for a service provider of the interface or else for the Integrator implementation
+	 */
+	private static <T> T discover(final Class<T> type, final String integratorClassName) {
+		try {
+			final Iterator<T> providers = ServiceLoader.load(type).iterator();
+			if (providers.hasNext()) {
+				return providers.next();
+			}
+		} catch (final ServiceConfigurationError e) {
+			log.log(Level.WARNING, "error loading the " + type.getSimpleName() + " service provider", e);
+		}
 		try {
-			return (MxRead) Class.forName("com.prowidesoftware.swift.model.mx.MxReadIntegratorV1").newInstance();
-		} catch (Exception ignored) {
-			return new MxReadCoreV1();
+			return type.cast(Class.forName(integratorClassName).newInstance());
+		} catch (final Exception ignored) {
+			return null;
 		}
 	}
 }
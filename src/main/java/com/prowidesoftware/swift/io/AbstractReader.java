@@ -31,6 +31,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
 import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.SwiftMessage;
 import com.prowidesoftware.swift.model.mt.AbstractMT;
 
@@ -134,7 +137,12 @@ public abstract class AbstractReader implements Iterator<String>, Iterable<Strin
 	 * @since 7.8.3
 	 */
 	public SwiftMessage nextSwiftMessage() throws IOException {
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		final String msg = next();
+		if (metrics != null && msg != null) {
+			Metrics.completed(metrics, Operation.READ, null, msg.length(), 0, start, 0);
+		}
 		if (StringUtils.isNotBlank(msg)) {
 			SwiftParser parser = new SwiftParser(new ByteArrayInputStream(msg.getBytes()));
 			return parser.message();
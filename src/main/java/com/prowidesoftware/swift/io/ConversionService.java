@@ -19,8 +19,10 @@ import com.prowidesoftware.ProwideException;
 import com.prowidesoftware.swift.io.parser.SwiftParser;
 import com.prowidesoftware.swift.io.parser.XMLParser;
 import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
-import com.prowidesoftware.swift.io.writer.SwiftWriter;
 import com.prowidesoftware.swift.io.writer.XMLWriterVisitor;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.SwiftMessage;
 import org.apache.commons.lang3.Validate;
 
@@ -47,33 +49,60 @@ public class ConversionService implements IConversionService {
 	 */
 	public String getFIN(final SwiftMessage msg) {
 		Validate.notNull(msg);
-		final StringWriter writer = new StringWriter();
-		SwiftWriter.writeMessage(msg, writer);
-		final String fin = writer.getBuffer().toString();
-		return ensureEols(fin);
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final StringBuilder fin = new StringBuilder(1024);
+		msg.visit(new FINWriterVisitor(fin));
+		final String result = ensureEols(fin);
+		if (metrics != null) {
+			Metrics.completed(metrics, Operation.CONVERSION, Metrics.id(msg), result.length(), tags(msg), start, 0);
+		}
+		return result;
 	}
 
 	/**
-	 * Make sure all EOLs are swift compatible
-	 * @return an empty or incomplete string if an error occurs
+	 * Make sure all EOLs are swift compatible, replacing any line terminator with CRLF
+	 * and removing the trailing line terminator if any
 	 */
-	private static String ensureEols(final String result) {
-		final StringBuilder buf = new StringBuilder();
-		try {
-			final BufferedReader r = new BufferedReader(new StringReader(result));
-			String l;
-			while ((l=r.readLine()) != null) {
-				buf.append(l).append(FINWriterVisitor.SWIFT_EOL);
+	private static String ensureEols(final StringBuilder result) {
+		if (!requiresEolCorrection(result)) {
+			return result.toString();
+		}
+		final StringBuilder buf = new StringBuilder(result.length() + 16);
+		for (int i = 0; i < result.length(); i++) {
+			final char c = result.charAt(i);
+			if (c == '\r' || c == '\n') {
+				if (c == '\r' && i + 1 < result.length() && result.charAt(i + 1) == '\n') {
+					i++;
+				}
+				if (i + 1 < result.length()) {
+					buf.append(FINWriterVisitor.SWIFT_EOL);
+				}
+			} else {
+				buf.append(c);
 			}
-		} catch (final Exception e) {
-			log.severe("Error in EOL correction: "+e);
 		}
-		if (buf.length() > 0) {
-			//remove the last EOL inserted
-			return buf.substring(0, buf.length()-FINWriterVisitor.SWIFT_EOL.length());
-		} else {
-			return "";
+		return buf.toString();
+	}
+
+	private static boolean requiresEolCorrection(final CharSequence text) {
+		final int length = text.length();
+		if (length > 0 && (text.charAt(length - 1) == '\n' || text.charAt(length - 1) == '\r')) {
+			return true;
+		}
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == '\n') {
+				return true;
+			} else if (c == '\r') {
+				if (i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				} else {
+					return true;
+				}
+			}
 		}
+		return false;
 	}
 
 	/**
@@ -106,9 +135,19 @@ public class ConversionService implements IConversionService {
 	 */
 	public String getXml(final SwiftMessage msg, final boolean useField) {
 		Validate.notNull(msg);
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		final StringWriter w = new StringWriter();
 		msg.visit(new XMLWriterVisitor(w, useField));
-		return w.getBuffer().toString();
+		final String result = w.getBuffer().toString();
+		if (metrics != null) {
+			Metrics.completed(metrics, Operation.CONVERSION, Metrics.id(msg), result.length(), tags(msg), start, 0);
+		}
+		return result;
+	}
+
+	private static int tags(final SwiftMessage msg) {
+		return msg.getBlock4() != null ? msg.getBlock4().size() : 0;
 	}
 
 	/**
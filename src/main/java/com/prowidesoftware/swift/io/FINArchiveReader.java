@@ -0,0 +1,376 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Reader for the compressed archive files created with {@link FINArchiveWriter}.
+ *
+ * <p>The reader supports two access modes:
+ * <ul>
+ * 	<li>Sequential iteration, from a file or any stream, decompressing the segments as a stream one message at a
+ * 	time, so memory usage does not depend on the segment size.</li>
+ * 	<li>Random access to any message by its position with {@link #get(long)}, only available for readers created from
+ * 	a file. The segment is located with the index at the end of the file and only that segment is decompressed. The
+ * 	last decompressed segment is kept, so consecutive reads within a segment are not decompressed again.</li>
+ * </ul>
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @since 7.10.4
+ */
+public class FINArchiveReader implements Iterator<String>, Iterable<String>, Closeable {
+
+	private final DataInputStream in;
+	private final RandomAccessFile file;
+	private int remaining = 0;
+	private DataInputStream segment;
+	private boolean end = false;
+
+	private long[] offsets;
+	private long[] firsts;
+	private long total = -1;
+	private int cachedSegment = -1;
+	private String[] cached;
+
+	/**
+	 * Constructs a reader to iterate the messages of a stream
+	 * @param stream the archive content, closed when the reader is closed
+	 * @throws IOException if the stream is not an archive or an I/O error occurs
+	 */
+	public FINArchiveReader(final InputStream stream) throws IOException {
+		Validate.notNull(stream, "stream must not be null");
+		this.in = new DataInputStream(new BufferedInputStream(stream));
+		this.file = null;
+		readHeader(in);
+	}
+
+	/**
+	 * Constructs a reader to iterate or read at random the messages of a file
+	 * @param file the archive file
+	 * @throws IOException if the file is not an archive or an I/O error occurs
+	 */
+	public FINArchiveReader(final File file) throws IOException {
+		Validate.notNull(file, "file must not be null");
+		Validate.isTrue(file.exists(), "Non existent file: " + file.getAbsolutePath());
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		this.file = new RandomAccessFile(file, "r");
+		readHeader(in);
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return this;
+	}
+
+	/**
+	 * Returns true if the iterator has more messages
+	 * @throws ProwideException if the archive content cannot be read
+	 */
+	@Override
+	public boolean hasNext() {
+		try {
+			while (remaining == 0 && !end) {
+				final int type = in.read();
+				if (type == FINArchiveWriter.SEGMENT) {
+					remaining = in.readInt();
+					final byte[] dictionary = new byte[in.readInt()];
+					in.readFully(dictionary);
+					final int compressedLength = in.readInt();
+					segment = new DataInputStream(new BufferedInputStream(new SegmentStream(in, compressedLength, dictionary)));
+				} else {
+					// the index or the end of a truncated file
+					end = true;
+				}
+			}
+			return remaining > 0;
+		} catch (final IOException e) {
+			throw new ProwideException("error reading archive", e);
+		}
+	}
+
+	/**
+	 * Returns the next message in the iterator in FIN format
+	 * @throws NoSuchElementException if there are no more messages
+	 * @throws ProwideException if the archive content cannot be read
+	 */
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		try {
+			final byte[] bytes = new byte[segment.readInt()];
+			segment.readFully(bytes);
+			if (--remaining == 0) {
+				segment.close();
+				segment = null;
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		} catch (final IOException e) {
+			throw new ProwideException("error reading archive", e);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove not avaiable in this implementation");
+	}
+
+	/**
+	 * Reads the next message and returns it parsed as a generic SwiftMessage.
+	 * @return parsed message
+	 * @throws IOException if the message content cannot be parsed into a SwiftMessage
+	 * @throws NoSuchElementException if there are no more messages
+	 */
+	public SwiftMessage nextSwiftMessage() throws IOException {
+		return new SwiftParser(next()).message();
+	}
+
+	/**
+	 * Gets the total number of messages in the archive, as recorded in its index.
+	 * @return the number of messages
+	 * @throws IllegalStateException if the reader was not created from a file
+	 * @throws IOException if the index cannot be read
+	 */
+	public long size() throws IOException {
+		readIndex();
+		return total;
+	}
+
+	/**
+	 * Reads a message by its position, decompressing only its segment.
+	 *
+	 * @param number the message position, starting at zero
+	 * @return the message in FIN format
+	 * @throws IllegalStateException if the reader was not created from a file
+	 * @throws IndexOutOfBoundsException if the position is not within the archive
+	 * @throws IOException if an I/O error occurs
+	 */
+	public String get(final long number) throws IOException {
+		readIndex();
+		if (number < 0 || number >= total) {
+			throw new IndexOutOfBoundsException("message " + number + " not found, the archive has " + total + " messages");
+		}
+		int s = Arrays.binarySearch(firsts, number);
+		if (s < 0) {
+			s = -s - 2;
+		}
+		if (s != cachedSegment) {
+			cached = readSegment(offsets[s]);
+			cachedSegment = s;
+		}
+		return cached[(int) (number - firsts[s])];
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			in.close();
+		} finally {
+			if (file != null) {
+				file.close();
+			}
+		}
+	}
+
+	private static void readHeader(final DataInputStream in) throws IOException {
+		final byte[] magic = new byte[FINArchiveWriter.MAGIC.length];
+		in.readFully(magic);
+		if (!Arrays.equals(magic, FINArchiveWriter.MAGIC)) {
+			throw new IOException("not a FIN archive");
+		}
+		final int version = in.readUnsignedByte();
+		if (version != FINArchiveWriter.VERSION) {
+			throw new IOException("unsupported archive version " + version);
+		}
+		// segment size, informative
+		in.readInt();
+	}
+
+	private void readIndex() throws IOException {
+		if (file == null) {
+			throw new IllegalStateException("random access is only available for readers created from a file");
+		}
+		if (offsets != null) {
+			return;
+		}
+		final long length = file.length();
+		file.seek(length - 8 - FINArchiveWriter.TRAILER_MAGIC.length);
+		final long indexOffset = file.readLong();
+		final byte[] magic = new byte[FINArchiveWriter.TRAILER_MAGIC.length];
+		file.readFully(magic);
+		if (!Arrays.equals(magic, FINArchiveWriter.TRAILER_MAGIC)) {
+			throw new IOException("archive index not found, the archive may be truncated or not properly closed");
+		}
+		file.seek(indexOffset);
+		if (file.readUnsignedByte() != FINArchiveWriter.INDEX) {
+			throw new IOException("invalid archive index");
+		}
+		final int segments = file.readInt();
+		offsets = new long[segments];
+		firsts = new long[segments];
+		long count = 0;
+		for (int i = 0; i < segments; i++) {
+			offsets[i] = file.readLong();
+			firsts[i] = count;
+			count += file.readInt();
+		}
+		total = count;
+	}
+
+	private String[] readSegment(final long offset) throws IOException {
+		file.seek(offset);
+		if (file.readUnsignedByte() != FINArchiveWriter.SEGMENT) {
+			throw new IOException("invalid segment at " + offset);
+		}
+		final int count = file.readInt();
+		final byte[] dictionary = new byte[file.readInt()];
+		file.readFully(dictionary);
+		final byte[] compressed = new byte[file.readInt()];
+		file.readFully(compressed);
+
+		final Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			final DataInputStream content = new DataInputStream(new BufferedInputStream(new InflaterStream(inflater, dictionary)));
+			final String[] result = new String[count];
+			for (int i = 0; i < count; i++) {
+				final byte[] bytes = new byte[content.readInt()];
+				content.readFully(bytes);
+				result[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			return result;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/*
+	 * inflates the input set in the inflater, providing the preset dictionary when requested
+	 */
+	private static class InflaterStream extends InputStream {
+		protected final Inflater inflater;
+		private final byte[] dictionary;
+
+		InflaterStream(final Inflater inflater, final byte[] dictionary) {
+			this.inflater = inflater;
+			this.dictionary = dictionary;
+		}
+
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			try {
+				while (true) {
+					final int n = inflater.inflate(b, off, len);
+					if (n > 0) {
+						return n;
+					}
+					if (inflater.needsDictionary()) {
+						inflater.setDictionary(dictionary);
+					} else if (inflater.finished()) {
+						return -1;
+					} else if (inflater.needsInput() && !fill()) {
+						throw new EOFException("unexpected end of compressed segment");
+					}
+				}
+			} catch (final DataFormatException e) {
+				throw new IOException("invalid compressed segment", e);
+			}
+		}
+
+		/**
+		 * @return true if more input was set
+		 */
+		protected boolean fill() throws IOException {
+			return false;
+		}
+	}
+
+	/*
+	 * inflates a segment reading its compressed content from the archive stream in chunks
+	 */
+	private static final class SegmentStream extends InflaterStream {
+		private final InputStream source;
+		private final byte[] chunk = new byte[8 * 1024];
+		private int remaining;
+
+		SegmentStream(final InputStream source, final int length, final byte[] dictionary) {
+			super(new Inflater(), dictionary);
+			this.source = source;
+			this.remaining = length;
+		}
+
+		@Override
+		protected boolean fill() throws IOException {
+			if (remaining == 0) {
+				return false;
+			}
+			final int n = source.read(chunk, 0, Math.min(chunk.length, remaining));
+			if (n < 0) {
+				return false;
+			}
+			remaining -= n;
+			inflater.setInput(chunk, 0, n);
+			return true;
+		}
+
+		/*
+		 * skips any unread compressed content, leaving the archive stream at the next segment
+		 */
+		@Override
+		public void close() throws IOException {
+			while (remaining > 0) {
+				final long n = source.skip(remaining);
+				if (n <= 0) {
+					break;
+				}
+				remaining -= n;
+			}
+			inflater.end();
+		}
+	}
+}
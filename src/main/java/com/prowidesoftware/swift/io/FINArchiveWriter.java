@@ -0,0 +1,343 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.mt.AbstractMT;
+
+/**
+ * Helper API to write MT messages into compressed archive files, to be read with {@link FINArchiveReader}.
+ *
+ * <p>Messages are stored in FIN format, grouped in segments of a fixed number of messages. Each segment is compressed
+ * independently with a preset dictionary built from the values that repeat across its messages: the header blocks
+ * (with the BICs and message types), the tag names and the currency codes. Thus reading a message only requires
+ * decompressing its segment. An index with the position of each segment is written at the end of the file when the
+ * writer is closed.
+ *
+ * <p>File layout, with numbers in big-endian order:
+ * <pre>
+ * header:  "PWFA" version(1) segmentSize(4)
+ * segment: 'S' count(4) dictionaryLength(4) dictionary compressedLength(4) compressed
+ * index:   'I' segments(4) { offset(8) count(4) }*
+ * trailer: indexOffset(8) "PWFX"
+ * </pre>
+ * The compressed content of a segment is the length (4 bytes) and UTF-8 content of each message.
+ *
+ * <p>Messages are buffered in memory until their segment is complete, so the writer must be closed to write the
+ * last segment and the index.
+ *
+ * @since 7.10.4
+ */
+public class FINArchiveWriter implements Closeable {
+
+	/**
+	 * Default number of messages per segment
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 1000;
+
+	static final byte[] MAGIC = {'P', 'W', 'F', 'A'};
+	static final byte[] TRAILER_MAGIC = {'P', 'W', 'F', 'X'};
+	static final int VERSION = 1;
+	static final int SEGMENT = 'S';
+	static final int INDEX = 'I';
+	static final int MAX_DICTIONARY = 16 * 1024;
+
+	private static final String MESSAGE_TO_WRITE_CONDITION = "message to write cannot be null";
+
+	private final DataOutputStream out;
+	private final int segmentSize;
+	private final List<byte[]> pending = new ArrayList<>();
+	private final List<long[]> index = new ArrayList<>();
+	private long position = 0;
+	private long count = 0;
+	private boolean closed = false;
+
+	/**
+	 * Constructs a writer with the default segment size, to write into a given stream.
+	 * @param stream the target stream, closed when the writer is closed
+	 * @throws IOException if an I/O error occurs writing the file header
+	 */
+	public FINArchiveWriter(final OutputStream stream) throws IOException {
+		this(stream, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Constructs a writer to write into a given stream.
+	 * @param stream the target stream, closed when the writer is closed
+	 * @param segmentSize number of messages per segment
+	 * @throws IOException if an I/O error occurs writing the file header
+	 */
+	public FINArchiveWriter(final OutputStream stream, final int segmentSize) throws IOException {
+		Validate.notNull(stream, "stream cannot be null");
+		Validate.isTrue(segmentSize > 0, "segment size must be positive");
+		this.out = new DataOutputStream(new BufferedOutputStream(stream));
+		this.segmentSize = segmentSize;
+		this.out.write(MAGIC);
+		this.out.writeByte(VERSION);
+		this.out.writeInt(segmentSize);
+		this.position = MAGIC.length + 1 + 4;
+	}
+
+	/**
+	 * Constructs a writer with the default segment size, to write into a file.
+	 * @param file the file to create
+	 * @throws FileNotFoundException if the file cannot be created
+	 * @throws IOException if an I/O error occurs writing the file header
+	 */
+	public FINArchiveWriter(final File file) throws IOException {
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * Writes a message in FIN format.
+	 * @param msg SWIFT MT content to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(final String msg) throws IOException {
+		Validate.notNull(msg, MESSAGE_TO_WRITE_CONDITION);
+		Validate.isTrue(!closed, "the writer is closed");
+		pending.add(msg.getBytes(StandardCharsets.UTF_8));
+		count++;
+		if (pending.size() == segmentSize) {
+			writeSegment();
+		}
+	}
+
+	/**
+	 * Writes the message
+	 * @param msg message to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(final AbstractMT msg) throws IOException {
+		Validate.notNull(msg, MESSAGE_TO_WRITE_CONDITION);
+		write(msg.message());
+	}
+
+	/**
+	 * Writes the message
+	 * @param msg message to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void write(final SwiftMessage msg) throws IOException {
+		Validate.notNull(msg, MESSAGE_TO_WRITE_CONDITION);
+		write(new ConversionService().getFIN(msg));
+	}
+
+	/**
+	 * @return the number of messages written
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Writes the pending segment and the index, and closes the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (!pending.isEmpty()) {
+			writeSegment();
+		}
+		final long indexOffset = position;
+		out.writeByte(INDEX);
+		out.writeInt(index.size());
+		for (final long[] entry : index) {
+			out.writeLong(entry[0]);
+			out.writeInt((int) entry[1]);
+		}
+		out.writeLong(indexOffset);
+		out.write(TRAILER_MAGIC);
+		out.close();
+	}
+
+	private void writeSegment() throws IOException {
+		final byte[] dictionary = dictionary(pending);
+		final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try {
+			if (dictionary.length > 0) {
+				deflater.setDictionary(dictionary);
+			}
+			final byte[] chunk = new byte[8 * 1024];
+			final byte[] length = new byte[4];
+			for (final byte[] msg : pending) {
+				length[0] = (byte) (msg.length >>> 24);
+				length[1] = (byte) (msg.length >>> 16);
+				length[2] = (byte) (msg.length >>> 8);
+				length[3] = (byte) msg.length;
+				deflate(deflater, length, chunk, compressed);
+				deflate(deflater, msg, chunk, compressed);
+			}
+			deflater.finish();
+			while (!deflater.finished()) {
+				compressed.write(chunk, 0, deflater.deflate(chunk));
+			}
+		} finally {
+			deflater.end();
+		}
+
+		index.add(new long[] {position, pending.size()});
+		out.writeByte(SEGMENT);
+		out.writeInt(pending.size());
+		out.writeInt(dictionary.length);
+		out.write(dictionary);
+		out.writeInt(compressed.size());
+		compressed.writeTo(out);
+		position += 1 + 4 + 4 + dictionary.length + 4 + compressed.size();
+		pending.clear();
+	}
+
+	private static void deflate(final Deflater deflater, final byte[] input, final byte[] chunk, final ByteArrayOutputStream target) {
+		deflater.setInput(input);
+		while (!deflater.needsInput()) {
+			target.write(chunk, 0, deflater.deflate(chunk));
+		}
+	}
+
+	/*
+	 * Builds the segment dictionary with the header blocks, tag names and currency codes that appear more than once,
+	 * the most frequent at the end since deflate encodes closer matches with fewer bits
+	 */
+	static byte[] dictionary(final List<byte[]> messages) {
+		final Map<String, Integer> tokens = new HashMap<>();
+		for (final byte[] msg : messages) {
+			final int body = indexOf(msg, '{', '4', ':');
+			headers(tokens, msg, body < 0 ? msg.length : body);
+			for (int i = Math.max(body, 0); i < msg.length; i++) {
+				final byte b = msg[i];
+				if (b == ':' && i > 0 && msg[i - 1] == '\n') {
+					// tag name, including its separators
+					int end = i + 1;
+					while (end < msg.length && end - i <= 5 && msg[end] != ':') {
+						end++;
+					}
+					if (end < msg.length && msg[end] == ':') {
+						count(tokens, msg, i - 1, end + 1);
+						i = end;
+					}
+				} else if (isUpper(b) && i >= 6 && i + 3 < msg.length && isCurrency(msg, i)) {
+					// currency code following a date and followed by an amount
+					count(tokens, msg, i, i + 3);
+					i += 2;
+				}
+			}
+		}
+		final List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+		for (final Map.Entry<String, Integer> e : tokens.entrySet()) {
+			if (e.getValue() > 1) {
+				repeated.add(e);
+			}
+		}
+		Collections.sort(repeated, new Comparator<Map.Entry<String, Integer>>() {
+			@Override
+			public int compare(final Map.Entry<String, Integer> a, final Map.Entry<String, Integer> b) {
+				final int weight = Long.compare((long) a.getValue() * a.getKey().length(), (long) b.getValue() * b.getKey().length());
+				return weight != 0 ? weight : a.getKey().compareTo(b.getKey());
+			}
+		});
+		final StringBuilder result = new StringBuilder();
+		for (int i = repeated.size() - 1; i >= 0 && result.length() < MAX_DICTIONARY; i--) {
+			final String token = repeated.get(i).getKey();
+			if (result.length() + token.length() <= MAX_DICTIONARY) {
+				result.insert(0, token);
+			}
+		}
+		return result.toString().getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+	/*
+	 * the stable parts of the header blocks: block 1 up to the logical terminal, the input block 2, or the message
+	 * type and sender logical terminal of the output block 2
+	 */
+	private static void headers(final Map<String, Integer> tokens, final byte[] msg, final int end) {
+		final int b1 = indexOf(msg, '{', '1', ':');
+		if (b1 >= 0 && b1 + 18 <= end) {
+			count(tokens, msg, b1, b1 + 18);
+		}
+		final int b2 = indexOf(msg, '{', '2', ':');
+		if (b2 >= 0 && b2 + 4 < end) {
+			if (msg[b2 + 3] == 'I') {
+				int close = b2;
+				while (close < end && msg[close] != '}') {
+					close++;
+				}
+				count(tokens, msg, b2, Math.min(close + 1, end));
+			} else if (b2 + 29 <= end) {
+				count(tokens, msg, b2, b2 + 7);
+				count(tokens, msg, b2 + 17, b2 + 29);
+			}
+		}
+	}
+
+	private static boolean isCurrency(final byte[] msg, final int i) {
+		for (int j = i - 6; j < i; j++) {
+			if (!isDigit(msg[j])) {
+				return false;
+			}
+		}
+		return isUpper(msg[i + 1]) && isUpper(msg[i + 2]) && isDigit(msg[i + 3]);
+	}
+
+	private static boolean isUpper(final byte b) {
+		return b >= 'A' && b <= 'Z';
+	}
+
+	private static boolean isDigit(final byte b) {
+		return b >= '0' && b <= '9';
+	}
+
+	private static void count(final Map<String, Integer> tokens, final byte[] msg, final int start, final int end) {
+		if (end <= start) {
+			return;
+		}
+		final String token = new String(msg, start, end - start, StandardCharsets.ISO_8859_1);
+		final Integer current = tokens.get(token);
+		tokens.put(token, current == null ? 1 : current + 1);
+	}
+
+	private static int indexOf(final byte[] msg, final char a, final char b, final char c) {
+		for (int i = 0; i + 2 < msg.length; i++) {
+			if (msg[i] == a && msg[i + 1] == b && msg[i + 2] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
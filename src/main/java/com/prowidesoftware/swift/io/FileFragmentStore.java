@@ -0,0 +1,90 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Fragment store keeping each fragment in a file, in FIN format encoded in UTF-8.
+ * <p>The files are named after the group id and fragment number, and are deleted when the fragment is removed.
+ *
+ * @since 7.10.4
+ */
+public class FileFragmentStore implements FragmentStore {
+	private static final Logger log = Logger.getLogger(FileFragmentStore.class.getName());
+
+	private final File directory;
+
+	/**
+	 * @param directory an existing directory where to write the fragment files
+	 */
+	public FileFragmentStore(final File directory) {
+		Validate.notNull(directory, "directory cannot be null");
+		Validate.isTrue(directory.isDirectory(), "not a directory: " + directory);
+		this.directory = directory;
+	}
+
+	@Override
+	public void put(final String group, final int number, final SwiftMessage fragment) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file(group, number)))) {
+			SwiftWriter.writeMessage(fragment, out);
+		}
+	}
+
+	@Override
+	public SwiftMessage remove(final String group, final int number) throws IOException {
+		final File file = file(group, number);
+		if (!file.exists()) {
+			throw new FileNotFoundException("fragment " + number + " of group " + group + " not found in " + directory);
+		}
+		final SwiftMessage fragment;
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			fragment = new SwiftParser(reader).message();
+		}
+		if (!file.delete()) {
+			log.log(Level.WARNING, "could not delete fragment file " + file);
+		}
+		return fragment;
+	}
+
+	/**
+	 * @return the directory where the fragments are stored
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	private File file(final String group, final int number) {
+		return new File(directory, group + "-" + number + ".fin");
+	}
+}
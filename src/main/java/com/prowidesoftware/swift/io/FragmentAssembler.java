@@ -0,0 +1,358 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftBlockUser;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessageUtils;
+import com.prowidesoftware.swift.model.Tag;
+
+/**
+ * Reassembles fragmented MT messages received interleaved and in any order.
+ *
+ * <p>Fragments are identified by the tags 202 (fragment number) and 203 (number of fragments) in the text block, as
+ * checked by {@link SwiftMessage#isFragment()}, and grouped by sender and reference. The reference is the value
+ * returned by {@link SwiftMessageUtils#reference(SwiftMessage)} or the message user reference (field 108) if the
+ * text block has no reference, thus every fragment must carry it.
+ *
+ * <p>When the last missing fragment of a group arrives, a single message is returned with the headers of the first
+ * fragment, the text block tags of all fragments in fragment number order, excluding the tags 202 and 203, and the
+ * trailer of the last fragment.
+ *
+ * <p>Partial state held in memory is bounded by {@link #setMaxFragmentsInMemory(int)}. When the limit is reached, new
+ * fragments are moved into the configured {@link FragmentStore}; if no store is configured, the oldest incomplete
+ * groups are discarded instead, and if the limit still cannot be met the group of the new fragment is discarded.
+ * Fragments announcing more than {@link #setMaxFragmentCount(int)} fragments are rejected. Incomplete groups older
+ * than the timeout are removed when {@link #expire()} is called, and returned to the caller for further processing.
+ *
+ * <p>Instances are thread safe.
+ *
+ * @since 7.10.4
+ */
+public class FragmentAssembler {
+	private static final Logger log = Logger.getLogger(FragmentAssembler.class.getName());
+
+	private static final String FRAGMENT_NUMBER = "202";
+	private static final String FRAGMENT_COUNT = "203";
+
+	/*
+	 * marks a fragment moved into the store
+	 */
+	private static final SwiftMessage STORED = new SwiftMessage(false);
+
+	private final Map<String, Group> groups = new LinkedHashMap<>();
+	private long timeout = 0;
+	private int maxFragmentsInMemory = Integer.MAX_VALUE;
+	private int maxFragmentCount = 9999;
+	private FragmentStore store;
+	private int inMemory = 0;
+
+	/**
+	 * Adds a received fragment.
+	 *
+	 * @param msg the received message
+	 * @return the reassembled message if this was the last missing fragment of its group, the same message if it is not
+	 * a fragment, or null if the group is still incomplete or the fragment is a duplicate
+	 * @throws IllegalArgumentException if the fragment numbering is invalid, the number of fragments exceeds the
+	 * maximum or the sender and reference cannot be determined
+	 * @throws ProwideException if the fragments cannot be written or read from the store
+	 */
+	public SwiftMessage add(final SwiftMessage msg) {
+		return add(msg, System.currentTimeMillis());
+	}
+
+	/**
+	 * Adds a received fragment with an explicit reception time, used for the timeout.
+	 * @see #add(SwiftMessage)
+	 */
+	public synchronized SwiftMessage add(final SwiftMessage msg, final long time) {
+		Validate.notNull(msg, "the message cannot be null");
+		if (!msg.isFragment()) {
+			return msg;
+		}
+		final int number;
+		final int count;
+		try {
+			number = msg.fragmentNumber();
+			count = msg.fragmentCount();
+		} catch (final UnsupportedOperationException e) {
+			throw new IllegalArgumentException("invalid fragment numbering", e);
+		}
+		Validate.isTrue(count > 0 && number > 0 && number <= count, "invalid fragment number " + number + " of " + count);
+		Validate.isTrue(count <= maxFragmentCount, "fragment count " + count + " exceeds the maximum " + maxFragmentCount);
+		final String key = key(msg);
+
+		Group group = groups.get(key);
+		if (group == null) {
+			// random ids, so assemblers sharing a store or restarted on the same directory do not overwrite each other
+			group = new Group(key, UUID.randomUUID().toString(), count, time);
+			groups.put(key, group);
+		}
+		Validate.isTrue(group.count == count, "fragment count " + count + " does not match the count " + group.count + " of group " + key);
+		if (group.fragments.containsKey(number)) {
+			log.log(Level.FINE, "ignoring duplicate fragment " + number + " of group " + key);
+			return null;
+		}
+
+		if (group.fragments.size() + 1 == count) {
+			keep(group, number, msg);
+			groups.remove(key);
+			return assemble(group);
+		}
+
+		if (inMemory >= maxFragmentsInMemory) {
+			if (store != null) {
+				put(group, number, msg);
+				return null;
+			}
+			discardOldest(group);
+			if (inMemory >= maxFragmentsInMemory) {
+				// the group cannot be completed without this fragment
+				groups.remove(key);
+				log.warning("memory limit reached, discarding fragment " + number + " and " + group.fragments.size() + " fragments of incomplete group " + key);
+				fragments(group);
+				return null;
+			}
+		}
+		keep(group, number, msg);
+		return null;
+	}
+
+	/**
+	 * Removes the incomplete groups whose first fragment was received longer than the timeout ago.
+	 * @return the fragments received for each expired group, keyed by sender and reference, with null in the position
+	 * of the missing fragments; an empty map if no group expired or the timeout is not set
+	 */
+	public Map<String, List<SwiftMessage>> expire() {
+		return expire(System.currentTimeMillis());
+	}
+
+	/**
+	 * Removes the incomplete groups whose first fragment was received before the given time minus the timeout.
+	 * @see #expire()
+	 */
+	public synchronized Map<String, List<SwiftMessage>> expire(final long now) {
+		final Map<String, List<SwiftMessage>> result = new LinkedHashMap<>();
+		if (timeout <= 0) {
+			return result;
+		}
+		// all groups are checked since the reception times given to add are not necessarily in order
+		final Iterator<Group> it = groups.values().iterator();
+		while (it.hasNext()) {
+			final Group group = it.next();
+			if (now - group.created >= timeout) {
+				it.remove();
+				result.put(group.key, fragments(group));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of incomplete groups
+	 */
+	public synchronized int getPendingGroups() {
+		return groups.size();
+	}
+
+	/**
+	 * @return the number of fragments of incomplete groups held in memory
+	 */
+	public synchronized int getFragmentsInMemory() {
+		return inMemory;
+	}
+
+	/**
+	 * @return the time in milliseconds after which incomplete groups are expired, zero if not set
+	 */
+	public synchronized long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds, counted from the reception of the first fragment, after which an incomplete
+	 * group is removed by {@link #expire()}. Zero, the default, disables the expiration.
+	 */
+	public synchronized void setTimeout(final long timeout) {
+		Validate.isTrue(timeout >= 0, "timeout cannot be negative");
+		this.timeout = timeout;
+	}
+
+	public synchronized int getMaxFragmentsInMemory() {
+		return maxFragmentsInMemory;
+	}
+
+	/**
+	 * Sets the maximum number of fragments of incomplete groups held in memory, unlimited by default.
+	 */
+	public synchronized void setMaxFragmentsInMemory(final int maxFragmentsInMemory) {
+		Validate.isTrue(maxFragmentsInMemory >= 0, "maximum fragments in memory cannot be negative");
+		this.maxFragmentsInMemory = maxFragmentsInMemory;
+	}
+
+	/**
+	 * @return the maximum number of fragments of a message
+	 */
+	public synchronized int getMaxFragmentCount() {
+		return maxFragmentCount;
+	}
+
+	/**
+	 * Sets the maximum number of fragments of a message, 9999 by default. Fragments announcing a larger count in the
+	 * tag 203 are rejected, so a corrupt count does not hold partial state that can never be completed.
+	 */
+	public synchronized void setMaxFragmentCount(final int maxFragmentCount) {
+		Validate.isTrue(maxFragmentCount > 0, "maximum fragment count must be positive");
+		this.maxFragmentCount = maxFragmentCount;
+	}
+
+	public synchronized FragmentStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Sets the store for the fragments exceeding the memory limit, none by default.
+	 */
+	public synchronized void setStore(final FragmentStore store) {
+		this.store = store;
+	}
+
+	private static String key(final SwiftMessage msg) {
+		final String sender = msg.getSender();
+		final String reference = StringUtils.defaultIfEmpty(SwiftMessageUtils.reference(msg), msg.getMUR());
+		Validate.isTrue(sender != null && reference != null, "cannot determine the sender and reference of the fragment");
+		return sender + "/" + reference;
+	}
+
+	private SwiftMessage assemble(final Group group) {
+		final List<SwiftMessage> fragments = fragments(group);
+		final SwiftMessage first = fragments.get(0);
+		final SwiftMessage result = new SwiftMessage(false);
+		result.setBlock1(first.getBlock1());
+		result.setBlock2(first.getBlock2());
+		result.setBlock3(first.getBlock3());
+		final SwiftBlock4 b4 = new SwiftBlock4();
+		for (final SwiftMessage fragment : fragments) {
+			for (final Tag t : fragment.getBlock4().getTags()) {
+				if (!FRAGMENT_NUMBER.equals(t.getName()) && !FRAGMENT_COUNT.equals(t.getName())) {
+					b4.append(t);
+				}
+			}
+		}
+		result.setBlock4(b4);
+		result.setBlock5(fragments.get(fragments.size() - 1).getBlock5());
+		if (first.getUserBlocks() != null) {
+			for (final SwiftBlockUser b : first.getUserBlocks()) {
+				result.addUserBlock(b);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * collects the group fragments from memory and the store in fragment number order, with null in the position of
+	 * the missing fragments, releasing them
+	 */
+	private List<SwiftMessage> fragments(final Group group) {
+		final List<SwiftMessage> result = new ArrayList<>(group.count);
+		for (int number = 1; number <= group.count; number++) {
+			SwiftMessage fragment = group.fragments.remove(number);
+			if (fragment == STORED) {
+				try {
+					fragment = group.store.remove(group.id, number);
+				} catch (final IOException e) {
+					throw new ProwideException("error reading fragment " + number + " of group " + group.key, e);
+				}
+			} else if (fragment != null) {
+				group.inMemory--;
+				inMemory--;
+			}
+			result.add(fragment);
+		}
+		return result;
+	}
+
+	private void keep(final Group group, final int number, final SwiftMessage msg) {
+		group.fragments.put(number, msg);
+		group.inMemory++;
+		inMemory++;
+	}
+
+	private void put(final Group group, final int number, final SwiftMessage msg) {
+		try {
+			store.put(group.id, number, msg);
+		} catch (final IOException e) {
+			throw new ProwideException("error storing fragment " + number + " of group " + group.key, e);
+		}
+		group.fragments.put(number, STORED);
+		group.store = store;
+	}
+
+	/*
+	 * discards the oldest groups holding fragments in memory, other than the current one, until below the limit
+	 */
+	private void discardOldest(final Group current) {
+		final Iterator<Group> it = groups.values().iterator();
+		while (it.hasNext() && inMemory >= maxFragmentsInMemory) {
+			final Group oldest = it.next();
+			if (oldest == current || oldest.inMemory == 0) {
+				continue;
+			}
+			it.remove();
+			log.warning("memory limit reached, discarding " + oldest.fragments.size() + " fragments of incomplete group " + oldest.key);
+			fragments(oldest);
+		}
+	}
+
+	private static final class Group {
+		private final String key;
+		private final String id;
+		private final int count;
+		private final long created;
+		/*
+		 * received fragments by number, sized by the fragments actually received rather than the announced count
+		 */
+		private final Map<Integer, SwiftMessage> fragments = new HashMap<>();
+		private int inMemory = 0;
+		/*
+		 * where the fragments of the group were moved, even if the assembler store is changed afterwards
+		 */
+		private FragmentStore store;
+
+		Group(final String key, final String id, final int count, final long created) {
+			this.key = key;
+			this.id = id;
+			this.count = count;
+			this.created = created;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.IOException;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Storage for the fragments that {@link FragmentAssembler} moves out of memory while their group is incomplete.
+ *
+ * <p>Fragments are identified by an opaque group id, generated by the assembler and safe to be used as a file name,
+ * and the fragment number. Group ids are random UUIDs, so a store can be shared by several assemblers and reused
+ * after a restart. Each stored fragment is removed exactly once, when its group is completed or expired.
+ *
+ * @see FileFragmentStore
+ * @since 7.10.4
+ */
+public interface FragmentStore {
+
+	/**
+	 * Stores a fragment
+	 * @param group the group id
+	 * @param number the fragment number, starting at 1
+	 * @param fragment the fragment to store
+	 * @throws IOException if the fragment cannot be stored
+	 */
+	void put(String group, int number, SwiftMessage fragment) throws IOException;
+
+	/**
+	 * Retrieves and removes a fragment
+	 * @param group the group id
+	 * @param number the fragment number, starting at 1
+	 * @return the stored fragment
+	 * @throws IOException if the fragment cannot be read
+	 */
+	SwiftMessage remove(String group, int number) throws IOException;
+
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.model.MtSwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessageUtils;
+import com.prowidesoftware.swift.model.field.Field121;
+
+/**
+ * Embedded append-only log of MT messages, stored in FIN format in memory-mapped segment files, with hash indexes
+ * to look up messages by MIR, MUR, UETR and reference.
+ *
+ * <p>Each record contains the lookup keys and the message content, protected with a CRC32 checksum. Segment files are
+ * created with a fixed size in the log directory and a new one is started when a message does not fit in the
+ * current one.
+ *
+ * <p>The indexes are kept off-heap, in direct buffers with open addressing tables of key hashes and record
+ * positions, and are rebuilt from the segments when the log is opened. Since the indexes are derived data, reopening
+ * the log after a crash is safe: the segments are scanned, the first record with an invalid length or checksum in
+ * each segment is considered the end of that segment, and new messages are appended after the last valid record.
+ * Records are only guaranteed to be persisted after {@link #flush()}.
+ *
+ * <p>Lookups walk the index probe chain in place and verify hash matches against the keys stored in the record before
+ * reading the message, so they do not allocate heap memory except for the returned messages.
+ *
+ * <p>All methods are synchronized; a log directory must not be opened by more than one instance at a time.
+ *
+ * @since 7.10.4
+ */
+public class MessageLog implements Closeable {
+	private static final Logger log = Logger.getLogger(MessageLog.class.getName());
+
+	/**
+	 * Default size of the segment files, 64 megabytes
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final int HEADER = 8;
+	private static final int INITIAL_INDEX_CAPACITY = 1024;
+
+	/**
+	 * Lookup keys of the log
+	 */
+	public enum Key {
+		/** Message input reference, for incoming messages */
+		MIR,
+		/** Message user reference, field 108 */
+		MUR,
+		/** Unique end to end transaction reference, field 121 */
+		UETR,
+		/** Message reference as returned by {@link SwiftMessageUtils#reference(SwiftMessage)} */
+		REFERENCE
+	}
+
+	private final File directory;
+	private final int segmentSize;
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+	private final OffHeapIndex[] indexes = new OffHeapIndex[Key.values().length];
+	private final CRC32 crc = new CRC32();
+	private int writeOffset = 0;
+	private long count = 0;
+	private boolean closed = false;
+
+	/**
+	 * Opens or creates a log with the default segment size.
+	 * @param directory the log directory, created if it does not exist
+	 * @throws IOException if the segments cannot be created or read
+	 */
+	public MessageLog(final File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens or creates a log, rebuilding the indexes from the existing segments.
+	 * @param directory the log directory, created if it does not exist
+	 * @param segmentSize size in bytes of the new segment files, existing segments keep their size
+	 * @throws IOException if the segments cannot be created or read
+	 */
+	public MessageLog(final File directory, final int segmentSize) throws IOException {
+		Validate.notNull(directory, "directory cannot be null");
+		Validate.isTrue(segmentSize > HEADER, "invalid segment size " + segmentSize);
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException("cannot create directory " + directory);
+		}
+		Validate.isTrue(directory.isDirectory(), "not a directory: " + directory);
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = new OffHeapIndex(INITIAL_INDEX_CAPACITY);
+		}
+		open();
+	}
+
+	/**
+	 * Appends a message, indexing its MIR, MUR, UETR and reference.
+	 * @param msg the message to append
+	 * @return the position of the record, to be used with {@link #read(long)}
+	 * @throws IOException if a new segment cannot be created
+	 */
+	public synchronized long append(final SwiftMessage msg) throws IOException {
+		Validate.notNull(msg, "message to append cannot be null");
+		return append(new ConversionService().getFIN(msg), msg.getMIR(), msg.getMUR(), msg.getUETR(), SwiftMessageUtils.reference(msg));
+	}
+
+	/**
+	 * Appends a message, indexing its MIR, MUR, UETR and reference. The MIR, MUR and reference are taken from the
+	 * entity attributes and the UETR from the message content, without parsing it.
+	 * @param msg the message to append
+	 * @return the position of the record, to be used with {@link #read(long)}
+	 * @throws IOException if a new segment cannot be created
+	 */
+	public synchronized long append(final MtSwiftMessage msg) throws IOException {
+		Validate.notNull(msg, "message to append cannot be null");
+		Validate.notNull(msg.getMessage(), "message content cannot be null");
+		final String uetr = StringUtils.substringBetween(msg.getMessage(), "{" + Field121.NAME + ":", "}");
+		return append(msg.getMessage(), msg.getMir(), msg.getMur(), uetr, msg.getReference());
+	}
+
+	/**
+	 * Looks up the messages with the given key value.
+	 * @param key the key to look up
+	 * @param value the key value
+	 * @return the messages found in FIN format, in the order they were appended, an empty list if none
+	 */
+	public synchronized List<String> find(final Key key, final String value) {
+		Validate.notNull(key, "key cannot be null");
+		checkOpen();
+		if (StringUtils.isEmpty(value)) {
+			return Collections.emptyList();
+		}
+		final OffHeapIndex index = indexes[key.ordinal()];
+		final long hash = hash(value);
+		List<String> result = null;
+		for (int slot = index.first(hash); slot >= 0; slot = index.next(hash, slot)) {
+			final long position = index.position(slot);
+			if (matches(position, key, value)) {
+				if (result == null) {
+					result = new ArrayList<>();
+				}
+				result.add(read(position));
+			}
+		}
+		return result != null ? result : Collections.<String>emptyList();
+	}
+
+	/**
+	 * Looks up the most recently appended message with the given key value.
+	 * @param key the key to look up
+	 * @param value the key value
+	 * @return the message found in FIN format or null if not found
+	 */
+	public synchronized String findLast(final Key key, final String value) {
+		Validate.notNull(key, "key cannot be null");
+		checkOpen();
+		if (StringUtils.isEmpty(value)) {
+			return null;
+		}
+		final OffHeapIndex index = indexes[key.ordinal()];
+		final long hash = hash(value);
+		long last = -1;
+		for (int slot = index.first(hash); slot >= 0; slot = index.next(hash, slot)) {
+			final long position = index.position(slot);
+			if (position > last && matches(position, key, value)) {
+				last = position;
+			}
+		}
+		return last >= 0 ? read(last) : null;
+	}
+
+	/**
+	 * Reads the message stored at the given position.
+	 * @param position a record position as returned by the append methods
+	 * @return the message in FIN format
+	 * @throws IllegalArgumentException if there is no record at the given position
+	 */
+	public synchronized String read(final long position) {
+		checkOpen();
+		final ByteBuffer segment = segment(position);
+		final int offset = (int) position;
+		final int length = segment.getInt(offset);
+		int p = offset + HEADER;
+		for (int k = 0; k < indexes.length; k++) {
+			p += 2 + segment.getShort(p);
+		}
+		final byte[] content = new byte[offset + HEADER + length - p];
+		final ByteBuffer view = segment.duplicate();
+		view.position(p);
+		view.get(content);
+		return new String(content, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the number of messages in the log
+	 */
+	public synchronized long size() {
+		return count;
+	}
+
+	/**
+	 * Forces the appended records to be written to the storage device.
+	 */
+	public synchronized void flush() {
+		checkOpen();
+		if (!segments.isEmpty()) {
+			segments.get(segments.size() - 1).force();
+		}
+	}
+
+	/**
+	 * Flushes the log and releases the indexes.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		flush();
+		closed = true;
+		segments.clear();
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = null;
+		}
+	}
+
+	/**
+	 * @return the log directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	private long append(final String fin, final String... keys) throws IOException {
+		checkOpen();
+		final byte[] content = fin.getBytes(StandardCharsets.UTF_8);
+		int length = content.length;
+		for (final String key : keys) {
+			length += 2 + keyLength(key);
+		}
+		final ByteBuffer payload = ByteBuffer.allocate(length);
+		for (final String key : keys) {
+			final int keyLength = keyLength(key);
+			payload.putShort((short) keyLength);
+			for (int i = 0; i < keyLength; i++) {
+				payload.put(keyByte(key.charAt(i)));
+			}
+		}
+		payload.put(content);
+		Validate.isTrue(HEADER + length <= segmentSize, "message too big for the segment size " + segmentSize);
+
+		if (segments.isEmpty() || writeOffset + HEADER + length > segments.get(segments.size() - 1).capacity()) {
+			segments.add(map(segmentFile(segments.size())));
+			writeOffset = 0;
+		}
+		final MappedByteBuffer segment = segments.get(segments.size() - 1);
+		crc.reset();
+		crc.update(payload.array(), 0, length);
+		// the length is written last, so a partially written record is seen as the end of the segment
+		final ByteBuffer view = segment.duplicate();
+		view.position(writeOffset + HEADER);
+		view.put(payload.array(), 0, length);
+		segment.putInt(writeOffset + 4, (int) crc.getValue());
+		segment.putInt(writeOffset, length);
+
+		final long position = (long) (segments.size() - 1) << 32 | writeOffset;
+		index(position, keys);
+		writeOffset += HEADER + length;
+		count++;
+		return position;
+	}
+
+	private void index(final long position, final String... keys) {
+		for (int k = 0; k < keys.length; k++) {
+			if (StringUtils.isNotEmpty(keys[k])) {
+				indexes[k].put(hash(keys[k]), position);
+			}
+		}
+	}
+
+	/*
+	 * compares the key stored in the record with the value, without creating strings
+	 */
+	private boolean matches(final long position, final Key key, final String value) {
+		final ByteBuffer segment = segment(position);
+		int p = (int) position + HEADER;
+		for (int k = 0; k < key.ordinal(); k++) {
+			p += 2 + segment.getShort(p);
+		}
+		final int keyLength = segment.getShort(p);
+		if (keyLength != keyLength(value)) {
+			return false;
+		}
+		for (int i = 0; i < keyLength; i++) {
+			if (segment.get(p + 2 + i) != keyByte(value.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ByteBuffer segment(final long position) {
+		final int s = (int) (position >>> 32);
+		final int offset = (int) position;
+		Validate.isTrue(s >= 0 && s < segments.size() && offset >= 0 && offset + HEADER <= segments.get(s).capacity(), "invalid position " + position);
+		final ByteBuffer segment = segments.get(s);
+		Validate.isTrue(segment.getInt(offset) > 0, "no record at position " + position);
+		return segment;
+	}
+
+	/*
+	 * maps the existing segments, rebuilding the indexes and checking the records
+	 */
+	private void open() throws IOException {
+		final File[] files = directory.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(final File dir, final String name) {
+				return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+			}
+		});
+		Arrays.sort(files);
+		byte[] buffer = new byte[1024];
+		final String[] keys = new String[indexes.length];
+		for (int s = 0; s < files.length; s++) {
+			Validate.isTrue(files[s].equals(segmentFile(s)), "unexpected segment file " + files[s]);
+			final MappedByteBuffer segment = map(files[s]);
+			segments.add(segment);
+			int offset = 0;
+			while (offset + HEADER <= segment.capacity()) {
+				final int length = segment.getInt(offset);
+				if (length == 0) {
+					break;
+				}
+				if (length < 0 || offset + HEADER + length > segment.capacity()) {
+					truncate(segment, offset, files[s]);
+					break;
+				}
+				if (buffer.length < length) {
+					buffer = new byte[Math.max(length, buffer.length * 2)];
+				}
+				final ByteBuffer view = segment.duplicate();
+				view.position(offset + HEADER);
+				view.get(buffer, 0, length);
+				crc.reset();
+				crc.update(buffer, 0, length);
+				if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+					truncate(segment, offset, files[s]);
+					break;
+				}
+				int p = 0;
+				for (int k = 0; k < keys.length; k++) {
+					final int keyLength = (buffer[p] & 0xFF) << 8 | buffer[p + 1] & 0xFF;
+					keys[k] = keyLength > 0 ? new String(buffer, p + 2, keyLength, StandardCharsets.ISO_8859_1) : null;
+					p += 2 + keyLength;
+				}
+				index((long) s << 32 | offset, keys);
+				offset += HEADER + length;
+				count++;
+			}
+			writeOffset = offset;
+		}
+	}
+
+	private void truncate(final MappedByteBuffer segment, final int offset, final File file) {
+		log.log(Level.WARNING, "invalid record at offset " + offset + " of " + file + ", discarding the rest of the segment");
+		segment.putInt(offset, 0);
+		segment.force();
+	}
+
+	private File segmentFile(final int number) {
+		return new File(directory, SEGMENT_PREFIX + String.format("%06d", number) + SEGMENT_SUFFIX);
+	}
+
+	private MappedByteBuffer map(final File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			if (raf.length() == 0) {
+				raf.setLength(segmentSize);
+			}
+			return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+		}
+	}
+
+	private void checkOpen() {
+		Validate.validState(!closed, "the message log is closed");
+	}
+
+	private static int keyLength(final String key) {
+		return key == null ? 0 : Math.min(key.length(), Short.MAX_VALUE);
+	}
+
+	private static byte keyByte(final char c) {
+		return c <= 0xFF ? (byte) c : (byte) '?';
+	}
+
+	/*
+	 * 64 bits FNV-1a hash, zero is reserved for empty slots
+	 */
+	private static long hash(final String value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= keyByte(value.charAt(i)) & 0xFF;
+			h *= 0x100000001b3L;
+		}
+		return h == 0 ? 1 : h;
+	}
+
+	/*
+	 * open addressing hash table of (hash, position) pairs in a direct buffer, with linear probing
+	 */
+	private static final class OffHeapIndex {
+		private static final int ENTRY = 16;
+		private ByteBuffer table;
+		private int capacity;
+		private int size = 0;
+
+		OffHeapIndex(final int capacity) {
+			this.capacity = capacity;
+			this.table = ByteBuffer.allocateDirect(capacity * ENTRY);
+		}
+
+		void put(final long hash, final long position) {
+			if ((size + 1) * 2 > capacity) {
+				grow();
+			}
+			insert(table, capacity, hash, position);
+			size++;
+		}
+
+		/*
+		 * Slot of the first entry with the hash, or -1 if none. The entries of a probe chain are kept in insertion
+		 * order, thus in position order, so lookups walk the chain in place.
+		 */
+		int first(final long hash) {
+			return find(hash, (int) (hash ^ hash >>> 32) & (capacity - 1));
+		}
+
+		/*
+		 * slot of the entry with the hash following the given slot in the probe chain, or -1 if none
+		 */
+		int next(final long hash, final int slot) {
+			return find(hash, (slot + 1) & (capacity - 1));
+		}
+
+		long position(final int slot) {
+			return table.getLong(slot * ENTRY + 8);
+		}
+
+		private int find(final long hash, final int from) {
+			final int mask = capacity - 1;
+			int slot = from;
+			long h;
+			while ((h = table.getLong(slot * ENTRY)) != 0) {
+				if (h == hash) {
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		private void grow() {
+			final int newCapacity = capacity * 2;
+			final ByteBuffer newTable = ByteBuffer.allocateDirect(newCapacity * ENTRY);
+			// entries are moved starting after an empty slot, so chains wrapped around the table keep their order
+			int empty = 0;
+			while (table.getLong(empty * ENTRY) != 0) {
+				empty++;
+			}
+			for (int i = 1; i <= capacity; i++) {
+				final int slot = (empty + i) & (capacity - 1);
+				final long h = table.getLong(slot * ENTRY);
+				if (h != 0) {
+					insert(newTable, newCapacity, h, table.getLong(slot * ENTRY + 8));
+				}
+			}
+			table = newTable;
+			capacity = newCapacity;
+		}
+
+		private static void insert(final ByteBuffer table, final int capacity, final long hash, final long position) {
+			final int mask = capacity - 1;
+			int slot = (int) (hash ^ hash >>> 32) & mask;
+			while (table.getLong(slot * ENTRY) != 0) {
+				slot = (slot + 1) & mask;
+			}
+			table.putLong(slot * ENTRY, hash);
+			table.putLong(slot * ENTRY + 8, position);
+		}
+	}
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.model.MxNode;
+
+/**
+ * Streaming reader for MX messages containing a large number of repetitions of a given element,
+ * such as the entries <code>Ntry</code> in a camt.053 statement or the transactions <code>CdtTrfTxInf</code>
+ * in a pain.001.
+ *
+ * <p>The XML is read with a {@link javax.xml.stream.XMLStreamReader} and each occurrence of the repeating
+ * element is returned as a detached {@link MxNode} subtree with {@link #next()}, or as a well-formed XML fragment
+ * with {@link #nextXml()}. The rest of the content, for example the group header, is available as a separate
+ * {@link MxNode} tree with {@link #header()}. Only a single occurrence is kept in memory at a time, so large files
+ * can be processed without loading the complete content as done by {@link MxParser}.
+ *
+ * <p>The repeating element can be given by local name, matching any element with that name not nested in
+ * a previous match, or with an absolute path from the root element, for example
+ * <code>/Document/BkToCstmrStmt/Stmt/Ntry</code>. In both cases namespace prefixes are ignored.
+ *
+ * <p>This reader is not thread safe. Once done, it should be closed to release the underlying source.
+ *
+ * @since 7.10.4
+ */
+public class MxStreamReader implements Iterator<MxNode>, Iterable<MxNode>, Closeable {
+	private static final Logger log = Logger.getLogger(MxStreamReader.class.getName());
+	private static final String XMLNS = "xmlns";
+
+	private final XMLStreamReader reader;
+	private final Closeable source;
+	private final String[] path;
+	private final String localName;
+
+	private MxNode header = null;
+	private MxNode current = null;
+	private final List<String> names = new ArrayList<>();
+	private final List<String> uris = new ArrayList<>();
+	private final List<String[]> namespaces = new ArrayList<>();
+	private final List<Integer> namespaceCounts = new ArrayList<>();
+	/**
+	 * Text of the current header element, since its start or its last child element
+	 */
+	private final StringBuilder text = new StringBuilder();
+	/**
+	 * True when the current header element contains child elements, so its text is not kept
+	 */
+	private boolean parent = false;
+	private boolean pending = false;
+	private boolean finished = false;
+	private int count = 0;
+
+	/**
+	 * Constructs a reader for the content of a stream. The encoding is detected from the XML declaration.
+	 *
+	 * @param stream the XML source
+	 * @param element local name or absolute path of the repeating element
+	 * @throws IllegalArgumentException if the stream or element is null
+	 * @throws ProwideException if the XML reader cannot be created
+	 */
+	public MxStreamReader(final InputStream stream, final String element) {
+		this(createReader(stream), null, element);
+	}
+
+	/**
+	 * Constructs a reader for the content of a character stream.
+	 *
+	 * @param reader the XML source
+	 * @param element local name or absolute path of the repeating element
+	 * @throws IllegalArgumentException if the reader or element is null
+	 * @throws ProwideException if the XML reader cannot be created
+	 */
+	public MxStreamReader(final Reader reader, final String element) {
+		this(createReader(reader), null, element);
+	}
+
+	/**
+	 * Constructs a reader for the content of a file. The encoding is detected from the XML declaration.
+	 * The file is closed when the reader is closed or the end of the content is reached.
+	 *
+	 * @param file the XML file
+	 * @param element local name or absolute path of the repeating element
+	 * @throws IllegalArgumentException if the file or element is null
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MxStreamReader(final File file, final String element) throws IOException {
+		this(element, new BufferedInputStream(new FileInputStream(Validate.notNull(file, "file must not be null"))));
+	}
+
+	/**
+	 * Constructs a reader for a stream that is closed with the reader
+	 */
+	private MxStreamReader(final String element, final InputStream source) {
+		this(createReader(source), source, element);
+	}
+
+	private MxStreamReader(final XMLStreamReader reader, final Closeable source, final String element) {
+		Validate.notBlank(element, "element must not be blank");
+		this.reader = reader;
+		this.source = source;
+		if (element.startsWith(MxNode.PATH_SEPARATOR)) {
+			this.path = StringUtils.split(element, MxNode.PATH_SEPARATOR);
+			this.localName = null;
+		} else {
+			this.path = null;
+			this.localName = element;
+		}
+	}
+
+	private static XMLStreamReader createReader(final InputStream stream) {
+		Validate.notNull(stream, "stream must not be null");
+		try {
+			return XMLInputFactory.newInstance().createXMLStreamReader(stream);
+		} catch (final XMLStreamException e) {
+			throw new ProwideException("error creating XML reader", e);
+		}
+	}
+
+	private static XMLStreamReader createReader(final Reader reader) {
+		Validate.notNull(reader, "reader must not be null");
+		try {
+			return XMLInputFactory.newInstance().createXMLStreamReader(reader);
+		} catch (final XMLStreamException e) {
+			throw new ProwideException("error creating XML reader", e);
+		}
+	}
+
+	@Override
+	public Iterator<MxNode> iterator() {
+		return this;
+	}
+
+	/**
+	 * Returns true if there is another occurrence of the repeating element. This may read the
+	 * content preceding the next occurrence, adding its elements to the {@link #header()} tree.
+	 *
+	 * @throws ProwideException if the XML is not well-formed
+	 */
+	@Override
+	public boolean hasNext() {
+		if (pending) {
+			return true;
+		}
+		if (finished) {
+			return false;
+		}
+		try {
+			return advance();
+		} catch (final XMLStreamException e) {
+			close();
+			throw new ProwideException("error reading XML", e);
+		}
+	}
+
+	/**
+	 * Reads the next occurrence of the repeating element as an {@link MxNode} tree.
+	 * The returned node is the root of its own tree, it is not bound to the {@link #header()}.
+	 *
+	 * @throws NoSuchElementException if there are no more occurrences
+	 * @throws ProwideException if the XML is not well-formed
+	 */
+	@Override
+	public MxNode next() {
+		consume();
+		try {
+			return readNode();
+		} catch (final XMLStreamException e) {
+			close();
+			throw new ProwideException("error reading XML", e);
+		}
+	}
+
+	/**
+	 * Reads the next occurrence of the repeating element as an XML fragment.
+	 * All namespaces in scope are declared in the root element of the fragment, so it can be parsed on its own.
+	 *
+	 * @throws NoSuchElementException if there are no more occurrences
+	 * @throws ProwideException if the XML is not well-formed
+	 */
+	public String nextXml() {
+		consume();
+		try {
+			return readXml();
+		} catch (final XMLStreamException e) {
+			close();
+			throw new ProwideException("error reading XML", e);
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove not avaiable in this implementation");
+	}
+
+	/**
+	 * Returns the tree of all elements read so far, except the occurrences of the repeating element.
+	 * If called before the first occurrence is read, this method reads the content up to it. So
+	 * this tree contains the group header and any other element preceding the first occurrence, and
+	 * once all occurrences are read, also any element following them.
+	 *
+	 * @return the root node or null if no element was found
+	 * @throws ProwideException if the XML is not well-formed
+	 */
+	public MxNode header() {
+		if (header == null) {
+			hasNext();
+		}
+		return header;
+	}
+
+	/**
+	 * @return the number of occurrences read so far
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Closes the XML reader, and the underlying file if the reader was created with a file.
+	 */
+	@Override
+	public void close() {
+		finished = true;
+		pending = false;
+		try {
+			reader.close();
+		} catch (final XMLStreamException e) {
+			log.log(Level.FINEST, "error closing XML reader", e);
+		}
+		if (source != null) {
+			try {
+				source.close();
+			} catch (final IOException e) {
+				log.log(Level.FINEST, "error closing source", e);
+			}
+		}
+	}
+
+	private void consume() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		pending = false;
+		count++;
+	}
+
+	/**
+	 * Reads up to the start of the next occurrence, building the header tree with the elements found
+	 */
+	private boolean advance() throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					openElement();
+					// the text of elements with children, such as the indentation, is discarded
+					text.setLength(0);
+					if (matches()) {
+						// the occurrence is read by next() or nextXml(), leaving the reader at its parent
+						parent = true;
+						pending = true;
+						return true;
+					}
+					current = createNode(current, uris.size() > 1 ? uris.get(uris.size() - 2) : null);
+					if (header == null) {
+						header = current;
+					}
+					parent = false;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (current != null) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					closeElement();
+					if (!parent && text.length() > 0) {
+						current.setValue(text.toString());
+					}
+					text.setLength(0);
+					parent = true;
+					current = current.getParent();
+					break;
+				default:
+					break;
+			}
+		}
+		close();
+		return false;
+	}
+
+	private boolean matches() {
+		if (path == null) {
+			return localName.equalsIgnoreCase(reader.getLocalName());
+		}
+		if (names.size() != path.length) {
+			return false;
+		}
+		for (int i = 0; i < path.length; i++) {
+			if (!path[i].equalsIgnoreCase(names.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Keeps track of the path and namespaces in scope for the element at the current position
+	 */
+	private void openElement() {
+		names.add(reader.getLocalName());
+		uris.add(reader.getNamespaceURI());
+		final int nsCount = reader.getNamespaceCount();
+		for (int i = 0; i < nsCount; i++) {
+			namespaces.add(new String[] {reader.getNamespacePrefix(i), reader.getNamespaceURI(i)});
+		}
+		namespaceCounts.add(nsCount);
+	}
+
+	private void closeElement() {
+		names.remove(names.size() - 1);
+		uris.remove(uris.size() - 1);
+		final int nsCount = namespaceCounts.remove(namespaceCounts.size() - 1);
+		for (int i = 0; i < nsCount; i++) {
+			namespaces.remove(namespaces.size() - 1);
+		}
+	}
+
+	/**
+	 * Creates a node for the element at the current position, with the same attributes as created by {@link MxParser#parse()}.
+	 * The element namespace is set as xmlns attribute when it differs from the parent element namespace.
+	 */
+	private MxNode createNode(final MxNode parent, final String parentUri) {
+		final MxNode node = new MxNode(parent, reader.getLocalName());
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			node.addAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+		}
+		final String uri = reader.getNamespaceURI();
+		if (StringUtils.isNotEmpty(uri) && (parent == null || !StringUtils.equals(uri, parentUri))) {
+			node.addAttribute(XMLNS, uri);
+		}
+		return node;
+	}
+
+	/**
+	 * Reads the element at the current position into a detached node tree
+	 */
+	private MxNode readNode() throws XMLStreamException {
+		final StringBuilder text = new StringBuilder();
+		final List<Integer> offsets = new ArrayList<>();
+		final List<String> nodeUris = new ArrayList<>();
+		MxNode node = null;
+		MxNode root = null;
+		int event = reader.getEventType();
+		while (true) {
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					node = createNode(node, nodeUris.isEmpty() ? null : nodeUris.get(nodeUris.size() - 1));
+					if (root == null) {
+						root = node;
+					}
+					nodeUris.add(reader.getNamespaceURI());
+					offsets.add(text.length());
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					final int offset = offsets.remove(offsets.size() - 1);
+					if (text.length() > offset) {
+						node.setValue(text.substring(offset));
+					}
+					text.setLength(offset);
+					nodeUris.remove(nodeUris.size() - 1);
+					if (offsets.isEmpty()) {
+						closeElement();
+						return root;
+					}
+					node = node.getParent();
+					break;
+				default:
+					break;
+			}
+			event = reader.next();
+		}
+	}
+
+	/**
+	 * Reads the element at the current position into an XML fragment
+	 */
+	private String readXml() throws XMLStreamException {
+		final StringWriter out = new StringWriter();
+		final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+		int depth = 0;
+		int event = reader.getEventType();
+		while (true) {
+			switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					final String prefix = reader.getPrefix();
+					if (StringUtils.isEmpty(prefix)) {
+						writer.writeStartElement(reader.getLocalName());
+					} else {
+						writer.writeStartElement(prefix, reader.getLocalName(), reader.getNamespaceURI());
+					}
+					if (depth == 0) {
+						writeNamespaces(writer, namespacesInScope());
+					} else {
+						final Map<String, String> declared = new LinkedHashMap<>();
+						for (int i = 0; i < reader.getNamespaceCount(); i++) {
+							declared.put(StringUtils.defaultString(reader.getNamespacePrefix(i)), reader.getNamespaceURI(i));
+						}
+						writeNamespaces(writer, declared);
+					}
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						final String attributePrefix = reader.getAttributePrefix(i);
+						if (StringUtils.isEmpty(attributePrefix)) {
+							writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+						} else {
+							writer.writeAttribute(attributePrefix, reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+						}
+					}
+					depth++;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				case XMLStreamConstants.CDATA:
+					writer.writeCData(reader.getText());
+					break;
+				case XMLStreamConstants.COMMENT:
+					writer.writeComment(reader.getText());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					writer.writeEndElement();
+					depth--;
+					if (depth == 0) {
+						writer.close();
+						closeElement();
+						return out.toString();
+					}
+					break;
+				default:
+					break;
+			}
+			event = reader.next();
+		}
+	}
+
+	/**
+	 * @return all namespace declarations in scope, by prefix (empty for the default namespace)
+	 */
+	private Map<String, String> namespacesInScope() {
+		final Map<String, String> result = new LinkedHashMap<>();
+		for (final String[] ns : namespaces) {
+			result.put(StringUtils.defaultString(ns[0]), ns[1]);
+		}
+		return result;
+	}
+
+	private static void writeNamespaces(final XMLStreamWriter writer, final Map<String, String> declarations) throws XMLStreamException {
+		for (final Map.Entry<String, String> ns : declarations.entrySet()) {
+			if (ns.getKey().isEmpty()) {
+				writer.writeDefaultNamespace(ns.getValue());
+			} else {
+				writer.writeNamespace(ns.getKey(), ns.getValue());
+			}
+		}
+	}
+}
@@ -0,0 +1,560 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.model.SwiftBlock1;
+import com.prowidesoftware.swift.model.SwiftBlock2;
+import com.prowidesoftware.swift.model.SwiftBlock2Input;
+import com.prowidesoftware.swift.model.SwiftBlock2Output;
+import com.prowidesoftware.swift.model.SwiftBlock3;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftBlock5;
+import com.prowidesoftware.swift.model.SwiftBlockUser;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftTagListBlock;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.UnparsedTextList;
+
+/**
+ * Compact and versioned binary serialization of {@link SwiftMessage}, intended for transport and caching of messages
+ * between services, as a faster and smaller alternative to the FIN format and Java serialization.
+ *
+ * <p>The encoding covers the five blocks, the user blocks and the unparsed texts at message, block and tag level:
+ * <ul>
+ * 	<li>Tag names are encoded as their position in a dictionary with the known field names, and written literally
+ * 	only if not found.</li>
+ * 	<li>Values are encoded as length-prefixed ASCII, or UTF-8 if they have other characters.</li>
+ * 	<li>Header blocks are encoded as fixed-width fields, with a length prefix only for fields not having the
+ * 	standard width. Numeric fields such as dates, times and sequence numbers are packed two digits per byte.</li>
+ * 	<li>Numbers and lengths are encoded as variable length integers.</li>
+ * </ul>
+ *
+ * <p>Encoded messages start with a format version that is checked when decoding. The dictionary of each version
+ * is immutable, so messages encoded by older versions of the library can always be decoded.
+ *
+ * <p>The codec is stateless and thread safe.
+ *
+ * @since 7.10.4
+ */
+public final class SwiftMessageCodec {
+
+	/**
+	 * Current format version
+	 */
+	public static final int VERSION = 1;
+
+	private static final int MAGIC = 0xB4;
+
+	private static final int BLOCK1 = 1;
+	private static final int BLOCK2 = 1 << 1;
+	private static final int BLOCK3 = 1 << 2;
+	private static final int BLOCK4 = 1 << 3;
+	private static final int BLOCK5 = 1 << 4;
+	private static final int USER_BLOCKS = 1 << 5;
+	private static final int UNPARSED_TEXTS = 1 << 6;
+
+	private static final int BLOCK2_INPUT = 'I';
+	private static final int BLOCK2_OUTPUT = 'O';
+
+	/*
+	 * standard widths of the header fields
+	 */
+	private static final int[] BLOCK1_WIDTHS = {1, 2, 12, 4, 6};
+	private static final int[] BLOCK2_INPUT_WIDTHS = {3, 12, 1, 1, 3};
+	private static final int[] BLOCK2_OUTPUT_WIDTHS = {3, 4, 6, 12, 4, 6, 6, 4, 1};
+
+	private static final String[] NAMES = dictionary("/swift_codec_v1.txt");
+	private static final Map<String, Integer> CODES = new HashMap<>();
+	static {
+		for (int i = 0; i < NAMES.length; i++) {
+			CODES.put(NAMES[i], i + 1);
+		}
+	}
+
+	// Suppress default constructor for noninstantiability
+	private SwiftMessageCodec() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Encodes the message with the current format version.
+	 *
+	 * @param msg the message to encode
+	 * @return the encoded message
+	 * @throws IllegalArgumentException if the message is null
+	 */
+	public static byte[] encode(final SwiftMessage msg) {
+		Validate.notNull(msg, "the message to encode cannot be null");
+		final Encoder out = new Encoder();
+		out.write(MAGIC);
+		out.write(VERSION);
+		int flags = 0;
+		flags |= msg.getBlock1() != null ? BLOCK1 : 0;
+		flags |= msg.getBlock2() != null ? BLOCK2 : 0;
+		flags |= msg.getBlock3() != null ? BLOCK3 : 0;
+		flags |= msg.getBlock4() != null ? BLOCK4 : 0;
+		flags |= msg.getBlock5() != null ? BLOCK5 : 0;
+		flags |= msg.getUserBlocks() != null && !msg.getUserBlocks().isEmpty() ? USER_BLOCKS : 0;
+		flags |= msg.getUnparsedTextsSize() > 0 ? UNPARSED_TEXTS : 0;
+		out.write(flags);
+
+		final SwiftBlock1 b1 = msg.getBlock1();
+		if (b1 != null) {
+			out.fixed(BLOCK1_WIDTHS, b1.getApplicationId(), b1.getServiceId(), b1.getLogicalTerminal(), b1.getSessionNumber(), b1.getSequenceNumber());
+			out.texts(b1.getUnparsedTextsSize() > 0 ? b1.getUnparsedTexts() : null);
+		}
+		final SwiftBlock2 b2 = msg.getBlock2();
+		if (b2 instanceof SwiftBlock2Input) {
+			final SwiftBlock2Input in = (SwiftBlock2Input) b2;
+			out.write(BLOCK2_INPUT);
+			out.fixed(BLOCK2_INPUT_WIDTHS, in.getMessageType(), in.getReceiverAddress(), in.getMessagePriority(), in.getDeliveryMonitoring(), in.getObsolescencePeriod());
+			out.texts(b2.getUnparsedTextsSize() > 0 ? b2.getUnparsedTexts() : null);
+		} else if (b2 != null) {
+			final SwiftBlock2Output o = (SwiftBlock2Output) b2;
+			out.write(BLOCK2_OUTPUT);
+			out.fixed(BLOCK2_OUTPUT_WIDTHS, o.getMessageType(), o.getSenderInputTime(), o.getMIRDate(), o.getMIRLogicalTerminal(), o.getMIRSessionNumber(),
+					o.getMIRSequenceNumber(), o.getReceiverOutputDate(), o.getReceiverOutputTime(), o.getMessagePriority());
+			out.texts(b2.getUnparsedTextsSize() > 0 ? b2.getUnparsedTexts() : null);
+		}
+		out.tags(msg.getBlock3());
+		out.tags(msg.getBlock4());
+		out.tags(msg.getBlock5());
+		if ((flags & USER_BLOCKS) != 0) {
+			out.varint(msg.getUserBlocks().size());
+			for (final SwiftBlockUser b : msg.getUserBlocks()) {
+				out.string(b.getBlockName());
+				out.tags(b);
+			}
+		}
+		if ((flags & UNPARSED_TEXTS) != 0) {
+			out.texts(msg.getUnparsedTexts());
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decodes a message encoded with {@link #encode(SwiftMessage)}.
+	 *
+	 * @param bytes the encoded message
+	 * @return the decoded message
+	 * @throws IllegalArgumentException if the content is not an encoded message or its format version is not supported
+	 */
+	public static SwiftMessage decode(final byte[] bytes) {
+		Validate.notNull(bytes, "the content to decode cannot be null");
+		return decode(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Decodes a message encoded with {@link #encode(SwiftMessage)} from a region of an array.
+	 *
+	 * @param bytes the array containing the encoded message
+	 * @param offset the position of the encoded message
+	 * @param length the length of the encoded message
+	 * @return the decoded message
+	 * @throws IllegalArgumentException if the content is not an encoded message or its format version is not supported
+	 */
+	public static SwiftMessage decode(final byte[] bytes, final int offset, final int length) {
+		Validate.notNull(bytes, "the content to decode cannot be null");
+		final Decoder in = new Decoder(bytes, offset, length);
+		try {
+			Validate.isTrue(in.read() == MAGIC, "not a binary encoded message");
+			final int version = in.read();
+			Validate.isTrue(version == VERSION, "unsupported format version " + version);
+			final int flags = in.read();
+
+			final SwiftMessage msg = new SwiftMessage(false);
+			if ((flags & BLOCK1) != 0) {
+				final String[] v = in.fixed(BLOCK1_WIDTHS);
+				final SwiftBlock1 b1 = new SwiftBlock1();
+				b1.setApplicationId(v[0]);
+				b1.setServiceId(v[1]);
+				b1.setLogicalTerminal(v[2]);
+				b1.setSessionNumber(v[3]);
+				b1.setSequenceNumber(v[4]);
+				b1.setUnparsedTexts(in.texts());
+				msg.setBlock1(b1);
+			}
+			if ((flags & BLOCK2) != 0) {
+				final int type = in.read();
+				if (type == BLOCK2_INPUT) {
+					final String[] v = in.fixed(BLOCK2_INPUT_WIDTHS);
+					final SwiftBlock2Input b2 = new SwiftBlock2Input();
+					b2.setMessageType(v[0]);
+					b2.setReceiverAddress(v[1]);
+					b2.setMessagePriority(v[2]);
+					b2.setDeliveryMonitoring(v[3]);
+					b2.setObsolescencePeriod(v[4]);
+					b2.setUnparsedTexts(in.texts());
+					msg.setBlock2(b2);
+				} else {
+					Validate.isTrue(type == BLOCK2_OUTPUT, "invalid block 2 type " + type);
+					final String[] v = in.fixed(BLOCK2_OUTPUT_WIDTHS);
+					final SwiftBlock2Output b2 = new SwiftBlock2Output();
+					b2.setMessageType(v[0]);
+					b2.setSenderInputTime(v[1]);
+					b2.setMIRDate(v[2]);
+					b2.setMIRLogicalTerminal(v[3]);
+					b2.setMIRSessionNumber(v[4]);
+					b2.setMIRSequenceNumber(v[5]);
+					b2.setReceiverOutputDate(v[6]);
+					b2.setReceiverOutputTime(v[7]);
+					b2.setMessagePriority(v[8]);
+					b2.setUnparsedTexts(in.texts());
+					msg.setBlock2(b2);
+				}
+			}
+			if ((flags & BLOCK3) != 0) {
+				msg.setBlock3(in.tags(new SwiftBlock3()));
+			}
+			if ((flags & BLOCK4) != 0) {
+				msg.setBlock4(in.tags(new SwiftBlock4()));
+			}
+			if ((flags & BLOCK5) != 0) {
+				msg.setBlock5(in.tags(new SwiftBlock5()));
+			}
+			if ((flags & USER_BLOCKS) != 0) {
+				final int count = in.count();
+				for (int i = 0; i < count; i++) {
+					msg.addUserBlock(in.tags(new SwiftBlockUser(in.string())));
+				}
+			}
+			if ((flags & UNPARSED_TEXTS) != 0) {
+				msg.setUnparsedTexts(in.texts());
+			}
+			return msg;
+		} catch (final ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("truncated binary encoded message", e);
+		}
+	}
+
+	private static String[] dictionary(final String resource) {
+		final List<String> names = new ArrayList<>();
+		try (InputStream stream = SwiftMessageCodec.class.getResourceAsStream(resource)) {
+			Validate.notNull(stream, "resource " + resource + " not found");
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isEmpty() && line.charAt(0) != '#') {
+					names.add(line);
+				}
+			}
+		} catch (final IOException e) {
+			throw new ProwideException("error reading the codec dictionary " + resource, e);
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	/*
+	 * growable byte array with the encoding primitives
+	 */
+	private static final class Encoder {
+		private byte[] buffer = new byte[512];
+		private int count = 0;
+
+		void write(final int b) {
+			ensure(1);
+			buffer[count++] = (byte) b;
+		}
+
+		void varint(final int value) {
+			ensure(5);
+			int v = value;
+			while ((v & ~0x7F) != 0) {
+				buffer[count++] = (byte) ((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			buffer[count++] = (byte) v;
+		}
+
+		/*
+		 * null is encoded as zero, otherwise the length and a UTF-8 flag in the lowest bit, plus one
+		 */
+		void string(final String s) {
+			if (s == null) {
+				write(0);
+				return;
+			}
+			final int length = s.length();
+			if (isAscii(s)) {
+				varint((length << 1) + 1);
+				ensure(length);
+				for (int i = 0; i < length; i++) {
+					buffer[count++] = (byte) s.charAt(i);
+				}
+			} else {
+				final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				varint((bytes.length << 1 | 1) + 1);
+				ensure(bytes.length);
+				System.arraycopy(bytes, 0, buffer, count, bytes.length);
+				count += bytes.length;
+			}
+		}
+
+		/*
+		 * bitmaps of the present fields, the fields with the standard width and the numeric ones, followed by the
+		 * values; numeric fields with the standard width are packed as two digits per byte
+		 */
+		void fixed(final int[] widths, final String... values) {
+			int present = 0;
+			int standard = 0;
+			int numeric = 0;
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					present |= 1 << i;
+					if (values[i].length() == widths[i] && isAscii(values[i])) {
+						standard |= 1 << i;
+						if (isNumeric(values[i])) {
+							numeric |= 1 << i;
+						}
+					}
+				}
+			}
+			varint(present);
+			varint(standard);
+			varint(numeric);
+			for (int i = 0; i < values.length; i++) {
+				if ((numeric & 1 << i) != 0) {
+					ensure((widths[i] + 1) / 2);
+					for (int j = 0; j < widths[i]; j += 2) {
+						final int high = values[i].charAt(j) - '0';
+						final int low = j + 1 < widths[i] ? values[i].charAt(j + 1) - '0' : 0;
+						buffer[count++] = (byte) (high << 4 | low);
+					}
+				} else if ((standard & 1 << i) != 0) {
+					ensure(widths[i]);
+					for (int j = 0; j < widths[i]; j++) {
+						buffer[count++] = (byte) values[i].charAt(j);
+					}
+				} else if ((present & 1 << i) != 0) {
+					string(values[i]);
+				}
+			}
+		}
+
+		void name(final String name) {
+			final Integer code = name != null ? CODES.get(name) : null;
+			if (code != null) {
+				varint(code);
+			} else {
+				write(0);
+				string(name);
+			}
+		}
+
+		void texts(final UnparsedTextList texts) {
+			if (texts == null || texts.size() == 0) {
+				write(0);
+				return;
+			}
+			varint(texts.size());
+			for (final String s : texts.getTexts()) {
+				string(s);
+			}
+		}
+
+		void tags(final SwiftTagListBlock block) {
+			if (block == null) {
+				return;
+			}
+			final List<Tag> tags = block.getTags();
+			varint(tags != null ? tags.size() : 0);
+			if (tags != null) {
+				for (final Tag t : tags) {
+					name(t.getName());
+					string(t.getValue());
+					texts(t.getUnparsedTextsSize() > 0 ? t.getUnparsedTexts() : null);
+				}
+			}
+			texts(block.getUnparsedTextsSize() > 0 ? block.getUnparsedTexts() : null);
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, count);
+		}
+
+		private void ensure(final int n) {
+			if (count + n > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, count + n));
+			}
+		}
+
+		private static boolean isNumeric(final String s) {
+			for (int i = 0; i < s.length(); i++) {
+				if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isAscii(final String s) {
+			for (int i = 0; i < s.length(); i++) {
+				if (s.charAt(i) >= 0x80) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/*
+	 * reader of the encoding primitives, an out of bounds position means a truncated content
+	 */
+	private static final class Decoder {
+		private final byte[] buffer;
+		private final int end;
+		private int position;
+
+		Decoder(final byte[] buffer, final int offset, final int length) {
+			Validate.isTrue(offset >= 0 && length >= 0 && offset + length <= buffer.length, "invalid offset or length");
+			this.buffer = buffer;
+			this.position = offset;
+			this.end = offset + length;
+		}
+
+		int read() {
+			if (position >= end) {
+				throw new ArrayIndexOutOfBoundsException(position);
+			}
+			return buffer[position++] & 0xFF;
+		}
+
+		int varint() {
+			int result = 0;
+			for (int shift = 0; shift < 32; shift += 7) {
+				final int b = read();
+				result |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return result;
+				}
+			}
+			throw new IllegalArgumentException("malformed variable length integer");
+		}
+
+		String string() {
+			final int header = varint();
+			if (header == 0) {
+				return null;
+			}
+			final int length = (header - 1) >>> 1;
+			return chars(length, ((header - 1) & 1) != 0);
+		}
+
+		String[] fixed(final int[] widths) {
+			final int present = varint();
+			final int standard = varint();
+			final int numeric = varint();
+			final String[] values = new String[widths.length];
+			for (int i = 0; i < widths.length; i++) {
+				if ((numeric & 1 << i) != 0) {
+					values[i] = digits(widths[i]);
+				} else if ((standard & 1 << i) != 0) {
+					values[i] = chars(widths[i], false);
+				} else if ((present & 1 << i) != 0) {
+					values[i] = string();
+				}
+			}
+			return values;
+		}
+
+		String name() {
+			final int code = varint();
+			if (code == 0) {
+				return string();
+			}
+			Validate.isTrue(code <= NAMES.length, "invalid tag name code " + code);
+			return NAMES[code - 1];
+		}
+
+		/**
+		 * Reads the number of elements of a list, checked against the remaining content, since every element
+		 * takes at least one byte, so a corrupt count is not used to allocate memory
+		 */
+		int count() {
+			final int count = varint();
+			Validate.isTrue(count >= 0 && count <= end - position, "invalid element count " + count);
+			return count;
+		}
+
+		UnparsedTextList texts() {
+			final int count = count();
+			if (count == 0) {
+				return null;
+			}
+			final UnparsedTextList texts = new UnparsedTextList();
+			for (int i = 0; i < count; i++) {
+				texts.addText(string());
+			}
+			return texts;
+		}
+
+		<T extends SwiftTagListBlock> T tags(final T block) {
+			final int count = count();
+			final List<Tag> tags = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				final Tag t = new Tag();
+				t.setName(name());
+				t.setValue(string());
+				final UnparsedTextList texts = texts();
+				if (texts != null) {
+					t.setUnparsedTexts(texts);
+				}
+				tags.add(t);
+			}
+			block.setTags(tags);
+			final UnparsedTextList texts = texts();
+			if (texts != null) {
+				block.setUnparsedTexts(texts);
+			}
+			return block;
+		}
+
+		private String digits(final int width) {
+			final char[] chars = new char[width];
+			for (int j = 0; j < width; j += 2) {
+				final int b = read();
+				chars[j] = (char) ('0' + (b >> 4));
+				if (j + 1 < width) {
+					chars[j + 1] = (char) ('0' + (b & 0x0F));
+				}
+			}
+			return new String(chars);
+		}
+
+		private String chars(final int length, final boolean utf8) {
+			if (length > end - position) {
+				throw new ArrayIndexOutOfBoundsException(position + length);
+			}
+			final String s = new String(buffer, position, length, utf8 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+			position += length;
+			return s;
+		}
+	}
+}
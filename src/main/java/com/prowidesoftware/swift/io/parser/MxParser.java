@@ -18,6 +18,9 @@ package com.prowidesoftware.swift.io.parser;
 import com.prowidesoftware.deprecation.DeprecationUtils;
 import com.prowidesoftware.deprecation.ProwideDeprecated;
 import com.prowidesoftware.deprecation.TargetYear;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.MxId;
 import com.prowidesoftware.swift.model.MxNode;
 import com.prowidesoftware.swift.model.mx.AbstractMX;
@@ -76,6 +79,7 @@ public class MxParser {
 	
 	private String buffer = null;
 	private MxStructureInfo info = null;
+	private MxSplitter split = null;
 
 	/**
 	 * Construct a parser for a file containing a single MX message
@@ -136,6 +140,8 @@ public class MxParser {
 	 */
 	public MxNode parse() {
 		Validate.notNull(buffer, "the source must be initialized");
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		try {
 			final javax.xml.parsers.SAXParserFactory spf = javax.xml.parsers.SAXParserFactory.newInstance();
 			spf.setNamespaceAware(true);
@@ -144,9 +150,15 @@ public class MxParser {
 			final org.xml.sax.XMLReader xmlReader = saxParser.getXMLReader();
 			xmlReader.setContentHandler(contentHandler);
 			xmlReader.parse(new org.xml.sax.InputSource(new StringReader(this.buffer)));
+			if (metrics != null) {
+				Metrics.completed(metrics, Operation.MX_PARSE, null, this.buffer.length(), 0, start, 0);
+			}
 			return contentHandler.getRootNode();
 		} catch (final Exception e) {
 			log.log(Level.SEVERE, "Error parsing: ", e);
+			if (metrics != null) {
+				Metrics.failed(metrics, Operation.MX_PARSE, start, e);
+			}
 		}
 		return null;
 	}
@@ -268,6 +280,8 @@ public class MxParser {
 			log.log(Level.SEVERE, "cannot detect message from null or empty content");
 			return null;
 		}
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		final javax.xml.stream.XMLInputFactory xif = javax.xml.stream.XMLInputFactory.newInstance();
 		try {
 			final javax.xml.stream.XMLStreamReader reader = xif.createXMLStreamReader(new StringReader(this.buffer));
@@ -282,7 +296,11 @@ public class MxParser {
 							if (StringUtils.equals(nsPrefix, elementPrefix)) {
 								String nsId = reader.getNamespaceURI(nsIndex);
 								//log.finest("\tNamepsace prefix: " + nsPrefix + " associated with URI " + nsId);
-								return new MxId(nsId);
+								final MxId id = new MxId(nsId);
+								if (metrics != null) {
+									Metrics.completed(metrics, Operation.MX_DETECT, id.id(), this.buffer.length(), 0, start, 0);
+								}
+								return id;
 							}
 						}
 					}
@@ -290,6 +308,13 @@ public class MxParser {
 			}
 		} catch (final Exception e) {
 			log.log(Level.SEVERE, "error while detecting message", e);
+			if (metrics != null) {
+				Metrics.failed(metrics, Operation.MX_DETECT, start, e);
+			}
+			return null;
+		}
+		if (metrics != null) {
+			Metrics.failed(metrics, Operation.MX_DETECT, start, null);
 		}
 		return null;
 	}
@@ -324,6 +349,8 @@ public class MxParser {
 			log.log(Level.WARNING, "cannot analyze message from null or empty content");
 			return this.info;
 		}
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		final javax.xml.stream.XMLInputFactory xif = javax.xml.stream.XMLInputFactory.newInstance();
 		try {
 			final javax.xml.stream.XMLStreamReader reader = xif.createXMLStreamReader(new StringReader(this.buffer));
@@ -455,54 +482,26 @@ public class MxParser {
 	 * <p>This API is convenient when only the Document element of an MX message
 	 * is needed and the wrapper/payload structure is unknown.
 	 *
-	 * <p>This implementation is intended to be lightweight and efficient so it actually
-	 * does a simple substring operation on the XML using information provided
-	 * by the result of {@link #analyzeMessage()}. The XML is not converted into DOM.
+	 * <p>This implementation is intended to be lightweight and efficient, it scans the XML once
+	 * with {@link MxSplitter} and does a simple substring operation. The XML is not converted into DOM.
+	 * If the Document element uses a namespace prefix declared in the wrapper, the declaration is
+	 * added to the returned element.
 	 * <br >
 	 * If the message contains more than one Document element the expected result is as follows:
 	 * <ul>
 	 * <li>If the documents are nested (this can happen for example when an additional MX message
 	 * is provided within a supplementary data element within the main MX) then the outermost Document
 	 * will be returned.</li>
-	 * <li>If the documents are not-nested (weird situation) the result might be not well-formed</li>
+	 * <li>If the documents are not-nested (weird situation) the first one will be returned.</li>
 	 * </ul>
 	 *  
 	 * @since 7.8.4
 	 * @return XML with Document element of the Mx message or null if message is blank or invalid
 	 */
 	public String stripDocument() {
-		analyzeMessage();
-		final String tag = this.info.getDocumentPrefix() != null? this.info.getDocumentPrefix() + ":" + MxParser.DOCUMENT_LOCALNAME : MxParser.DOCUMENT_LOCALNAME;
-		int beginIndex = this.buffer.indexOf("<" + tag);
-		int endIndex = this.buffer.lastIndexOf("</" + tag);
-		if (beginIndex >=0 && endIndex >= 0) {
-			return this.buffer.substring(beginIndex, endIndex) + "</"+tag+">";
-		} else {
-			return null;
-		}
-	}
-	
-	/* alternative future implementation using DOM instead of MxNode
-	public String stripDocument1() {
-		try {
-		    javax.xml.parsers.DocumentBuilderFactory dbf = javax.xml.parsers.DocumentBuilderFactory.newInstance();
-		    org.w3c.dom.Document doc = dbf.newDocumentBuilder().parse(new org.xml.sax.InputSource(new StringReader(this.buffer)));
-		    javax.xml.xpath.XPath xPath = javax.xml.xpath.XPathFactory.newInstance().newXPath();
-		    org.w3c.dom.Node result = (org.w3c.dom.Node)xPath.evaluate("Document", doc, javax.xml.xpath.XPathConstants.NODE);
-		    return nodeToString(result);
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-		}
-	}
-	private static String nodeToString(org.w3c.dom.Node node) throws javax.xml.transform.TransformerException {
-	    StringWriter buf = new StringWriter();
-	    javax.xml.transform.Transformer xform = javax.xml.transform.TransformerFactory.newInstance().newTransformer();
-	    xform.setOutputProperty(javax.xml.transform.OutputKeys.OMIT_XML_DECLARATION, "yes");
-	    xform.transform(new javax.xml.transform.dom.DOMSource(node), new javax.xml.transform.stream.StreamResult(buf));
-	    return(buf.toString());
+		final MxSplitter.Part document = split().getDocument();
+		return document != null ? document.toXml() : null;
 	}
-	*/
 	
 	/**
 	 * Helper API to strip AppHdr portion of message XML.
@@ -512,31 +511,32 @@ public class MxParser {
 	 * 
 	 * <p>To gather the header already parsed into objects see {@link #parseBusinessHeader()}
 	 * 
-	 * <p>This implementation is intended to be lightweight and efficient so it actually
-	 * does a simple substring operation on the XML using information provided
-	 * by the result of {@link #analyzeMessage()}. The XML is not converted into DOM.
+	 * <p>This implementation is intended to be lightweight and efficient, it scans the XML once
+	 * with {@link MxSplitter} and does a simple substring operation. The XML is not converted into DOM.
+	 * If the AppHdr element uses a namespace prefix declared in the wrapper, the declaration is
+	 * added to the returned element.
 	 * <br >
-	 * If the message contains more than one AppHdr element the expected result is as follows:
-	 * <ul>
-	 * <li>If the headers are not nested, the first one will be returned.</li>
-	 * <li>If the headers are nested (weird situation) the result might be not well-formed</li>
-	 * </ul>
+	 * If the message contains more than one AppHdr element the first one will be returned.
 	 * 
 	 * @since 7.8.4
 	 * @return XML with AppHdr element of the Mx message or null if not found
 	 */
 	public String stripHeader() {
-		analyzeMessage();
-		if (this.info.containsHeader()) {
-			final String tag = this.info.getHeaderPrefix() != null? this.info.getHeaderPrefix() + ":" + MxParser.HEADER_LOCALNAME : MxParser.HEADER_LOCALNAME;
-			int beginIndex = this.buffer.indexOf("<" + tag);
-			int endIndex = this.buffer.indexOf("</" + tag);
-			if (beginIndex >=0 && endIndex >= 0) {
-				return this.buffer.substring(beginIndex, endIndex) + "</"+tag+">";
-			} else {
-				return null;
-			}
+		final MxSplitter.Part header = split().getHeader();
+		return header != null ? header.toXml() : null;
+	}
+
+	/**
+	 * Splits the AppHdr and Document elements from the message, scanning the XML once.
+	 * The result is computed on first call and reused on subsequent calls.
+	 * 
+	 * @return the split result, never null
+	 * @since 7.10.4
+	 */
+	public MxSplitter split() {
+		if (this.split == null) {
+			this.split = MxSplitter.split(StringUtils.defaultString(this.buffer));
 		}
-		return null;
+		return this.split;
 	}
 }
@@ -0,0 +1,406 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.model.MxNode;
+
+/**
+ * Streaming extractor of a fixed set of values from MX messages.
+ *
+ * <p>This is a lightweight alternative to {@link MxParser#parse()} when only some leaf values of
+ * the message are needed. Instead of building a complete {@link MxNode} tree, the paths are compiled
+ * once into a lookup structure, and each message is read in a single pass with a
+ * {@link javax.xml.stream.XMLStreamReader}, delivering the matching values to a {@link Handler}
+ * as soon as they are found.
+ *
+ * <p>Paths are absolute and use the same syntax as {@link MxNode#find(String)}, starting with the
+ * root element of the XML, for example <code>/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt</code>.
+ * Elements are matched by local name, ignoring namespace prefixes and case. The last segment can
+ * also select an attribute with the <code>@</code> prefix, for example
+ * <code>/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt/@Ccy</code>. As in {@link MxNode} predicates
+ * such as <code>[1]</code> are ignored, so repeated elements report a value for each occurrence.
+ *
+ * <p>Memory usage does not depend on the document size. Subtrees that cannot match any of the
+ * paths are skipped without buffering any content, and only the text of the matched elements
+ * is retained until its end tag is read.
+ *
+ * <p>Instances are immutable once created and can be shared and reused to process any number
+ * of messages.
+ *
+ * @since 7.10.4
+ */
+public class MxPathExtractor {
+	private static final transient Logger log = Logger.getLogger(MxPathExtractor.class.getName());
+
+	/**
+	 * Prefix used in the last segment of a path to select an attribute
+	 */
+	public static final String ATTRIBUTE_PREFIX = "@";
+
+	private final List<String> paths;
+	private final Step root = new Step(null);
+	private final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+	/**
+	 * Callback notified with the values found while reading a message.
+	 */
+	public interface Handler {
+		/**
+		 * Called once for each occurrence of a matched element or attribute, in document order.
+		 *
+		 * @param index position of the matched path in {@link MxPathExtractor#getPaths()}
+		 * @param path the matched path, as given to the extractor
+		 * @param value the element text or attribute value
+		 */
+		void value(int index, String path, String value);
+	}
+
+	/**
+	 * Creates an extractor for the given paths
+	 * @param paths one or more absolute paths
+	 * @throws IllegalArgumentException if no path is given, or if any of them is not absolute
+	 */
+	public MxPathExtractor(final String... paths) {
+		this(Arrays.asList(Validate.notNull(paths, "paths cannot be null")));
+	}
+
+	/**
+	 * Creates an extractor for the given paths
+	 * @param paths one or more absolute paths
+	 * @throws IllegalArgumentException if no path is given, or if any of them is not absolute
+	 */
+	public MxPathExtractor(final Collection<String> paths) {
+		Validate.notEmpty(paths, "at least one path is required");
+		this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+		for (int i = 0; i < this.paths.size(); i++) {
+			compile(i, this.paths.get(i));
+		}
+	}
+
+	private void compile(final int index, final String path) {
+		Validate.isTrue(path != null && path.startsWith(MxNode.PATH_SEPARATOR), "path must be absolute: " + path);
+		final String[] segments = StringUtils.split(path, MxNode.PATH_SEPARATOR);
+		Validate.isTrue(segments.length > 0, "path must contain at least one element: " + path);
+		Step step = root;
+		for (int i = 0; i < segments.length; i++) {
+			final String segment = removePredicate(segments[i]);
+			if (segment.startsWith(ATTRIBUTE_PREFIX)) {
+				Validate.isTrue(i == segments.length - 1 && i > 0, "attributes can only be selected in the last segment of the path: " + path);
+				step.addAttribute(segment.substring(ATTRIBUTE_PREFIX.length()), index);
+				return;
+			}
+			step = step.child(segment);
+		}
+		step.addTarget(index);
+	}
+
+	private static String removePredicate(final String segment) {
+		final int index = segment.indexOf('[');
+		return index > 0 ? segment.substring(0, index) : segment;
+	}
+
+	/**
+	 * @return the paths this extractor was created with, in their original order
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Reads the XML from the given reader, notifying the handler with each value found.
+	 * The reader is not closed.
+	 *
+	 * @param reader the XML source
+	 * @param handler callback for the matched values
+	 * @return true if the complete XML was read, false if the content could not be parsed
+	 */
+	public boolean extract(final Reader reader, final Handler handler) {
+		Validate.notNull(reader, "the source cannot be null");
+		try {
+			return extract(factory.createXMLStreamReader(reader), handler);
+		} catch (final XMLStreamException e) {
+			log.log(Level.SEVERE, "error while extracting values from message", e);
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the XML from the given stream, notifying the handler with each value found.
+	 * The encoding is detected from the XML declaration. The stream is not closed.
+	 *
+	 * @param stream the XML source
+	 * @param handler callback for the matched values
+	 * @return true if the complete XML was read, false if the content could not be parsed
+	 */
+	public boolean extract(final InputStream stream, final Handler handler) {
+		Validate.notNull(stream, "the source cannot be null");
+		try {
+			return extract(factory.createXMLStreamReader(stream), handler);
+		} catch (final XMLStreamException e) {
+			log.log(Level.SEVERE, "error while extracting values from message", e);
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the given XML, notifying the handler with each value found.
+	 *
+	 * @param xml the XML content
+	 * @param handler callback for the matched values
+	 * @return true if the complete XML was read, false if the content could not be parsed
+	 */
+	public boolean extract(final String xml, final Handler handler) {
+		Validate.notNull(xml, "the source cannot be null");
+		return extract(new StringReader(xml), handler);
+	}
+
+	/**
+	 * Reads the given XML collecting all values found.
+	 *
+	 * @param xml the XML content
+	 * @return a map with all the paths as keys, in their original order, and the list of values found for each one
+	 * (empty if the path is not present), or null if the content could not be parsed
+	 */
+	public Map<String, List<String>> extractAll(final String xml) {
+		final ValuesHandler handler = new ValuesHandler();
+		return extract(xml, handler) ? handler.result : null;
+	}
+
+	/**
+	 * Reads the XML from the given stream collecting all values found.
+	 * @see #extractAll(String)
+	 */
+	public Map<String, List<String>> extractAll(final InputStream stream) {
+		final ValuesHandler handler = new ValuesHandler();
+		return extract(stream, handler) ? handler.result : null;
+	}
+
+	/**
+	 * Reads the given XML collecting the first value found for each path.
+	 *
+	 * @param xml the XML content
+	 * @return an array with the first value found for each path, indexed as in {@link #getPaths()}, with null for
+	 * the paths not present; or null if the content could not be parsed
+	 */
+	public String[] extractFirst(final String xml) {
+		final FirstValueHandler handler = new FirstValueHandler(paths.size());
+		return extract(xml, handler) ? handler.result : null;
+	}
+
+	/**
+	 * Reads the XML from the given stream collecting the first value found for each path.
+	 * @see #extractFirst(String)
+	 */
+	public String[] extractFirst(final InputStream stream) {
+		final FirstValueHandler handler = new FirstValueHandler(paths.size());
+		return extract(stream, handler) ? handler.result : null;
+	}
+
+	private boolean extract(final XMLStreamReader reader, final Handler handler) {
+		Validate.notNull(handler, "the handler cannot be null");
+		/*
+		 * steps and text offsets of the matched elements from the root to the current one;
+		 * text is only buffered while the current step is a value target
+		 */
+		final List<Step> stack = new ArrayList<>();
+		final List<Integer> offsets = new ArrayList<>();
+		final StringBuilder text = new StringBuilder();
+		Step current = root;
+		int skipped = 0;
+		try {
+			while (reader.hasNext()) {
+				final int event = reader.next();
+				switch (event) {
+					case XMLStreamConstants.START_ELEMENT:
+						if (skipped > 0) {
+							skipped++;
+							break;
+						}
+						final Step next = current.find(reader.getLocalName());
+						if (next == null) {
+							// no path goes through this element
+							skipped = 1;
+							break;
+						}
+						stack.add(current);
+						offsets.add(text.length());
+						current = next;
+						if (next.attributes != null) {
+							notifyAttributes(reader, next, handler);
+						}
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						if (skipped == 0 && current.targets != null) {
+							text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						}
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						if (skipped > 0) {
+							skipped--;
+							break;
+						}
+						final int offset = offsets.remove(offsets.size() - 1);
+						if (current.targets != null) {
+							final String value = text.substring(offset);
+							for (final int index : current.targets) {
+								handler.value(index, paths.get(index), value);
+							}
+						}
+						text.setLength(offset);
+						current = stack.remove(stack.size() - 1);
+						break;
+					default:
+						break;
+				}
+			}
+			return true;
+		} catch (final XMLStreamException e) {
+			log.log(Level.SEVERE, "error while extracting values from message", e);
+		} finally {
+			try {
+				reader.close();
+			} catch (final XMLStreamException e) {
+				log.log(Level.FINEST, "error closing reader", e);
+			}
+		}
+		return false;
+	}
+
+	private void notifyAttributes(final XMLStreamReader reader, final Step step, final Handler handler) {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String name = reader.getAttributeLocalName(i);
+			for (final Attribute attribute : step.attributes) {
+				if (attribute.name.equalsIgnoreCase(name)) {
+					handler.value(attribute.index, paths.get(attribute.index), reader.getAttributeValue(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Node of the compiled paths tree, matching one element name
+	 */
+	private static final class Step {
+		private final String name;
+		private final List<Step> children = new ArrayList<>();
+		private List<Attribute> attributes;
+		private List<Integer> targets;
+
+		Step(final String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Linear search is used on purpose, steps have just a few children and this avoids
+		 * any allocation while matching the element names
+		 */
+		Step find(final String localName) {
+			for (int i = 0; i < children.size(); i++) {
+				final Step child = children.get(i);
+				if (child.name.equalsIgnoreCase(localName)) {
+					return child;
+				}
+			}
+			return null;
+		}
+
+		Step child(final String localName) {
+			Step child = find(localName);
+			if (child == null) {
+				child = new Step(localName);
+				children.add(child);
+			}
+			return child;
+		}
+
+		void addTarget(final int index) {
+			if (targets == null) {
+				targets = new ArrayList<>();
+			}
+			targets.add(index);
+		}
+
+		void addAttribute(final String attributeName, final int index) {
+			if (attributes == null) {
+				attributes = new ArrayList<>();
+			}
+			attributes.add(new Attribute(attributeName, index));
+		}
+	}
+
+	private static final class Attribute {
+		private final String name;
+		private final int index;
+
+		Attribute(final String name, final int index) {
+			this.name = name;
+			this.index = index;
+		}
+	}
+
+	private final class ValuesHandler implements Handler {
+		private final Map<String, List<String>> result = new LinkedHashMap<>();
+
+		ValuesHandler() {
+			for (final String path : paths) {
+				result.put(path, new ArrayList<String>());
+			}
+		}
+
+		@Override
+		public void value(final int index, final String path, final String value) {
+			result.get(path).add(value);
+		}
+	}
+
+	private static final class FirstValueHandler implements Handler {
+		private final String[] result;
+
+		FirstValueHandler(final int size) {
+			this.result = new String[size];
+		}
+
+		@Override
+		public void value(final int index, final String path, final String value) {
+			if (result[index] == null) {
+				result[index] = value;
+			}
+		}
+	}
+}
@@ -0,0 +1,631 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Lightweight splitter of the AppHdr and Document elements from an MX message, regardless of its wrapper structure.
+ *
+ * <p>The content is scanned once, char by char, just recognizing the XML markup (tags, attributes, comments,
+ * CDATA sections and processing instructions). No DOM or tree is created and the text content is not copied.
+ * The result gives the position of the first AppHdr element and the first outermost Document element, as
+ * offsets into the original content, along with the element content:
+ * <ul>
+ * <li>When splitting a {@link CharSequence}, offsets are char positions and the element contents are
+ * views over the original sequence, created without copying it.</li>
+ * <li>When splitting an {@link InputStream}, offsets are byte positions and only the bytes of the two elements
+ * are retained. This works for the encodings where the XML markup is single byte ASCII, such as UTF-8 or ISO-8859-1,
+ * which is the case of MX messages. The encoding from the XML declaration is used to decode the elements content.</li>
+ * </ul>
+ * The scan ends as soon as both elements are found.
+ *
+ * <p>Namespace prefixes used by the elements but declared in any of their wrapper elements are also collected,
+ * so the elements can be written as standalone XML with {@link Part#toXml()}.
+ *
+ * <p>Notice this is not a validating parser; the content is expected to be well-formed.
+ *
+ * @since 7.10.4
+ */
+public final class MxSplitter {
+	private static final transient Logger log = Logger.getLogger(MxSplitter.class.getName());
+	private static final String XMLNS = "xmlns";
+
+	private Part header;
+	private Part document;
+
+	private MxSplitter() {}
+
+	/**
+	 * Splits the given XML content.
+	 * @param xml the MX message, possibly with a wrapper
+	 * @return the split result, with null parts if the elements are not found
+	 */
+	public static MxSplitter split(final CharSequence xml) {
+		Validate.notNull(xml, "xml cannot be null");
+		final Scanner scanner = new Scanner(xml, false);
+		for (int i = 0; i < xml.length() && !scanner.done(); i++) {
+			scanner.next(xml.charAt(i));
+		}
+		return scanner.result(null);
+	}
+
+	/**
+	 * Splits the XML content from the given stream, reading it up to the end of the AppHdr and Document elements.
+	 * The stream is not closed.
+	 *
+	 * @param stream the MX message, possibly with a wrapper
+	 * @return the split result, with null parts if the elements are not found
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static MxSplitter split(final InputStream stream) throws IOException {
+		Validate.notNull(stream, "stream cannot be null");
+		// each byte is read as a single char, so offsets are byte offsets and content can be converted back to bytes
+		final Reader reader = new InputStreamReader(stream, StandardCharsets.ISO_8859_1);
+		final Scanner scanner = new Scanner(null, true);
+		final char[] buffer = new char[8192];
+		int read;
+		while (!scanner.done() && (read = reader.read(buffer)) != -1) {
+			for (int i = 0; i < read && !scanner.done(); i++) {
+				scanner.next(buffer[i]);
+			}
+		}
+		return scanner.result(scanner.charset());
+	}
+
+	/**
+	 * @return the first AppHdr element found or null if the message has no header
+	 */
+	public Part getHeader() {
+		return header;
+	}
+
+	/**
+	 * @return the first outermost Document element found or null if the message has no document
+	 */
+	public Part getDocument() {
+		return document;
+	}
+
+	/**
+	 * Position and content of an element found by the splitter.
+	 */
+	public static final class Part {
+		private final long start;
+		private final long end;
+		private final String localName;
+		private final String prefix;
+		private final String namespace;
+		private final CharSequence content;
+		private final Map<String, String> inheritedNamespaces;
+
+		Part(final long start, final long end, final String qname, final String namespace, final CharSequence content, final Map<String, String> inheritedNamespaces) {
+			this.start = start;
+			this.end = end;
+			this.prefix = prefix(qname);
+			this.localName = localName(qname);
+			this.namespace = namespace;
+			this.content = content;
+			this.inheritedNamespaces = Collections.unmodifiableMap(inheritedNamespaces);
+		}
+
+		/**
+		 * @return offset of the element start tag in the original content (in chars or bytes depending on the source)
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * @return offset following the element end tag in the original content (in chars or bytes depending on the source)
+		 */
+		public long getEnd() {
+			return end;
+		}
+
+		public String getLocalName() {
+			return localName;
+		}
+
+		/**
+		 * @return the element prefix or null if the element is not prefixed
+		 */
+		public String getPrefix() {
+			return prefix;
+		}
+
+		/**
+		 * @return the element namespace or null if the element is not bound to a namespace
+		 */
+		public String getNamespace() {
+			return namespace;
+		}
+
+		/**
+		 * @return the element exactly as found in the original content, from its start tag to its end tag
+		 */
+		public CharSequence getContent() {
+			return content;
+		}
+
+		/**
+		 * Namespaces used in the element but declared in its ancestors, with the prefix as key
+		 * (empty for the default namespace) and the namespace URI as value.
+		 * @return the declarations needed to use the element as standalone XML, empty if none
+		 */
+		public Map<String, String> getInheritedNamespaces() {
+			return inheritedNamespaces;
+		}
+
+		/**
+		 * Gets the element as standalone XML, adding to its start tag the inherited namespace declarations if any.
+		 * @return the element XML
+		 */
+		public String toXml() {
+			if (inheritedNamespaces.isEmpty()) {
+				return content.toString();
+			}
+			final int nameEnd = 1 + (prefix == null ? 0 : prefix.length() + 1) + localName.length();
+			final StringBuilder result = new StringBuilder(content.length() + 64 * inheritedNamespaces.size());
+			result.append(content, 0, nameEnd);
+			for (final Map.Entry<String, String> ns : inheritedNamespaces.entrySet()) {
+				result.append(' ').append(XMLNS);
+				if (!ns.getKey().isEmpty()) {
+					result.append(':').append(ns.getKey());
+				}
+				result.append("=\"").append(ns.getValue()).append('"');
+			}
+			result.append(content, nameEnd, content.length());
+			return result.toString();
+		}
+
+		@Override
+		public String toString() {
+			return toXml();
+		}
+	}
+
+	private static String prefix(final String qname) {
+		final int index = qname.indexOf(':');
+		return index > 0 ? qname.substring(0, index) : null;
+	}
+
+	private static String localName(final String qname) {
+		final int index = qname.indexOf(':');
+		return index > 0 ? qname.substring(index + 1) : qname;
+	}
+
+	/*
+	 * Scanner states
+	 */
+	private static final int TEXT = 0;
+	private static final int TAG_OPEN = 1;
+	private static final int START_NAME = 2;
+	private static final int IN_TAG = 3;
+	private static final int ATTR_NAME = 4;
+	private static final int ATTR_EQ = 5;
+	private static final int ATTR_VALUE = 6;
+	private static final int END_NAME = 7;
+	private static final int MARKUP = 8;
+	private static final int COMMENT = 9;
+	private static final int CDATA = 10;
+	private static final int DOCTYPE = 11;
+	private static final int PI = 12;
+	private static final String COMMENT_START = "--";
+	private static final String CDATA_START = "[CDATA[";
+
+	/**
+	 * Push scanner fed with one char at a time
+	 */
+	private static final class Scanner {
+		private final CharSequence source;
+		private final boolean capture;
+
+		private int state = TEXT;
+		private long offset = -1;
+		private long tagStart;
+		private char quote;
+		private boolean selfClosing;
+		private char last1;
+		private char last2;
+		private int brackets;
+		private final StringBuilder name = new StringBuilder();
+		private final StringBuilder attrName = new StringBuilder();
+		private final StringBuilder attrValue = new StringBuilder();
+		private final StringBuilder raw = new StringBuilder();
+		private final List<String[]> attributes = new ArrayList<>();
+		private String encoding = null;
+
+		/*
+		 * open elements and namespace declarations in scope
+		 */
+		private final List<String> elements = new ArrayList<>();
+		private final List<String[]> namespaces = new ArrayList<>();
+		private final List<Integer> namespaceCounts = new ArrayList<>();
+
+		private final Target header = new Target(MxParser.HEADER_LOCALNAME);
+		private final Target document = new Target(MxParser.DOCUMENT_LOCALNAME);
+
+		Scanner(final CharSequence source, final boolean capture) {
+			this.source = source;
+			this.capture = capture;
+		}
+
+		boolean done() {
+			return header.end >= 0 && document.end >= 0;
+		}
+
+		void next(final char c) {
+			offset++;
+			if (header.capturing()) {
+				header.buffer.append(c);
+			}
+			if (document.capturing()) {
+				document.buffer.append(c);
+			}
+			if (capture && state >= TAG_OPEN && state <= ATTR_VALUE) {
+				raw.append(c);
+			}
+			switch (state) {
+				case TEXT:
+					if (c == '<') {
+						tagStart = offset;
+						state = TAG_OPEN;
+						if (capture) {
+							raw.setLength(0);
+							raw.append(c);
+						}
+					}
+					break;
+				case TAG_OPEN:
+					if (c == '/') {
+						name.setLength(0);
+						state = END_NAME;
+					} else if (c == '!') {
+						name.setLength(0);
+						state = MARKUP;
+					} else if (c == '?') {
+						name.setLength(0);
+						last1 = 0;
+						state = PI;
+					} else {
+						name.setLength(0);
+						name.append(c);
+						attributes.clear();
+						selfClosing = false;
+						state = START_NAME;
+					}
+					break;
+				case START_NAME:
+					if (c == '>') {
+						startTag();
+					} else if (c == '/') {
+						selfClosing = true;
+						state = IN_TAG;
+					} else if (Character.isWhitespace(c)) {
+						state = IN_TAG;
+					} else {
+						name.append(c);
+					}
+					break;
+				case IN_TAG:
+					if (c == '>') {
+						startTag();
+					} else if (c == '/') {
+						selfClosing = true;
+					} else if (!Character.isWhitespace(c)) {
+						attrName.setLength(0);
+						attrName.append(c);
+						state = ATTR_NAME;
+					}
+					break;
+				case ATTR_NAME:
+					if (c == '=') {
+						state = ATTR_EQ;
+					} else if (!Character.isWhitespace(c)) {
+						attrName.append(c);
+					}
+					break;
+				case ATTR_EQ:
+					if (c == '"' || c == '\'') {
+						quote = c;
+						attrValue.setLength(0);
+						state = ATTR_VALUE;
+					}
+					break;
+				case ATTR_VALUE:
+					if (c == quote) {
+						attributes.add(new String[] {attrName.toString(), attrValue.toString()});
+						state = IN_TAG;
+					} else {
+						attrValue.append(c);
+					}
+					break;
+				case END_NAME:
+					if (c == '>') {
+						endTag();
+					} else if (!Character.isWhitespace(c)) {
+						name.append(c);
+					}
+					break;
+				case MARKUP:
+					name.append(c);
+					if (COMMENT_START.contentEquals(name)) {
+						last1 = last2 = 0;
+						state = COMMENT;
+					} else if (CDATA_START.contentEquals(name)) {
+						last1 = last2 = 0;
+						state = CDATA;
+					} else if (!startsWith(COMMENT_START, name) && !startsWith(CDATA_START, name)) {
+						// any other declaration, such as DOCTYPE
+						brackets = 0;
+						state = DOCTYPE;
+						doctype(c);
+					}
+					break;
+				case COMMENT:
+					if (c == '>' && last1 == '-' && last2 == '-') {
+						state = TEXT;
+					}
+					last2 = last1;
+					last1 = c;
+					break;
+				case CDATA:
+					if (c == '>' && last1 == ']' && last2 == ']') {
+						state = TEXT;
+					}
+					last2 = last1;
+					last1 = c;
+					break;
+				case DOCTYPE:
+					doctype(c);
+					break;
+				case PI:
+					if (c == '>' && last1 == '?') {
+						processingInstruction();
+						state = TEXT;
+					} else if (name.length() < 256) {
+						name.append(c);
+					}
+					last1 = c;
+					break;
+				default:
+					break;
+			}
+		}
+
+		private static boolean startsWith(final String value, final CharSequence prefix) {
+			if (prefix.length() > value.length()) {
+				return false;
+			}
+			for (int i = 0; i < prefix.length(); i++) {
+				if (value.charAt(i) != prefix.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void doctype(final char c) {
+			if (c == '[') {
+				brackets++;
+			} else if (c == ']') {
+				brackets--;
+			} else if (c == '>' && brackets <= 0) {
+				state = TEXT;
+			}
+		}
+
+		/**
+		 * Picks the encoding from the XML declaration
+		 */
+		private void processingInstruction() {
+			if (encoding == null && name.length() > 3 && name.substring(0, 3).equals("xml")) {
+				final String declaration = name.toString();
+				final int index = declaration.indexOf("encoding");
+				if (index > 0) {
+					final String value = StringUtils.substringAfter(declaration.substring(index), "=").trim();
+					if (value.length() > 1) {
+						encoding = StringUtils.substringBefore(value.substring(1), String.valueOf(value.charAt(0)));
+					}
+				}
+			}
+		}
+
+		private void startTag() {
+			state = TEXT;
+			final String qname = name.toString();
+			elements.add(qname);
+			int nsCount = 0;
+			for (final String[] attribute : attributes) {
+				if (attribute[0].equals(XMLNS)) {
+					namespaces.add(new String[] {"", attribute[1]});
+					nsCount++;
+				} else if (attribute[0].startsWith(XMLNS + ":")) {
+					namespaces.add(new String[] {attribute[0].substring(XMLNS.length() + 1), attribute[1]});
+					nsCount++;
+				}
+			}
+			namespaceCounts.add(nsCount);
+
+			final String localName = localName(qname);
+			if (header.start < 0 && localName.equals(header.localName)) {
+				header.open(this, qname);
+			} else if (document.start < 0 && localName.equals(document.localName)) {
+				document.open(this, qname);
+			}
+			header.use(this, qname);
+			document.use(this, qname);
+
+			if (selfClosing) {
+				endTag();
+			}
+		}
+
+		private void endTag() {
+			state = TEXT;
+			final int depth = elements.size();
+			header.close(this, depth);
+			document.close(this, depth);
+			elements.remove(depth - 1);
+			final int nsCount = namespaceCounts.remove(namespaceCounts.size() - 1);
+			for (int i = 0; i < nsCount; i++) {
+				namespaces.remove(namespaces.size() - 1);
+			}
+		}
+
+		/**
+		 * Resolves a prefix in the current scope, from the last declarations to the first ones
+		 * @param fromIndex number of declarations to consider, from the first one
+		 */
+		private String resolve(final String prefix, final int fromIndex) {
+			for (int i = fromIndex - 1; i >= 0; i--) {
+				final String[] ns = namespaces.get(i);
+				if (ns[0].equals(prefix)) {
+					return ns[1];
+				}
+			}
+			return null;
+		}
+
+		Charset charset() {
+			if (encoding != null) {
+				try {
+					return Charset.forName(encoding);
+				} catch (final Exception e) {
+					log.warning("unsupported encoding " + encoding + ", using UTF-8");
+				}
+			}
+			return StandardCharsets.UTF_8;
+		}
+
+		MxSplitter result(final Charset charset) {
+			final MxSplitter result = new MxSplitter();
+			result.header = header.part(source, charset);
+			result.document = document.part(source, charset);
+			return result;
+		}
+	}
+
+	/**
+	 * State of an element to find
+	 */
+	private static final class Target {
+		private final String localName;
+		private long start = -1;
+		private long end = -1;
+		private int depth;
+		private String qname;
+		private String namespace;
+		/*
+		 * number of namespace declarations in scope of the element parent
+		 */
+		private int inheritedCount;
+		private final Map<String, String> inherited = new LinkedHashMap<>();
+		private StringBuilder buffer;
+
+		Target(final String localName) {
+			this.localName = localName;
+		}
+
+		boolean capturing() {
+			return buffer != null && start >= 0 && end < 0;
+		}
+
+		void open(final Scanner scanner, final String qname) {
+			this.start = scanner.tagStart;
+			this.depth = scanner.elements.size();
+			this.qname = qname;
+			this.inheritedCount = scanner.namespaces.size() - scanner.namespaceCounts.get(scanner.namespaceCounts.size() - 1);
+			this.namespace = scanner.resolve(StringUtils.defaultString(prefix(qname)), scanner.namespaces.size());
+			if (scanner.capture) {
+				// the start tag has already been read
+				buffer = new StringBuilder(scanner.raw);
+			}
+		}
+
+		/**
+		 * Collects the prefixes used by an element in this target that are declared in the target ancestors
+		 */
+		void use(final Scanner scanner, final String elementName) {
+			if (start < 0 || end >= 0) {
+				return;
+			}
+			addUsedPrefix(scanner, StringUtils.defaultString(prefix(elementName)));
+			for (final String[] attribute : scanner.attributes) {
+				final String attributePrefix = prefix(attribute[0]);
+				if (attributePrefix != null && !attributePrefix.equals(XMLNS)) {
+					addUsedPrefix(scanner, attributePrefix);
+				}
+			}
+		}
+
+		private void addUsedPrefix(final Scanner scanner, final String prefix) {
+			if (!inherited.containsKey(prefix) && !declaredWithin(scanner, prefix)) {
+				final String uri = scanner.resolve(prefix, inheritedCount);
+				if (uri != null && !uri.isEmpty()) {
+					inherited.put(prefix, uri);
+				}
+			}
+		}
+
+		/**
+		 * @return true if the prefix is declared in the target element or any of its open descendants
+		 */
+		private boolean declaredWithin(final Scanner scanner, final String prefix) {
+			for (int i = inheritedCount; i < scanner.namespaces.size(); i++) {
+				if (scanner.namespaces.get(i)[0].equals(prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void close(final Scanner scanner, final int currentDepth) {
+			if (start >= 0 && end < 0 && currentDepth == depth) {
+				end = scanner.offset + 1;
+			}
+		}
+
+		Part part(final CharSequence source, final Charset charset) {
+			if (start < 0 || end < 0) {
+				return null;
+			}
+			final CharSequence content;
+			if (source != null) {
+				content = CharBuffer.wrap(source, (int) start, (int) end);
+			} else {
+				content = new String(buffer.toString().getBytes(StandardCharsets.ISO_8859_1), charset);
+			}
+			return new Part(start, end, qname, namespace, content, inherited);
+		}
+	}
+}
@@ -19,6 +19,9 @@ import com.prowidesoftware.ProwideException;
 import com.prowidesoftware.deprecation.DeprecationUtils;
 import com.prowidesoftware.deprecation.ProwideDeprecated;
 import com.prowidesoftware.deprecation.TargetYear;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.*;
 import com.prowidesoftware.swift.utils.Lib;
 import org.apache.commons.lang3.StringUtils;
@@ -117,14 +120,41 @@ public class SwiftParser {
 
 	/**
 	 * sets the input reader.<br>
-	 * <b>NOTE</b>: this resets the internal buffer
+	 * <b>NOTE</b>: this resets the internal buffer, reusing its allocated capacity
 	 * @param r the reader to use
 	 */
 	public void setReader(final Reader r) {
-		this.buffer = new StringBuilder();
+		if (this.buffer == null) {
+			this.buffer = new StringBuilder();
+		} else {
+			this.buffer.setLength(0);
+		}
+		this.lastBlockStartOffset = 0;
 		this.reader = r;
 	}
 
+	/**
+	 * Clears the parser state so that the instance can be reused for a different message, keeping the configuration.
+	 * <p>The internal buffer is kept for reuse unless its capacity exceeds the given limit, so that a single large
+	 * message does not pin its memory while the parser is idle.
+	 *
+	 * @param maxBufferCapacity maximum buffer capacity to keep
+	 * @since 7.10.4
+	 */
+	void reset(final int maxBufferCapacity) {
+		this.reader = null;
+		this.currentMessage = null;
+		this.errors.clear();
+		this.lastBlockStartOffset = 0;
+		if (this.buffer != null) {
+			if (this.buffer.capacity() > maxBufferCapacity) {
+				this.buffer = null;
+			} else {
+				this.buffer.setLength(0);
+			}
+		}
+	}
+
 	/**
 	 * sets the input data to the received string.
 	 * @param data the data to use as input
@@ -151,6 +181,10 @@ public class SwiftParser {
 		final SwiftMessage message = new SwiftMessage(false);
 		this.currentMessage = message;
 
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final int offset = metrics != null && this.buffer != null ? this.buffer.length() : 0;
+
 		// Clear all errors before starting the parse process
 		this.errors.clear();
 		try {
@@ -165,11 +199,21 @@ public class SwiftParser {
 					done = true;
 				}
 			} while (!done);
+		} catch (final IOException | RuntimeException e) {
+			if (metrics != null) {
+				Metrics.failed(metrics, Operation.MT_PARSE, start, e);
+			}
+			throw e;
 		} finally {
 			// Clean the reference to the message being parsed
 			this.currentMessage = null;
 		}
 
+		if (metrics != null) {
+			final int tags = message.getBlock4() != null ? message.getBlock4().size() : 0;
+			final int length = this.buffer != null ? this.buffer.length() - offset : 0;
+			Metrics.completed(metrics, Operation.MT_PARSE, Metrics.id(message), length, tags, start, this.errors.size());
+		}
 		return message;
 	}
 
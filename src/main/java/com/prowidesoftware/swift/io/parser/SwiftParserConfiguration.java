@@ -28,6 +28,22 @@ public class SwiftParserConfiguration {
 	private boolean parseTrailerBlock = true;
 	private boolean parseUserBlock = true;
 
+	public SwiftParserConfiguration() {
+		super();
+	}
+
+	/**
+	 * Copy constructor
+	 * @param source configuration to copy
+	 * @since 7.10.4
+	 */
+	public SwiftParserConfiguration(final SwiftParserConfiguration source) {
+		this.lenient = source.lenient;
+		this.parseTextBlock = source.parseTextBlock;
+		this.parseTrailerBlock = source.parseTrailerBlock;
+		this.parseUserBlock = source.parseUserBlock;
+	}
+
 	/**
 	 * Indicates whether the parser is permissive or not. Defaults to true, meaning the parser will do a best effort
 	 * to read as much from the message content as possible regardless of the content and block boundaries beeing valid
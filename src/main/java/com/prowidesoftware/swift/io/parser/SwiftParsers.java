@@ -0,0 +1,192 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.mt.AbstractMT;
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe facade to parse MT messages from concurrent callers.
+ *
+ * <p>{@link SwiftParser} is stateful and cannot be shared between threads, so parsing with a new parser per message
+ * allocates the parser and its internal buffer for every call. This facade keeps a pool of idle parsers, all of
+ * them configured with the same {@link SwiftParserConfiguration}, and hands one to each call. When the parse
+ * completes the parser state is reset and its buffer is kept for the next call, so high-concurrency callers get
+ * steady-state parsing without the per call setup.
+ *
+ * <p>The pool is not bound to threads, so it behaves the same with platform thread pools and with a large
+ * number of short-lived threads. Calls never block; when no idle parser is available a new one is created, and
+ * parsers exceeding the maximum idle count are discarded on release.
+ *
+ * <pre>
+ * SwiftMessage msg = SwiftParsers.getDefault().parse(fin);
+ * </pre>
+ *
+ * @since 7.10.4
+ */
+public final class SwiftParsers {
+
+	/**
+	 * Default maximum amount of idle parsers kept in the pool
+	 */
+	public static final int DEFAULT_MAX_IDLE = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+	/**
+	 * Parser buffers larger than this capacity are released instead of reused, in chars
+	 */
+	static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+	private static final SwiftParsers DEFAULT = new SwiftParsers();
+
+	private final SwiftParserConfiguration configuration;
+	private final int maxIdle;
+	private final ConcurrentLinkedQueue<SwiftParser> idle = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	/**
+	 * Creates a facade with the default parser configuration
+	 */
+	public SwiftParsers() {
+		this(new SwiftParserConfiguration());
+	}
+
+	/**
+	 * Creates a facade with the given parser configuration and {@link #DEFAULT_MAX_IDLE} pooled parsers.
+	 * @param configuration parser configuration, copied on creation, later changes to the parameter are ignored
+	 */
+	public SwiftParsers(final SwiftParserConfiguration configuration) {
+		this(configuration, DEFAULT_MAX_IDLE);
+	}
+
+	/**
+	 * Creates a facade with the given parser configuration and pool size.
+	 * @param configuration parser configuration, copied on creation, later changes to the parameter are ignored
+	 * @param maxIdle maximum amount of idle parsers kept for reuse, zero disables the pooling
+	 */
+	public SwiftParsers(final SwiftParserConfiguration configuration, final int maxIdle) {
+		Validate.notNull(configuration, "configuration cannot be null");
+		Validate.isTrue(maxIdle >= 0, "maxIdle cannot be negative");
+		this.configuration = new SwiftParserConfiguration(configuration);
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Shared facade with the default parser configuration, the same used by {@link SwiftMessage#parse(String)}
+	 * @return the default shared instance
+	 */
+	public static SwiftParsers getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Parses the MT message content.
+	 * @param fin a string containing a swift MT message
+	 * @return the parsed message
+	 * @throws IOException if the message content cannot be read
+	 * @see SwiftParser#message()
+	 */
+	public SwiftMessage parse(final String fin) throws IOException {
+		return parse(new StringReader(fin), null);
+	}
+
+	/**
+	 * Parses the MT message content, collecting the errors reported by the parser.
+	 * @param fin a string containing a swift MT message
+	 * @param errors list where errors found while parsing are added, may be null
+	 * @return the parsed message
+	 * @throws IOException if the message content cannot be read
+	 * @see SwiftParser#getErrors()
+	 */
+	public SwiftMessage parse(final String fin, final List<String> errors) throws IOException {
+		return parse(new StringReader(fin), errors);
+	}
+
+	/**
+	 * Parses the next MT message from the reader. The reader is not closed.
+	 * @param reader the reader with the swift message to read
+	 * @param errors list where errors found while parsing are added, may be null
+	 * @return the parsed message
+	 * @throws IOException if the message content cannot be read
+	 */
+	public SwiftMessage parse(final Reader reader, final List<String> errors) throws IOException {
+		Validate.notNull(reader, "reader cannot be null");
+		final SwiftParser parser = acquire();
+		try {
+			parser.setReader(reader);
+			final SwiftMessage result = parser.message();
+			if (errors != null) {
+				errors.addAll(parser.getErrors());
+			}
+			return result;
+		} finally {
+			release(parser);
+		}
+	}
+
+	/**
+	 * Parses the MT message content into the specific MT class of its type.
+	 * @param fin a string containing a swift MT message
+	 * @return the parsed message or null if the message type is not set or not supported
+	 * @throws IOException if the message content cannot be read
+	 * @see SwiftMessage#toMT()
+	 */
+	public AbstractMT parseMT(final String fin) throws IOException {
+		return parse(fin).toMT();
+	}
+
+	/**
+	 * @return a copy of the configuration used by the pooled parsers
+	 */
+	public SwiftParserConfiguration getConfiguration() {
+		return new SwiftParserConfiguration(this.configuration);
+	}
+
+	/**
+	 * @return current amount of idle parsers in the pool
+	 */
+	int idleSize() {
+		return this.idleCount.get();
+	}
+
+	private SwiftParser acquire() {
+		final SwiftParser parser = this.idle.poll();
+		if (parser != null) {
+			this.idleCount.decrementAndGet();
+			return parser;
+		}
+		final SwiftParser created = new SwiftParser();
+		created.setConfiguration(this.configuration);
+		return created;
+	}
+
+	private void release(final SwiftParser parser) {
+		parser.reset(MAX_BUFFER_CAPACITY);
+		if (this.idleCount.incrementAndGet() <= this.maxIdle) {
+			this.idle.offer(parser);
+		} else {
+			this.idleCount.decrementAndGet();
+		}
+	}
+
+}
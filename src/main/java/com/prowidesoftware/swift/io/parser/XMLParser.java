@@ -28,6 +28,9 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.SwiftBlock1;
 import com.prowidesoftware.swift.model.SwiftBlock2;
 import com.prowidesoftware.swift.model.SwiftBlock2Input;
@@ -72,12 +75,26 @@ public class XMLParser {
 	 */
 	public SwiftMessage parse(final String xml) {
 		Validate.notNull(xml);
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
 		try {
 			final DocumentBuilder db = DocumentBuilderFactory.newInstance().newDocumentBuilder();
 			final Document doc = db.parse(new ByteArrayInputStream(xml.getBytes()));
-			return createMessage(doc);
+			final SwiftMessage result = createMessage(doc);
+			if (metrics != null) {
+				if (result != null) {
+					final int tags = result.getBlock4() != null ? result.getBlock4().size() : 0;
+					Metrics.completed(metrics, Operation.XML_PARSE, Metrics.id(result), xml.length(), tags, start, 0);
+				} else {
+					Metrics.failed(metrics, Operation.XML_PARSE, start, null);
+				}
+			}
+			return result;
 		} catch (final Exception e) {
 			log.log(Level.WARNING, "Error parsing XML", e);
+			if (metrics != null) {
+				Metrics.failed(metrics, Operation.XML_PARSE, start, e);
+			}
 			return null;
 		}
 	}
@@ -16,6 +16,9 @@
 package com.prowidesoftware.swift.io.writer;
 
 import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.*;
 import com.prowidesoftware.swift.utils.IMessageVisitor;
 import org.apache.commons.lang3.StringUtils;
@@ -37,14 +40,41 @@ public class FINWriterVisitor implements IMessageVisitor {
 	 */
 	public static final String SWIFT_EOL = "\r\n";
 
-	private Writer  writer;
+	private Appendable writer;
 	private Boolean block4asText = Boolean.TRUE;
+	private final boolean report;
+	private MetricsListener metrics;
+	private long start;
+	private long written;
 
 	/**
 	 * @param writer
 	 */
 	public FINWriterVisitor(Writer writer) {
 		this.writer = writer;
+		this.report = false;
+	}
+
+	/**
+	 * Creates a visitor appending the message content to the given target, for example a {@link StringBuilder}
+	 * or a {@link Utf8Sink} to write the content as bytes.
+	 *
+	 * @param out the target of all the write operations
+	 * @since 7.10.4
+	 */
+	public FINWriterVisitor(Appendable out) {
+		this(out, false);
+	}
+
+	/**
+	 * @param out the target of all the write operations
+	 * @param report true to report each visited message to the {@link Metrics} listener as a
+	 * {@link Operation#MT_WRITE}, only for actual serialization by the {@link SwiftWriter}; false for
+	 * internal passes such as length or checksum computations
+	 */
+	FINWriterVisitor(Appendable out, boolean report) {
+		this.writer = out;
+		this.report = report;
 	}
 
 	////////////////////////////////////////////////////////////
@@ -56,6 +86,11 @@ public class FINWriterVisitor implements IMessageVisitor {
 
 		// initialize status
 		this.block4asText = Boolean.TRUE;
+		this.metrics = this.report ? Metrics.getListener() : null;
+		if (this.metrics != null) {
+			this.start = System.nanoTime();
+			this.written = 0;
+		}
 
 		// If app identifier NOT 'F' OR service identifier NOT '01'  	=> USE TAG-BLOCK  syntax
 		// If message type is category 0                      			=> USE TAG-BLOCK  syntax
@@ -96,6 +131,12 @@ public class FINWriterVisitor implements IMessageVisitor {
 
 		// cleanup status
 		this.block4asText = Boolean.TRUE;
+
+		if (this.metrics != null) {
+			final int tags = m.getBlock4() != null ? m.getBlock4().size() : 0;
+			Metrics.completed(this.metrics, Operation.MT_WRITE, Metrics.id(m), this.written, tags, this.start, 0);
+			this.metrics = null;
+		}
 	}
 
 	////////////////////////////////////////////////////////////
@@ -189,7 +230,10 @@ public class FINWriterVisitor implements IMessageVisitor {
 	//
 	////////////////////////////////////////////////////////////
 	public void startBlock4(SwiftBlock4 b) {
-		write("{4:" + (this.block4asText.booleanValue() ? SWIFT_EOL : ""));
+		write("{4:");
+		if (this.block4asText.booleanValue()) {
+			write(SWIFT_EOL);
+		}
 	}
 
 	public void tag(SwiftBlock4 b, Tag t) {
@@ -211,7 +255,10 @@ public class FINWriterVisitor implements IMessageVisitor {
 			write(b.getUnparsedTexts());
 
 		// write block termination
-		write( (this.block4asText.booleanValue() ? "-" : "") + "}");
+		if (this.block4asText.booleanValue()) {
+			write("-");
+		}
+		write("}");
 	}
 
 	////////////////////////////////////////////////////////////
@@ -247,7 +294,9 @@ public class FINWriterVisitor implements IMessageVisitor {
 	//
 	////////////////////////////////////////////////////////////
 	public void startBlockUser(SwiftBlockUser b) {
-		write("{" + b.getName() + ":");
+		write("{");
+		write(b.getName());
+		write(":");
 	}
 
 	public void tag(SwiftBlockUser b, Tag t) {
@@ -290,6 +339,16 @@ public class FINWriterVisitor implements IMessageVisitor {
 		}
 	}
 
+	/**
+	 * @return true if the block 4 of the message being visited is written with the text syntax
+	 * (<code>:tag:value</code> lines) and false if it is written with the tag-block syntax
+	 * (<code>{tag:value}</code>)
+	 * @since 7.10.4
+	 */
+	protected boolean isBlock4asText() {
+		return this.block4asText.booleanValue();
+	}
+
 	////////////////////////////////////////////////////////////
 	//
 	// INTERNAL METHODS
@@ -306,10 +365,14 @@ public class FINWriterVisitor implements IMessageVisitor {
 		// we don't trim the value to preserve trailing spaces, but we avoid printing null
 		if (StringUtils.isNotEmpty(t.getName())) {
 			// we have name
-			write("{" + t.getName() + ":" + notNullValue(t));
+			write("{");
+			write(t.getName());
+			write(":");
+			write(notNullValue(t));
 		} else {
 			// no name but value => {<value>}
-			write("{" + notNullValue(t));
+			write("{");
+			write(notNullValue(t));
 		}
 
 		// if tag has unparsed texts, write them down.
@@ -341,7 +404,11 @@ public class FINWriterVisitor implements IMessageVisitor {
 		// this goes: ":<tag>:<value>[CRLF]" (quotes not included)
 		if (StringUtils.isNotEmpty(t.getName())) {
 			// we don't trim the value to preserve trailing spaces, but we avoid printing null
-			write(":" + t.getName() + ":" + notNullValue(t) + SWIFT_EOL);
+			write(":");
+			write(t.getName());
+			write(":");
+			write(notNullValue(t));
+			write(SWIFT_EOL);
 		}
 
 		// if tag has unparsed texts, write them down
@@ -386,7 +453,10 @@ public class FINWriterVisitor implements IMessageVisitor {
 
 	private void write(String s) {
 		try {
-			writer.write(s);
+			writer.append(s);
+			if (this.metrics != null) {
+				this.written += s.length();
+			}
 		} catch (IOException e) {
 			log.log(Level.SEVERE, "Caught exception in FINWriterVisitor, method write", e);
 			throw new ProwideException(e);
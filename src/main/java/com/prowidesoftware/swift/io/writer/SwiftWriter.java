@@ -15,17 +15,23 @@
  */
 package com.prowidesoftware.swift.io.writer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.lang3.Validate;
 
+import com.prowidesoftware.ProwideException;
 import com.prowidesoftware.swift.model.SwiftBlock1;
 import com.prowidesoftware.swift.model.SwiftBlock2;
 import com.prowidesoftware.swift.model.SwiftBlock3;
 import com.prowidesoftware.swift.model.SwiftBlock4;
 import com.prowidesoftware.swift.model.SwiftBlock5;
 import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftTagListBlock;
+import com.prowidesoftware.swift.model.Tag;
 
 /**
  * Helper API to write MT message content into native SWIFT format.
@@ -49,9 +55,146 @@ public class SwiftWriter {
     public static void writeMessage(SwiftMessage msg, Writer writer) {
     	Validate.notNull(msg , "msg cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor v = new FINWriterVisitor(writer);
+    	FINWriterVisitor v = new FINWriterVisitor(writer, true);
     	msg.visit(v);
     }
+
+    /**
+     * Appends the given message in its native SWIFT format to the target, for example a reusable
+     * {@link StringBuilder}.
+     *
+     * @param msg the message to write
+     * @param out the target that will actually receive all the write operations
+     * @throws IllegalArgumentException if msg or out are null
+     * @since 7.10.4
+     */
+    public static void writeMessage(SwiftMessage msg, Appendable out) {
+    	Validate.notNull(msg , "msg cannot be null");
+    	Validate.notNull(out, WRITER_MESSAGE);
+    	msg.visit(new FINWriterVisitor(out, true));
+    }
+
+    /**
+     * Writes the given message in its native SWIFT format into the stream, encoded in UTF-8.
+     * The stream is not closed.
+     *
+     * @param msg the message to write
+     * @param stream the target stream
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if msg or stream are null
+     * @throws ProwideException if an error occurs writing into the stream
+     * @since 7.10.4
+     */
+    public static long writeMessage(SwiftMessage msg, OutputStream stream) {
+    	Validate.notNull(stream, "stream cannot be null");
+    	return write(msg, Utf8Sink.of(stream), true);
+    }
+
+    /**
+     * Writes the given message in its native SWIFT format into the buffer, encoded in UTF-8, starting at the buffer
+     * current position. The required capacity can be computed in advance with {@link #byteLength(SwiftMessage)}.
+     *
+     * @param msg the message to write
+     * @param buffer the target buffer
+     * @return the number of bytes written
+     * @throws IllegalArgumentException if msg or buffer are null
+     * @throws java.nio.BufferOverflowException if the buffer remaining space is not enough for the message
+     * @since 7.10.4
+     */
+    public static int writeMessage(SwiftMessage msg, ByteBuffer buffer) {
+    	Validate.notNull(buffer, "buffer cannot be null");
+    	return (int) write(msg, Utf8Sink.of(buffer), true);
+    }
+
+    /**
+     * Computes the exact length in bytes of the given message in its native SWIFT format, encoded in UTF-8,
+     * as written by {@link #writeMessage(SwiftMessage, OutputStream)}. The content is encoded but not kept.
+     *
+     * @param msg the message to measure
+     * @return the number of bytes of the serialized message
+     * @throws IllegalArgumentException if msg is null
+     * @since 7.10.4
+     */
+    public static long byteLength(SwiftMessage msg) {
+    	return write(msg, Utf8Sink.counter(), false);
+    }
+
+    /**
+     * Computes the length in characters of the given message in its native SWIFT format, as returned by
+     * {@link com.prowidesoftware.swift.io.ConversionService#getFIN(SwiftMessage)}, without creating the content.
+     * Line breaks are counted as CRLF regardless of the line terminators in the field values.
+     *
+     * @param msg the message to measure
+     * @return the number of characters of the serialized message
+     * @throws IllegalArgumentException if msg is null
+     * @since 7.10.4
+     */
+    public static int length(SwiftMessage msg) {
+    	Validate.notNull(msg , "msg cannot be null");
+    	final CharCounter counter = new CharCounter();
+    	msg.visit(new FINWriterVisitor(counter));
+    	return counter.length;
+    }
+
+    /**
+     * Computes the length in characters of the given block in its native SWIFT format, as written by
+     * {@link #writeBlock4(SwiftBlock4, Writer)} with line breaks normalized to CRLF, without creating the content.
+     *
+     * @param b4 a not null block 4
+     * @return the number of characters of the serialized block, including the block delimiters
+     * @since 7.10.4
+     */
+    public static int length(SwiftBlock4 b4) {
+    	Validate.notNull(b4, "b4 cannot be null");
+    	final CharCounter counter = new CharCounter();
+    	write(b4, new FINWriterVisitor(counter));
+    	return counter.length;
+    }
+
+    /**
+     * Computes the length in characters of the given tags written with the text block syntax, that is
+     * <code>:tag:value</code> followed by a line break for each tag, without creating the content.
+     * Line breaks are counted as CRLF. Block delimiters and the block unparsed texts are not included.
+     *
+     * @param block the tags to measure, for example a block 4 or a sequence
+     * @return the number of characters of the serialized tags
+     * @since 7.10.4
+     */
+    public static int textLength(SwiftTagListBlock block) {
+    	Validate.notNull(block, "block cannot be null");
+    	final CharCounter counter = new CharCounter();
+    	final FINWriterVisitor visitor = new FINWriterVisitor(counter);
+    	for (final Tag t : block.getTags()) {
+    		visitor.tag((SwiftBlock4) null, t);
+    	}
+    	return counter.length;
+    }
+
+    /**
+     * Computes the length in characters of the given tag written with the text block syntax, that is
+     * <code>:tag:value</code> followed by a line break, without creating the content. Line breaks are counted as CRLF.
+     *
+     * @param tag the tag to measure
+     * @return the number of characters of the serialized tag
+     * @since 7.10.4
+     */
+    public static int textLength(Tag tag) {
+    	Validate.notNull(tag, "tag cannot be null");
+    	final CharCounter counter = new CharCounter();
+    	new FINWriterVisitor(counter).tag((SwiftBlock4) null, tag);
+    	return counter.length;
+    }
+
+    private static long write(SwiftMessage msg, Utf8Sink sink, boolean report) {
+    	Validate.notNull(msg , "msg cannot be null");
+    	msg.visit(new FINWriterVisitor(sink, report));
+    	try {
+    		sink.flush();
+    	} catch (IOException e) {
+    		throw new ProwideException(e);
+    	}
+    	return sink.length();
+    }
     
     /**
      * Get a string with the internal xml representation of a message.
@@ -77,10 +220,7 @@ public class SwiftWriter {
     public static void writeBlock1(SwiftBlock1 b1, Writer writer) {
     	Validate.notNull(b1, "b1 cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor visitor = new FINWriterVisitor(writer);
-		visitor.startBlock1(b1);
-		visitor.value(b1, b1.getValue());
-		visitor.endBlock1(b1);
+    	write(b1, new FINWriterVisitor(writer));
     }
     
     /**
@@ -90,9 +230,10 @@ public class SwiftWriter {
      * @since 7.8.6
      */
     public static String writeBlock1(SwiftBlock1 b1) {
-    	StringWriter w = new StringWriter();
-    	writeBlock1(b1, w);
-    	return w.toString();
+    	Validate.notNull(b1, "b1 cannot be null");
+    	StringBuilder out = new StringBuilder();
+    	write(b1, new FINWriterVisitor(out));
+    	return out.toString();
     }
 
     /**
@@ -105,10 +246,7 @@ public class SwiftWriter {
     public static void writeBlock2(SwiftBlock2 b2, Writer writer) {
     	Validate.notNull(b2, "b2 cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor visitor = new FINWriterVisitor(writer);
-		visitor.startBlock2(b2);
-		visitor.value(b2, b2.getValue());
-		visitor.endBlock2(b2);
+    	write(b2, new FINWriterVisitor(writer));
     }
 
     /**
@@ -118,9 +256,10 @@ public class SwiftWriter {
      * @since 7.8.6
      */
     public static String writeBlock2(SwiftBlock2 b2) {
-    	StringWriter w = new StringWriter();
-    	writeBlock2(b2, w);
-    	return w.toString();
+    	Validate.notNull(b2, "b2 cannot be null");
+    	StringBuilder out = new StringBuilder();
+    	write(b2, new FINWriterVisitor(out));
+    	return out.toString();
     }
 
     /**
@@ -133,10 +272,7 @@ public class SwiftWriter {
     public static void writeBlock3(SwiftBlock3 b3, Writer writer) {
     	Validate.notNull(b3, "b3 cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor visitor = new FINWriterVisitor(writer);
-		visitor.startBlock3(b3);
-		SwiftMessage.visit(b3, visitor);
-		visitor.endBlock3(b3);
+    	write(b3, new FINWriterVisitor(writer));
     }
     
     /**
@@ -146,9 +282,10 @@ public class SwiftWriter {
      * @since 7.8.6
      */
     public static String writeBlock3(SwiftBlock3 b3) {
-    	StringWriter w = new StringWriter();
-    	writeBlock3(b3, w);
-    	return w.toString();
+    	Validate.notNull(b3, "b3 cannot be null");
+    	StringBuilder out = new StringBuilder();
+    	write(b3, new FINWriterVisitor(out));
+    	return out.toString();
     }
 
     /**
@@ -161,12 +298,22 @@ public class SwiftWriter {
     public static void writeBlock4(SwiftBlock4 b4, Writer writer) {
     	Validate.notNull(b4, "b4 cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor visitor = new FINWriterVisitor(writer);
-		visitor.startBlock4(b4);
-		SwiftMessage.visit(b4, visitor);
-		visitor.endBlock4(b4);
+    	write(b4, new FINWriterVisitor(writer));
     }
     
+    /**
+     * Appends the given block to the target in its native SWIFT format
+     * 
+     * @param b4 a not null block 4
+     * @param out the target that will actually receive all the write operations
+     * @since 7.10.4
+     */
+    public static void writeBlock4(SwiftBlock4 b4, Appendable out) {
+    	Validate.notNull(b4, "b4 cannot be null");
+    	Validate.notNull(out, WRITER_MESSAGE);
+    	write(b4, new FINWriterVisitor(out));
+    }
+
     /**
      * Returns the given block content in its native SWIFT format
      * 
@@ -174,9 +321,10 @@ public class SwiftWriter {
      * @since 7.8.6
      */
     public static String writeBlock4(SwiftBlock4 b4) {
-    	StringWriter w = new StringWriter();
-    	writeBlock4(b4, w);
-    	return w.toString();
+    	Validate.notNull(b4, "b4 cannot be null");
+    	StringBuilder out = new StringBuilder();
+    	write(b4, new FINWriterVisitor(out));
+    	return out.toString();
     }
 
     /**
@@ -189,10 +337,7 @@ public class SwiftWriter {
     public static void writeBlock5(SwiftBlock5 b5, Writer writer) {
     	Validate.notNull(b5, "b5 cannot be null");
     	Validate.notNull(writer, WRITER_MESSAGE);
-    	FINWriterVisitor visitor = new FINWriterVisitor(writer);
-		visitor.startBlock5(b5);
-		SwiftMessage.visit(b5, visitor);
-		visitor.endBlock5(b5);
+    	write(b5, new FINWriterVisitor(writer));
     }
     
     /**
@@ -202,8 +347,77 @@ public class SwiftWriter {
      * @since 7.8.6
      */
     public static String writeBlock5(SwiftBlock5 b5) {
-    	StringWriter w = new StringWriter();
-    	writeBlock5(b5, w);
-    	return w.toString();
-    }    
+    	Validate.notNull(b5, "b5 cannot be null");
+    	StringBuilder out = new StringBuilder();
+    	write(b5, new FINWriterVisitor(out));
+    	return out.toString();
+    }
+
+    private static void write(SwiftBlock1 b1, FINWriterVisitor visitor) {
+		visitor.startBlock1(b1);
+		visitor.value(b1, b1.getValue());
+		visitor.endBlock1(b1);
+    }
+    private static void write(SwiftBlock2 b2, FINWriterVisitor visitor) {
+		visitor.startBlock2(b2);
+		visitor.value(b2, b2.getValue());
+		visitor.endBlock2(b2);
+    }
+    private static void write(SwiftBlock3 b3, FINWriterVisitor visitor) {
+		visitor.startBlock3(b3);
+		SwiftMessage.visit(b3, visitor);
+		visitor.endBlock3(b3);
+    }
+    private static void write(SwiftBlock4 b4, FINWriterVisitor visitor) {
+		visitor.startBlock4(b4);
+		SwiftMessage.visit(b4, visitor);
+		visitor.endBlock4(b4);
+    }
+    private static void write(SwiftBlock5 b5, FINWriterVisitor visitor) {
+		visitor.startBlock5(b5);
+		SwiftMessage.visit(b5, visitor);
+		visitor.endBlock5(b5);
+    }
+
+    /**
+     * Appendable that counts the appended characters without keeping them.
+     * <p>Line breaks are counted as CRLF, the same as the EOL normalization done by
+     * {@link com.prowidesoftware.swift.io.ConversionService#getFIN(SwiftMessage)}: a CR counts as two characters
+     * and a LF counts as two characters unless it follows a CR.
+     */
+    private static final class CharCounter implements Appendable {
+    	private int length = 0;
+    	private boolean afterCR = false;
+
+		@Override
+		public Appendable append(CharSequence csq) {
+			return csq == null ? append("null") : append(csq, 0, csq.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end) {
+			for (int i = start; i < end; i++) {
+				append(csq.charAt(i));
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) {
+			if (c == '\r') {
+				length += 2;
+				afterCR = true;
+			} else {
+				if (c == '\n') {
+					if (!afterCR) {
+						length += 2;
+					}
+				} else {
+					length++;
+				}
+				afterCR = false;
+			}
+			return this;
+		}
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Appendable that encodes the appended text in UTF-8 into a byte target, without creating intermediate strings.
+ *
+ * <p>The text is encoded into an internal buffer that is drained into the target when full and on {@link #flush()},
+ * ASCII characters, which is the case of most FIN content, are copied directly. The encoding is the same as
+ * {@link String#getBytes(java.nio.charset.Charset)} with UTF-8, including the replacement of malformed surrogates
+ * with '?'.
+ *
+ * <p>Instances are not thread safe. {@link #flush()} must be called after the last append to drain the buffer.
+ *
+ * @since 7.10.4
+ */
+public abstract class Utf8Sink implements Appendable {
+	private static final int BUFFER_SIZE = 1024;
+	private static final byte REPLACEMENT = '?';
+
+	private final byte[] buffer;
+	private int count = 0;
+	private long length = 0;
+	private char highSurrogate = 0;
+
+	protected Utf8Sink() {
+		this(BUFFER_SIZE);
+	}
+
+	protected Utf8Sink(final int bufferSize) {
+		Validate.isTrue(bufferSize >= 4, "buffer size must be at least 4 bytes");
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * Creates a sink writing into the given stream. The stream is not flushed nor closed.
+	 * @param stream the target stream
+	 * @return a new sink
+	 */
+	public static Utf8Sink of(final OutputStream stream) {
+		Validate.notNull(stream, "stream cannot be null");
+		return new Utf8Sink() {
+			@Override
+			protected void drain(final byte[] bytes, final int len) throws IOException {
+				stream.write(bytes, 0, len);
+			}
+		};
+	}
+
+	/**
+	 * Creates a sink writing into the given buffer, starting at its current position.
+	 * @param target the target buffer
+	 * @return a new sink
+	 * @throws java.nio.BufferOverflowException on {@link #flush()} or append, if the buffer has no room for the content
+	 */
+	public static Utf8Sink of(final ByteBuffer target) {
+		Validate.notNull(target, "buffer cannot be null");
+		return new Utf8Sink() {
+			@Override
+			protected void drain(final byte[] bytes, final int len) {
+				target.put(bytes, 0, len);
+			}
+		};
+	}
+
+	/**
+	 * Creates a sink feeding the given message digest.
+	 * @param digest the digest to update
+	 * @return a new sink
+	 */
+	public static Utf8Sink of(final MessageDigest digest) {
+		Validate.notNull(digest, "digest cannot be null");
+		return new Utf8Sink() {
+			@Override
+			protected void drain(final byte[] bytes, final int len) {
+				digest.update(bytes, 0, len);
+			}
+		};
+	}
+
+	/**
+	 * Creates a sink that discards the content, just counting its length
+	 * @return a new sink
+	 * @see #length()
+	 */
+	public static Utf8Sink counter() {
+		return new Utf8Sink() {
+			@Override
+			protected void drain(final byte[] bytes, final int len) {
+				// nothing to write
+			}
+		};
+	}
+
+	/**
+	 * Writes the encoded bytes into the target
+	 * @param bytes the buffer with the encoded content
+	 * @param len the number of bytes to write, from the start of the buffer
+	 */
+	protected abstract void drain(byte[] bytes, int len) throws IOException;
+
+	@Override
+	public Utf8Sink append(final CharSequence csq) throws IOException {
+		final CharSequence s = csq == null ? "null" : csq;
+		return append(s, 0, s.length());
+	}
+
+	@Override
+	public Utf8Sink append(final CharSequence csq, final int start, final int end) throws IOException {
+		final CharSequence s = csq == null ? "null" : csq;
+		for (int i = start; i < end; i++) {
+			final char c = s.charAt(i);
+			if (c < 0x80 && highSurrogate == 0) {
+				// ASCII fast path
+				if (count == buffer.length) {
+					drainBuffer();
+				}
+				buffer[count++] = (byte) c;
+			} else {
+				encode(c);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public Utf8Sink append(final char c) throws IOException {
+		encode(c);
+		return this;
+	}
+
+	/**
+	 * Drains the buffered content into the target. A pending high surrogate with no low surrogate is written as '?'.
+	 */
+	public void flush() throws IOException {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			put(REPLACEMENT);
+		}
+		drainBuffer();
+	}
+
+	/**
+	 * @return the number of bytes written so far, including the bytes still in the internal buffer
+	 */
+	public long length() {
+		return length + count;
+	}
+
+	private void encode(final char c) throws IOException {
+		if (highSurrogate != 0) {
+			final char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				final int codePoint = Character.toCodePoint(high, c);
+				put((byte) (0xF0 | (codePoint >> 18)));
+				put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				put((byte) (0x80 | (codePoint & 0x3F)));
+				return;
+			}
+			put(REPLACEMENT);
+		}
+		if (c < 0x80) {
+			put((byte) c);
+		} else if (c < 0x800) {
+			put((byte) (0xC0 | (c >> 6)));
+			put((byte) (0x80 | (c & 0x3F)));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			put(REPLACEMENT);
+		} else {
+			put((byte) (0xE0 | (c >> 12)));
+			put((byte) (0x80 | ((c >> 6) & 0x3F)));
+			put((byte) (0x80 | (c & 0x3F)));
+		}
+	}
+
+	private void put(final byte b) throws IOException {
+		if (count == buffer.length) {
+			drainBuffer();
+		}
+		buffer[count++] = b;
+	}
+
+	private void drainBuffer() throws IOException {
+		if (count > 0) {
+			drain(buffer, count);
+			length += count;
+			count = 0;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Metrics listener keeping counters and latency histograms in memory, by operation, to be scraped by a monitoring
+ * system.
+ *
+ * <p>Counters are updated with atomic operations, without locks. Latencies are recorded in a histogram with power of
+ * two buckets: bucket <em>i</em> counts the operations that took less than 2<sup>i</sup> nanoseconds and at least
+ * 2<sup>i-1</sup>, so percentiles are approximated by the bucket upper bound.
+ *
+ * @since 7.10.4
+ */
+public class InMemoryMetrics implements MetricsListener {
+
+	/**
+	 * Number of buckets in the latency histograms
+	 */
+	public static final int BUCKETS = 64;
+
+	private final Stats[] stats = new Stats[Operation.values().length];
+
+	public InMemoryMetrics() {
+		for (int i = 0; i < stats.length; i++) {
+			stats[i] = new Stats();
+		}
+	}
+
+	@Override
+	public void completed(final Operation operation, final String id, final long size, final int tags, final long nanos, final int errors) {
+		final Stats s = stats[operation.ordinal()];
+		s.count.incrementAndGet();
+		s.size.addAndGet(size);
+		s.tags.addAndGet(tags);
+		if (errors > 0) {
+			s.errors.addAndGet(errors);
+		}
+		s.record(nanos);
+	}
+
+	@Override
+	public void failed(final Operation operation, final long nanos, final Throwable cause) {
+		final Stats s = stats[operation.ordinal()];
+		s.failures.incrementAndGet();
+		s.record(nanos);
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return number of messages successfully processed
+	 */
+	public long getCount(final Operation operation) {
+		return get(operation).count.get();
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return number of failed operations
+	 */
+	public long getFailures(final Operation operation) {
+		return get(operation).failures.get();
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return total number of characters read or written
+	 */
+	public long getSize(final Operation operation) {
+		return get(operation).size.get();
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return total number of tags processed
+	 */
+	public long getTags(final Operation operation) {
+		return get(operation).tags.get();
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return total number of errors reported by the parsers
+	 */
+	public long getErrors(final Operation operation) {
+		return get(operation).errors.get();
+	}
+
+	/**
+	 * @param operation an operation
+	 * @return total time in nanoseconds of the completed and failed operations
+	 */
+	public long getTotalNanos(final Operation operation) {
+		return get(operation).nanos.get();
+	}
+
+	/**
+	 * Gets a copy of the latency histogram
+	 * @param operation an operation
+	 * @return array of {@link #BUCKETS} counters, where position <em>i</em> holds the number of operations that took
+	 * less than 2<sup>i</sup> nanoseconds and at least 2<sup>i-1</sup>
+	 */
+	public long[] getLatencyHistogram(final Operation operation) {
+		final AtomicLongArray histogram = get(operation).histogram;
+		final long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = histogram.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Gets an approximation of a latency percentile, as the upper bound of the histogram bucket where it falls.
+	 * @param operation an operation
+	 * @param percentile the percentile between 0 and 100, for example 99.9
+	 * @return the latency in nanoseconds or zero if there are no operations recorded
+	 */
+	public long getLatencyPercentile(final Operation operation, final double percentile) {
+		Validate.isTrue(percentile >= 0 && percentile <= 100, "invalid percentile " + percentile);
+		final long[] histogram = getLatencyHistogram(operation);
+		long total = 0;
+		for (final long c : histogram) {
+			total += c;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += histogram[i];
+			if (accumulated >= rank) {
+				return i < BUCKETS - 1 ? 1L << i : Long.MAX_VALUE;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Clears all counters and histograms. Operations recorded concurrently with the reset may be partially cleared.
+	 */
+	public void reset() {
+		for (final Stats s : stats) {
+			s.reset();
+		}
+	}
+
+	private Stats get(final Operation operation) {
+		Validate.notNull(operation, "operation cannot be null");
+		return stats[operation.ordinal()];
+	}
+
+	private static final class Stats {
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong failures = new AtomicLong();
+		private final AtomicLong size = new AtomicLong();
+		private final AtomicLong tags = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong nanos = new AtomicLong();
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+		void record(final long elapsed) {
+			final long value = Math.max(elapsed, 0);
+			nanos.addAndGet(value);
+			histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+		}
+
+		void reset() {
+			count.set(0);
+			failures.set(0);
+			size.set(0);
+			tags.set(0);
+			errors.set(0);
+			nanos.set(0);
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram.set(i, 0);
+			}
+		}
+	}
+}
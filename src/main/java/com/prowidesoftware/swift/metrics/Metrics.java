@@ -0,0 +1,110 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
+import com.prowidesoftware.swift.model.MtId;
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Registry of the {@link MetricsListener} notified by the library.
+ *
+ * <p>When no listener is registered (the default) the instrumented code only reads the listener reference, without
+ * measuring times nor computing any metric.
+ *
+ * <pre>
+ * InMemoryMetrics metrics = new InMemoryMetrics();
+ * Metrics.setListener(metrics);
+ * ...
+ * metrics.getCount(Operation.MT_PARSE);
+ * </pre>
+ *
+ * @since 7.10.4
+ */
+public final class Metrics {
+	private static final Logger log = Logger.getLogger(Metrics.class.getName());
+
+	private static volatile MetricsListener listener;
+
+	// Suppress default constructor for noninstantiability
+	private Metrics() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Registers the listener to notify, replacing any previous one.
+	 * @param listener the listener, or null to disable the instrumentation
+	 */
+	public static void setListener(final MetricsListener listener) {
+		Metrics.listener = listener;
+	}
+
+	/**
+	 * @return the registered listener or null if none
+	 */
+	public static MetricsListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Notifies a processed message to the listener, ignoring any error of the listener.
+	 * @param listener the listener to notify
+	 * @param operation the operation performed
+	 * @param id the message type identifier or null
+	 * @param size number of characters read or written
+	 * @param tags number of tags in the message text block
+	 * @param start the operation start time as returned by {@link System#nanoTime()}
+	 * @param errors number of errors reported by the parser
+	 */
+	public static void completed(final MetricsListener listener, final Operation operation, final String id, final long size, final int tags, final long start, final int errors) {
+		try {
+			listener.completed(operation, id, size, tags, System.nanoTime() - start, errors);
+		} catch (final RuntimeException e) {
+			log.log(Level.WARNING, "error in metrics listener", e);
+		}
+	}
+
+	/**
+	 * Gets the message type identifier to report for an MT
+	 * @param msg the message
+	 * @return the {@link MtId} identifier, for example fin.103.STP, or null for service messages
+	 */
+	public static String id(final SwiftMessage msg) {
+		if (msg.getType() == null) {
+			return null;
+		}
+		final MtId id = msg.getMtId();
+		return id != null ? id.id() : null;
+	}
+
+	/**
+	 * Notifies a failed operation to the listener, ignoring any error of the listener.
+	 * @param listener the listener to notify
+	 * @param operation the operation attempted
+	 * @param start the operation start time as returned by {@link System#nanoTime()}
+	 * @param cause the error, may be null
+	 */
+	public static void failed(final MetricsListener listener, final Operation operation, final long start, final Throwable cause) {
+		try {
+			listener.failed(operation, System.nanoTime() - start, cause);
+		} catch (final RuntimeException e) {
+			log.log(Level.WARNING, "error in metrics listener", e);
+		}
+	}
+}
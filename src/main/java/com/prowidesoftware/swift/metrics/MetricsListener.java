@@ -0,0 +1,79 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics;
+
+/**
+ * Listener notified by the parsers, writers and conversion services after processing each message.
+ *
+ * <p>Implementations are registered with {@link Metrics#setListener(MetricsListener)}. They are called from the
+ * threads processing the messages, so they must be thread safe and fast; exceptions thrown by the listener are
+ * logged and ignored.
+ *
+ * <p>On Java 11 or later, the JfrMetricsListener of the pw-swift-core-jfr module (the jfr subproject of this build)
+ * emits a Java Flight Recorder event for each message, to correlate message types with latency spikes in the
+ * recordings.
+ *
+ * @see InMemoryMetrics
+ * @since 7.10.4
+ */
+public interface MetricsListener {
+
+	/**
+	 * The instrumented operations
+	 */
+	enum Operation {
+		/** MT parsing with the SwiftParser */
+		MT_PARSE,
+		/** MT serialization with the SwiftWriter writeMessage methods; length and checksum computations are not reported */
+		MT_WRITE,
+		/** MX parsing into an MxNode tree with the MxParser */
+		MX_PARSE,
+		/** MX message type detection with the MxParser */
+		MX_DETECT,
+		/** MX serialization of the header or document of an AbstractMX */
+		MX_WRITE,
+		/** JSON serialization of a SwiftMessage, also reported for an AbstractMT since it includes its SwiftMessage, or an AbstractMX */
+		JSON_SERIALIZE,
+		/** Parsing of the XML representation of MT messages with the XMLParser */
+		XML_PARSE,
+		/** Conversion of a SwiftMessage into FIN or XML with the ConversionService */
+		CONVERSION,
+		/** Reading of the next raw message from an RJE or PPC reader */
+		READ
+	}
+
+	/**
+	 * Called when a message has been processed.
+	 *
+	 * @param operation the operation performed
+	 * @param id the message type identifier, such as fin.103 or pacs.008.001.02, or null if not available
+	 * @param size number of characters read or written
+	 * @param tags number of tags in the message text block, zero when not applicable
+	 * @param nanos elapsed time in nanoseconds
+	 * @param errors number of errors reported by the parser, each one a lenient recovery when the parser continued
+	 */
+	void completed(Operation operation, String id, long size, int tags, long nanos, int errors);
+
+	/**
+	 * Called when the processing of a message fails.
+	 *
+	 * @param operation the operation attempted
+	 * @param nanos elapsed time in nanoseconds until the failure
+	 * @param cause the error, may be null if the failure was not caused by an exception
+	 */
+	void failed(Operation operation, long nanos, Throwable cause);
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
+import com.prowidesoftware.swift.io.writer.Utf8Sink;
+import com.prowidesoftware.swift.model.field.Field108;
+
+/**
+ * Writes a {@link SwiftMessage} in FIN format while gathering, in the same pass, the metadata stored in
+ * {@link MtSwiftMessage}: the message and text block checksums and the values of the PDE, PDM, MUR and
+ * reference tags.
+ *
+ * <p>The result is equivalent to calling {@link ConversionService#getFIN(SwiftMessage)},
+ * {@link SwiftMessageUtils#calculateChecksum(SwiftMessage)}, {@link SwiftMessageUtils#calculateChecksum(SwiftBlock4)}
+ * and the individual getters, but the message is serialized only once and the checksums are computed on the fly,
+ * without creating intermediate strings.
+ *
+ * <p>The text block checksum is computed in the same pass for messages written with the text block syntax.
+ * For system and category 0 messages, where the block 4 is written with the tag-block syntax, it is computed
+ * separately to keep the same result than {@link SwiftMessageUtils#calculateChecksum(SwiftBlock4)}.
+ *
+ * @since 7.10.4
+ */
+public final class MtMetadataWriter extends FINWriterVisitor {
+
+	private final SwiftMessage model;
+	private final DigestSink out;
+	private String checksum;
+	private String checksumBody;
+	private Tag pde;
+	private Tag pdm;
+	private Tag mur;
+	private Tag field20;
+
+	private MtMetadataWriter(final SwiftMessage model, final DigestSink out) {
+		super(out);
+		this.model = model;
+		this.out = out;
+	}
+
+	/**
+	 * Visits the message once, computing its checksums and metadata.
+	 *
+	 * @param model the message to write
+	 * @param keepText true to keep the FIN content, available with {@link #getFIN()}; false to compute the metadata only
+	 * @return the writer with the gathered metadata
+	 * @throws IllegalArgumentException if the message is null
+	 */
+	public static MtMetadataWriter write(final SwiftMessage model, final boolean keepText) {
+		Validate.notNull(model, "the model message cannot be null");
+		final MtMetadataWriter writer = new MtMetadataWriter(model, new DigestSink(keepText));
+		model.visit(writer);
+		writer.out.flush();
+		writer.checksum = writer.out.checksum();
+		return writer;
+	}
+
+	@Override
+	public void tag(final SwiftBlock3 b, final Tag t) {
+		if (mur == null && Field108.NAME.equals(t.getName())) {
+			mur = t;
+		}
+		super.tag(b, t);
+	}
+
+	@Override
+	public void startBlock4(final SwiftBlock4 b) {
+		if (isBlock4asText()) {
+			out.startBody();
+		}
+		super.startBlock4(b);
+	}
+
+	@Override
+	public void tag(final SwiftBlock4 b, final Tag t) {
+		if (field20 == null && "20".equals(t.getName())) {
+			field20 = t;
+		}
+		super.tag(b, t);
+	}
+
+	@Override
+	public void endBlock4(final SwiftBlock4 b) {
+		super.endBlock4(b);
+		if (isBlock4asText()) {
+			this.checksumBody = out.endBody();
+		} else {
+			// standalone block 4 checksum is always computed on the text block syntax
+			this.checksumBody = SwiftMessageUtils.calculateChecksum(b);
+		}
+	}
+
+	@Override
+	public void tag(final SwiftBlock5 b, final Tag t) {
+		if (pde == null && "PDE".equals(t.getName())) {
+			pde = t;
+		} else if (pdm == null && "PDM".equals(t.getName())) {
+			pdm = t;
+		}
+		super.tag(b, t);
+	}
+
+	/**
+	 * @return the message in FIN format, with SWIFT line breaks as returned by {@link ConversionService#getFIN(SwiftMessage)},
+	 * or null if the writer was created without keeping the text
+	 */
+	public String getFIN() {
+		return out.text();
+	}
+
+	/**
+	 * @return the message checksum
+	 * @see SwiftMessageUtils#calculateChecksum(SwiftMessage)
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * @return the text block checksum or null if the message has no block 4
+	 * @see SwiftMessageUtils#calculateChecksum(SwiftBlock4)
+	 */
+	public String getChecksumBody() {
+		return checksumBody;
+	}
+
+	/**
+	 * @see SwiftMessage#getPDE()
+	 */
+	public String getPDE() {
+		return pde != null ? pde.getValue() : null;
+	}
+
+	/**
+	 * @see SwiftMessage#getPDM()
+	 */
+	public String getPDM() {
+		return pdm != null ? pdm.getValue() : null;
+	}
+
+	/**
+	 * @see SwiftMessage#getMUR()
+	 */
+	public String getMUR() {
+		return mur != null ? mur.getValue() : null;
+	}
+
+	/**
+	 * @see SwiftMessageUtils#reference(SwiftMessage)
+	 */
+	public String getReference() {
+		return field20 != null ? field20.getValue() : SwiftMessageUtils.reference(model);
+	}
+
+	/**
+	 * Sink that encodes the content in UTF-8 into the checksum digests, optionally keeping the text with its line
+	 * breaks replaced by SWIFT line breaks.
+	 */
+	private static final class DigestSink extends Utf8Sink {
+		private final StringBuilder text;
+		private final MessageDigest message = md5();
+		private final MessageDigest body = md5();
+		private boolean inBody = false;
+		private boolean lastCR = false;
+		private boolean endsWithEol = false;
+
+		DigestSink(final boolean keepText) {
+			this.text = keepText ? new StringBuilder(1024) : null;
+		}
+
+		@Override
+		public Utf8Sink append(final CharSequence csq, final int start, final int end) {
+			if (text != null) {
+				for (int i = start; i < end; i++) {
+					appendText(csq.charAt(i));
+				}
+			}
+			try {
+				return super.append(csq, start, end);
+			} catch (final IOException e) {
+				// digests do not throw IO exceptions
+				throw new ProwideException(e);
+			}
+		}
+
+		@Override
+		public Utf8Sink append(final char c) {
+			if (text != null) {
+				appendText(c);
+			}
+			try {
+				return super.append(c);
+			} catch (final IOException e) {
+				throw new ProwideException(e);
+			}
+		}
+
+		/*
+		 * same line breaks conversion than ConversionService#getFIN: any line terminator is replaced by CRLF
+		 * and a trailing line terminator is removed
+		 */
+		private void appendText(final char c) {
+			if (c == '\n' && lastCR) {
+				lastCR = false;
+				return;
+			}
+			lastCR = c == '\r';
+			endsWithEol = lastCR || c == '\n';
+			if (endsWithEol) {
+				text.append(FINWriterVisitor.SWIFT_EOL);
+			} else {
+				text.append(c);
+			}
+		}
+
+		@Override
+		protected void drain(final byte[] bytes, final int len) {
+			message.update(bytes, 0, len);
+			if (inBody) {
+				body.update(bytes, 0, len);
+			}
+		}
+
+		@Override
+		public void flush() {
+			try {
+				super.flush();
+			} catch (final IOException e) {
+				throw new ProwideException(e);
+			}
+		}
+
+		void startBody() {
+			flush();
+			inBody = true;
+		}
+
+		String endBody() {
+			flush();
+			inBody = false;
+			return SwiftMessageUtils.hex(body.digest());
+		}
+
+		String checksum() {
+			return SwiftMessageUtils.hex(message.digest());
+		}
+
+		String text() {
+			if (text == null) {
+				return null;
+			}
+			if (endsWithEol) {
+				text.setLength(text.length() - FINWriterVisitor.SWIFT_EOL.length());
+				endsWithEol = false;
+			}
+			return text.toString();
+		}
+
+		private static MessageDigest md5() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			} catch (final NoSuchAlgorithmException e) {
+				throw new ProwideException(e);
+			}
+		}
+	}
+}
@@ -20,7 +20,7 @@ import com.google.gson.GsonBuilder;
 import com.prowidesoftware.deprecation.DeprecationUtils;
 import com.prowidesoftware.deprecation.ProwideDeprecated;
 import com.prowidesoftware.deprecation.TargetYear;
-import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.io.SwiftMessageCodec;
 import com.prowidesoftware.swift.model.mt.AbstractMT;
 import com.prowidesoftware.swift.model.mt.ServiceIdType;
 import org.apache.commons.lang3.StringUtils;
@@ -29,9 +29,11 @@ import org.apache.commons.lang3.Validate;
 import javax.persistence.Column;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Transient;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
 import java.util.Calendar;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -65,6 +67,36 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 	@Column(length = 31, name = "uuid")
 	private String uuid;
 
+	/**
+	 * Strategies to reuse the parsed model returned by {@link MtSwiftMessage#modelMessage()}
+	 * @since 7.10.4
+	 */
+	public enum ModelCache {
+		/**
+		 * The raw message is parsed on every call (default)
+		 */
+		NONE,
+		/**
+		 * The parsed model is kept in the compact binary format of the {@link SwiftMessageCodec} and every call
+		 * decodes a new copy of it, so the returned instance can be freely modified by the caller
+		 */
+		COPY,
+		/**
+		 * The parsed model is kept and every call returns the same instance, frozen with
+		 * {@link SwiftMessage#freeze()} so it cannot be modified by the callers
+		 */
+		SHARED
+	}
+
+	private static volatile ModelCache modelCache = ModelCache.NONE;
+
+	/*
+	 * The parsed model along with the raw content it was parsed from, kept as a soft reference so it
+	 * can be released under memory pressure
+	 */
+	@Transient
+	private transient SoftReference<ParsedModel> parsedModel;
+
 	public MtSwiftMessage() {
 		super();
 	}
@@ -165,11 +197,16 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 		if (model == null) {
 			throw new IllegalArgumentException("the raw message parameter could not be parsed into a SwiftMessage");
 		} else {
-			updateAttributes(model);
+			// the checksums are computed on the model serialization, the FIN text is not needed
+			updateAttributes(model, MtMetadataWriter.write(model, false));
+			final ModelCache mode = modelCache;
+			if (mode != ModelCache.NONE) {
+				cacheModel(getMessage(), model, mode);
+			}
 		}
 	}
 	
-	private void updateAttributes(final SwiftMessage model) {
+	private void updateAttributes(final SwiftMessage model, final MtMetadataWriter metadata) {
 		setFileFormat(FileFormat.FIN);
 		if (model.isServiceMessage21()) {
 			if (model.getUnparsedTextsSize() > 0) {
@@ -196,7 +233,7 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 			setIdentifier(model.getMtId().id());
 			setReceiver(bic11(model.getReceiver()));
 			setDirection(model.getDirection());
-			setReference(SwiftMessageUtils.reference(model));
+			setReference(metadata.getReference());
 			CurrencyAmount currencyAmount = SwiftMessageUtils.currencyAmount(model);
 			if (currencyAmount != null) {
 				setCurrency(currencyAmount.getCurrency());
@@ -204,12 +241,12 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 			}
 		}
 		setSender(bic11(model.getSender()));
-		setChecksum(SwiftMessageUtils.calculateChecksum(model));
-		setChecksumBody(SwiftMessageUtils.calculateChecksum(model.getBlock4()));
-		setPde(model.getPDE());
-		setPdm(model.getPDM());
+		setChecksum(metadata.getChecksum());
+		setChecksumBody(metadata.getChecksumBody());
+		setPde(metadata.getPDE());
+		setPdm(metadata.getPDM());
 		setMir(model.getMIR());
-		setMur(model.getMUR());
+		setMur(metadata.getMUR());
 		setUuid(model.getUUID());
 		setLastModified(Calendar.getInstance());
 	}
@@ -248,13 +285,16 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 	 * The SwiftMessage is serialized to its FIN raw format to set the internal raw message attribute.
 	 * And the header attributes are set with data from the parameter SwiftMessage.
 	 * Notice that the SwiftMessage is not stored as internal attribute.
+	 * <p>The raw message, the checksums and the metadata are computed in a single serialization
+	 * of the model with {@link MtMetadataWriter}.
 	 */
 	public void updateFromModel(final SwiftMessage model) {
 		Validate.notNull(model, "the model message cannot be null");
-		final String fin = (new ConversionService()).getFIN(model);
+		final MtMetadataWriter metadata = MtMetadataWriter.write(model, true);
+		final String fin = metadata.getFIN();
 		Validate.notNull(fin, "the raw message could not be created from the SwiftMessage parameter");
 		setMessage(fin);
-		updateAttributes(model);
+		updateAttributes(model, metadata);
 	}
 
 	/**
@@ -283,20 +323,106 @@ public class MtSwiftMessage extends AbstractSwiftMessage {
 	
 	/**
 	 * Parses the raw message content into a {@link SwiftMessage} object.
+	 * <p>By default the raw content is parsed on every call. The parsed model can be reused between calls
+	 * with {@link #setModelCache(ModelCache)}, in which case it is discarded when the raw content changes.
+	 *
 	 * @return the parsed message or null if the raw content is not set or cannot be parsed
 	 * @since 7.8.9
 	 */
 	public SwiftMessage modelMessage() {
-		if (getMessage() != null) {
-			try {
-				return SwiftMessage.parse(message());
-			} catch (IOException e) {
-				log.log(Level.WARNING, "error converting FIN text to model: "+e.getMessage(), e);
+		final String fin = getMessage();
+		if (fin == null) {
+			return null;
+		}
+		final ModelCache mode = modelCache;
+		if (mode == ModelCache.NONE) {
+			return parseModel(fin);
+		}
+		SwiftMessage model = cachedModel(fin, mode);
+		if (model == null) {
+			model = parseModel(fin);
+			if (model == null) {
+				return null;
 			}
+			// in COPY mode the cache keeps an encoded copy, so the parsed instance can be returned
+			cacheModel(fin, model, mode);
+		}
+		return model;
+	}
+
+	private static SwiftMessage parseModel(final String fin) {
+		try {
+			return SwiftMessage.parse(fin);
+		} catch (IOException e) {
+			log.log(Level.WARNING, "error converting FIN text to model: "+e.getMessage(), e);
 		}
 		return null;
 	}
 
+	private SwiftMessage cachedModel(final String fin, final ModelCache mode) {
+		final ParsedModel cached = this.parsedModel != null ? this.parsedModel.get() : null;
+		// the raw message field can be set without calling the setter, for example by the persistence layer
+		if (cached == null || cached.source != fin || cached.mode != mode) {
+			return null;
+		}
+		return mode == ModelCache.COPY ? SwiftMessageCodec.decode(cached.encoded) : cached.model;
+	}
+
+	private void cacheModel(final String fin, final SwiftMessage model, final ModelCache mode) {
+		final ParsedModel cached;
+		if (mode == ModelCache.COPY) {
+			cached = new ParsedModel(fin, mode, null, SwiftMessageCodec.encode(model));
+		} else {
+			cached = new ParsedModel(fin, mode, model.freeze(), null);
+		}
+		this.parsedModel = new SoftReference<>(cached);
+	}
+
+	/**
+	 * Sets the raw content of the message, discarding the cached model if any.
+	 * @see AbstractSwiftMessage#setMessage(String)
+	 */
+	@Override
+	public void setMessage(final String message) {
+		super.setMessage(message);
+		this.parsedModel = null;
+	}
+
+	/**
+	 * Sets the strategy to reuse the parsed model in {@link #modelMessage()}, for all instances.
+	 * <p>The cached models are kept with soft references, so they do not prevent the garbage collection
+	 * when memory is needed.
+	 *
+	 * @param mode the cache strategy
+	 * @since 7.10.4
+	 */
+	public static void setModelCache(final ModelCache mode) {
+		Validate.notNull(mode, "the cache mode cannot be null");
+		modelCache = mode;
+	}
+
+	/**
+	 * @return the current strategy to reuse the parsed model in {@link #modelMessage()}
+	 * @since 7.10.4
+	 */
+	public static ModelCache getModelCache() {
+		return modelCache;
+	}
+
+	private static final class ParsedModel {
+		private final String source;
+		private final ModelCache mode;
+		private final SwiftMessage model;
+		private final byte[] encoded;
+
+		ParsedModel(final String source, final ModelCache mode, final SwiftMessage model, final byte[] encoded) {
+			this.source = source;
+			this.mode = mode;
+			this.model = model;
+			this.encoded = encoded;
+		}
+	}
+
 	/**
 	 * @deprecated The internal model message is no longer kept as class attribute to avoid 
 	 * inconsistencies between the raw format and the parsed data. To update the internal raw
@@ -58,6 +58,11 @@ public abstract class SwiftBlock implements Serializable {
 	 */
 	protected Boolean output;
 
+	/**
+	 * Set when the block is frozen, see {@link #freeze()}
+	 */
+	private transient boolean frozen = false;
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -88,6 +93,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @param blockType
 	 */
 	public void setBlockType(String blockType) {
+		checkNotFrozen();
 		this.blockType = blockType;
 	}
 
@@ -152,6 +158,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @param id the unique identifier to set.
 	 */
 	public void setId(final Long id) {
+		checkNotFrozen();
 		this.id = id;
 	}
 
@@ -181,6 +188,9 @@ public abstract class SwiftBlock implements Serializable {
 	 * @return the unparsed texts attached to the block
 	 */
 	public UnparsedTextList getUnparsedTexts() {
+		if (this.frozen && this.unparsedTexts == null) {
+			return UnparsedTextList.EMPTY;
+		}
 		// create the list if needed
 		unparsedTextVerify();
 		return this.unparsedTexts;
@@ -191,6 +201,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @param texts the new list of unparsed texts (may be null)
 	 */
 	public void setUnparsedTexts(final UnparsedTextList texts) {
+		checkNotFrozen();
 		this.unparsedTexts = texts;
 	}
 
@@ -215,9 +226,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @return true if the unparsed text at position index is a full SWIFT Message
 	 */
 	public Boolean unparsedTextIsMessage(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.isMessage(index);
+		return getUnparsedTexts().isMessage(index);
 	}
 
 	/**
@@ -228,9 +237,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @throws IndexOutOfBoundsException if parameter index is out of bounds
 	 */
 	public String unparsedTextGetText(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.getText(index);
+		return getUnparsedTexts().getText(index);
 	}
 
 	/**
@@ -240,9 +247,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @return the blocks unparsed text at position index, parsed into a SwiftMessage object
 	 */
 	public SwiftMessage unparsedTextGetAsMessage(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.getTextAsMessage(index);
+		return getUnparsedTexts().getTextAsMessage(index);
 	}
 
 	/**
@@ -251,6 +256,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @throws IllegalArgumentException if parameter text is null
 	 */
 	public void unparsedTextAddText(final String text) {
+		checkNotFrozen();
 		// create the list if needed
 		unparsedTextVerify();
 		this.unparsedTexts.addText(text);
@@ -262,11 +268,47 @@ public abstract class SwiftBlock implements Serializable {
 	 * @throws IllegalArgumentException if parameter message is null
 	 */
 	public void unparsedTextAddText(final SwiftMessage message) {
+		checkNotFrozen();
 		// create the list if needed
 		unparsedTextVerify();
 		this.unparsedTexts.addText(message);
 	}
 
+	/**
+	 * Makes this block read-only, including its content and unparsed texts. Any further call to a method changing
+	 * the block will throw an {@link UnsupportedOperationException}.
+	 *
+	 * @return this instance
+	 * @see SwiftMessage#freeze()
+	 * @since 7.10.4
+	 */
+	public SwiftBlock freeze() {
+		if (this.unparsedTexts != null) {
+			this.unparsedTexts.freeze();
+		}
+		this.frozen = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the block has been frozen
+	 * @since 7.10.4
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * To be called by the methods changing the block content
+	 * @throws UnsupportedOperationException if the block has been frozen
+	 * @since 7.10.4
+	 */
+	protected final void checkNotFrozen() {
+		if (this.frozen) {
+			throw new UnsupportedOperationException("the block " + getName() + " is frozen");
+		}
+	}
+
 	/**
 	 * Only valid for block2, only when using hibernate for persistence
 	 * @return true if the message block type is <code>2I</code>
@@ -281,6 +323,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @param input the is input parameter
 	 */
 	public void setInput(Boolean input) {
+		checkNotFrozen();
 		this.input = input;
 	}
 
@@ -298,6 +341,7 @@ public abstract class SwiftBlock implements Serializable {
 	 * @param output the is output parameter
 	 */
 	public void setOutput(Boolean output) {
+		checkNotFrozen();
 		this.output = output;
 	}	
 }
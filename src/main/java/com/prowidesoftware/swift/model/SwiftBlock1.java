@@ -227,6 +227,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param applicationId String of 1 character containing the Application ID (F, A or L)
 	 */
 	public void setApplicationId(final String applicationId) {
+		checkNotFrozen();
 		this.applicationId = applicationId;
 	}
 
@@ -244,6 +245,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param serviceId string of 2 characters containing Service ID (01, 02, 03, etc...)
 	 */
 	public void setServiceId(final String serviceId) {
+		checkNotFrozen();
 		this.serviceId = serviceId;
 	}
 	
@@ -264,6 +266,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param logicalTerminal should be a fixed at 12 character length string; with the BIC address, LT identifier and branch code.
 	 */
 	public void setLogicalTerminal(final String logicalTerminal) {
+		checkNotFrozen();
 		this.logicalTerminal = logicalTerminal;
 	}
 	
@@ -277,6 +280,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @since 7.6
 	 */
 	public void setLogicalTerminal(final LogicalTerminalAddress logicalTerminal) {
+		checkNotFrozen();
 		this.logicalTerminal = logicalTerminal.getSenderLogicalTerminalAddress();
 	}
 	
@@ -332,6 +336,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param sessionNumber 4 numbers.
 	 */
 	public void setSessionNumber(final String sessionNumber) {
+		checkNotFrozen();
 		this.sessionNumber = sessionNumber;
 	}
 
@@ -356,6 +361,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param sequenceNumber 6 numbers
 	 */
 	public void setSequenceNumber(final String sequenceNumber) {
+		checkNotFrozen();
 		this.sequenceNumber = sequenceNumber;
 	}
 
@@ -435,6 +441,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @param lenient if true the value will be parsed with a best effort heuristic, if false it will throw a IllegalArgumentException if the value has an invalid total size
 	 */
 	public void setValue(final String value, boolean lenient) {
+		checkNotFrozen();
 		if (lenient) {
 			//leave all attributes as null (cleaning defaults)
 			clean();
@@ -501,6 +508,7 @@ public class SwiftBlock1 extends SwiftValueBlock implements Serializable {
 	 * @since 6.4
 	 */
 	public void clean() {
+		checkNotFrozen();
 		applicationId = null;
 		serviceId = null;
 		logicalTerminal = null;
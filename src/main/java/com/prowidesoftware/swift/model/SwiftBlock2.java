@@ -120,6 +120,7 @@ public abstract class SwiftBlock2 extends SwiftValueBlock implements Serializabl
 	 * @param messageType String of 3 character
 	 */
 	public void setMessageType(final String messageType) {
+		checkNotFrozen();
 		this.messageType = messageType;
 	}
 
@@ -136,6 +137,7 @@ public abstract class SwiftBlock2 extends SwiftValueBlock implements Serializabl
 	 * @param messagePriority the message priority
 	 */
 	public void setMessagePriority(final String messagePriority) {
+		checkNotFrozen();
 		this.messagePriority = messagePriority;
 	}
 
@@ -186,6 +188,7 @@ public abstract class SwiftBlock2 extends SwiftValueBlock implements Serializabl
 	 * @since 6.4
 	 */
 	public void clean() {
+		checkNotFrozen();
 		messagePriority = null;
 		messageType = null;
 	}
@@ -147,6 +147,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 *            String of 3 character
 	 */
 	public void setMessageType(final String messageType) {
+		checkNotFrozen();
 		this.messageType = messageType;
 	}
 
@@ -162,6 +163,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @param receiverAddress 12 characters String
 	 */
 	public void setReceiverAddress(final String receiverAddress) {
+		checkNotFrozen();
 		this.receiverAddress = receiverAddress;
 	}
 	
@@ -173,6 +175,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @since 7.6
 	 */
 	public void setReceiverAddress(final LogicalTerminalAddress logicalTerminal) {
+		checkNotFrozen();
 		this.receiverAddress = logicalTerminal.getReceiverLogicalTerminalAddress();
 	}
 
@@ -227,6 +230,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @param messagePriority String of 1 character 
 	 */
 	public void setMessagePriority(final String messagePriority) {
+		checkNotFrozen();
 		this.messagePriority = messagePriority;
 	}
 
@@ -250,6 +254,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @param deliveryMonitoring String of 1 character containing the Delivery Monitoring field
 	 */
 	public void setDeliveryMonitoring(final String deliveryMonitoring) {
+		checkNotFrozen();
 		this.deliveryMonitoring = deliveryMonitoring;
 	}
 
@@ -289,6 +294,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @param obsolescencePeriod String of 3 characters containing the Obsolescence Period
 	 */
 	public void setObsolescencePeriod(final String obsolescencePeriod) {
+		checkNotFrozen();
 		this.obsolescencePeriod = obsolescencePeriod;
 	}
 
@@ -375,6 +381,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @param lenient if true the value will be parsed with a best effort heuristic, if false it will throw a IllegalArgumentException if the value has an invalid total size
 	 */
 	public void setValue(final String value, boolean lenient) {
+		checkNotFrozen();
 		if (lenient) {
 			//leave all attributes as null (cleaning defaults)
 			clean();
@@ -449,6 +456,7 @@ public class SwiftBlock2Input extends SwiftBlock2 implements Serializable {
 	 * @since 6.4
 	 */
 	public void clean() {
+		checkNotFrozen();
 		super.messagePriority = null;
 		super.messageType = null;
 		this.receiverAddress = null;
@@ -164,6 +164,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param senderInputTime 4 numbers HHMM
 	 */
 	public void setSenderInputTime(final String senderInputTime) {
+		checkNotFrozen();
 		this.senderInputTime = senderInputTime;
 	}
 
@@ -183,6 +184,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param MIRDate 6 numbers with date in format YYMMDD
 	 */
 	public void setMIRDate(final String MIRDate) {
+		checkNotFrozen();
 		this.MIRDate = MIRDate;
 	}
 
@@ -202,6 +204,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param MIRLogicalTerminal 12 characters full LT address
 	 */
 	public void setMIRLogicalTerminal(final String MIRLogicalTerminal) {
+		checkNotFrozen();
 		this.MIRLogicalTerminal = MIRLogicalTerminal;
 	}
 	
@@ -213,6 +216,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @since 7.6
 	 */
 	public void setMIRLogicalTerminal(final LogicalTerminalAddress MIRLogicalTerminal) {
+		checkNotFrozen();
 		this.MIRLogicalTerminal = MIRLogicalTerminal.getSenderLogicalTerminalAddress();
 	}
 	
@@ -269,6 +273,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param MIRSessionNumber 4 numbers
 	 */
 	public void setMIRSessionNumber(final String MIRSessionNumber) {
+		checkNotFrozen();
 		this.MIRSessionNumber = MIRSessionNumber;
 	}
 
@@ -288,6 +293,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param MIRSequenceNumber 6 numbers
 	 */
 	public void setMIRSequenceNumber(final String MIRSequenceNumber) {
+		checkNotFrozen();
 		this.MIRSequenceNumber = MIRSequenceNumber;
 	}
 
@@ -347,6 +353,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param lenient if true the value will be parsed with a best effort heuristic, if false it will throw a IllegalArgumentException if the value has an invalid total size
 	 */
 	public void setMIR(final String mir, boolean lenient) {
+		checkNotFrozen();
 		if (!lenient) {
     		Validate.notNull(mir);
     		Validate.isTrue(mir.length() == 28, "expected a 28 characters string for MIR value and found a " + mir.length() + " string:" + mir);
@@ -385,6 +392,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param receiverOutputDate 6 characters in format YYMMDD
 	 */
 	public void setReceiverOutputDate(final String receiverOutputDate) {
+		checkNotFrozen();
 		this.receiverOutputDate = receiverOutputDate;
 	}
 
@@ -403,6 +411,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param receiverOutputTime String with 4 numbers
 	 */
 	public void setReceiverOutputTime(final String receiverOutputTime) {
+		checkNotFrozen();
 		this.receiverOutputTime = receiverOutputTime;
 	}
 
@@ -493,6 +502,7 @@ public class SwiftBlock2Output extends SwiftBlock2 implements Serializable {
 	 * @param lenient if true the value will be parsed with a best effort heuristic, if false it will throw a IllegalArgumentException if the value has an invalid total size
 	 */
 	public void setValue(final String value, boolean lenient) {
+		checkNotFrozen();
 		if (lenient) {
 			//leave all attributes as null (cleaning defaults)
 			clean();
@@ -15,6 +15,7 @@
  */
 package com.prowidesoftware.swift.model;
 
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
@@ -150,6 +151,19 @@ public class SwiftBlock4 extends SwiftTagListBlock implements Serializable {
         return new SwiftBlock4(new ArrayList<>(stack));
 	}
 
+	/**
+	 * Computes the length in characters of this block in FIN format, including the block delimiters,
+	 * as written by {@link SwiftWriter#writeBlock4(SwiftBlock4, java.io.Writer)} with line breaks counted as CRLF,
+	 * without serializing it.
+	 *
+	 * @return the length of the serialized block
+	 * @see #getTextLength()
+	 * @since 7.10.4
+	 */
+	public int getFINLength() {
+		return SwiftWriter.length(this);
+	}
+
 	/**
 	 * This method deserializes the JSON data into an block 4 object.
 	 * @see #toJson()
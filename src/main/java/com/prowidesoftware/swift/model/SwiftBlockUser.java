@@ -173,6 +173,7 @@ public class SwiftBlockUser extends SwiftTagListBlock implements Serializable {
 	 * @since 5.0
 	 */
 	protected void setBlockNumber(Integer blockNumber) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(blockNumber, MESSAGE_VALIDATOR);
 		Validate.isTrue(SwiftBlockUser.isValidName(blockNumber).booleanValue(), "'" + blockNumber + "' is not a valid User Defined Block number");
@@ -188,6 +189,7 @@ public class SwiftBlockUser extends SwiftTagListBlock implements Serializable {
 	 * @since 5.0
 	 */
 	protected void setBlockName(String blockName) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(blockName, "parameter 'blockName' cannot be null");
 		Validate.isTrue(SwiftBlockUser.isValidName(blockName).booleanValue(), "'" + blockName + "' is not a valid User Defined Block name");
@@ -291,6 +293,7 @@ public class SwiftBlockUser extends SwiftTagListBlock implements Serializable {
 	 * @param sortKey the new sortkey
 	 */
 	public void setSortKey(Integer sortKey) {
+		checkNotFrozen();
 		this.sortKey = sortKey;
 	}
 
@@ -22,7 +22,11 @@ import com.prowidesoftware.deprecation.DeprecationUtils;
 import com.prowidesoftware.deprecation.ProwideDeprecated;
 import com.prowidesoftware.deprecation.TargetYear;
 import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.io.parser.SwiftParsers;
 import com.prowidesoftware.swift.io.parser.SwiftParserConfiguration;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.io.parser.XMLParser;
 import com.prowidesoftware.swift.io.writer.SwiftWriter;
 import com.prowidesoftware.swift.io.writer.XMLWriterVisitor;
@@ -131,6 +135,11 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 */
 	protected Long id;
 
+	/**
+	 * Set when the message is frozen, see {@link #freeze()}
+	 */
+	private transient boolean frozen = false;
+
 	/**
 	 * Default constructor.
 	 * Must be called since here is performed default handler registration
@@ -196,7 +205,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * read as much from the message content as possible regardless of the content and block boundaries
 	 * beeing valid or not. For instance, it will read the headers even if the value length is incorrect,
 	 * and it will read the text block (block 4) even if it is missing the closing hyphen and bracket. For
-	 * more options check {@link SwiftParser#setConfiguration(SwiftParserConfiguration)}
+	 * more options check {@link SwiftParser#setConfiguration(SwiftParserConfiguration)} and {@link SwiftParsers}
 	 *
 	 * @param fin string a string containing a swift MT message
 	 * @return parser message or null if string content could not be parsed
@@ -205,7 +214,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 7.8.8
 	 */
 	public final static SwiftMessage parse(final String fin) throws IOException {
-		return (new SwiftParser(fin)).message();
+		return SwiftParsers.getDefault().parse(fin);
 	}
 	
 	/**
@@ -502,6 +511,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @see #id
 	 */
 	public void setId(final Long id) {
+		checkNotFrozen();
 		this.id = id;
 	}
 
@@ -569,6 +579,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param block1 the content of the block 1
 	 */
 	public void setBlock1(final SwiftBlock1 block1) {
+		checkNotFrozen();
 		this.block1 = block1;
 	}
 
@@ -585,6 +596,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param block2 the content of the block 1
 	 */
 	public void setBlock2(final SwiftBlock2 block2) {
+		checkNotFrozen();
 		this.block2 = block2;
 	}
 
@@ -601,6 +613,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param block3 the content of the block 1
 	 */
 	public void setBlock3(final SwiftBlock3 block3) {
+		checkNotFrozen();
 		this.block3 = block3;
 	}
 
@@ -617,6 +630,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param block4 the content of the block 1
 	 */
 	public void setBlock4(final SwiftBlock4 block4) {
+		checkNotFrozen();
 		this.block4 = block4;
 	}
 
@@ -633,6 +647,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param block5 the content of the block 5
 	 */
 	public void setBlock5(final SwiftBlock5 block5) {
+		checkNotFrozen();
 		this.block5 = block5;
 	}
 
@@ -669,6 +684,9 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 5.0
 	 */
 	public List<SwiftBlockUser> getUserBlocks() {
+		if (this.frozen && this.userBlocks != null) {
+			return Collections.unmodifiableList(this.userBlocks);
+		}
 		return this.userBlocks;
 	}
 
@@ -683,6 +701,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @see SwiftBlockUser
 	 */
 	protected void setUserBlocks(final List<SwiftBlockUser> userBlocks) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(userBlocks, "parameter 'userBlocks' cannot be null");
 
@@ -737,6 +756,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 5.0
 	 */
 	public void addUserBlock(final SwiftBlockUser userBlock) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(userBlock);
 		Validate.isTrue(userBlock.isValidName().booleanValue(), INVALID_NAME_BLOCK + userBlock.getName() + ")");
@@ -778,6 +798,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 5.0
 	 */
 	public void removeUserBlock(final String blockName) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(blockName, "parameter 'blockName' cannot be null");
 		Validate.isTrue(SwiftBlockUser.isValidName(blockName).booleanValue(), INVALID_NAME_BLOCK + blockName + ")");
@@ -793,6 +814,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * remove all blocks from these message, including user blocks
 	 */
 	public void clear() {
+		checkNotFrozen();
 		// release all blocks
 		this.block1 = null;
 		this.block2 = null;
@@ -909,6 +931,9 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @return the unparsed text attached to this message
 	 */
 	public UnparsedTextList getUnparsedTexts() {
+		if (this.frozen && this.unparsedTexts == null) {
+			return UnparsedTextList.EMPTY;
+		}
 		// create the list if needed
 		unparsedTextVerify();
 		return this.unparsedTexts;
@@ -919,6 +944,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @param texts the new list of unparsed texts (may be null)
 	 */
 	public void setUnparsedTexts(final UnparsedTextList texts) {
+		checkNotFrozen();
 		this.unparsedTexts = texts;
 	}
 
@@ -943,9 +969,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @throws IndexOutOfBoundsException if parameter index is out of bounds
 	 */
 	public Boolean unparsedTextIsMessage(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.isMessage(index);
+		return getUnparsedTexts().isMessage(index);
 	}
 
 	/**
@@ -956,9 +980,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @throws IndexOutOfBoundsException if parameter index is out of bounds
 	 */
 	public String unparsedTextGetText(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.getText(index);
+		return getUnparsedTexts().getText(index);
 	}
 
 	/**
@@ -968,9 +990,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @throws IllegalArgumentException if parameter index is null
 	 */
 	public SwiftMessage unparsedTextGetAsMessage(final Integer index) {
-		// create the list if needed
-		unparsedTextVerify();
-		return this.unparsedTexts.getTextAsMessage(index);
+		return getUnparsedTexts().getTextAsMessage(index);
 	}
 
 	/**
@@ -979,6 +999,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @throws IllegalArgumentException if parameter text is null
 	 */
 	public void unparsedTextAddText(final String text) {
+		checkNotFrozen();
 		// create the list if needed
 		unparsedTextVerify();
 		this.unparsedTexts.addText(text);
@@ -990,6 +1011,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @throws IllegalArgumentException if parameter message is null
 	 */
 	public void unparsedTextAddText(final SwiftMessage message) {
+		checkNotFrozen();
 		// create the list if needed
 		unparsedTextVerify();
 		this.unparsedTexts.addText(message);
@@ -1104,6 +1126,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 6.4
 	 */
 	public void removeEmptyBlocks() {
+		checkNotFrozen();
 		if (this.block1 != null && this.block1.isEmpty()) {
 			this.block1 = null;
 		}
@@ -1227,6 +1250,19 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 		}
 	}
 
+	/**
+	 * Computes the length in characters of this message in FIN format, as returned by
+	 * {@link com.prowidesoftware.swift.io.ConversionService#getFIN(SwiftMessage)}, with line breaks counted as CRLF,
+	 * without creating the content.
+	 *
+	 * @return the length of the serialized message
+	 * @see SwiftWriter#byteLength(SwiftMessage)
+	 * @since 7.10.4
+	 */
+	public int getFINLength() {
+		return SwiftWriter.length(this);
+	}
+
 	/**
 	 * Gets MUR (Message User Reference) from the user header block or null if the user header or MUR are not present.
 	 * The MUR is the Message User Reference used by applications for reconciliation with ACK.
@@ -1302,6 +1338,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	}
 
 	public void setParsedSequences(final SequenceNode parsedSequences) {
+		checkNotFrozen();
 		this.parsedSequences = parsedSequences;
 	}
 
@@ -1462,7 +1499,13 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 			.registerTypeAdapter(SwiftBlock2.class, new SwiftBlock2Adapter())
 			.setPrettyPrinting()
 			.create();
-		return gson.toJson(this);
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final String json = gson.toJson(this);
+		if (metrics != null) {
+			Metrics.completed(metrics, Operation.JSON_SERIALIZE, Metrics.id(this), json.length(), this.block4 != null ? this.block4.size() : 0, start, 0);
+		}
+		return json;
 	}
 
 	/**
@@ -1795,6 +1838,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 7.10.0
 	 */
 	public void setServiceTypeIdentifier(final String serviceTypeIdentifier) {
+		checkNotFrozen();
 		if (this.block3 == null) {
 			this.block3 = new SwiftBlock3();
 		}
@@ -1820,6 +1864,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 7.10.0
 	 */
 	public void setUETR(final String uniqueEndToEndTransactionReference) {
+		checkNotFrozen();
 		if (this.block3 == null) {
 			this.block3 = new SwiftBlock3();
 		}
@@ -1849,6 +1894,7 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 	 * @since 7.10.0
 	 */
 	public void setVariant(final MTVariant variant) {
+		checkNotFrozen();
 		if (!variant.isValidationFlag()) {
 			log.warning("Field " + Field199.NAME + " should be used only for validation flags and not for " + variant.name());
 		}
@@ -1869,4 +1915,62 @@ public class SwiftMessage implements Serializable, JsonSerializable {
 		return isType(103, 202, 205);
 	}
 
+	/**
+	 * Makes this message read-only, so that a single parsed message can be shared by several consumers, for example
+	 * worker threads doing routing, screening and persistence, without defensive copies.
+	 *
+	 * <p>The freeze is applied in place and is deep: the blocks, user blocks, tag lists, tags and unparsed texts of the
+	 * message are frozen as well. After this call the setters and the methods adding or removing content throw
+	 * {@link UnsupportedOperationException}, and the lists returned by the getters are unmodifiable. The read API,
+	 * including the {@link AbstractMT} returned by {@link #toMT()} with its field getters and sequences, works as usual.
+	 * Frozen elements return an empty list instead of lazily creating their unparsed text lists, so reading a frozen
+	 * message never writes to it.
+	 *
+	 * <p>Once frozen, the message can be read concurrently from any thread provided it is handed over with the usual
+	 * safe publication means, such as an executor, a concurrent collection or a volatile field.
+	 *
+	 * <p>The frozen state is not serialized, a deserialized copy is a regular mutable message. To get a changeable
+	 * message from a frozen one, parse its FIN content into a new instance.
+	 *
+	 * @return this message
+	 * @since 7.10.4
+	 */
+	public SwiftMessage freeze() {
+		if (!this.frozen) {
+			final SwiftBlock[] blocks = {this.block1, this.block2, this.block3, this.block4, this.block5};
+			for (final SwiftBlock b : blocks) {
+				if (b != null) {
+					b.freeze();
+				}
+			}
+			if (this.userBlocks != null) {
+				for (final SwiftBlockUser b : this.userBlocks) {
+					if (b != null) {
+						b.freeze();
+					}
+				}
+			}
+			if (this.unparsedTexts != null) {
+				this.unparsedTexts.freeze();
+			}
+			this.frozen = true;
+		}
+		return this;
+	}
+
+	/**
+	 * @return true if the message has been frozen
+	 * @see #freeze()
+	 * @since 7.10.4
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (this.frozen) {
+			throw new UnsupportedOperationException("the message is frozen");
+		}
+	}
+
 }
\ No newline at end of file
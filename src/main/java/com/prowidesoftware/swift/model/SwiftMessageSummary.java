@@ -0,0 +1,371 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model;
+
+import org.apache.commons.lang3.Validate;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Calendar;
+
+/**
+ * Read-only projection of the messages persisted with {@link AbstractSwiftMessage}, mapping only the header metadata
+ * columns of the same table.
+ *
+ * <p>This entity is intended for list queries, such as message monitoring screens, where only the identification
+ * and status of the messages is needed. Since it does not map the raw message content, the properties, notes,
+ * status trail or revisions, querying it never loads LOBs or collections. For example:
+ * <pre>
+ * em.createQuery("select s from swift_msg_summary s where s.status = :status", SwiftMessageSummary.class)
+ * </pre>
+ * The full message can then be loaded by its id when needed.
+ *
+ * <p>All columns are mapped as not insertable nor updatable; new messages and changes must be persisted through the
+ * {@link MtSwiftMessage} and {@link MxSwiftMessage} entities.
+ *
+ * @since 7.10.4
+ */
+@Entity(name = "swift_msg_summary")
+@Table(name = "swift_msg")
+public class SwiftMessageSummary implements Serializable {
+	private static final long serialVersionUID = 4906151473296530861L;
+
+	/**
+	 * Discriminator value of MT messages
+	 */
+	public static final String TYPE_MT = "mt";
+
+	/**
+	 * Discriminator value of MX messages
+	 */
+	public static final String TYPE_MX = "mx";
+
+	@Id
+	@Column(insertable = false, updatable = false)
+	private Long id;
+
+	@Column(length = 2, insertable = false, updatable = false)
+	private String type;
+
+	@Column(length = 40, insertable = false, updatable = false)
+	private String identifier;
+
+	@Column(length = 12, insertable = false, updatable = false)
+	private String sender;
+
+	@Column(length = 12, insertable = false, updatable = false)
+	private String receiver;
+
+	@Enumerated(EnumType.STRING)
+	@Column(length = 8, insertable = false, updatable = false)
+	private MessageIOType direction;
+
+	@Column(length = 32, name = "checksum", insertable = false, updatable = false)
+	private String checksum;
+
+	@Column(name = "last_modified", insertable = false, updatable = false)
+	private Calendar lastModified;
+
+	@Column(name = "creation_date", insertable = false, updatable = false)
+	private Calendar creationDate;
+
+	@Column(length = 50, insertable = false, updatable = false)
+	private String status;
+
+	@Column(length = 35, insertable = false, updatable = false)
+	private String reference;
+
+	@Column(length = 3, insertable = false, updatable = false)
+	private String currency;
+
+	@Column(insertable = false, updatable = false)
+	private BigDecimal amount;
+
+	@Column(length = 28, name = "mir", insertable = false, updatable = false)
+	private String mir;
+
+	@Column(length = 16, name = "mur", insertable = false, updatable = false)
+	private String mur;
+
+	@Column(length = 31, name = "uuid", insertable = false, updatable = false)
+	private String uuid;
+
+	public SwiftMessageSummary() {
+		super();
+	}
+
+	/**
+	 * Creates a summary with the header metadata of a message.
+	 * @param msg the message to summarize
+	 */
+	public SwiftMessageSummary(final AbstractSwiftMessage msg) {
+		Validate.notNull(msg, "message cannot be null");
+		this.id = msg.getId();
+		this.type = msg instanceof MxSwiftMessage ? TYPE_MX : TYPE_MT;
+		this.identifier = msg.getIdentifier();
+		this.sender = msg.getSender();
+		this.receiver = msg.getReceiver();
+		this.direction = msg.getDirection();
+		this.checksum = msg.getChecksum();
+		this.lastModified = msg.getLastModified();
+		this.creationDate = msg.getCreationDate();
+		this.status = msg.getStatus();
+		this.reference = msg.getReference();
+		this.currency = msg.getCurrency();
+		this.amount = msg.getAmount();
+		if (msg instanceof MtSwiftMessage) {
+			final MtSwiftMessage mt = (MtSwiftMessage) msg;
+			this.mir = mt.getMir();
+			this.mur = mt.getMur();
+			this.uuid = mt.getUuid();
+		}
+	}
+
+	/**
+	 * Copies the summary attributes into a message, leaving its content and any other attribute unchanged.
+	 * The MIR, MUR and UUID are only copied into MT messages.
+	 * <p>The id is never copied, because merging a message entity with the summary id and without content would
+	 * clear the content, properties and collections of the persisted message. The target must be either a new
+	 * message or the persisted message of this summary.
+	 * @param msg target message
+	 * @throws IllegalArgumentException if the message has a different id than the summary
+	 */
+	public void copyTo(final AbstractSwiftMessage msg) {
+		Validate.notNull(msg, "message cannot be null");
+		Validate.isTrue(msg.getId() == null || msg.getId().equals(getId()), "the message " + msg.getId() + " is not the summarized message " + getId());
+		msg.setIdentifier(getIdentifier());
+		msg.setSender(getSender());
+		msg.setReceiver(getReceiver());
+		msg.setDirection(getDirection());
+		msg.setChecksum(getChecksum());
+		msg.setLastModified(getLastModified());
+		msg.setCreationDate(getCreationDate());
+		msg.setStatus(getStatus());
+		msg.setReference(getReference());
+		msg.setCurrency(getCurrency());
+		msg.setAmount(getAmount());
+		if (msg instanceof MtSwiftMessage) {
+			final MtSwiftMessage mt = (MtSwiftMessage) msg;
+			mt.setMir(getMir());
+			mt.setMur(getMur());
+			mt.setUuid(getUuid());
+		}
+	}
+
+	/**
+	 * Creates a message entity with the summary attributes and without content.
+	 * <p>The result is an {@link MxSwiftMessage} for MX summaries and an {@link MtSwiftMessage} otherwise. The returned
+	 * message is a new instance without id, not bound to the persisted message; to access the content or update the
+	 * message, load it by the summary {@link #getId()}.
+	 * @return a new message with the summary attributes
+	 */
+	public AbstractSwiftMessage toMessage() {
+		final AbstractSwiftMessage msg = isMX() ? new MxSwiftMessage() : new MtSwiftMessage();
+		copyTo(msg);
+		return msg;
+	}
+
+	/**
+	 * @return true if the summary is from an MT message
+	 */
+	public boolean isMT() {
+		return TYPE_MT.equals(this.type);
+	}
+
+	/**
+	 * @return true if the summary is from an MX message
+	 */
+	public boolean isMX() {
+		return TYPE_MX.equals(this.type);
+	}
+
+	/**
+	 * Persisted message unique identifier
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(final Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Message type discriminator, {@link #TYPE_MT} or {@link #TYPE_MX}
+	 */
+	public String getType() {
+		return type;
+	}
+
+	public void setType(final String type) {
+		this.type = type;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getIdentifier()
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	public void setIdentifier(final String identifier) {
+		this.identifier = identifier;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getSender()
+	 */
+	public String getSender() {
+		return sender;
+	}
+
+	public void setSender(final String sender) {
+		this.sender = sender;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getReceiver()
+	 */
+	public String getReceiver() {
+		return receiver;
+	}
+
+	public void setReceiver(final String receiver) {
+		this.receiver = receiver;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getDirection()
+	 */
+	public MessageIOType getDirection() {
+		return direction;
+	}
+
+	public void setDirection(final MessageIOType direction) {
+		this.direction = direction;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getChecksum()
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(final String checksum) {
+		this.checksum = checksum;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getLastModified()
+	 */
+	public Calendar getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(final Calendar lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getCreationDate()
+	 */
+	public Calendar getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(final Calendar creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getStatus()
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(final String status) {
+		this.status = status;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getReference()
+	 */
+	public String getReference() {
+		return reference;
+	}
+
+	public void setReference(final String reference) {
+		this.reference = reference;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getCurrency()
+	 */
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(final String currency) {
+		this.currency = currency;
+	}
+
+	/**
+	 * @see AbstractSwiftMessage#getAmount()
+	 */
+	public BigDecimal getAmount() {
+		return amount;
+	}
+
+	public void setAmount(final BigDecimal amount) {
+		this.amount = amount;
+	}
+
+	/**
+	 * @see MtSwiftMessage#getMir()
+	 */
+	public String getMir() {
+		return mir;
+	}
+
+	public void setMir(final String mir) {
+		this.mir = mir;
+	}
+
+	/**
+	 * @see MtSwiftMessage#getMur()
+	 */
+	public String getMur() {
+		return mur;
+	}
+
+	public void setMur(final String mur) {
+		this.mur = mur;
+	}
+
+	/**
+	 * @see MtSwiftMessage#getUuid()
+	 */
+	public String getUuid() {
+		return uuid;
+	}
+
+	public void setUuid(final String uuid) {
+		this.uuid = uuid;
+	}
+}
@@ -16,7 +16,9 @@
 package com.prowidesoftware.swift.model;
 
 import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
 import com.prowidesoftware.swift.io.writer.SwiftWriter;
+import com.prowidesoftware.swift.io.writer.Utf8Sink;
 import com.prowidesoftware.swift.model.field.CurrencyContainer;
 import com.prowidesoftware.swift.model.field.DateContainer;
 import com.prowidesoftware.swift.model.field.Field;
@@ -24,8 +26,7 @@ import com.prowidesoftware.swift.model.mt.AbstractMT;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 
-import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -258,10 +259,13 @@ public class SwiftMessageUtils {
 	 */
 	public static String calculateChecksum(final SwiftMessage model) {
 		if (model != null) {
-			final StringWriter writer = new StringWriter();
-			SwiftWriter.writeMessage(model, writer);
-			final String fin = writer.getBuffer().toString();
-			return md5(fin);
+			final MessageDigest md = md5();
+			if (md == null) {
+				return null;
+			}
+			final Utf8Sink sink = Utf8Sink.of(md);
+			model.visit(new FINWriterVisitor(sink));
+			return digest(md, sink);
 		} else {
 			return null;
 		}
@@ -280,45 +284,59 @@ public class SwiftMessageUtils {
 	 */
 	public static String calculateChecksum(final SwiftBlock4 b4) {
 		if (b4 != null) {
-			final StringWriter writer = new StringWriter();
-			SwiftWriter.writeBlock4(b4, writer);
-			final String fin = writer.getBuffer().toString();
-			return md5(fin);
+			final MessageDigest md = md5();
+			if (md == null) {
+				return null;
+			}
+			final Utf8Sink sink = Utf8Sink.of(md);
+			SwiftWriter.writeBlock4(b4, sink);
+			return digest(md, sink);
 		} else {
 			return null;
 		}
 	}
 	
 	/**
-	 * Computes an MD5 hash on the parameter text
-	 * @param text the text to hash
-	 * @return computed hash or null if exceptions are thrown reading bytes or processing the digest
-	 * @since 7.9.5
+	 * Converts a digest into the lowercase hexadecimal string used for the checksums
+	 * @param digest the digest bytes
+	 * @return the hex string, two characters per byte
+	 * @since 7.10.4
+	 */
+	static String hex(final byte[] digest) {
+		final char[] result = new char[digest.length * 2];
+		for (int i = 0; i < digest.length; i++) {
+			result[i * 2] = Character.forDigit((digest[i] >> 4) & 0xF, 16);
+			result[i * 2 + 1] = Character.forDigit(digest[i] & 0xF, 16);
+		}
+		return new String(result);
+	}
+
+	/**
+	 * Creates the digest used for the checksums
+	 * @return the MD5 digest or null if the algorithm is not available
 	 */
 	//TODO add base 64 encoding on top when upgraded to Java 8
-	private static String md5(final String text) {
+	private static MessageDigest md5() {
 		try {
-			byte[] bytesOfMessage = text.getBytes("UTF-8");
-			MessageDigest md = MessageDigest.getInstance("MD5");
-			byte[] thedigest = md.digest(bytesOfMessage);
-
-			//Converting the bytes to a Hex string
-			StringBuilder buff = new StringBuilder();
-			for (byte b : thedigest) {
-				String conversion = Integer.toString(b & 0xFF,16);
-				while (conversion.length() < 2) {
-					conversion = "0" + conversion;
-				}
-				buff.append(conversion);
-			}
-
-			return buff.toString();
-		} catch (UnsupportedEncodingException e) {
-			log.log(Level.FINEST, e.getMessage(), e);
+			return MessageDigest.getInstance("MD5");
 		} catch (NoSuchAlgorithmException e) {
 			log.log(Level.FINEST, e.getMessage(), e);
+			return null;
 		}
-		return null;
+	}
+
+	/**
+	 * Completes the digest of the content written to the sink, encoded in UTF-8
+	 * @return computed hash or null if the content cannot be written
+	 */
+	private static String digest(final MessageDigest md, final Utf8Sink sink) {
+		try {
+			sink.flush();
+		} catch (IOException e) {
+			log.log(Level.FINEST, e.getMessage(), e);
+			return null;
+		}
+		return hex(md.digest());
 	}
 
 	/**
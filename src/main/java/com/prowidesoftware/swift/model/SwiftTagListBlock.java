@@ -20,6 +20,7 @@ import com.google.gson.GsonBuilder;
 import com.prowidesoftware.deprecation.DeprecationUtils;
 import com.prowidesoftware.deprecation.ProwideDeprecated;
 import com.prowidesoftware.deprecation.TargetYear;
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
 import com.prowidesoftware.swift.model.field.Field;
 import com.prowidesoftware.swift.model.field.Field16R;
 import com.prowidesoftware.swift.model.field.Field16S;
@@ -103,6 +104,9 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	 * @see Tag
 	 */
 	public List<Tag> getTags() {
+		if (isFrozen() && this.tags != null) {
+			return Collections.unmodifiableList(this.tags);
+		}
 		return this.tags;
 	}
 
@@ -540,6 +544,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	@Deprecated
 	@ProwideDeprecated(phase4=TargetYear._2019)
 	public void addTag(final Tag t) {
+		checkNotFrozen();
 		DeprecationUtils.phase3(getClass(), "addTag(Tag)", "Use append(Tag) instead.");
 		// sanity check
 		Validate.notNull(t, "parameter 't' cannot not be null");
@@ -613,6 +618,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	 * @see #removeAll(String)
 	 */
 	public String removeTag(final String name) {
+		checkNotFrozen();
 		Validate.notNull(name, NAME_VALIDATION_MESSAGE);
 		int i = 0;
 		for (Tag t : tags) {
@@ -637,6 +643,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	 * @see #removeTag(String)
 	 */
 	public int removeAll(final String name) {
+		checkNotFrozen();
 		Validate.notNull(name, "parameter 'name' cannot not be null");
 		int removed = 0;
 		for (Tag t : getTagsByName(name)) {
@@ -659,7 +666,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 			}
 			return new EmptyItr();
 		}
-		return this.tags.iterator();
+		return getTags().iterator();
 	}
 
 	/**
@@ -691,6 +698,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	 * returns this.tags checking before if it is null, and then creating a new array list for it
 	 */
 	private List<Tag> thisTagsNotNull() {
+		checkNotFrozen();
 		if (this.tags == null) {
 			this.tags = new ArrayList<>();
 		}
@@ -714,6 +722,22 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 		 return (this.tags == null ? 0 : tags.size());
 	 }
 
+	/**
+	 * Computes the length in characters of the tags in this list written with the FIN text block syntax,
+	 * that is <code>:tag:value</code> followed by a CRLF line break for each tag, without serializing them.
+	 * Line breaks within the values are also counted as CRLF.
+	 * <p>For a block 4 this is the length of the content between <code>{4:</code> plus its line break, and the
+	 * closing <code>-}</code>, excluding unparsed texts. It can be used to check the text block size limit
+	 * before sending a message.
+	 *
+	 * @return the length of the tags in text block syntax, zero if the list is empty
+	 * @see SwiftWriter#textLength(SwiftTagListBlock)
+	 * @since 7.10.4
+	 */
+	public int getTextLength() {
+		return SwiftWriter.textLength(this);
+	}
+
 	 /**
 	  * Replaces the tag at the specified position in this tag list with the specified tag.
       *
@@ -725,6 +749,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
       * @since 7.9.7
 	  */
 	 public Tag setTag(int index, Tag tag) {
+	 	checkNotFrozen();
          // sanity check
          Validate.notNull(tag, TAG_VALIDATION_MESSAGE);
 		 return this.tags.set(index,tag);
@@ -737,6 +762,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
      * @throws IllegalArgumentException if parameter tags is not null and contains elements of class other than Tag
      */
     public void setTags(final List<Tag> tags) {
+    	checkNotFrozen();
         this.tags = tags;
     }
 
@@ -2029,6 +2055,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @return the current instance
 	  */
 	 public SwiftTagListBlock append (final SwiftTagListBlock block) {
+	 	checkNotFrozen();
 		 if ((block!= null) && !block.isEmpty()) {
 			 this.tags.addAll(block.getTags());
 		 }
@@ -2043,6 +2070,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @since 7.8
 	  */
 	 public SwiftTagListBlock append(final SwiftTagListBlock ... blocks) {
+	 	checkNotFrozen();
 		 if ((blocks!= null) && blocks.length>0) {
 			 for (final SwiftTagListBlock b : blocks) {
 				 this.tags.addAll(b.getTags());
@@ -2059,6 +2087,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @since 7.7
 	  */
 	 public SwiftTagListBlock append(final Tag tag) {
+	 	checkNotFrozen();
 		 Validate.notNull(tag);
 		 this.tags.add(tag); 
 		 return this;
@@ -2071,6 +2100,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @since 7.8
 	  */
 	 public SwiftTagListBlock append(final Tag ... tags) {
+	 	checkNotFrozen();
 		 if ((tags != null) && tags.length>0) {
 			 for (final Tag t : tags) {
 				 this.tags.add(t); 
@@ -2091,6 +2121,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @since 7.7
 	  */
 	 public SwiftTagListBlock append(final Field field) {
+	 	checkNotFrozen();
 		 Validate.notNull(field);
 		 this.tags.add(field.asTag()); 
 		 return this;
@@ -2115,7 +2146,7 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 		 if (this.tags == null) {
 			 Collections.<Tag>emptyList().iterator();
 		 }
-		 return this.tags.iterator();
+		 return getTags().iterator();
 	 }
 
 	 /**
@@ -2143,12 +2174,38 @@ public class SwiftTagListBlock extends SwiftBlock implements Serializable, Itera
 	  * @since 7.8
 	  */
 	 public SwiftTagListBlock clear() {
+	 	checkNotFrozen();
 		 if (this.tags != null) {
 			 this.tags.clear();
 		 }
 		 return this;
 	 }
 
+	/**
+	 * Makes this block read-only, freezing also all its tags. The list returned by {@link #getTags()} and the
+	 * iterators of a frozen block do not support changes, and any method adding, replacing or removing tags
+	 * will throw an {@link UnsupportedOperationException}.
+	 *
+	 * <p>Sub blocks and sequences retrieved from a frozen block share its tags, so the tags within them cannot be
+	 * changed either.
+	 *
+	 * @return this instance
+	 * @see SwiftMessage#freeze()
+	 * @since 7.10.4
+	 */
+	@Override
+	public SwiftTagListBlock freeze() {
+		if (this.tags != null) {
+			for (final Tag t : this.tags) {
+				if (t != null) {
+					t.freeze();
+				}
+			}
+		}
+		super.freeze();
+		return this;
+	}
+
      public String getName() {
         //unused
         return null;
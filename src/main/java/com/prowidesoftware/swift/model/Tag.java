@@ -77,6 +77,11 @@ public class Tag implements Serializable {
 	 * Reference to the sequence node, if any, that this tags belongs to.
 	 */
 	protected transient SequenceNode sequence = null;
+
+	/**
+	 * Set when the tag is frozen, see {@link #freeze()}
+	 */
+	private transient boolean frozen = false;
 	
 	/**
 	 * Default constructor
@@ -201,7 +206,7 @@ public class Tag implements Serializable {
 	 * @throws IllegalArgumentException if parameter name is null
 	 */
 	public void setName(String name) {
-
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(name, "parameter 'name' cannot be null");
 
@@ -227,6 +232,7 @@ public class Tag implements Serializable {
 	 * @param value the value for the tag, may be null
 	 */
 	public void setValue(String value) {
+		checkNotFrozen();
 		this.value = value;
 	}
 
@@ -248,7 +254,7 @@ public class Tag implements Serializable {
 	 * @see #sortKey
 	 */
 	public void setId(Long id) {
-
+		checkNotFrozen();
 		this.id = id;
 	}
 
@@ -268,6 +274,7 @@ public class Tag implements Serializable {
 	 * @param sortKey the new sortkey
 	 */
 	public void setSortKey(Integer sortKey) {
+		checkNotFrozen();
 		this.sortKey = sortKey;
 	}
 
@@ -284,6 +291,9 @@ public class Tag implements Serializable {
 	 * @return the unparsed text attached to this tag object
 	 */
 	public UnparsedTextList getUnparsedTexts() {
+		if (this.frozen && this.unparsedTexts == null) {
+			return UnparsedTextList.EMPTY;
+		}
 
 		// create the list if needed
 		unparsedTextVerify();
@@ -295,6 +305,7 @@ public class Tag implements Serializable {
 	 * @param texts the new list of unparsed texts (may be null)
 	 */
 	public void setUnparsedTexts(UnparsedTextList texts) {
+		checkNotFrozen();
 
 		this.unparsedTexts = texts;
 	}
@@ -321,9 +332,7 @@ public class Tag implements Serializable {
 	 */
 	public Boolean unparsedTextIsMessage(Integer index) {
 
-		// create the list if needed
-		unparsedTextVerify();
-		return(this.unparsedTexts.isMessage(index));
+		return getUnparsedTexts().isMessage(index);
 	}
 
 	/**
@@ -335,9 +344,7 @@ public class Tag implements Serializable {
 	 */
 	public String unparsedTextGetText(Integer index) {
 
-		// create the list if needed
-		unparsedTextVerify();
-		return(this.unparsedTexts.getText(index));
+		return getUnparsedTexts().getText(index);
 	}
 
 	/**
@@ -348,9 +355,7 @@ public class Tag implements Serializable {
 	 */
 	public SwiftMessage unparsedTextGetAsMessage(Integer index) {
 
-		// create the list if needed
-		unparsedTextVerify();
-		return(this.unparsedTexts.getTextAsMessage(index));
+		return getUnparsedTexts().getTextAsMessage(index);
 	}
 
 	/**
@@ -359,6 +364,7 @@ public class Tag implements Serializable {
 	 * @throws IllegalArgumentException if parameter text is null
 	 */
 	public void unparsedTextAddText(String text) {
+		checkNotFrozen();
 
 		// create the list if needed
 		unparsedTextVerify();
@@ -371,12 +377,43 @@ public class Tag implements Serializable {
 	 * @throws IllegalArgumentException if parameter message is null
 	 */
 	public void unparsedTextAddText(SwiftMessage message) {
+		checkNotFrozen();
 
 		// create the list if needed
 		unparsedTextVerify();
 		this.unparsedTexts.addText(message);
 	}
 
+	/**
+	 * Makes this tag read-only, including its unparsed texts. Any further call to a setter will throw an
+	 * {@link UnsupportedOperationException}.
+	 *
+	 * @return this instance
+	 * @see SwiftMessage#freeze()
+	 * @since 7.10.4
+	 */
+	public Tag freeze() {
+		if (this.unparsedTexts != null) {
+			this.unparsedTexts.freeze();
+		}
+		this.frozen = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the tag has been frozen
+	 * @since 7.10.4
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (this.frozen) {
+			throw new UnsupportedOperationException("the tag " + this.name + " is frozen");
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -528,6 +565,7 @@ public class Tag implements Serializable {
 	 * @param value the tagvalue
 	 */
 	public void setNameValue(String name, String value) {
+		checkNotFrozen();
 		setName(name);
 		setValue(value);
 	}
@@ -88,6 +88,17 @@ public class UnparsedTextList implements Serializable {
 	 */
 	private List<String> texts = new ArrayList<>();
 
+	/**
+	 * Set when the list is frozen, see {@link #freeze()}
+	 * @since 7.10.4
+	 */
+	private transient boolean frozen = false;
+
+	/**
+	 * Shared frozen empty list, returned by the frozen message elements that have no unparsed texts
+	 */
+	static final UnparsedTextList EMPTY = new UnparsedTextList().freeze();
+
 	/**
 	 * Default Constructor 
 	 */
@@ -120,6 +131,7 @@ public class UnparsedTextList implements Serializable {
 	 * @param id the unique identifier to set.
 	 */
 	public void setId(final Long id) {
+		checkNotFrozen();
 		this.id = id;
 	}
 
@@ -167,7 +179,7 @@ public class UnparsedTextList implements Serializable {
 	 * @return the list of texts
 	 */
 	public List<String> getTexts() {
-		return (this.texts);
+		return this.frozen ? Collections.unmodifiableList(this.texts) : this.texts;
 	}
 
 	/**
@@ -179,6 +191,7 @@ public class UnparsedTextList implements Serializable {
 	 * @since 5.0
 	 */
 	protected void setTexts(final List<String> texts) {
+		checkNotFrozen();
 		// setup the new list
 		this.texts = texts;
 	}
@@ -240,6 +253,7 @@ public class UnparsedTextList implements Serializable {
 	 * @throws IllegalArgumentException if parameter text is null
 	 */
 	public void addText(final String text) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(text, "parameter 'text' cannot be null");
 
@@ -271,6 +285,7 @@ public class UnparsedTextList implements Serializable {
 	 * @throws IndexOutOfBoundsException if parameter index is out of bounds
 	 */
 	public void removeText(final Integer index) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(index, WRITER_MESSAGE);
 
@@ -284,6 +299,7 @@ public class UnparsedTextList implements Serializable {
 	 * @throws IndexOutOfBoundsException if parameter index is out of bounds
 	 */
 	public void removeText(final int index) {
+		checkNotFrozen();
 		// remove the text
 		this.texts.remove(index);
 	}
@@ -294,6 +310,7 @@ public class UnparsedTextList implements Serializable {
 	 * @throws IllegalArgumentException if parameter text is null
 	 */
 	public void removeText(final String text) {
+		checkNotFrozen();
 		// sanity check
 		Validate.notNull(text, "parameter 'text' cannot be null");
 
@@ -304,6 +321,33 @@ public class UnparsedTextList implements Serializable {
 		}
 	}
 
+	/**
+	 * Makes this list read-only. Any further attempt to add or remove texts, either with the methods in this class or
+	 * in the list returned by {@link #getTexts()}, will throw an {@link UnsupportedOperationException}.
+	 *
+	 * @return this instance
+	 * @see SwiftMessage#freeze()
+	 * @since 7.10.4
+	 */
+	public UnparsedTextList freeze() {
+		this.frozen = true;
+		return this;
+	}
+
+	/**
+	 * @return true if the list has been frozen
+	 * @since 7.10.4
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	private void checkNotFrozen() {
+		if (this.frozen) {
+			throw new UnsupportedOperationException("the unparsed text list is frozen");
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
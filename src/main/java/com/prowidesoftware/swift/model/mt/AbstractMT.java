@@ -21,6 +21,7 @@ import com.prowidesoftware.JsonSerializable;
 import com.prowidesoftware.swift.io.ConversionService;
 import com.prowidesoftware.swift.io.IConversionService;
 import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.io.parser.SwiftParsers;
 import com.prowidesoftware.swift.io.writer.SwiftWriter;
 import com.prowidesoftware.swift.model.*;
 import com.prowidesoftware.swift.model.field.Field;
@@ -123,7 +124,7 @@ public abstract class AbstractMT extends AbstractMessage implements JsonSerializ
 	 * @since 7.7
 	 */
 	public static AbstractMT parse(final String fin) throws IOException {
-		return (new SwiftParser(fin)).message().toMT();
+		return SwiftParsers.getDefault().parseMT(fin);
 	}
 	
 	/**
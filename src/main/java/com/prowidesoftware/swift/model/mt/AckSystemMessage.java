@@ -55,6 +55,8 @@ public class AckSystemMessage extends AbstractMT {
 	
 	/**
 	 * Creates an AckSystemMessage initialized with the parameter MtSwiftMessage.
+	 * <br>
+	 * The message model is gathered with {@link MtSwiftMessage#modelMessage()}, so it is reused if the model cache is enabled.
 	 *
 	 * @param m swift message with the AckSystemMessage content
 	 * @return the created object or null if the parameter is null
@@ -65,7 +67,8 @@ public class AckSystemMessage extends AbstractMT {
 		if (m == null) {
 			return null;
 		}
-		return new AckSystemMessage(m.message());
+		final SwiftMessage model = m.modelMessage();
+		return model != null ? new AckSystemMessage(model) : new AckSystemMessage(m.message());
 	}
 	
     /**
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model.mt;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftTagListBlock;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field16R;
+import com.prowidesoftware.swift.model.field.Field16S;
+import com.prowidesoftware.swift.model.field.Field28C;
+import com.prowidesoftware.swift.model.field.Field28E;
+import com.prowidesoftware.swift.model.field.Field60F;
+import com.prowidesoftware.swift.model.field.Field60M;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.field.Field62M;
+import com.prowidesoftware.swift.model.mt.mt5xx.MT535;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT950;
+
+/**
+ * Splits statements whose text block exceeds a size limit into several messages (pages).
+ *
+ * <p>Supported message types are:
+ * <ul>
+ * 	<li>MT940 and MT950: the header fields are repeated in all pages with the field 28C sequence number incremented
+ * 	in each page. Intermediate pages are closed with a 62M booked balance computed from the page entries, and the
+ * 	following page is opened with the same balance as 60M. The final closing balance and the fields after it are
+ * 	only included in the last page.</li>
+ * 	<li>MT535: the General Information sequence A is repeated in all pages with the field 28E page number and
+ * 	continuation indicator updated. The sub-safekeeping sequences B are split at the financial instrument
+ * 	sub-sequence B1 boundaries, reopening the sub-safekeeping sequence in the next page. The additional information
+ * 	sequence C is only included in the last page. Holding totals in sequence A are kept as received.</li>
+ * </ul>
+ *
+ * <p>The statement is processed in a single pass, measuring each tag once with {@link SwiftWriter#textLength(Tag)},
+ * thus the time is linear with the number of lines regardless of the number of pages. Blocks 1, 2 and 3 are copied
+ * into each page, the trailer block is not.
+ *
+ * <p>The size is measured with the same semantics of {@link SwiftTagListBlock#getTextLength()}, that is the characters
+ * between the block 4 start and end markers in the content returned by
+ * {@link com.prowidesoftware.swift.io.ConversionService#getFIN(SwiftMessage)}, with all line breaks counted as CRLF,
+ * including the ones within multi-line values.
+ *
+ * @since 7.10.4
+ */
+public class StatementPaginator {
+
+	/**
+	 * Default maximum size of the text block, 10000 characters as defined for user to user FIN messages
+	 */
+	public static final int DEFAULT_MAX_TEXT_LENGTH = 10000;
+
+	/*
+	 * maximum length of a balance line: ":60M:" + D/C mark, date, currency and 15 digits amount + CRLF
+	 */
+	private static final int BALANCE_LENGTH = 5 + 1 + 6 + 3 + 15 + 2;
+
+	/*
+	 * maximum length of the page number line: ":28E:" + 5 digits page number, slash, indicator + CRLF
+	 */
+	private static final int PAGE_NUMBER_LENGTH = 5 + 5 + 1 + 4 + 2;
+
+	private static final String MORE = "MORE";
+	private static final String LAST = "LAST";
+
+	private final int maxTextLength;
+
+	/**
+	 * Creates a paginator with the {@link #DEFAULT_MAX_TEXT_LENGTH}
+	 */
+	public StatementPaginator() {
+		this(DEFAULT_MAX_TEXT_LENGTH);
+	}
+
+	/**
+	 * @param maxTextLength maximum length of the text block in each page
+	 */
+	public StatementPaginator(final int maxTextLength) {
+		Validate.isTrue(maxTextLength > 0, "the maximum text length must be positive");
+		this.maxTextLength = maxTextLength;
+	}
+
+	/**
+	 * Splits the statement into pages not exceeding the maximum text length.
+	 * <p>A single page may exceed the limit only if its mandatory content, such as the repeated header plus one
+	 * statement line, does not fit.
+	 *
+	 * @param msg an MT940, MT950 or MT535 message
+	 * @return the pages in order, or a list with the same message if it is not bigger than the maximum length
+	 * @throws IllegalArgumentException if the message type is not supported or its structure cannot be paginated
+	 */
+	public List<SwiftMessage> paginate(final SwiftMessage msg) {
+		Validate.notNull(msg, "the message to paginate cannot be null");
+		Validate.isTrue(msg.isType(940, 950, 535), "pagination is not supported for message type " + msg.getType());
+		final SwiftBlock4 b4 = msg.getBlock4();
+		if (b4 == null || b4.isEmpty() || b4.getTextLength() <= maxTextLength) {
+			return Collections.singletonList(msg);
+		}
+		if (msg.isType(535)) {
+			return paginateHoldings(msg);
+		}
+		return paginateBalances(msg);
+	}
+
+	/**
+	 * @see #paginate(SwiftMessage)
+	 */
+	public List<MT940> paginate(final MT940 mt) {
+		Validate.notNull(mt, "the message to paginate cannot be null");
+		final List<MT940> result = new ArrayList<>();
+		for (final SwiftMessage page : paginate(mt.getSwiftMessage())) {
+			result.add(new MT940(page));
+		}
+		return result;
+	}
+
+	/**
+	 * @see #paginate(SwiftMessage)
+	 */
+	public List<MT950> paginate(final MT950 mt) {
+		Validate.notNull(mt, "the message to paginate cannot be null");
+		final List<MT950> result = new ArrayList<>();
+		for (final SwiftMessage page : paginate(mt.getSwiftMessage())) {
+			result.add(new MT950(page));
+		}
+		return result;
+	}
+
+	/**
+	 * @see #paginate(SwiftMessage)
+	 */
+	public List<MT535> paginate(final MT535 mt) {
+		Validate.notNull(mt, "the message to paginate cannot be null");
+		final List<MT535> result = new ArrayList<>();
+		for (final SwiftMessage page : paginate(mt.getSwiftMessage())) {
+			result.add(new MT535(page));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the configured maximum length of the text block in each page
+	 */
+	public int getMaxTextLength() {
+		return maxTextLength;
+	}
+
+	/*
+	 * MT940 and MT950
+	 */
+	private List<SwiftMessage> paginateBalances(final SwiftMessage msg) {
+		final List<Tag> tags = msg.getBlock4().getTags();
+		int opening = -1;
+		int closing = -1;
+		int statement = -1;
+		for (int i = 0; i < tags.size() && closing < 0; i++) {
+			final String name = tags.get(i).getName();
+			if (opening < 0) {
+				if (Field28C.NAME.equals(name)) {
+					statement = i;
+				} else if (isBalance(name, "60")) {
+					opening = i;
+				}
+			} else if (isBalance(name, "62")) {
+				closing = i;
+			}
+		}
+		Validate.isTrue(statement >= 0, "field " + Field28C.NAME + " not found");
+		Validate.isTrue(opening >= 0 && closing >= 0, "opening and closing balances not found");
+
+		final List<Tag> header = tags.subList(0, opening);
+		final List<Tag> trailer = tags.subList(closing, tags.size());
+		final Field28C f28C = new Field28C(tags.get(statement).getValue());
+		final String sequence = f28C.getSequenceNumber();
+		int pageNumber = StringUtils.isNumeric(sequence) && sequence.length() > 0 ? Integer.parseInt(sequence) : 1;
+		final int headerLength = lengthOf(header) - SwiftWriter.textLength(tags.get(statement));
+		final int trailerLength = lengthOf(trailer);
+
+		final Field60F openingBalance = new Field60F(tags.get(opening).getValue());
+		BigDecimal balance = signed(openingBalance.getDCMark(), amount(openingBalance.getAmount()));
+		final String currency = openingBalance.getCurrency();
+		final String date = StringUtils.defaultIfBlank(new Field62M(tags.get(closing).getValue()).getDate(), openingBalance.getDate());
+
+		final List<SwiftMessage> pages = new ArrayList<>();
+		List<Tag> entries = new ArrayList<>();
+		Tag pageOpening = tags.get(opening);
+		Tag pageStatement = statement(f28C, sequence, pageNumber);
+		int pageLength = headerLength + SwiftWriter.textLength(pageStatement) + SwiftWriter.textLength(pageOpening) + BALANCE_LENGTH;
+
+		int i = opening + 1;
+		while (i < closing) {
+			// a statement line with its optional information to account owner
+			int end = i + 1;
+			while (end < closing && !Field61.NAME.equals(tags.get(end).getName())) {
+				end++;
+			}
+			final List<Tag> unit = tags.subList(i, end);
+			final int unitLength = lengthOf(unit);
+			if (!entries.isEmpty() && pageLength + unitLength > maxTextLength) {
+				final Field62M intermediate = intermediate(balance, date, currency);
+				pages.add(page(msg, header, statement, pageStatement, pageOpening, entries, Collections.singletonList(new Tag(Field62M.NAME, intermediate.getValue()))));
+				pageOpening = new Tag(Field60M.NAME, intermediate.getValue());
+				pageStatement = statement(f28C, sequence, ++pageNumber);
+				entries = new ArrayList<>();
+				pageLength = headerLength + SwiftWriter.textLength(pageStatement) + SwiftWriter.textLength(pageOpening) + BALANCE_LENGTH;
+			}
+			for (final Tag t : unit) {
+				if (Field61.NAME.equals(t.getName())) {
+					final Field61 f61 = new Field61(t.getValue());
+					balance = balance.add(signed(f61.getDCMark(), amount(f61.getAmount())));
+				}
+				entries.add(t);
+			}
+			pageLength += unitLength;
+			i = end;
+		}
+
+		// the last page replaces the reserved intermediate balance with the closing fields
+		if (!entries.isEmpty() && pageLength - BALANCE_LENGTH + trailerLength > maxTextLength) {
+			final Field62M intermediate = intermediate(balance, date, currency);
+			pages.add(page(msg, header, statement, pageStatement, pageOpening, entries, Collections.singletonList(new Tag(Field62M.NAME, intermediate.getValue()))));
+			pageOpening = new Tag(Field60M.NAME, intermediate.getValue());
+			pageStatement = statement(f28C, sequence, ++pageNumber);
+			entries = new ArrayList<>();
+		}
+		pages.add(page(msg, header, statement, pageStatement, pageOpening, entries, trailer));
+		return pages;
+	}
+
+	private static boolean isBalance(final String name, final String number) {
+		return name != null && name.length() == 3 && name.startsWith(number) && (name.charAt(2) == 'F' || name.charAt(2) == 'M');
+	}
+
+	/*
+	 * statement number with the page sequence, keeping the zero padding of the original sequence number if any
+	 */
+	private static Tag statement(final Field28C original, final String sequence, final int pageNumber) {
+		final String number = StringUtils.leftPad(String.valueOf(pageNumber), sequence != null ? sequence.length() : 0, '0');
+		return new Tag(Field28C.NAME, original.getStatementNumber() + "/" + number);
+	}
+
+	private static Field62M intermediate(final BigDecimal balance, final String date, final String currency) {
+		return new Field62M()
+				.setDCMark(balance.signum() < 0 ? "D" : "C")
+				.setDate(date)
+				.setCurrency(currency)
+				.setAmount(balance.abs());
+	}
+
+	/*
+	 * credits and reversals of debits increase the balance, debits and reversals of credits decrease it
+	 */
+	private static BigDecimal signed(final String mark, final BigDecimal amount) {
+		if ("D".equals(mark) || "RC".equals(mark)) {
+			return amount.negate();
+		}
+		return amount;
+	}
+
+	private static BigDecimal amount(final String amount) {
+		if (StringUtils.isBlank(amount)) {
+			return BigDecimal.ZERO;
+		}
+		return new BigDecimal(amount.replace(',', '.'));
+	}
+
+	private static SwiftMessage page(final SwiftMessage msg, final List<Tag> header, final int statement, final Tag pageStatement,
+			final Tag opening, final List<Tag> entries, final List<Tag> closing) {
+		final List<Tag> tags = new ArrayList<>(header.size() + entries.size() + closing.size() + 1);
+		for (int i = 0; i < header.size(); i++) {
+			tags.add(i == statement ? pageStatement : header.get(i));
+		}
+		tags.add(opening);
+		tags.addAll(entries);
+		tags.addAll(closing);
+		return message(msg, tags);
+	}
+
+	/*
+	 * MT535
+	 */
+	private List<SwiftMessage> paginateHoldings(final SwiftMessage msg) {
+		final List<Tag> tags = msg.getBlock4().getTags();
+		final int genlEnd = indexOf(tags, 0, Field16S.NAME, MT535.SequenceA.START_END_16RS);
+		Validate.isTrue(genlEnd >= 0, "sequence A not found");
+		final List<Tag> genl = tags.subList(0, genlEnd + 1);
+		final int pageNumberIndex = indexOf(genl, 0, Field28E.NAME, null);
+		Validate.isTrue(pageNumberIndex >= 0, "field " + Field28E.NAME + " not found");
+		final Field28E f28E = new Field28E(genl.get(pageNumberIndex).getValue());
+		final int genlLength = lengthOf(genl) - SwiftWriter.textLength(genl.get(pageNumberIndex)) + PAGE_NUMBER_LENGTH;
+
+		final List<List<Tag>> pages = new ArrayList<>();
+		List<Tag> page = new ArrayList<>(genl);
+		int pageLength = genlLength;
+		boolean content = false;
+
+		int i = genlEnd + 1;
+		while (i < tags.size() && isStart(tags.get(i), MT535.SequenceB.START_END_16RS)) {
+			final int subsafeEnd = indexOf(tags, i, Field16S.NAME, MT535.SequenceB.START_END_16RS);
+			Validate.isTrue(subsafeEnd >= 0, "sequence B not closed");
+			int firstFin = indexOf(tags.subList(i, subsafeEnd), 0, Field16R.NAME, MT535.SequenceB1.START_END_16RS);
+			firstFin = firstFin < 0 ? subsafeEnd : i + firstFin;
+			final List<Tag> subsafeHeader = tags.subList(i, firstFin);
+			final int subsafeHeaderLength = lengthOf(subsafeHeader);
+			final Tag subsafeClose = tags.get(subsafeEnd);
+			final int subsafeCloseLength = SwiftWriter.textLength(subsafeClose);
+
+			boolean open = false;
+			int j = firstFin;
+			do {
+				// a financial instrument sub-sequence, the whole sub-safekeeping content if it has none
+				int end = subsafeEnd;
+				if (j < subsafeEnd) {
+					final int finEnd = indexOf(tags.subList(j, subsafeEnd), 0, Field16S.NAME, MT535.SequenceB1.START_END_16RS);
+					end = finEnd < 0 ? subsafeEnd : j + finEnd + 1;
+				}
+				final List<Tag> unit = tags.subList(j, end);
+				final int unitLength = lengthOf(unit);
+				final int needed = (open ? 0 : subsafeHeaderLength) + unitLength + subsafeCloseLength;
+				if (content && pageLength + needed > maxTextLength) {
+					if (open) {
+						page.add(subsafeClose);
+					}
+					pages.add(page);
+					page = new ArrayList<>(genl);
+					pageLength = genlLength;
+					content = false;
+					open = false;
+				}
+				if (!open) {
+					page.addAll(subsafeHeader);
+					pageLength += subsafeHeaderLength;
+					open = true;
+				}
+				page.addAll(unit);
+				pageLength += unitLength;
+				content = true;
+				j = end;
+			} while (j < subsafeEnd);
+			page.add(subsafeClose);
+			pageLength += subsafeCloseLength;
+			i = subsafeEnd + 1;
+		}
+
+		// additional information and any other trailing content
+		final List<Tag> trailer = tags.subList(i, tags.size());
+		if (content && pageLength + lengthOf(trailer) > maxTextLength) {
+			pages.add(page);
+			page = new ArrayList<>(genl);
+		}
+		page.addAll(trailer);
+		pages.add(page);
+
+		final String indicator = f28E.getContinuationIndicator();
+		final String width = f28E.getPageNumber();
+		final int first = StringUtils.isNumeric(width) && width.length() > 0 ? Integer.parseInt(width) : 1;
+		final List<SwiftMessage> result = new ArrayList<>(pages.size());
+		for (int p = 0; p < pages.size(); p++) {
+			final List<Tag> pageTags = pages.get(p);
+			String pageIndicator = MORE;
+			if (p == pages.size() - 1 && !MORE.equals(indicator)) {
+				pageIndicator = pages.size() == 1 ? indicator : LAST;
+			}
+			final String number = StringUtils.leftPad(String.valueOf(first + p), width != null ? width.length() : 0, '0');
+			pageTags.set(pageNumberIndex, new Tag(Field28E.NAME, number + "/" + pageIndicator));
+			result.add(message(msg, pageTags));
+		}
+		return result;
+	}
+
+	private static boolean isStart(final Tag t, final String qualifier) {
+		return Field16R.NAME.equals(t.getName()) && qualifier.equals(t.getValue());
+	}
+
+	/*
+	 * index of the first tag with the name and value (any value if null), from the start position
+	 */
+	private static int indexOf(final List<Tag> tags, final int from, final String name, final String value) {
+		for (int i = from; i < tags.size(); i++) {
+			final Tag t = tags.get(i);
+			if (name.equals(t.getName()) && (value == null || value.equals(t.getValue()))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int lengthOf(final List<Tag> tags) {
+		int length = 0;
+		for (final Tag t : tags) {
+			length += SwiftWriter.textLength(t);
+		}
+		return length;
+	}
+
+	/*
+	 * creates a page with copies of the original headers and tags, so pages can be modified independently
+	 */
+	private static SwiftMessage message(final SwiftMessage msg, final List<Tag> tags) {
+		final SwiftMessage page = new SwiftMessage(false);
+		if (msg.getBlock1() != null) {
+			page.setBlock1(SerializationUtils.clone(msg.getBlock1()));
+		}
+		if (msg.getBlock2() != null) {
+			page.setBlock2(SerializationUtils.clone(msg.getBlock2()));
+		}
+		if (msg.getBlock3() != null) {
+			page.setBlock3(SerializationUtils.clone(msg.getBlock3()));
+		}
+		final SwiftBlock4 b4 = new SwiftBlock4();
+		for (final Tag t : tags) {
+			b4.append(new Tag(t.getName(), t.getValue()));
+		}
+		page.setBlock4(b4);
+		return page;
+	}
+}
@@ -20,6 +20,9 @@ import com.google.gson.GsonBuilder;
 import com.prowidesoftware.JsonSerializable;
 import com.prowidesoftware.swift.Resolver;
 import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import com.prowidesoftware.swift.model.AbstractMessage;
 import com.prowidesoftware.swift.model.MessageStandardType;
 import com.prowidesoftware.swift.model.MxId;
@@ -30,14 +33,13 @@ import org.apache.commons.lang3.Validate;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.datatype.XMLGregorianCalendar;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
-import java.util.HashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -88,7 +90,18 @@ public abstract class AbstractMX extends AbstractMessage implements IDocument, J
 
 	// TODO message is MT parse
 	protected static String message(final String namespace, final AbstractMX obj, @SuppressWarnings("rawtypes") final Class[]classes, final String prefix, boolean includeXMLDeclaration) {
-		return Resolver.mxWrite().message(namespace, obj, classes, prefix, includeXMLDeclaration);
+		final MetricsListener metrics = Metrics.getListener();
+		if (metrics == null) {
+			return Resolver.mxWrite().message(namespace, obj, classes, prefix, includeXMLDeclaration);
+		}
+		final long start = System.nanoTime();
+		final String result = Resolver.mxWrite().message(namespace, obj, classes, prefix, includeXMLDeclaration);
+		if (result != null) {
+			Metrics.completed(metrics, Operation.MX_WRITE, obj.getMxId().id(), result.length(), 0, start, 0);
+		} else {
+			Metrics.failed(metrics, Operation.MX_WRITE, start, null);
+		}
+		return result;
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -280,21 +293,93 @@ public abstract class AbstractMX extends AbstractMessage implements IDocument, J
 		if (created) {
 			log.fine("new file created: "+file.getAbsolutePath());
 		}
-		final FileOutputStream stream = new FileOutputStream(file.getAbsoluteFile());
-		write(stream);
-		stream.close();
+		final OutputStream stream = new BufferedOutputStream(new FileOutputStream(file.getAbsoluteFile()));
+		try {
+			write(stream);
+		} finally {
+			stream.close();
+		}
 	}
 
 	/**
  	 * Writes the message document content into a file in XML format, encoding content in UTF-8 (headers not included).
+	 * The XML will include the XML declaration, the corresponding namespace and a "Doc" prefix for the namespace.
 	 *
 	 * @param stream a non null stream to write
 	 * @throws IOException if the stream cannot be written
 	 * @since 7.7
+	 * @see #write(OutputStream, String, boolean)
 	 */
 	public void write(final OutputStream stream) throws IOException {
+		write(stream, "Doc", true);
+	}
+
+	/**
+	 * Writes the message document content into a stream in XML format, encoding content in UTF-8 (headers not included).
+	 * <br>
+	 * When the available {@link MxWrite} implementation is a {@link MxStreamWrite}, the XML is streamed directly
+	 * into the output without building an intermediate string, so this method is preferred over
+	 * {@link #document(String, boolean)} to write large messages. Otherwise the XML string is created with
+	 * {@link MxWrite#message(String, AbstractMX, Class[], String, boolean)} and written into the stream.
+	 *
+	 * @param stream a non null stream to write, it is flushed but not closed
+	 * @param prefix optional prefix for namespace ("Doc" in {@link #write(OutputStream)})
+	 * @param includeXMLDeclaration true to include the XML declaration
+	 * @throws IOException if the message cannot be serialized or the stream cannot be written
+	 * @since 7.10.4
+	 */
+	public void write(final OutputStream stream, final String prefix, boolean includeXMLDeclaration) throws IOException {
 		Validate.notNull(stream, "the stream to write cannot be null");
-		stream.write(message().getBytes("UTF-8"));
+		final MxWrite writer = Resolver.mxWrite();
+		if (!(writer instanceof MxStreamWrite)) {
+			final String xml = message(getNamespace(), this, getClasses(), prefix, includeXMLDeclaration);
+			if (xml == null) {
+				throw new IOException("the message could not be serialized");
+			}
+			stream.write(xml.getBytes("UTF-8"));
+			stream.flush();
+			return;
+		}
+		final MetricsListener metrics = Metrics.getListener();
+		if (metrics == null) {
+			((MxStreamWrite) writer).write(getNamespace(), this, getClasses(), prefix, includeXMLDeclaration, stream);
+			return;
+		}
+		final long start = System.nanoTime();
+		final ByteCounter counter = new ByteCounter(stream);
+		try {
+			((MxStreamWrite) writer).write(getNamespace(), this, getClasses(), prefix, includeXMLDeclaration, counter);
+		} catch (final IOException e) {
+			Metrics.failed(metrics, Operation.MX_WRITE, start, e);
+			throw e;
+		} catch (final RuntimeException e) {
+			Metrics.failed(metrics, Operation.MX_WRITE, start, e);
+			throw e;
+		}
+		Metrics.completed(metrics, Operation.MX_WRITE, getMxId().id(), counter.count, 0, start, 0);
+	}
+
+	/**
+	 * Pass through stream counting the written bytes, for the size reported to the metrics listener
+	 */
+	private static final class ByteCounter extends FilterOutputStream {
+		private long count = 0;
+
+		ByteCounter(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
 	}
 	
 	/**
@@ -328,18 +413,27 @@ public abstract class AbstractMX extends AbstractMessage implements IDocument, J
 				StringUtils.leftPad(Integer.toString(getVersion()), 2, "0"));
 	}
 
+	/**
+	 * Gets this message document as an Element object.
+	 * <br>
+	 * The JAXB context is created once per message type and cached, see {@link JaxbContextCache}
+	 *
+	 * @return the document element or null if errors occur during serialization
+	 */
 	public Element element() {
-		final HashMap<String, String> properties = new HashMap<>();
 		// it didn't work as expected
 		// properties.put(JAXBRIContext.DEFAULT_NAMESPACE_REMAP, namespace);
 		try {
-			JAXBContext context = JAXBContext.newInstance(getClasses(), properties);
-
-			DOMResult res = new DOMResult();
-			context.createMarshaller().marshal(this, res);
-			Document doc = (Document) res.getNode();
-
-			return (Element) doc.getFirstChild();
+			final JaxbContextCache.Entry entry = JaxbContextCache.get(getClasses());
+			final Marshaller marshaller = entry.acquireMarshaller();
+			try {
+				DOMResult res = new DOMResult();
+				marshaller.marshal(this, res);
+				Document doc = (Document) res.getNode();
+				return (Element) doc.getFirstChild();
+			} finally {
+				entry.release(marshaller);
+			}
 		} catch (Exception e) {
 			log.log(Level.WARNING, "Error creating XML Document for MX", e);
 			return null;
@@ -398,7 +492,13 @@ public abstract class AbstractMX extends AbstractMessage implements IDocument, J
 				.setPrettyPrinting()
 				.create();
 		// we use AbstractMX and not this.getClass() in order to force usage of the adapter
-		return gson.toJson(this, AbstractMX.class);
+		final MetricsListener metrics = Metrics.getListener();
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final String json = gson.toJson(this, AbstractMX.class);
+		if (metrics != null) {
+			Metrics.completed(metrics, Operation.JSON_SERIALIZE, getMxId().id(), json.length(), 0, start, 0);
+		}
+		return json;
 	}
 
 	/**
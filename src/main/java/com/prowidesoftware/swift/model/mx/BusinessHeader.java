@@ -15,6 +15,8 @@
  */
 package com.prowidesoftware.swift.model.mx;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -23,7 +25,6 @@ import java.util.TimeZone;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
@@ -34,6 +35,7 @@ import javax.xml.namespace.QName;
 import javax.xml.transform.dom.DOMResult;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -275,19 +277,57 @@ public class BusinessHeader {
 			return null;
 		}
 		try {
-			JAXBContext context = JAXBContext.newInstance(header.getClass());
-			final Marshaller marshaller = context.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			 
 			final StringWriter sw = new StringWriter();
-			marshaller.marshal(_element(header), new XmlEventWriter(sw, prefix, includeXMLDeclaration, APPHDR));
+			marshal(header, new XmlEventWriter(sw, prefix, includeXMLDeclaration, APPHDR));
 			return sw.getBuffer().toString();
-			
 		} catch (JAXBException e) {
 			log.log(Level.SEVERE, "Error writing XML:" + e + "\n for header: " + header);
 		}
 		return null;
 	 }
+
+	/**
+	 * Writes this header as XML into the given stream, encoded in UTF-8.
+	 * The XML is streamed directly into the output, without creating an intermediate string.
+	 * <br>
+	 * Since this class contains a dual model supporting two type of headers (swift and ISO), if both
+	 * headers are present in the object the BusinessApplicationHeaderV01 will be used.
+	 *
+	 * @param stream a non null stream to write, it is flushed but not closed
+	 * @param prefix optional prefix for namespace (empty by default)
+	 * @param includeXMLDeclaration true to include the XML declaration (false by default)
+	 * @return true if the header was written, false if neither header version is present
+	 * @throws IOException if the header cannot be serialized or the stream cannot be written
+	 * @since 7.10.4
+	 */
+	public boolean write(final OutputStream stream, final String prefix, boolean includeXMLDeclaration) throws IOException {
+		Validate.notNull(stream, "the stream to write cannot be null");
+		Object header;
+		if (this.businessApplicationHeader != null) {
+			header = this.businessApplicationHeader;
+		} else if (this.applicationHeader != null) {
+			header = this.applicationHeader;
+		} else {
+			return false;
+		}
+		try {
+			marshal(header, new XmlEventWriter(stream, prefix, includeXMLDeclaration, APPHDR));
+			return true;
+		} catch (JAXBException e) {
+			throw new IOException("Error writing XML for header: " + header, e);
+		}
+	}
+
+	private void marshal(final Object header, final XmlEventWriter writer) throws JAXBException {
+		final JaxbContextCache.Entry entry = JaxbContextCache.get(header.getClass());
+		final Marshaller marshaller = entry.acquireMarshaller();
+		try {
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+			marshaller.marshal(_element(header), writer);
+		} finally {
+			entry.release(marshaller);
+		}
+	}
 	
 	/**
 	 * Gets the header as an Element object.
@@ -305,15 +345,17 @@ public class BusinessHeader {
 			return null;
 		}
 		try {
-			JAXBContext context = JAXBContext.newInstance(header.getClass());
-			final Marshaller marshaller = context.createMarshaller();
-			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			 
-			DOMResult res = new DOMResult();
-			marshaller.marshal(_element(header), res);
-			Document doc = (Document) res.getNode();
-			return (Element) doc.getFirstChild();
-			
+			final JaxbContextCache.Entry entry = JaxbContextCache.get(header.getClass());
+			final Marshaller marshaller = entry.acquireMarshaller();
+			try {
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+				DOMResult res = new DOMResult();
+				marshaller.marshal(_element(header), res);
+				Document doc = (Document) res.getNode();
+				return (Element) doc.getFirstChild();
+			} finally {
+				entry.release(marshaller);
+			}
 		} catch (JAXBException e) {
 			log.log(Level.SEVERE, "Error writing XML:" + e + "\n for header: " + header);
 		}
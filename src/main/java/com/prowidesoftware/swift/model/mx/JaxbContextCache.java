@@ -0,0 +1,245 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model.mx;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.swift.model.MxId;
+
+/**
+ * Shared cache of JAXB contexts used to serialize and parse the MX model.
+ *
+ * <p>Creating a {@link JAXBContext} is an expensive operation, while the created context is thread safe and can
+ * be reused for any number of messages. This cache keeps a single context per set of bound classes, as returned by
+ * {@link AbstractMX#getClasses()}, along with bounded pools of {@link Marshaller} and {@link Unmarshaller} instances,
+ * that are not thread safe and must be used by one thread at a time.
+ *
+ * <p>Typical usage of the pools:
+ * <pre>
+ * final JaxbContextCache.Entry entry = JaxbContextCache.get(classes);
+ * final Marshaller marshaller = entry.acquireMarshaller();
+ * try {
+ *     marshaller.marshal(obj, result);
+ * } finally {
+ *     entry.release(marshaller);
+ * }
+ * </pre>
+ * Pooled instances are reset to the default properties when released, so callers must set any property they need
+ * after acquiring them.
+ *
+ * <p>Contexts are created lazily on first use. To avoid the creation cost while processing the first messages,
+ * the contexts can be created at startup with {@link #preload(Collection)}.
+ *
+ * @since 7.10.4
+ */
+public final class JaxbContextCache {
+	private static final transient Logger log = Logger.getLogger(JaxbContextCache.class.getName());
+
+	/**
+	 * Default maximum number of idle marshallers and unmarshallers kept for each context
+	 */
+	public static final int DEFAULT_POOL_SIZE = 16;
+
+	private static final ConcurrentMap<List<Class<?>>, Entry> cache = new ConcurrentHashMap<>();
+	private static volatile int poolSize = DEFAULT_POOL_SIZE;
+
+	private JaxbContextCache() {}
+
+	/**
+	 * Gets the cached context for the given set of classes, creating it if necessary.
+	 *
+	 * @param classes the classes to be bound in the context
+	 * @return the cached context and its marshaller pools
+	 * @throws JAXBException if the context cannot be created
+	 */
+	public static Entry get(final Class<?>... classes) throws JAXBException {
+		Validate.notEmpty(classes, "at least one class is required");
+		final List<Class<?>> key = Arrays.<Class<?>>asList(classes.clone());
+		Entry entry = cache.get(key);
+		if (entry == null) {
+			// concurrent callers may create the context more than once, but only one is kept
+			final Entry created = new Entry(JAXBContext.newInstance(classes), poolSize);
+			entry = cache.putIfAbsent(key, created);
+			if (entry == null) {
+				entry = created;
+				log.fine("created JAXB context for " + key);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Gets the cached context for the given set of classes, creating it if necessary.
+	 *
+	 * @param classes the classes to be bound in the context
+	 * @return the JAXB context
+	 * @throws JAXBException if the context cannot be created
+	 */
+	public static JAXBContext context(final Class<?>... classes) throws JAXBException {
+		return get(classes).getContext();
+	}
+
+	/**
+	 * Creates and caches the contexts for the given MX message types.
+	 * <br>
+	 * The MX model classes are resolved by name from the message identifier, for example <code>MxPacs00800107</code>
+	 * for pacs.008.001.07. Since the specific MX model classes are provided by Prowide Integrator, this is a no-op
+	 * when running with Prowide Core alone.
+	 *
+	 * @param ids the message types to preload
+	 * @return the number of contexts effectively loaded
+	 */
+	@SuppressWarnings("rawtypes")
+	public static int preload(final Collection<MxId> ids) {
+		Validate.notNull(ids, "ids cannot be null");
+		int loaded = 0;
+		for (final MxId id : ids) {
+			final String className = AbstractMX.class.getPackage().getName() + ".Mx" + id.camelized();
+			try {
+				final Class[] classes = ((AbstractMX) Class.forName(className).newInstance()).getClasses();
+				get(classes);
+				loaded++;
+			} catch (final ClassNotFoundException e) {
+				log.fine("no MX model class found for " + id + ", JAXB context not preloaded");
+			} catch (final Exception e) {
+				log.log(Level.WARNING, "error preloading JAXB context for " + id, e);
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * @see #preload(Collection)
+	 */
+	public static int preload(final MxId... ids) {
+		return preload(Arrays.asList(ids));
+	}
+
+	/**
+	 * Sets the maximum number of idle marshallers and unmarshallers kept for each context created from now on.
+	 * Already created contexts keep their pool size.
+	 *
+	 * @param size a positive pool size
+	 */
+	public static void setPoolSize(final int size) {
+		Validate.isTrue(size > 0, "pool size must be positive");
+		poolSize = size;
+	}
+
+	/**
+	 * @return the number of contexts in the cache
+	 */
+	public static int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Removes all cached contexts
+	 */
+	public static void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * A cached JAXB context with its pools of marshallers and unmarshallers.
+	 * <br>
+	 * All methods are thread safe.
+	 */
+	public static final class Entry {
+		private final JAXBContext context;
+		private final BlockingQueue<Marshaller> marshallers;
+		private final BlockingQueue<Unmarshaller> unmarshallers;
+
+		Entry(final JAXBContext context, final int poolSize) {
+			this.context = context;
+			this.marshallers = new ArrayBlockingQueue<>(poolSize);
+			this.unmarshallers = new ArrayBlockingQueue<>(poolSize);
+		}
+
+		public JAXBContext getContext() {
+			return context;
+		}
+
+		/**
+		 * Gets an idle marshaller from the pool, or creates a new one if the pool is empty.
+		 * The marshaller must be released after use with {@link #release(Marshaller)}
+		 */
+		public Marshaller acquireMarshaller() throws JAXBException {
+			final Marshaller marshaller = marshallers.poll();
+			return marshaller != null ? marshaller : context.createMarshaller();
+		}
+
+		/**
+		 * Returns a marshaller to the pool. If the pool is full the marshaller is discarded.
+		 */
+		public void release(final Marshaller marshaller) {
+			if (marshaller == null) {
+				return;
+			}
+			try {
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.FALSE);
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.FALSE);
+				marshaller.setListener(null);
+				marshaller.setEventHandler(null);
+				marshaller.setSchema(null);
+				marshallers.offer(marshaller);
+			} catch (final JAXBException e) {
+				log.log(Level.FINER, "discarding marshaller that cannot be reset", e);
+			}
+		}
+
+		/**
+		 * Gets an idle unmarshaller from the pool, or creates a new one if the pool is empty.
+		 * The unmarshaller must be released after use with {@link #release(Unmarshaller)}
+		 */
+		public Unmarshaller acquireUnmarshaller() throws JAXBException {
+			final Unmarshaller unmarshaller = unmarshallers.poll();
+			return unmarshaller != null ? unmarshaller : context.createUnmarshaller();
+		}
+
+		/**
+		 * Returns an unmarshaller to the pool. If the pool is full the unmarshaller is discarded.
+		 */
+		public void release(final Unmarshaller unmarshaller) {
+			if (unmarshaller == null) {
+				return;
+			}
+			try {
+				unmarshaller.setListener(null);
+				unmarshaller.setEventHandler(null);
+				unmarshaller.setSchema(null);
+				unmarshallers.offer(unmarshaller);
+			} catch (final JAXBException e) {
+				log.log(Level.FINER, "discarding unmarshaller that cannot be reset", e);
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model.mx;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Optional extension of {@link MxWrite} for implementations able to serialize MX message objects directly
+ * into an output stream.
+ * <br>
+ * When the {@link MxWrite} in use does not implement this interface, {@link AbstractMX#write(OutputStream, String, boolean)}
+ * writes the string returned by {@link MxWrite#message(String, AbstractMX, Class[], String, boolean)} instead.
+ *
+ * @since 7.10.4
+ */
+public interface MxStreamWrite extends MxWrite {
+
+	/**
+	 * Serializes obj as XML directly into the given stream, encoded in UTF-8.
+	 * <br>
+	 * Implementations are expected to stream the marshalled content into the output,
+	 * without building the complete XML as a string.
+	 *
+	 * @param namespace the namespace for the target message
+	 * @param obj the object containing the message to be serialized
+	 * @param classes array of all classes used or referenced by message class
+ 	 * @param prefix optional prefix for ns ("Doc" by default)
+	 * @param includeXMLDeclaration true to include the xml declaration (true by default)
+	 * @param stream the output to write, flushed but not closed
+	 * @throws IOException if the message cannot be serialized or the stream cannot be written
+	 */
+	@SuppressWarnings("rawtypes")
+	void write(String namespace, AbstractMX obj, Class[]classes, final String prefix, boolean includeXMLDeclaration, OutputStream stream) throws IOException;
+
+}
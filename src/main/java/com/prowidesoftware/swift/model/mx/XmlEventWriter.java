@@ -15,8 +15,12 @@
  */
 package com.prowidesoftware.swift.model.mx;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.logging.Level;
@@ -46,7 +50,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 public final class XmlEventWriter implements XMLEventWriter {
 	private static final transient java.util.logging.Logger log = java.util.logging.Logger.getLogger(XmlEventWriter.class.getName());
 	private Writer out;
-	private final StringBuilder indent = new StringBuilder();
+	private int indent = 0;
 	private StartElement delayedStart = null;
 	private boolean startTagIncomplete = false;
 	private int startElementCount;
@@ -70,6 +74,26 @@ public final class XmlEventWriter implements XMLEventWriter {
 		this.rootElement = rootElement;
 	}
 
+	/**
+	 * Creates a writer that streams the XML into the given output stream, encoded in UTF-8.
+	 * <br>
+	 * Output is buffered and flushed to the stream when the end of document event is received, or
+	 * when {@link #flush()} is called. The stream is not closed.
+	 *
+	 * @param stream output stream to write
+	 * @param defaultPrefix optional prefix (empty by default) to used for all elements that are not binded to a specific prefix
+	 * @param includeXMLDeclaration true to include the XML declaration (true by default)
+	 * @param rootElement local name of the root element of the XML fragment to create, used to declare namespace
+	 * @since 7.10.4
+	 */
+	public XmlEventWriter(final OutputStream stream, final String defaultPrefix, boolean includeXMLDeclaration, final String rootElement) {
+		this(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)), defaultPrefix, includeXMLDeclaration, rootElement);
+	}
+
+	/*
+	 * Notice the content is written in small pieces directly into the output, avoiding
+	 * intermediate strings, since the writer can be connected to a stream
+	 */
 	public void add(final XMLEvent event) throws XMLStreamException {
 		if (event != null) {
 			try {
@@ -77,7 +101,9 @@ public final class XmlEventWriter implements XMLEventWriter {
 				switch (type) {
 				case XMLEvent.START_DOCUMENT:
 					if (this.includeXMLDeclaration) {
-						out.write("<?xml version=\"1.0\" encoding=\"" + ((StartDocument) event).getCharacterEncodingScheme() + "\"?>");
+						out.write("<?xml version=\"1.0\" encoding=\"");
+						out.write(String.valueOf(((StartDocument) event).getCharacterEncodingScheme()));
+						out.write("\"?>");
 					} else {
 						log.finest("skipping xml declaration");
 					}
@@ -86,7 +112,7 @@ public final class XmlEventWriter implements XMLEventWriter {
 				case XMLEvent.START_ELEMENT:
 					this.startElementCount++;
 					closeStartTagIfNeeded();
-					indent.append(' ');
+					indent++;
 					final StartElement se = event.asStartElement();
 					/*
 					 * the startElementyCount below fixes the bug related to not opening nested Document inside xs:any
@@ -95,7 +121,7 @@ public final class XmlEventWriter implements XMLEventWriter {
 						delayedStart = se;
 						log.finest("local part is Document, initializing delayed start, startElementCount="+this.startElementCount);
 					} else {
-						out.write("\n" + indent + "<" + prefix(se.getName()) + se.getName().getLocalPart());
+						writeStartTag(se.getName(), se.getName());
 						/* 
 						 * to support attributes instead of closing here we set a flag and close this later
 						 */
@@ -105,40 +131,43 @@ public final class XmlEventWriter implements XMLEventWriter {
 					
 				case XMLEvent.NAMESPACE:
 					final Namespace ne = (Namespace) event;
-					StringBuilder sb = new StringBuilder();
 					if (delayedStart != null) {
-						sb.append("\n" + indent + "<" + prefix(ne.getName()) + delayedStart.getName().getLocalPart());
+						writeStartTag(ne.getName(), delayedStart.getName());
 						delayedStart = null;
 					}
-					sb.append(namespace(ne));
-					out.write(sb.toString());
+					writeNamespace(ne);
 					startTagIncomplete = true;
 					break;
 					
 				case XMLEvent.CHARACTERS:
 					closeStartTagIfNeeded();
 					final Characters ce = event.asCharacters();
-					final char[] arr = ce.getData().toCharArray();
-					out.write(escape(arr));
+					escape(ce.getData());
 					break;
 					
 				case XMLEvent.END_ELEMENT:
 					closeStartTagIfNeeded();
-					indent.deleteCharAt(0);
+					indent--;
 					final EndElement ee = event.asEndElement();
-					out.write("</" + prefix(ee.getName()) + ee.getName().getLocalPart() + ">\n" + indent);
+					out.write("</");
+					writePrefix(ee.getName());
+					out.write(ee.getName().getLocalPart());
+					out.write(">\n");
+					writeIndent();
 					break;
 					
 				case XMLEvent.END_DOCUMENT:
 					closeStartTagIfNeeded();
-					/*  
-					 * No need to do anything while writing to a string 
-					 */
+					out.flush();
 					break;
 					
 				case XMLEvent.ATTRIBUTE:
 					final Attribute a = (Attribute) event;
-					out.write(" " + a.getName() + "=\"" + a.getValue() + "\" ");
+					out.write(' ');
+					out.write(a.getName().toString());
+					out.write("=\"");
+					out.write(a.getValue());
+					out.write("\" ");
 					break;
 					
 				default:
@@ -154,11 +183,30 @@ public final class XmlEventWriter implements XMLEventWriter {
 	}
 
 	/**
-	 * Given a namespace event, returns the xmlns declaration with proper prefix
+	 * Writes a new line, the indentation and the beginning of a start tag; the tag is left open
+	 * @param prefixName name used to resolve the prefix
+	 * @param name name of the element
+	 */
+	private void writeStartTag(final QName prefixName, final QName name) throws IOException {
+		out.write('\n');
+		writeIndent();
+		out.write('<');
+		writePrefix(prefixName);
+		out.write(name.getLocalPart());
+	}
+
+	private void writeIndent() throws IOException {
+		for (int i = 0; i < indent; i++) {
+			out.write(' ');
+		}
+	}
+
+	/**
+	 * Given a namespace event, writes the xmlns declaration with proper prefix
 	 * from the preferred prefix parameter map or default prefix
 	 */
-	private String namespace(final Namespace ne) {
-		StringBuilder sb = new StringBuilder(" xmlns");
+	private void writeNamespace(final Namespace ne) throws IOException {
+		out.write(" xmlns");
 		String prefix = null;
 		if (this.peferredPrefixes != null) {
 			prefix = this.peferredPrefixes.get(ne.getValue());
@@ -167,52 +215,49 @@ public final class XmlEventWriter implements XMLEventWriter {
 			prefix = this.defaultPrefix;
 		}
 		if (prefix != null) {
-			sb.append(":").append(prefix);
+			out.write(':');
+			out.write(prefix);
 		}
-		sb.append("=\"").append(ne.getValue()).append("\"");
-		return sb.toString();
+		out.write("=\"");
+		out.write(ne.getValue());
+		out.write('"');
 	}
 
 	/**
-	 * Inplace escape por xml
-	 * repa
-	 * @param arr
+	 * Inplace escape por xml, writing the escaped content into the output.
+	 * Sequences of characters that do not need escaping are written at once.
 	 * @since 7.8
 	 */
-	private String escape(char[] arr) {
-		final StringBuilder sb = new StringBuilder(arr.length);
+	private void escape(final String text) throws IOException {
 		// 2015.11 miguel
 		// Consider code in com.sun.xml.bind.marshaller.DumbEscapeHandler for replacements
-		for (int i = 0; i < arr.length; i++) {
-			switch (arr[i]) {
+		int start = 0;
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			String replacement = null;
+			switch (c) {
 			case '&':
-				sb.append("&amp;");
+				replacement = "&amp;";
 				break;
 			case '<':
-				sb.append("&lt;");
+				replacement = "&lt;";
 				break;
 			case '>':
-				sb.append("&gt;");
-				break;
-			case '\"':
-				// 2015.11 miguel: esto podria dar probelmas eventualmente con escapeo dentro de atributos, ignorado por ahora porque se usa para curency y ns
-				//	                if (isAttVal) {
-				//	                    sb.append("&quot;");
-				//	                } else {
-				sb.append('\"');
-				//	                }
+				replacement = "&gt;";
 				break;
+			// 2015.11 miguel: double quote is not escaped, esto podria dar probelmas eventualmente con escapeo dentro de atributos, ignorado por ahora porque se usa para curency y ns
 			default:
-				if (arr[i] > '\u007f') {
-					sb.append("&#");
-					sb.append(Integer.toString(arr[i]));
-					sb.append(';');
-				} else {
-					sb.append(arr[i]);
+				if (c > '\u007f') {
+					replacement = "&#" + Integer.toString(c) + ";";
 				}
 			}
+			if (replacement != null) {
+				out.write(text, start, i - start);
+				out.write(replacement);
+				start = i + 1;
+			}
 		}
-		return sb.toString();
+		out.write(text, start, text.length() - start);
 	}
 
 	/**
@@ -237,12 +282,11 @@ public final class XmlEventWriter implements XMLEventWriter {
 		}
 	}
 	
-	private String prefix(final QName qname) {
-		String prefix = peferredPrefix(qname);
+	private void writePrefix(final QName qname) throws IOException {
+		final String prefix = peferredPrefix(qname);
 		if (prefix != null) {
-			return prefix + ":";
-		} else {
-			return "";
+			out.write(prefix);
+			out.write(':');
 		}
 	}
 	
@@ -0,0 +1,1367 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.PPCWriter;
+import com.prowidesoftware.swift.io.RJEWriter;
+import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field;
+import com.prowidesoftware.swift.model.field.Field20;
+import com.prowidesoftware.swift.model.field.Field21;
+import com.prowidesoftware.swift.model.field.Field23B;
+import com.prowidesoftware.swift.model.field.Field25;
+import com.prowidesoftware.swift.model.field.Field28C;
+import com.prowidesoftware.swift.model.field.Field32A;
+import com.prowidesoftware.swift.model.field.Field33B;
+import com.prowidesoftware.swift.model.field.Field50K;
+import com.prowidesoftware.swift.model.field.Field52A;
+import com.prowidesoftware.swift.model.field.Field57A;
+import com.prowidesoftware.swift.model.field.Field58A;
+import com.prowidesoftware.swift.model.field.Field59;
+import com.prowidesoftware.swift.model.field.Field60F;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.field.Field62F;
+import com.prowidesoftware.swift.model.field.Field64;
+import com.prowidesoftware.swift.model.field.Field70;
+import com.prowidesoftware.swift.model.field.Field71A;
+import com.prowidesoftware.swift.model.field.Field71F;
+import com.prowidesoftware.swift.model.field.Field86;
+import com.prowidesoftware.swift.model.mt.AbstractMT;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+import com.prowidesoftware.swift.model.mt.mt2xx.MT202;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT950;
+
+/**
+ * Seeded generator of synthetic messages for load, soak and capacity tests, and to feed benchmarks without real
+ * customer data.
+ *
+ * <p>The generator is reproducible: two instances created with the same seed produce exactly the same sequence of
+ * messages. Instances are not thread-safe; concurrent producers should use one instance per thread, for example
+ * seeded with a base seed plus the thread index.
+ *
+ * <p>MT messages are created as follows:
+ * <ul>
+ * 	<li>MT103, MT202, MT940 and MT950 follow their message structure, with consistent amounts and balances, valid IBAN
+ * 	check digits and a UETR where applicable.</li>
+ * 	<li>Any other MT class follows the message structure documented in the class: sequences, with their 16R/16S
+ * 	delimiters when applicable, fieldsets and fields in order. Mandatory elements are always present, optional ones
+ * 	half of the times, and repetitive ones once or twice. A letter option is chosen per field and the values are
+ * 	generated from the field validator patterns, using the proper charset for each component; generic fields use
+ * 	the qualifiers defined in the MT class, and 28E the ONLY, MORE and LAST continuation indicators. The messages
+ * 	are valid at field and sequence level but not necessarily against the network validation rules, such as the
+ * 	conditional fields or the qualifiers allowed for each field.</li>
+ * </ul>
+ *
+ * <p>Besides MT, the generator creates pacs.008 and camt.053 documents with a business application header, and
+ * RJE or DOS-PPC files with a configurable number of messages and message type {@link Mix}.
+ *
+ * @since 7.10.4
+ */
+public class MessageGenerator {
+	private static final transient Logger log = Logger.getLogger(MessageGenerator.class.getName());
+
+	private static final String EOL = FINWriterVisitor.SWIFT_EOL;
+
+	/**
+	 * Maximum length of generated free text, for fields allowing longer lines
+	 */
+	private static final int MAX_TEXT = 65;
+
+	/**
+	 * Number of samples verified when a field validator pattern is compiled
+	 */
+	private static final int SAMPLES = 16;
+
+	private static final String[] CURRENCIES = {"EUR", "USD", "GBP", "CHF", "JPY", "SEK", "CAD", "AUD"};
+	private static final String[] COUNTRIES = {"DE", "FR", "GB", "US", "ES", "IT", "CH", "NL", "SE", "BE", "JP", "UY"};
+	private static final String[] WORDS = {"ACME", "GLOBAL", "TRADING", "NORTHERN", "CAPITAL", "HOLDINGS", "LOGISTICS",
+			"FOODS", "ENERGY", "SERVICES", "PARTNERS", "GROUP", "INVEST", "UNITED", "MARINE", "STEEL", "TEXTILES", "PHARMA",
+			"AGRO", "SOLUTIONS", "LTD", "SA", "GMBH", "INC", "INVOICE", "PAYMENT", "ORDER", "CONTRACT", "GOODS", "FEES"};
+	private static final String[] STREETS = {"MAIN STREET", "HIGH STREET", "PARK AVENUE", "CHURCH ROAD", "STATION ROAD",
+			"MARKET SQUARE", "RIVER LANE", "HARBOUR DRIVE"};
+	private static final String[] CITIES = {"LONDON", "PARIS", "FRANKFURT", "MADRID", "MILAN", "ZURICH", "AMSTERDAM",
+			"STOCKHOLM", "BRUSSELS", "NEW YORK", "TOKYO", "MONTEVIDEO"};
+	private static final String[] CHARGES = {"SHA", "OUR", "BEN"};
+	private static final String[] MT_TYPES = {"103", "202", "900", "910", "940", "950"};
+	private static final String[] TRANSACTION_TYPES = {"NTRF", "NCHK", "NMSC", "NCHG", "NINT", "FTRF", "SMSC"};
+
+	/**
+	 * IBAN countries with a numeric BBAN, and the BBAN length
+	 */
+	private static final String[] IBAN_COUNTRIES = {"DE", "BE", "ES", "SE", "CH"};
+	private static final int[] IBAN_LENGTHS = {18, 12, 20, 20, 17};
+
+	private static final Set<String> SPECIALS = new HashSet<>(Arrays.asList("AMOUNT", "DC", "DM", "N", "SIGN", "OFFSET",
+			"CUR", "CC", "BIC", "LT", "DATE1", "DATE2", "DATE4", "YEAR", "HH", "HHMM", "TIME2", "TIME3", "DDHHMM",
+			"YYMMDDHHMM", "MT", "MIR", "MOR", "BOOL", "ISIN", "TYPE"));
+
+	private static final Pattern QUALIFIER = Pattern.compile("[A-Z][A-Z0-9]{3}");
+	private static final Pattern REPETITION = Pattern.compile("(\\d+)-(\\d+)");
+
+	/**
+	 * Resource with the message structures
+	 */
+	private static final String STRUCTURES = "/mt_structures.txt";
+
+	/**
+	 * Continuation indicators of field 28E
+	 */
+	private static final String[] CONTINUATIONS = {"ONLY", "MORE", "LAST"};
+
+	/**
+	 * Formats for fields with a CUSTOM validator pattern
+	 */
+	private static final Map<String, String> CUSTOM = new HashMap<>();
+	static {
+		CUSTOM.put("61", "<DATE2>[<DATE1>]<DC><AMOUNT>15<TYPE>16x[//16x]");
+		CUSTOM.put("72", "35x[$35x]0-5");
+		CUSTOM.put("79", "50x[$50x]0-9");
+		CUSTOM.put("86", "65x[$65x]0-5");
+	}
+
+	/**
+	 * Compiled validator patterns by field name, shared by all instances
+	 */
+	private static final ConcurrentMap<String, Node> patterns = new ConcurrentHashMap<>();
+
+	/**
+	 * Placeholder for fields whose values cannot be generated
+	 */
+	private static final Node UNSUPPORTED = new Literal("");
+
+	/**
+	 * Generic message structures by MT class, shared by all instances
+	 */
+	private static final ConcurrentMap<Class<?>, Structure> structures = new ConcurrentHashMap<>();
+
+	private final String[] bics = new String[64];
+	private long state;
+	private long sequence;
+
+	/**
+	 * Start position of the value being generated from a field pattern
+	 */
+	private int start;
+
+	/**
+	 * Creates a generator.
+	 * @param seed seed of the pseudo random sequence
+	 */
+	public MessageGenerator(final long seed) {
+		this.state = seed;
+		for (int i = 0; i < bics.length; i++) {
+			final StringBuilder sb = new StringBuilder(8);
+			chars(sb, 'a', 4);
+			sb.append(pick(COUNTRIES));
+			chars(sb, 'a', 1);
+			chars(sb, 'c', 1);
+			bics[i] = sb.toString();
+		}
+	}
+
+	/**
+	 * Weighted mix of message types.
+	 * <p>Types are given as the MT number, optionally with the variant suffix used in the class names, for
+	 * example 103, 103_STP or 535.
+	 */
+	public static class Mix {
+		private final List<String> types = new ArrayList<>();
+		private final List<Integer> weights = new ArrayList<>();
+		private int total = 0;
+
+		/**
+		 * Creates a mix with the same weight for all the given types
+		 * @param types message types
+		 * @return a new mix
+		 */
+		public static Mix of(final String ... types) {
+			final Mix mix = new Mix();
+			for (final String type : types) {
+				mix.add(type, 1);
+			}
+			return mix;
+		}
+
+		/**
+		 * Adds a message type to the mix
+		 * @param type the message type
+		 * @param weight relative weight of the type in the mix, must be positive
+		 * @return this object, for chained calls
+		 */
+		public Mix add(final String type, final int weight) {
+			Validate.notNull(type, "the message type cannot be null");
+			Validate.isTrue(weight > 0, "the weight must be positive");
+			types.add(type);
+			total += weight;
+			weights.add(total);
+			return this;
+		}
+
+		private String pick(final MessageGenerator g) {
+			Validate.isTrue(total > 0, "the mix is empty");
+			final int n = g.nextInt(total);
+			for (int i = 0; i < weights.size(); i++) {
+				if (n < weights.get(i)) {
+					return types.get(i);
+				}
+			}
+			return types.get(types.size() - 1);
+		}
+	}
+
+	/**
+	 * Creates a message of the given type.
+	 * @param type the MT number, optionally with the variant suffix, for example 103 or 103_STP
+	 * @return the generated message
+	 * @throws IllegalArgumentException if there is no MT class for the type
+	 * @see #mt(Class)
+	 */
+	public AbstractMT mt(final String type) {
+		Validate.notNull(type, "the message type cannot be null");
+		final String className = "com.prowidesoftware.swift.model.mt.mt" + type.charAt(0) + "xx.MT" + type;
+		try {
+			return mt(Class.forName(className).asSubclass(AbstractMT.class));
+		} catch (final ClassNotFoundException | ClassCastException e) {
+			throw new IllegalArgumentException("no MT class found for " + type, e);
+		}
+	}
+
+	/**
+	 * Creates a message with a type picked from the mix.
+	 * @param mix the message types to choose from
+	 * @return the generated message
+	 */
+	public AbstractMT mt(final Mix mix) {
+		Validate.notNull(mix, "the mix cannot be null");
+		return mt(mix.pick(this));
+	}
+
+	/**
+	 * Creates a message of the given class.
+	 * <p>Statements are created with up to 50 entries; use {@link #mt940(int)} or {@link #mt950(int)} to set the size.
+	 * @param type the MT class
+	 * @return the generated message
+	 */
+	public AbstractMT mt(final Class<? extends AbstractMT> type) {
+		Validate.notNull(type, "the message type cannot be null");
+		if (MT103.class.equals(type)) {
+			return mt103();
+		} else if (MT202.class.equals(type)) {
+			return mt202();
+		} else if (MT940.class.equals(type)) {
+			return mt940(1 + nextInt(50));
+		} else if (MT950.class.equals(type)) {
+			return mt950(1 + nextInt(50));
+		}
+		return generic(type);
+	}
+
+	/**
+	 * @return a customer credit transfer
+	 */
+	public MT103 mt103() {
+		final MT103 mt = new MT103(bic(), bic());
+		mt.getSwiftMessage().setUETR(uetr());
+		final String currency = pick(CURRENCIES);
+		final String amount = amount(100 + nextLong(100000000L));
+		final String date = date2();
+		final String charges = pick(CHARGES);
+		mt.append(new Field20(reference()));
+		mt.append(new Field23B("CRED"));
+		mt.append(new Field32A(date + currency + amount));
+		mt.append(new Field33B(currency + amount));
+		mt.append(new Field50K("/" + iban() + EOL + name() + EOL + address()));
+		mt.append(new Field52A(bic()));
+		mt.append(new Field57A(bic()));
+		mt.append(new Field59("/" + iban() + EOL + name() + EOL + address()));
+		mt.append(new Field70(pick(WORDS) + " " + reference()));
+		mt.append(new Field71A(charges));
+		if ("BEN".equals(charges)) {
+			mt.append(new Field71F(currency + amount(100 + nextLong(5000))));
+		}
+		return mt;
+	}
+
+	/**
+	 * @return a financial institution transfer
+	 */
+	public MT202 mt202() {
+		final MT202 mt = new MT202(bic(), bic());
+		mt.getSwiftMessage().setUETR(uetr());
+		mt.append(new Field20(reference()));
+		mt.append(new Field21(reference()));
+		mt.append(new Field32A(date2() + pick(CURRENCIES) + amount(10000 + nextLong(10000000000L))));
+		mt.append(new Field52A(bic()));
+		mt.append(new Field57A(bic()));
+		mt.append(new Field58A("/" + digits(8) + EOL + bic()));
+		return mt;
+	}
+
+	/**
+	 * @param entries number of statement lines
+	 * @return a customer statement, with a 61 and 86 field per line and consistent balances
+	 */
+	public MT940 mt940(final int entries) {
+		final MT940 mt = new MT940(bic(), bic());
+		statement(mt, entries, true);
+		return mt;
+	}
+
+	/**
+	 * @param entries number of statement lines
+	 * @return a statement message with consistent balances
+	 */
+	public MT950 mt950(final int entries) {
+		final MT950 mt = new MT950(bic(), bic());
+		statement(mt, entries, false);
+		return mt;
+	}
+
+	private void statement(final AbstractMT mt, final int entries, final boolean details) {
+		final String currency = pick(CURRENCIES);
+		final String date = date2();
+		long balance = nextLong(1000000000L);
+		mt.append(new Field20(reference()));
+		mt.append(new Field25(iban()));
+		mt.append(new Field28C(Long.toString(1 + nextLong(99999)) + "/1"));
+		mt.append(new Field60F("C" + date + currency + amount(balance)));
+		for (int i = 0; i < entries; i++) {
+			final long amount = 1 + nextLong(10000000L);
+			final boolean credit = nextInt(2) == 0;
+			balance += credit ? amount : -amount;
+			mt.append(new Field61(date + (credit ? "C" : "D") + amount(amount) + "NTRF" + reference() + "//" + reference()));
+			if (details) {
+				mt.append(new Field86(pick(WORDS) + " " + reference() + EOL + name()));
+			}
+		}
+		final String closing = (balance < 0 ? "D" : "C") + date + currency + amount(Math.abs(balance));
+		mt.append(new Field62F(closing));
+		if (details) {
+			mt.append(new Field64(closing));
+		}
+	}
+
+	/**
+	 * Creates a message following the structure of its MT class
+	 */
+	private AbstractMT generic(final Class<? extends AbstractMT> type) {
+		final Structure structure = structure(type);
+		final AbstractMT mt;
+		try {
+			mt = structure.constructor.newInstance(bic(), bic());
+		} catch (final ReflectiveOperationException e) {
+			throw new IllegalArgumentException("cannot create an instance of " + type.getName(), e);
+		}
+		if (mt.getSwiftMessage().getUETR() != null) {
+			mt.getSwiftMessage().setUETR(uetr());
+		}
+		for (final Part part : structure.parts) {
+			part.generate(this, structure, mt);
+		}
+		return mt;
+	}
+
+	/**
+	 * Creates a customer credit transfer with a business application header.
+	 * @param transactions number of credit transfer transactions
+	 * @return the message XML, with the header and document under a Message root element
+	 */
+	public String pacs008(final int transactions) {
+		final String id = reference();
+		final StringBuilder sb = new StringBuilder(1024 + transactions * 1024);
+		header(sb, id, "pacs.008.001.07");
+		sb.append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.07\">\n");
+		sb.append("<FIToFICstmrCdtTrf>\n");
+		sb.append("<GrpHdr><MsgId>").append(id).append("</MsgId><CreDtTm>").append(dateTime()).append("</CreDtTm>");
+		sb.append("<NbOfTxs>").append(transactions).append("</NbOfTxs><SttlmInf><SttlmMtd>CLRG</SttlmMtd></SttlmInf></GrpHdr>\n");
+		for (int i = 0; i < transactions; i++) {
+			sb.append("<CdtTrfTxInf>\n");
+			sb.append("<PmtId><InstrId>").append(reference()).append("</InstrId><EndToEndId>").append(reference());
+			sb.append("</EndToEndId><TxId>").append(reference()).append("</TxId><UETR>").append(uetr()).append("</UETR></PmtId>\n");
+			sb.append("<IntrBkSttlmAmt Ccy=\"").append(pick(CURRENCIES)).append("\">").append(amount(100 + nextLong(100000000L)).replace(',', '.'));
+			sb.append("</IntrBkSttlmAmt><IntrBkSttlmDt>").append(isoDate()).append("</IntrBkSttlmDt>\n");
+			sb.append("<ChrgBr>SHAR</ChrgBr>\n");
+			party(sb, "Dbtr");
+			sb.append("<DbtrAcct><Id><IBAN>").append(iban()).append("</IBAN></Id></DbtrAcct>\n");
+			sb.append("<DbtrAgt><FinInstnId><BICFI>").append(bic()).append("XXX</BICFI></FinInstnId></DbtrAgt>\n");
+			sb.append("<CdtrAgt><FinInstnId><BICFI>").append(bic()).append("XXX</BICFI></FinInstnId></CdtrAgt>\n");
+			party(sb, "Cdtr");
+			sb.append("<CdtrAcct><Id><IBAN>").append(iban()).append("</IBAN></Id></CdtrAcct>\n");
+			sb.append("<RmtInf><Ustrd>").append(pick(WORDS)).append(' ').append(reference()).append("</Ustrd></RmtInf>\n");
+			sb.append("</CdtTrfTxInf>\n");
+		}
+		sb.append("</FIToFICstmrCdtTrf>\n</Document>\n</Message>");
+		return sb.toString();
+	}
+
+	/**
+	 * Creates a bank to customer statement with a business application header.
+	 * @param entries number of statement entries
+	 * @return the message XML, with the header and document under a Message root element
+	 */
+	public String camt053(final int entries) {
+		final String id = reference();
+		final String currency = pick(CURRENCIES);
+		long balance = nextLong(1000000000L);
+		final StringBuilder sb = new StringBuilder(2048 + entries * 768);
+		header(sb, id, "camt.053.001.02");
+		sb.append("<Document xmlns=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\">\n");
+		sb.append("<BkToCstmrStmt>\n");
+		sb.append("<GrpHdr><MsgId>").append(id).append("</MsgId><CreDtTm>").append(dateTime()).append("</CreDtTm></GrpHdr>\n");
+		sb.append("<Stmt>\n<Id>").append(reference()).append("</Id><CreDtTm>").append(dateTime()).append("</CreDtTm>\n");
+		sb.append("<Acct><Id><IBAN>").append(iban()).append("</IBAN></Id><Ccy>").append(currency).append("</Ccy></Acct>\n");
+		final String date = isoDate();
+		balance(sb, "OPBD", currency, balance, date);
+		final StringBuilder ntry = new StringBuilder();
+		for (int i = 0; i < entries; i++) {
+			final long amount = 1 + nextLong(10000000L);
+			final boolean credit = nextInt(2) == 0;
+			balance += credit ? amount : -amount;
+			ntry.append("<Ntry>\n<NtryRef>").append(i + 1).append("</NtryRef><Amt Ccy=\"").append(currency).append("\">");
+			ntry.append(amount(amount).replace(',', '.')).append("</Amt><CdtDbtInd>").append(credit ? "CRDT" : "DBIT");
+			ntry.append("</CdtDbtInd><Sts>BOOK</Sts>\n<BookgDt><Dt>").append(date).append("</Dt></BookgDt><ValDt><Dt>").append(date);
+			ntry.append("</Dt></ValDt><AcctSvcrRef>").append(reference()).append("</AcctSvcrRef>\n");
+			ntry.append("<BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>").append(credit ? "RCDT" : "ICDT").append("</Cd><SubFmlyCd>ESCT</SubFmlyCd></Fmly></Domn></BkTxCd>\n");
+			ntry.append("<NtryDtls><TxDtls><Refs><EndToEndId>").append(reference()).append("</EndToEndId></Refs>");
+			ntry.append("<RltdPties><").append(credit ? "Dbtr" : "Cdtr").append("><Nm>").append(name()).append("</Nm></").append(credit ? "Dbtr" : "Cdtr").append("></RltdPties>");
+			ntry.append("<RmtInf><Ustrd>").append(pick(WORDS)).append(' ').append(reference()).append("</Ustrd></RmtInf></TxDtls></NtryDtls>\n</Ntry>\n");
+		}
+		balance(sb, "CLBD", currency, balance, date);
+		sb.append(ntry);
+		sb.append("</Stmt>\n</BkToCstmrStmt>\n</Document>\n</Message>");
+		return sb.toString();
+	}
+
+	private void header(final StringBuilder sb, final String id, final String definition) {
+		sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Message>\n");
+		sb.append("<AppHdr xmlns=\"urn:iso:std:iso:20022:tech:xsd:head.001.001.01\">\n");
+		sb.append("<Fr><FIId><FinInstnId><BICFI>").append(bic()).append("XXX</BICFI></FinInstnId></FIId></Fr>\n");
+		sb.append("<To><FIId><FinInstnId><BICFI>").append(bic()).append("XXX</BICFI></FinInstnId></FIId></To>\n");
+		sb.append("<BizMsgIdr>").append(id).append("</BizMsgIdr><MsgDefIdr>").append(definition).append("</MsgDefIdr>");
+		sb.append("<CreDt>").append(dateTime()).append("Z</CreDt>\n</AppHdr>\n");
+	}
+
+	private void party(final StringBuilder sb, final String element) {
+		sb.append('<').append(element).append("><Nm>").append(name()).append("</Nm><PstlAdr><StrtNm>").append(pick(STREETS));
+		sb.append("</StrtNm><BldgNb>").append(1 + nextInt(300)).append("</BldgNb><TwnNm>").append(pick(CITIES));
+		sb.append("</TwnNm><Ctry>").append(pick(COUNTRIES)).append("</Ctry></PstlAdr></").append(element).append(">\n");
+	}
+
+	private static void balance(final StringBuilder sb, final String code, final String currency, final long balance, final String date) {
+		sb.append("<Bal><Tp><CdOrPrtry><Cd>").append(code).append("</Cd></CdOrPrtry></Tp><Amt Ccy=\"").append(currency).append("\">");
+		sb.append(amount(Math.abs(balance)).replace(',', '.')).append("</Amt><CdtDbtInd>").append(balance < 0 ? "DBIT" : "CRDT");
+		sb.append("</CdtDbtInd><Dt><Dt>").append(date).append("</Dt></Dt></Bal>\n");
+	}
+
+	/**
+	 * Writes messages picked from the mix in RJE format.
+	 * @param writer where the messages are written, it is flushed but not closed
+	 * @param mix the message types to choose from
+	 * @param count number of messages to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writeRJE(final Writer writer, final Mix mix, final int count) throws IOException {
+		final RJEWriter rje = new RJEWriter(writer);
+		for (int i = 0; i < count; i++) {
+			rje.write(mt(mix));
+		}
+		rje.flush();
+	}
+
+	/**
+	 * Writes messages picked from the mix in DOS-PPC format.
+	 * @param writer where the messages are written, it is flushed but not closed
+	 * @param mix the message types to choose from
+	 * @param count number of messages to write
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void writePPC(final Writer writer, final Mix mix, final int count) throws IOException {
+		final PPCWriter ppc = new PPCWriter(writer);
+		for (int i = 0; i < count; i++) {
+			ppc.write(mt(mix));
+		}
+		ppc.flush();
+	}
+
+	/**
+	 * Generates a value for a field, from its validator pattern.
+	 * @param name the field name, for example 32A
+	 * @return a value in the field format or null if values cannot be generated for the field
+	 * @see #isSupported(String)
+	 */
+	public String value(final String name) {
+		final Node node = pattern(name);
+		if (node == null) {
+			return null;
+		}
+		final StringBuilder sb = new StringBuilder();
+		generate(node, sb);
+		return sb.toString();
+	}
+
+	private void generate(final Node node, final StringBuilder sb) {
+		this.start = sb.length();
+		node.generate(this, sb);
+		if (endsWith(sb, EOL)) {
+			sb.setLength(sb.length() - EOL.length());
+		}
+	}
+
+	private static boolean endsWith(final StringBuilder sb, final String suffix) {
+		final int offset = sb.length() - suffix.length();
+		return offset >= 0 && sb.indexOf(suffix, offset) == offset;
+	}
+
+	/**
+	 * Checks if values can be generated for a field.
+	 * <p>A field is supported when its validator pattern can be interpreted and the generated values are parsed back
+	 * into the same value by the field class.
+	 * @param name the field name, for example 32A
+	 * @return true if {@link #value(String)} can generate values for the field
+	 */
+	public static boolean isSupported(final String name) {
+		return pattern(name) != null;
+	}
+
+	private static Node pattern(final String name) {
+		Node node = patterns.get(name);
+		if (node == null) {
+			node = compile(name);
+			final Node previous = patterns.putIfAbsent(name, node);
+			if (previous != null) {
+				node = previous;
+			}
+		}
+		return node == UNSUPPORTED ? null : node;
+	}
+
+	private static Node compile(final String name) {
+		try {
+			final Class<? extends Field> type = Class.forName("com.prowidesoftware.swift.model.field.Field" + name).asSubclass(Field.class);
+			final Field field = type.newInstance();
+			final String validator = CUSTOM.containsKey(name) ? CUSTOM.get(name) : field.validatorPattern().replaceAll("\\(\\*+\\)", "");
+			final Node node = new PatternCompiler(validator).compile();
+			// verify the generated values are read back by the field
+			final MessageGenerator g = new MessageGenerator(name.hashCode());
+			for (int i = 0; i < SAMPLES; i++) {
+				final StringBuilder sb = new StringBuilder();
+				g.generate(node, sb);
+				final String value = sb.toString();
+				final Field parsed = type.getConstructor(String.class).newInstance(value);
+				if (!value.equals(parsed.getValue())) {
+					log.fine("generated value for field " + name + " is not read back: " + value);
+					return UNSUPPORTED;
+				}
+			}
+			return node;
+		} catch (final IllegalArgumentException e) {
+			log.fine("unsupported validator pattern for field " + name + ": " + e.getMessage());
+		} catch (final Exception e) {
+			log.log(Level.FINE, "cannot generate values for field " + name, e);
+		}
+		return UNSUPPORTED;
+	}
+
+	private static Structure structure(final Class<? extends AbstractMT> type) {
+		Structure structure = structures.get(type);
+		if (structure == null) {
+			structure = new Structure(type);
+			final Structure previous = structures.putIfAbsent(type, structure);
+			if (previous != null) {
+				structure = previous;
+			}
+		}
+		return structure;
+	}
+
+	/**
+	 * Message structures by message type, read from the resource when first used
+	 */
+	private static final class Schemes {
+		private static final Map<String, String> SCHEMES = load();
+
+		private static Map<String, String> load() {
+			final Map<String, String> result = new HashMap<>();
+			try (InputStream stream = MessageGenerator.class.getResourceAsStream(STRUCTURES)) {
+				Validate.notNull(stream, "resource " + STRUCTURES + " not found");
+				final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII));
+				String line;
+				while ((line = reader.readLine()) != null) {
+					final int separator = line.indexOf('=');
+					if (!line.isEmpty() && line.charAt(0) != '#' && separator > 0) {
+						result.put(line.substring(0, separator), line.substring(separator + 1));
+					}
+				}
+			} catch (final IOException e) {
+				throw new ProwideException("error reading the message structures " + STRUCTURES, e);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Sequences, fieldsets and fields of an MT class, with the qualifiers defined in the class
+	 */
+	private static final class Structure {
+		private final Class<? extends AbstractMT> type;
+		private final Constructor<? extends AbstractMT> constructor;
+		private final Part[] parts;
+		private final String[] qualifiers;
+		private final Set<String> codes16RS = new HashSet<>();
+		private final String[] tokens;
+		private int pos = 0;
+
+		Structure(final Class<? extends AbstractMT> type) {
+			this.type = type;
+			try {
+				this.constructor = type.getConstructor(String.class, String.class);
+			} catch (final NoSuchMethodException e) {
+				throw new IllegalArgumentException(type.getName() + " has no sender and receiver constructor", e);
+			}
+			final String scheme = Schemes.SCHEMES.get(type.getSimpleName().substring(2));
+			if (scheme == null) {
+				throw new IllegalArgumentException("no message structure found for " + type.getName());
+			}
+			this.tokens = scheme.split(" ");
+			this.parts = parts();
+			final List<String> result = new ArrayList<>();
+			for (final java.lang.reflect.Field f : type.getDeclaredFields()) {
+				if (Modifier.isStatic(f.getModifiers()) && String.class.equals(f.getType())) {
+					final String value = (String) constant(f);
+					if (value != null && QUALIFIER.matcher(value).matches() && !codes16RS.contains(value)) {
+						result.add(value);
+					}
+				}
+			}
+			Collections.sort(result);
+			this.qualifiers = result.toArray(new String[result.size()]);
+		}
+
+		/**
+		 * Parses the parts up to the end of the current sequence
+		 */
+		private Part[] parts() {
+			final List<Part> result = new ArrayList<>();
+			while (pos < tokens.length && tokens[pos].charAt(0) != ']') {
+				final String token = tokens[pos++];
+				if (token.charAt(0) == '[') {
+					final String name = token.substring(1);
+					final Tag[] delimiters = delimiters(name);
+					final Part[] children = parts();
+					Validate.isTrue(pos < tokens.length, "unterminated sequence " + name + " in the structure of " + type.getName());
+					result.add(new SequencePart(tokens[pos++], children, delimiters));
+				} else if (token.startsWith("16R") || token.startsWith("16S")) {
+					// written from the sequence delimiters
+					continue;
+				} else {
+					final int brace = token.indexOf('{');
+					if (brace > 0) {
+						final String number = token.substring(0, brace);
+						final int close = token.indexOf('}');
+						final String[] items = token.substring(brace + 1, close).split(",");
+						final List<FieldPart> fields = new ArrayList<>();
+						for (final String item : items) {
+							final FieldPart field = field(number + item);
+							if (field != null) {
+								fields.add(field);
+							}
+						}
+						if (!fields.isEmpty()) {
+							result.add(new FieldsetPart(token.substring(close + 1), fields.toArray(new FieldPart[fields.size()])));
+						}
+					} else {
+						final FieldPart field = field(token);
+						if (field != null) {
+							result.add(field);
+						}
+					}
+				}
+			}
+			return result.toArray(new Part[result.size()]);
+		}
+
+		/**
+		 * @param token field token, with the tag number, letter options and flags
+		 * @return the field with its supported options or null if values cannot be generated for any of them
+		 */
+		private static FieldPart field(final String token) {
+			int i = 0;
+			while (i < token.length() && Character.isDigit(token.charAt(i))) {
+				i++;
+			}
+			final String number = token.substring(0, i);
+			final int end = StringUtils.indexOfAny(token, '!', '*') < 0 ? token.length() : StringUtils.indexOfAny(token, '!', '*');
+			// no letter options for fields such as 20
+			final String options = i == end ? "-" : token.substring(i, end);
+			final List<String> names = new ArrayList<>();
+			for (final char option : options.toCharArray()) {
+				final String name = option == '-' ? number : number + option;
+				if (isSupported(name)) {
+					names.add(name);
+				}
+			}
+			if (names.isEmpty()) {
+				return null;
+			}
+			return new FieldPart(token.substring(end), names.toArray(new String[names.size()]));
+		}
+
+		/**
+		 * @param sequence the sequence name
+		 * @return the 16R and 16S tags of the sequence or null if it is not delimited
+		 */
+		private Tag[] delimiters(final String sequence) {
+			try {
+				final Class<?> c = Class.forName(type.getName() + "$Sequence" + sequence);
+				final Tag start = (Tag) constant(c.getField("START_TAG"));
+				final Tag end = (Tag) constant(c.getField("END_TAG"));
+				if (start == null || end == null) {
+					return null;
+				}
+				codes16RS.add(start.getValue());
+				return new Tag[] {start, end};
+			} catch (final ClassNotFoundException | NoSuchFieldException e) {
+				return null;
+			}
+		}
+
+		private static Object constant(final java.lang.reflect.Field f) {
+			try {
+				return f.get(null);
+			} catch (final IllegalAccessException e) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Element of a message structure
+	 */
+	private abstract static class Part {
+		private final boolean mandatory;
+		private final boolean repetitive;
+
+		Part(final String flags) {
+			this.mandatory = flags.indexOf('!') >= 0;
+			this.repetitive = flags.indexOf('*') >= 0;
+		}
+
+		/**
+		 * @return number of occurrences to generate: mandatory parts are always present, optional ones half of the
+		 * 	times, and repetitive ones once or twice
+		 */
+		int count(final MessageGenerator g) {
+			if (!mandatory && g.nextInt(2) == 0) {
+				return 0;
+			}
+			return repetitive ? 1 + g.nextInt(2) : 1;
+		}
+
+		abstract void generate(MessageGenerator g, Structure structure, AbstractMT mt);
+	}
+
+	private static final class SequencePart extends Part {
+		private final Part[] parts;
+		private final Tag[] delimiters;
+
+		SequencePart(final String flags, final Part[] parts, final Tag[] delimiters) {
+			super(flags.substring(1));
+			this.parts = parts;
+			this.delimiters = delimiters;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final Structure structure, final AbstractMT mt) {
+			final int count = count(g);
+			for (int i = 0; i < count; i++) {
+				if (delimiters != null) {
+					mt.append(new Tag(delimiters[0].getName(), delimiters[0].getValue()));
+				}
+				for (final Part part : parts) {
+					part.generate(g, structure, mt);
+				}
+				if (delimiters != null) {
+					mt.append(new Tag(delimiters[1].getName(), delimiters[1].getValue()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Group of fields with the same tag number and different qualifiers
+	 */
+	private static final class FieldsetPart extends Part {
+		private final FieldPart[] fields;
+
+		FieldsetPart(final String flags, final FieldPart[] fields) {
+			super(flags);
+			this.fields = fields;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final Structure structure, final AbstractMT mt) {
+			if (count(g) == 0) {
+				return;
+			}
+			final Set<String> used = new HashSet<>();
+			for (final FieldPart field : fields) {
+				final int count = field.count(g);
+				for (int i = 0; i < count; i++) {
+					field.append(g, structure, mt, used);
+				}
+			}
+			if (used.isEmpty()) {
+				// at least one item of a present fieldset
+				fields[0].append(g, structure, mt, used);
+			}
+		}
+	}
+
+	private static final class FieldPart extends Part {
+		private final String[] names;
+
+		FieldPart(final String flags, final String[] names) {
+			super(flags);
+			this.names = names;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final Structure structure, final AbstractMT mt) {
+			final int count = count(g);
+			for (int i = 0; i < count; i++) {
+				append(g, structure, mt, null);
+			}
+		}
+
+		/**
+		 * Appends one occurrence of the field
+		 * @param used qualifiers already used in the fieldset, or null if the field is not part of a fieldset
+		 */
+		void append(final MessageGenerator g, final Structure structure, final AbstractMT mt, final Set<String> used) {
+			final String name = g.pick(names);
+			String value = "28E".equals(name) ? g.continuation() : g.value(name);
+			// generic fields start with the qualifier, as in :98A::PREP//20180101
+			String key = name;
+			if (value.length() > 5 && value.charAt(0) == ':' && value.charAt(5) == '/' && structure.qualifiers.length > 0) {
+				key = g.pick(structure.qualifiers);
+				for (int i = 0; used != null && used.contains(key) && i < structure.qualifiers.length; i++) {
+					key = g.pick(structure.qualifiers);
+				}
+				value = ':' + key + value.substring(5);
+			}
+			if (used != null) {
+				used.add(key);
+			}
+			mt.append(new Tag(name, value));
+		}
+	}
+
+	/*
+	 * Validator pattern interpreter
+	 */
+
+	private abstract static class Node {
+		abstract void generate(MessageGenerator g, StringBuilder sb);
+	}
+
+	private static final class Literal extends Node {
+		private final String text;
+
+		Literal(final String text) {
+			this.text = text;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final StringBuilder sb) {
+			// values do not start with a line break nor contain empty lines
+			if (!EOL.equals(text) || (sb.length() > g.start && !endsWith(sb, EOL))) {
+				sb.append(text);
+			}
+		}
+	}
+
+	/**
+	 * Characters from a SWIFT charset, with fixed or maximum length
+	 */
+	private static final class Chars extends Node {
+		private final char charset;
+		private final int length;
+		private final boolean fixed;
+
+		Chars(final char charset, final int length, final boolean fixed) {
+			this.charset = charset;
+			this.length = length;
+			this.fixed = fixed;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final StringBuilder sb) {
+			if (charset == 'x' || charset == 'z') {
+				g.text(sb, length, fixed);
+			} else if (charset == 'd') {
+				sb.append(amount(g.cents(length - 3)));
+			} else {
+				g.chars(sb, charset, fixed ? length : 1 + g.nextInt(length));
+			}
+		}
+	}
+
+	/**
+	 * Named subfield such as a date, currency or amount
+	 */
+	private static final class Special extends Node {
+		private final String name;
+		private final int length;
+
+		Special(final String name, final int length) {
+			this.name = name;
+			this.length = length;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final StringBuilder sb) {
+			g.special(sb, name, length);
+		}
+	}
+
+	/**
+	 * Optional or repetitive group
+	 */
+	private static final class Group extends Node {
+		private final Node[] children;
+		private final int min;
+		private final int max;
+
+		Group(final Node[] children, final int min, final int max) {
+			this.children = children;
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		void generate(final MessageGenerator g, final StringBuilder sb) {
+			final int count = min + g.nextInt(max - min + 1);
+			for (int i = 0; i < count; i++) {
+				for (final Node child : children) {
+					child.generate(g, sb);
+				}
+			}
+		}
+	}
+
+	private static final class PatternCompiler {
+		private final String pattern;
+		private int pos = 0;
+
+		PatternCompiler(final String pattern) {
+			this.pattern = pattern;
+		}
+
+		Node compile() {
+			final Node[] nodes = sequence(']');
+			if (pos < pattern.length() || nodes.length == 0) {
+				throw new IllegalArgumentException(pattern);
+			}
+			return new Group(nodes, 1, 1);
+		}
+
+		private Node[] sequence(final char end) {
+			final List<Node> nodes = new ArrayList<>();
+			while (pos < pattern.length() && pattern.charAt(pos) != end) {
+				final char c = pattern.charAt(pos);
+				if (c == '[') {
+					pos++;
+					final Node[] children = sequence(']');
+					if (pos >= pattern.length()) {
+						throw new IllegalArgumentException(pattern);
+					}
+					pos++;
+					int min = 0;
+					int max = 1;
+					final Matcher repetition = REPETITION.matcher(pattern).region(pos, pattern.length());
+					if (repetition.lookingAt()) {
+						min = Integer.parseInt(repetition.group(1));
+						max = Integer.parseInt(repetition.group(2));
+						pos = repetition.end();
+					}
+					nodes.add(new Group(children, min, max));
+				} else if (c == '<') {
+					final int close = pattern.indexOf('>', pos);
+					if (close < 0) {
+						throw new IllegalArgumentException(pattern);
+					}
+					final String name = pattern.substring(pos + 1, close);
+					pos = close + 1;
+					if (name.matches("\\d+!?[a-z]")) {
+						nodes.add(new PatternCompiler(name).compile());
+					} else if (SPECIALS.contains(name)) {
+						nodes.add(new Special(name, "AMOUNT".equals(name) ? number() : 0));
+					} else {
+						throw new IllegalArgumentException(pattern);
+					}
+				} else if (Character.isDigit(c)) {
+					final int length = number();
+					boolean fixed = false;
+					if (pos < pattern.length() && pattern.charAt(pos) == '!') {
+						fixed = true;
+						pos++;
+					}
+					if (pos >= pattern.length() || "nacxzdhye".indexOf(pattern.charAt(pos)) < 0) {
+						throw new IllegalArgumentException(pattern);
+					}
+					nodes.add(new Chars(pattern.charAt(pos++), Math.min(length, MAX_TEXT), fixed));
+				} else if (c == '$') {
+					nodes.add(new Literal(EOL));
+					pos++;
+				} else if (":/ ,.-+?'".indexOf(c) >= 0) {
+					nodes.add(new Literal(String.valueOf(c)));
+					pos++;
+				} else {
+					throw new IllegalArgumentException(pattern);
+				}
+			}
+			return nodes.toArray(new Node[nodes.size()]);
+		}
+
+		private int number() {
+			final int start = pos;
+			while (pos < pattern.length() && Character.isDigit(pattern.charAt(pos))) {
+				pos++;
+			}
+			if (start == pos) {
+				throw new IllegalArgumentException(pattern);
+			}
+			return Integer.parseInt(pattern.substring(start, pos));
+		}
+	}
+
+	/*
+	 * Value generation
+	 */
+
+	private void special(final StringBuilder sb, final String name, final int length) {
+		switch (name) {
+		case "AMOUNT":
+			sb.append(amount(cents(length - 3)));
+			break;
+		case "DC":
+			sb.append(nextInt(2) == 0 ? 'C' : 'D');
+			break;
+		case "DM":
+			sb.append(nextInt(2) == 0 ? 'D' : 'M');
+			break;
+		case "N":
+			if (nextInt(10) == 0) {
+				sb.append('N');
+			}
+			break;
+		case "SIGN":
+			sb.append(nextInt(2) == 0 ? '+' : '-');
+			break;
+		case "OFFSET":
+		case "TIME3":
+			pad(sb, nextInt(13), 2);
+			sb.append(nextInt(2) == 0 ? "00" : "30");
+			break;
+		case "CUR":
+			sb.append(pick(CURRENCIES));
+			break;
+		case "CC":
+			sb.append(pick(COUNTRIES));
+			break;
+		case "BIC":
+			sb.append(bic());
+			if (nextInt(2) == 0) {
+				sb.append("XXX");
+			}
+			break;
+		case "LT":
+			sb.append(bic()).append("AXXX");
+			break;
+		case "DATE1":
+			pad(sb, 1 + nextInt(12), 2);
+			pad(sb, 1 + nextInt(28), 2);
+			break;
+		case "DATE2":
+			sb.append(date2());
+			break;
+		case "DATE4":
+			sb.append("20").append(date2());
+			break;
+		case "YEAR":
+			sb.append("2018");
+			break;
+		case "HH":
+			pad(sb, nextInt(24), 2);
+			break;
+		case "HHMM":
+			pad(sb, nextInt(24), 2);
+			pad(sb, nextInt(60), 2);
+			break;
+		case "TIME2":
+			pad(sb, nextInt(24), 2);
+			pad(sb, nextInt(60), 2);
+			pad(sb, nextInt(60), 2);
+			break;
+		case "DDHHMM":
+			pad(sb, 1 + nextInt(28), 2);
+			pad(sb, nextInt(24), 2);
+			pad(sb, nextInt(60), 2);
+			break;
+		case "YYMMDDHHMM":
+			sb.append(date2());
+			pad(sb, nextInt(24), 2);
+			pad(sb, nextInt(60), 2);
+			break;
+		case "MT":
+			sb.append(pick(MT_TYPES));
+			break;
+		case "MIR":
+		case "MOR":
+			sb.append(date2()).append(bic()).append("AXXX");
+			pad(sb, nextInt(10000), 4);
+			pad(sb, nextInt(1000000), 6);
+			break;
+		case "BOOL":
+			sb.append(nextInt(2) == 0 ? 'Y' : 'N');
+			break;
+		case "ISIN":
+			sb.append("ISIN");
+			break;
+		case "TYPE":
+			sb.append(pick(TRANSACTION_TYPES));
+			break;
+		default:
+			throw new IllegalStateException("unexpected subfield " + name);
+		}
+	}
+
+	private void chars(final StringBuilder sb, final char charset, final int length) {
+		for (int i = 0; i < length; i++) {
+			switch (charset) {
+			case 'n':
+				sb.append((char) ('0' + nextInt(10)));
+				break;
+			case 'a':
+				sb.append((char) ('A' + nextInt(26)));
+				break;
+			case 'h':
+				sb.append("0123456789ABCDEF".charAt(nextInt(16)));
+				break;
+			case 'e':
+				sb.append(' ');
+				break;
+			default:
+				// c, y and fixed length x, starting with a letter
+				final int n = nextInt(i == 0 ? 26 : 36);
+				sb.append(n < 26 ? (char) ('A' + n) : (char) ('0' + n - 26));
+			}
+		}
+	}
+
+	/**
+	 * Appends free text: words for long components and alphanumeric codes otherwise
+	 */
+	private void text(final StringBuilder sb, final int length, final boolean fixed) {
+		if (fixed || length <= 16) {
+			sb.append((char) ('A' + nextInt(26)));
+			chars(sb, 'c', fixed ? length - 1 : nextInt(length));
+			return;
+		}
+		final int target = 4 + nextInt(length - 3);
+		final int start = sb.length();
+		sb.append(pick(WORDS));
+		while (sb.length() - start < target) {
+			sb.append(' ').append(pick(WORDS));
+		}
+		if (sb.length() - start > length) {
+			sb.setLength(start + length);
+		}
+		while (sb.charAt(sb.length() - 1) == ' ') {
+			sb.setLength(sb.length() - 1);
+		}
+	}
+
+	/**
+	 * @return a field 28E value, page number and continuation indicator
+	 */
+	private String continuation() {
+		final String indicator = pick(CONTINUATIONS);
+		final int page = "ONLY".equals(indicator) ? 1 : "MORE".equals(indicator) ? 1 + nextInt(9) : 2 + nextInt(8);
+		return page + "/" + indicator;
+	}
+
+	private String bic() {
+		return bics[nextInt(bics.length)];
+	}
+
+	private String reference() {
+		final StringBuilder sb = new StringBuilder(16);
+		sb.append("REF");
+		pad(sb, ++sequence, 8);
+		chars(sb, 'a', 2);
+		return sb.toString();
+	}
+
+	private String name() {
+		return pick(WORDS) + " " + pick(WORDS) + " " + pick(WORDS);
+	}
+
+	private String address() {
+		return (1 + nextInt(300)) + " " + pick(STREETS) + EOL + pick(CITIES);
+	}
+
+	private String digits(final int length) {
+		final StringBuilder sb = new StringBuilder(length);
+		chars(sb, 'n', length);
+		return sb.toString();
+	}
+
+	/**
+	 * @return an IBAN with a numeric BBAN and valid check digits
+	 */
+	private String iban() {
+		final int i = nextInt(IBAN_COUNTRIES.length);
+		final String country = IBAN_COUNTRIES[i];
+		final String bban = digits(IBAN_LENGTHS[i]);
+		final String numeric = bban + (country.charAt(0) - 'A' + 10) + (country.charAt(1) - 'A' + 10) + "00";
+		int mod = 0;
+		for (int j = 0; j < numeric.length(); j++) {
+			mod = (mod * 10 + numeric.charAt(j) - '0') % 97;
+		}
+		final StringBuilder sb = new StringBuilder(country);
+		pad(sb, 98 - mod, 2);
+		return sb.append(bban).toString();
+	}
+
+	/**
+	 * @return a random version 4 UUID, in the UETR format
+	 */
+	private String uetr() {
+		final long msb = (next() & ~0xF000L) | 0x4000L;
+		final long lsb = (next() & 0x3FFFFFFFFFFFFFFFL) | Long.MIN_VALUE;
+		return new UUID(msb, lsb).toString();
+	}
+
+	private String date2() {
+		final StringBuilder sb = new StringBuilder(6);
+		sb.append("18");
+		pad(sb, 1 + nextInt(12), 2);
+		pad(sb, 1 + nextInt(28), 2);
+		return sb.toString();
+	}
+
+	private String isoDate() {
+		final String date = date2();
+		return "20" + date.substring(0, 2) + "-" + date.substring(2, 4) + "-" + date.substring(4);
+	}
+
+	private String dateTime() {
+		final StringBuilder sb = new StringBuilder(isoDate()).append('T');
+		pad(sb, nextInt(24), 2);
+		sb.append(':');
+		pad(sb, nextInt(60), 2);
+		return sb.append(":00").toString();
+	}
+
+	/**
+	 * @param cents amount in hundredths
+	 * @return the amount in SWIFT format, with comma as decimal separator and two decimals
+	 */
+	private static String amount(final long cents) {
+		final StringBuilder sb = new StringBuilder(20).append(cents / 100).append(',');
+		pad(sb, cents % 100, 2);
+		return sb.toString();
+	}
+
+	/**
+	 * @param digits maximum number of digits of the integer part
+	 * @return a random amount in hundredths, with a uniformly distributed number of digits
+	 */
+	private long cents(final int digits) {
+		final long magnitude = pow10(nextInt(Math.max(Math.min(digits, 9), 1)));
+		return (magnitude + nextLong(magnitude * 9)) * 100 + nextInt(100);
+	}
+
+	private static void pad(final StringBuilder sb, final long value, final int length) {
+		final String s = Long.toString(value);
+		for (int i = s.length(); i < length; i++) {
+			sb.append('0');
+		}
+		sb.append(s);
+	}
+
+	private static long pow10(final int exponent) {
+		long result = 1;
+		for (int i = 0; i < exponent; i++) {
+			result *= 10;
+		}
+		return result;
+	}
+
+	private String pick(final String[] values) {
+		return values[nextInt(values.length)];
+	}
+
+	/*
+	 * SplitMix64 pseudo random sequence
+	 */
+
+	private long next() {
+		long z = (state += 0x9E3779B97F4A7C15L);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private int nextInt(final int bound) {
+		return (int) ((next() >>> 1) % bound);
+	}
+
+	private long nextLong(final long bound) {
+		return (next() >>> 1) % bound;
+	}
+}
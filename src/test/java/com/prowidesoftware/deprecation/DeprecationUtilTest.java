@@ -15,8 +15,12 @@
  */
 package com.prowidesoftware.deprecation;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.EnumSet;
+import java.util.Map;
+
 import org.junit.Test;
 
 import com.prowidesoftware.deprecation.DeprecationUtils.EnvironmentVariableKey;
@@ -30,15 +34,71 @@ import com.prowidesoftware.deprecation.DeprecationUtils.EnvironmentVariableKey;
 public class DeprecationUtilTest {
 
 	/**
-	 * Default behavior
+	 * Default behavior, no delay
 	 */
 	@Test
 	public void testPhase2_default() {
 		long t0 = System.currentTimeMillis();
 		DeprecationUtils.phase2(this.getClass(), "method", "phase 2 message");
 		long t1 = System.currentTimeMillis();
-		long diff = t1-t0;
-		assertTrue(diff >= 4000);
+		assertTrue((t1-t0) < 4000);
+	}
+
+	/**
+	 * Delay switched on
+	 */
+	@Test
+	public void testPhase2_delay() {
+		DeprecationUtils.setEnv(EnvironmentVariableKey.DELAY);
+		try {
+			long t0 = System.currentTimeMillis();
+			DeprecationUtils.phase2(this.getClass(), "method", "phase 2 message");
+			long t1 = System.currentTimeMillis();
+			assertTrue((t1-t0) >= 4000);
+		} finally {
+			DeprecationUtils.clearEnv();
+		}
+	}
+
+	/**
+	 * Keywords accepted with any separator, matched whole
+	 */
+	@Test
+	public void testParseEnv() {
+		assertEquals(EnumSet.of(EnvironmentVariableKey.NOLOG, EnvironmentVariableKey.NODELAY), DeprecationUtils.parseEnv("nolog;nodelay"));
+		assertEquals(EnumSet.of(EnvironmentVariableKey.NOEXCEPTION, EnvironmentVariableKey.DELAY), DeprecationUtils.parseEnv(" NoException, delay|"));
+		assertTrue(DeprecationUtils.parseEnv("").isEmpty());
+		assertTrue(DeprecationUtils.parseEnv(null).isEmpty());
+	}
+
+	/**
+	 * Calls counted by call site
+	 */
+	@Test
+	public void testUsageReport() {
+		DeprecationUtils.resetUsageReport();
+		for (int i = 0; i < 1000; i++) {
+			DeprecationUtils.phase2(this.getClass(), "foo", "phase 2 message");
+		}
+		DeprecationUtils.phase2(this.getClass(), null, "phase 2 message");
+		try {
+			DeprecationUtils.phase3(this.getClass(), "bar", "phase 3 message");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		// classes sharing a simple name are reported separately
+		DeprecationUtils.phase2(java.util.Date.class, "foo", "phase 2 message");
+		DeprecationUtils.phase2(java.sql.Date.class, "foo", "phase 2 message");
+		DeprecationUtils.phase2(java.sql.Date.class, "foo", "phase 2 message");
+		Map<String, Long> report = DeprecationUtils.getUsageReport();
+		assertEquals(5, report.size());
+		assertEquals(Long.valueOf(1000), report.get("com.prowidesoftware.deprecation.DeprecationUtilTest#foo"));
+		assertEquals(Long.valueOf(1), report.get("com.prowidesoftware.deprecation.DeprecationUtilTest"));
+		assertEquals(Long.valueOf(1), report.get("com.prowidesoftware.deprecation.DeprecationUtilTest#bar"));
+		assertEquals(Long.valueOf(1), report.get("java.util.Date#foo"));
+		assertEquals(Long.valueOf(2), report.get("java.sql.Date#foo"));
+		DeprecationUtils.resetUsageReport();
+		assertTrue(DeprecationUtils.getUsageReport().isEmpty());
 	}
 	
 	/**
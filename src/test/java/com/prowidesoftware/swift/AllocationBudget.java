@@ -0,0 +1,107 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap allocated by an operation in the current thread, to assert allocation budgets in tests.
+ *
+ * <p>The operation is first run a number of times to let the JIT compile it, and then measured over a number of
+ * iterations using the allocated bytes counter of the HotSpot thread MXBean. The result is the average number of
+ * bytes allocated per invocation.
+ *
+ * <p>The counter is not available in every JVM; tests should check {@link #isSupported()} and be skipped otherwise.
+ *
+ * @since 7.10.4
+ */
+public final class AllocationBudget {
+
+	/**
+	 * Default number of invocations before measuring
+	 */
+	public static final int WARMUP = 5000;
+
+	/**
+	 * Default number of measured invocations
+	 */
+	public static final int ITERATIONS = 2000;
+
+	/**
+	 * An operation to measure
+	 */
+	public interface Operation {
+		void run() throws Exception;
+	}
+
+	// Suppress default constructor for noninstantiability
+	private AllocationBudget() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * @return true if the JVM can report the bytes allocated by a thread
+	 */
+	public static boolean isSupported() {
+		try {
+			final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				final com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+				if (hotspot.isThreadAllocatedMemorySupported()) {
+					hotspot.setThreadAllocatedMemoryEnabled(true);
+					return hotspot.isThreadAllocatedMemoryEnabled();
+				}
+			}
+		} catch (final LinkageError | UnsupportedOperationException | SecurityException e) {
+			// not a HotSpot compatible JVM
+		}
+		return false;
+	}
+
+	/**
+	 * Measures the operation with the default warmup and iterations
+	 * @see #measure(Operation, int, int)
+	 */
+	public static long measure(final Operation operation) throws Exception {
+		return measure(operation, WARMUP, ITERATIONS);
+	}
+
+	/**
+	 * Measures the average number of bytes allocated by the operation.
+	 * @param operation the operation to measure
+	 * @param warmup number of invocations before measuring
+	 * @param iterations number of measured invocations
+	 * @return average bytes allocated per invocation
+	 * @throws Exception if the operation fails
+	 * @throws IllegalStateException if the allocation counter is not supported
+	 */
+	public static long measure(final Operation operation, final int warmup, final int iterations) throws Exception {
+		if (!isSupported()) {
+			throw new IllegalStateException("thread allocated memory is not supported in this JVM");
+		}
+		final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long thread = Thread.currentThread().getId();
+		for (int i = 0; i < warmup; i++) {
+			operation.run();
+		}
+		final long start = bean.getThreadAllocatedBytes(thread);
+		for (int i = 0; i < iterations; i++) {
+			operation.run();
+		}
+		final long end = bean.getThreadAllocatedBytes(thread);
+		return (end - start) / iterations;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.io.writer.FINWriterVisitor;
+import com.prowidesoftware.swift.model.IBAN;
+import com.prowidesoftware.swift.model.IbanValidationResult;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.field.Field32A;
+
+/**
+ * Allocation budgets for the core hot paths.
+ *
+ * <p>Each test asserts the average number of bytes allocated per operation, measured with {@link AllocationBudget}.
+ * Budgets are set with some margin over the measured values; when a change legitimately increases the allocation
+ * of an operation, its budget must be reviewed and updated here.
+ *
+ * @since 7.10.4
+ */
+public class AllocationBudgetTest {
+
+	private static final String MT103 = "{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{3:{108:MUR1}{121:eb6305c9-1f7f-49de-aed0-16487c27b42d}}{4:\r\n"
+			+ ":20:REF1\r\n"
+			+ ":23B:CRED\r\n"
+			+ ":32A:180417EUR1234567,89\r\n"
+			+ ":33B:EUR1234567,89\r\n"
+			+ ":50K:/DE89370400440532013000\r\nORDERING CUSTOMER NAME\r\nSTREET 123\r\nCITY\r\n"
+			+ ":52A:FOOSEDR0\r\n"
+			+ ":57A:BARXXXXX\r\n"
+			+ ":59:/FR1420041010050500013M02606\r\nBENEFICIARY NAME\r\nAVENUE 456\r\nPARIS\r\n"
+			+ ":70:INVOICE 1\r\nPAYMENT OF GOODS\r\n"
+			+ ":71A:SHA\r\n"
+			+ "-}";
+
+	/*
+	 * Budgets in bytes per operation, measured values with a 64-bit HotSpot JVM are noted in the comments
+	 */
+	private static final long PARSE_MT103 = 16 * 1024;		// 13.3 KB
+	private static final long WRITE_MT103 = 3 * 1024;		// 2 KB including the output buffer
+	private static final long GET_TAG_BY_NAME = 128;		// 48 B
+	private static final long PARSE_FIELD32A = 1024;		// 745 B
+	private static final long GET_VALUE_FIELD32A = 1024;	// 560 B
+	private static final long VALIDATE_IBAN = 1536;			// 1.1 KB
+
+	@BeforeClass
+	public static void checkSupported() {
+		Assume.assumeTrue("thread allocated memory is not supported", AllocationBudget.isSupported());
+	}
+
+	@Test
+	public void testParseMT103() throws Exception {
+		assertEquals("REF1", new SwiftParser(MT103).message().getBlock4().getTagValue("20"));
+		assertBudget("SwiftParser.message", PARSE_MT103, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				new SwiftParser(MT103).message();
+			}
+		}));
+	}
+
+	@Test
+	public void testWriteMT103() throws Exception {
+		final SwiftMessage msg = new SwiftParser(MT103).message();
+		final StringWriter writer = new StringWriter(MT103.length());
+		msg.visit(new FINWriterVisitor(writer));
+		assertEquals(MT103, writer.toString());
+		assertBudget("FINWriterVisitor", WRITE_MT103, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				msg.visit(new FINWriterVisitor(new StringWriter(MT103.length())));
+			}
+		}));
+	}
+
+	@Test
+	public void testGetTagByName() throws Exception {
+		final SwiftBlock4 b4 = new SwiftParser(MT103).message().getBlock4();
+		assertNotNull(b4.getTagByName("71A"));
+		assertBudget("SwiftTagListBlock.getTagByName", GET_TAG_BY_NAME, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				b4.getTagByName("71A");
+			}
+		}));
+	}
+
+	@Test
+	public void testParseField32A() throws Exception {
+		assertEquals("EUR", new Field32A("180417EUR1234567,89").getCurrency());
+		assertBudget("Field32A parse", PARSE_FIELD32A, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				new Field32A("180417EUR1234567,89");
+			}
+		}));
+	}
+
+	@Test
+	public void testGetValueField32A() throws Exception {
+		final Field32A f = new Field32A("180417EUR1234567,89");
+		assertEquals("180417EUR1234567,89", f.getValue());
+		assertBudget("Field32A.getValue", GET_VALUE_FIELD32A, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				f.getValue();
+			}
+		}));
+	}
+
+	@Test
+	public void testValidateIBAN() throws Exception {
+		assertEquals(IbanValidationResult.OK, new IBAN("DE89370400440532013000").validate());
+		assertBudget("IBAN.validate", VALIDATE_IBAN, AllocationBudget.measure(new AllocationBudget.Operation() {
+			@Override
+			public void run() throws Exception {
+				new IBAN("DE89370400440532013000").validate();
+			}
+		}));
+	}
+
+	private static void assertBudget(final String operation, final long budget, final long allocated) {
+		assertTrue(operation + " allocated " + allocated + " bytes per operation, budget is " + budget, allocated <= budget);
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.model.MxId;
+import com.prowidesoftware.swift.model.mx.AbstractMX;
+import com.prowidesoftware.swift.model.mx.MxRead;
+
+/**
+ * Test cases for {@link Resolver}
+ *
+ * @since 7.10.4
+ */
+public class ResolverTest {
+
+	@Test
+	public void testCached() {
+		assertTrue(Resolver.mxRead() instanceof MxReadCoreV1);
+		assertTrue(Resolver.mxWrite() instanceof MxWriteCoreV1);
+		assertSame(Resolver.mxRead(), Resolver.mxRead());
+		assertSame(Resolver.mxWrite(), Resolver.mxWrite());
+	}
+
+	@Test
+	public void testRegister() {
+		final MxRead custom = new MxRead() {
+			@Override
+			public AbstractMX read(final Class<? extends AbstractMX> targetClass, final String xml, final Class<? extends Object>[] classes) {
+				return null;
+			}
+
+			@Override
+			public AbstractMX read(final String xml, final MxId id) {
+				return null;
+			}
+		};
+		try {
+			Resolver.register(custom);
+			assertSame(custom, Resolver.mxRead());
+		} finally {
+			Resolver.register((MxRead) null);
+		}
+		assertTrue(Resolver.mxRead() instanceof MxReadCoreV1);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+
+/**
+ * Test cases for {@link FINArchiveWriter} and {@link FINArchiveReader}
+ *
+ * @since 7.10.4
+ */
+public class FINArchiveWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRandomAccess() throws IOException {
+		final List<String> messages = messages(2500);
+		final File file = folder.newFile();
+		final FINArchiveWriter writer = new FINArchiveWriter(file);
+		for (final String msg : messages) {
+			writer.write(msg);
+		}
+		writer.close();
+		assertEquals(2500, writer.getCount());
+
+		long raw = 0;
+		for (final String msg : messages) {
+			raw += msg.getBytes(StandardCharsets.UTF_8).length;
+		}
+		assertTrue(file.length() + " vs " + raw, file.length() < raw / 5);
+
+		try (FINArchiveReader reader = new FINArchiveReader(file)) {
+			assertEquals(2500, reader.size());
+			for (final int i : new int[] {1500, 0, 999, 1000, 2499, 1501}) {
+				assertEquals(messages.get(i), reader.get(i));
+			}
+			int i = 0;
+			for (final String msg : reader) {
+				assertEquals(messages.get(i++), msg);
+			}
+			assertEquals(2500, i);
+		}
+	}
+
+	@Test
+	public void testStream() throws IOException {
+		final List<String> messages = messages(25);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (FINArchiveWriter writer = new FINArchiveWriter(out, 10)) {
+			for (final String msg : messages) {
+				writer.write(SwiftMessage.parse(msg));
+			}
+		}
+		final FINArchiveReader reader = new FINArchiveReader(new ByteArrayInputStream(out.toByteArray()));
+		for (final String msg : messages) {
+			assertTrue(reader.hasNext());
+			assertEquals(SwiftMessage.parse(msg).getBlock4().getTagValue("20"), reader.nextSwiftMessage().getBlock4().getTagValue("20"));
+		}
+		assertFalse(reader.hasNext());
+		reader.close();
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		final File file = folder.newFile();
+		new FINArchiveWriter(file).close();
+		try (FINArchiveReader reader = new FINArchiveReader(file)) {
+			assertEquals(0, reader.size());
+			assertFalse(reader.hasNext());
+		}
+	}
+
+	@Test
+	public void testDictionary() {
+		final List<byte[]> messages = new ArrayList<>();
+		for (final String msg : messages(6)) {
+			messages.add(msg.getBytes(StandardCharsets.UTF_8));
+		}
+		final String dictionary = new String(FINArchiveWriter.dictionary(messages), StandardCharsets.ISO_8859_1);
+		assertTrue(dictionary, dictionary.contains("\n:32A:"));
+		assertTrue(dictionary, dictionary.contains("EUR"));
+		assertTrue(dictionary, dictionary.contains("{1:F01FOOSEDR0AXXX"));
+		assertTrue(dictionary, dictionary.contains("{2:I103BARXXXXXAXXXN}"));
+		assertFalse(dictionary, dictionary.contains("REF0"));
+	}
+
+	private static List<String> messages(final int count) {
+		final List<String> result = new ArrayList<>();
+		final List<String> currencies = Arrays.asList("EUR", "USD", "GBP");
+		for (int i = 0; i < count; i++) {
+			result.add("{1:F01FOOSEDR0AXXX" + String.format("%010d", i) + "}{2:I103BARXXXXXAXXXN}{3:{108:MUR" + i + "}}{4:\r\n"
+					+ ":20:REF" + i + "\r\n"
+					+ ":23B:CRED\r\n"
+					+ ":32A:180101" + currencies.get(i % 3) + i + ",50\r\n"
+					+ ":50K:/" + (1000000 + i) + "\r\nORDERING CUSTOMER " + (i % 7) + "\r\n"
+					+ ":59:/" + (2000000 + i) + "\r\nBENEFICIARY " + (i % 11) + "\r\n"
+					+ ":71A:SHA\r\n"
+					+ "-}");
+		}
+		return result;
+	}
+}
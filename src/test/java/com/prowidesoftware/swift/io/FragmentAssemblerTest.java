@@ -0,0 +1,251 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.Tag;
+
+/**
+ * Test cases for {@link FragmentAssembler}
+ *
+ * @since 7.10.4
+ */
+public class FragmentAssemblerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testInterleavedOutOfOrder() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assertNull(assembler.add(fragment("REF1", 2, 3)));
+		assertNull(assembler.add(fragment("REF2", 2, 2)));
+		assertNull(assembler.add(fragment("REF1", 3, 3)));
+		assertEquals(2, assembler.getPendingGroups());
+
+		final SwiftMessage ref2 = assembler.add(fragment("REF2", 1, 2));
+		assertNotNull(ref2);
+		assertEquals(":20:REF2\n:61:line 1 of REF2\n:20:REF2\n:61:line 2 of REF2\n", text(ref2));
+
+		final SwiftMessage ref1 = assembler.add(fragment("REF1", 1, 3));
+		assertNotNull(ref1);
+		assertEquals("BARXXXXXAXXX", ref1.getSender());
+		assertEquals("940", ref1.getType());
+		assertEquals(6, ref1.getBlock4().size());
+		assertEquals("line 3 of REF1", ref1.getBlock4().getTagValues("61")[2]);
+		assertEquals(0, assembler.getPendingGroups());
+		assertEquals(0, assembler.getFragmentsInMemory());
+	}
+
+	@Test
+	public void testNotFragmentAndDuplicate() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:O9401200010103BARXXXXXAXXX00000000000101031200N}{4:\n:20:REF\n-}");
+		assertSame(msg, assembler.add(msg));
+
+		assertNull(assembler.add(fragment("REF", 1, 2)));
+		assertNull(assembler.add(fragment("REF", 1, 2)));
+		assertEquals(1, assembler.getFragmentsInMemory());
+		assertNotNull(assembler.add(fragment("REF", 2, 2)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNumber() throws IOException {
+		new FragmentAssembler().add(fragment("REF", 3, 2));
+	}
+
+	@Test
+	public void testStore() throws IOException {
+		final File dir = folder.newFolder();
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assembler.setMaxFragmentsInMemory(2);
+		assembler.setStore(new FileFragmentStore(dir));
+		for (int i = 1; i < 5; i++) {
+			assertNull(assembler.add(fragment("REF", i, 5)));
+		}
+		assertEquals(2, assembler.getFragmentsInMemory());
+		assertEquals(2, dir.list().length);
+
+		final SwiftMessage msg = assembler.add(fragment("REF", 5, 5));
+		assertEquals(10, msg.getBlock4().size());
+		assertEquals("line 4 of REF", msg.getBlock4().getTagValues("61")[3]);
+		assertEquals(0, assembler.getFragmentsInMemory());
+		assertEquals(0, dir.list().length);
+	}
+
+	/**
+	 * Assemblers sharing a store directory, such as a restarted instance, use different group ids
+	 */
+	@Test
+	public void testSharedStore() throws IOException {
+		final File dir = folder.newFolder();
+		final FragmentAssembler first = new FragmentAssembler();
+		final FragmentAssembler second = new FragmentAssembler();
+		for (final FragmentAssembler assembler : new FragmentAssembler[] {first, second}) {
+			assembler.setMaxFragmentsInMemory(0);
+			assembler.setStore(new FileFragmentStore(dir));
+		}
+		assertNull(first.add(fragment("REF1", 1, 2)));
+		assertNull(second.add(fragment("REF2", 1, 2)));
+		assertEquals(2, dir.list().length);
+
+		assertEquals("line 1 of REF1", first.add(fragment("REF1", 2, 2)).getBlock4().getTagValues("61")[0]);
+		assertEquals("line 1 of REF2", second.add(fragment("REF2", 2, 2)).getBlock4().getTagValues("61")[0]);
+		assertEquals(0, dir.list().length);
+	}
+
+	@Test
+	public void testDiscardOldest() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assembler.setMaxFragmentsInMemory(2);
+		assertNull(assembler.add(fragment("REF1", 1, 3)));
+		assertNull(assembler.add(fragment("REF1", 2, 3)));
+		assertNull(assembler.add(fragment("REF2", 1, 2)));
+		assertEquals(1, assembler.getPendingGroups());
+		assertEquals(1, assembler.getFragmentsInMemory());
+		assertNotNull(assembler.add(fragment("REF2", 2, 2)));
+	}
+
+	/**
+	 * The memory limit is not exceeded when no other group can be discarded
+	 */
+	@Test
+	public void testDiscardCurrent() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assembler.setMaxFragmentsInMemory(2);
+		assertNull(assembler.add(fragment("REF1", 1, 4)));
+		assertNull(assembler.add(fragment("REF1", 2, 4)));
+		assertNull(assembler.add(fragment("REF1", 3, 4)));
+		assertEquals(0, assembler.getPendingGroups());
+		assertEquals(0, assembler.getFragmentsInMemory());
+	}
+
+	/**
+	 * Groups with all their fragments in the store are kept, since discarding them does not release memory
+	 */
+	@Test
+	public void testDiscardWithStoredGroups() throws IOException {
+		final File dir = folder.newFolder();
+		final FileFragmentStore store = new FileFragmentStore(dir);
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assembler.setMaxFragmentsInMemory(0);
+		assembler.setStore(store);
+		assertNull(assembler.add(fragment("REF1", 1, 3)));
+		assertNull(assembler.add(fragment("REF1", 2, 3)));
+
+		assembler.setStore(null);
+		assertNull(assembler.add(fragment("REF2", 1, 2)));
+		assertEquals(1, assembler.getPendingGroups());
+		assertEquals(0, assembler.getFragmentsInMemory());
+
+		final SwiftMessage msg = assembler.add(fragment("REF1", 3, 3));
+		assertEquals("line 2 of REF1", msg.getBlock4().getTagValues("61")[1]);
+		assertEquals(0, dir.list().length);
+	}
+
+	/**
+	 * The announced number of fragments is bounded
+	 */
+	@Test
+	public void testMaxFragmentCount() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		try {
+			assembler.add(fragment("REF", 1, 999999999));
+			fail("count above the default maximum");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		assembler.setMaxFragmentCount(3);
+		assertNull(assembler.add(fragment("REF", 1, 3)));
+		try {
+			assembler.add(fragment("REF", 1, 4));
+			fail("count above the configured maximum");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		assertEquals(1, assembler.getFragmentsInMemory());
+	}
+
+	@Test
+	public void testExpire() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assertTrue(assembler.expire(Long.MAX_VALUE).isEmpty());
+		assembler.setTimeout(1000);
+		assembler.add(fragment("REF1", 2, 2), 0);
+		assembler.add(fragment("REF2", 1, 2), 500);
+
+		final Map<String, List<SwiftMessage>> expired = assembler.expire(1200);
+		assertEquals(1, expired.size());
+		final List<SwiftMessage> fragments = expired.get("BARXXXXXAXXX/REF1");
+		assertNull(fragments.get(0));
+		assertEquals("line 2 of REF1", fragments.get(1).getBlock4().getTagValue("61"));
+		assertEquals(1, assembler.getPendingGroups());
+		assertEquals(1, assembler.getFragmentsInMemory());
+	}
+
+	/**
+	 * Groups are expired regardless of the order of the reception times
+	 */
+	@Test
+	public void testExpireOutOfOrder() throws IOException {
+		final FragmentAssembler assembler = new FragmentAssembler();
+		assembler.setTimeout(1000);
+		assembler.add(fragment("REF1", 1, 2), 5000);
+		assembler.add(fragment("REF2", 1, 2), 100);
+		assembler.add(fragment("REF3", 1, 2), 4000);
+
+		final Map<String, List<SwiftMessage>> expired = assembler.expire(5200);
+		assertEquals(2, expired.size());
+		assertTrue(expired.containsKey("BARXXXXXAXXX/REF2"));
+		assertTrue(expired.containsKey("BARXXXXXAXXX/REF3"));
+		assertEquals(1, assembler.getPendingGroups());
+		assertEquals(1, assembler.getFragmentsInMemory());
+	}
+
+	private static SwiftMessage fragment(final String reference, final int number, final int count) throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:O9401200010103BARXXXXXAXXX00000000000101031200N}{4:\n"
+				+ ":20:" + reference + "\n"
+				+ ":61:line " + number + " of " + reference + "\n"
+				+ "-}");
+		msg.getBlock4().addTag(0, new Tag("202", String.format("%04d", number)));
+		msg.getBlock4().addTag(1, new Tag("203", String.format("%04d", count)));
+		return msg;
+	}
+
+	private static String text(final SwiftMessage msg) {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < msg.getBlock4().size(); i++) {
+			sb.append(':').append(msg.getBlock4().getTag(i).getName()).append(':').append(msg.getBlock4().getTag(i).getValue()).append('\n');
+		}
+		return sb.toString();
+	}
+}
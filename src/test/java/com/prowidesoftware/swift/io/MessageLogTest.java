@@ -0,0 +1,169 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.prowidesoftware.swift.model.MtSwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.field.Field108;
+import com.prowidesoftware.swift.model.field.Field20;
+import com.prowidesoftware.swift.model.field.Field23B;
+import com.prowidesoftware.swift.model.field.Field32A;
+import com.prowidesoftware.swift.model.field.Field71A;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+
+/**
+ * Test cases for {@link MessageLog}
+ *
+ * @since 7.10.4
+ */
+public class MessageLogTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFind() throws IOException {
+		final File dir = folder.newFolder();
+		try (MessageLog log = new MessageLog(dir, 64 * 1024)) {
+			for (int i = 0; i < 3000; i++) {
+				log.append(message(i));
+			}
+			assertEquals(3000, log.size());
+			assertTrue(dir.list().length > 1);
+
+			final List<String> found = log.find(MessageLog.Key.REFERENCE, "REF1234");
+			assertEquals(1, found.size());
+			assertEquals("REF1234", SwiftMessage.parse(found.get(0)).getBlock4().getTagValue("20"));
+			assertEquals("REF77", field20(log.findLast(MessageLog.Key.MUR, "MUR77")));
+			assertEquals("REF2999", field20(log.findLast(MessageLog.Key.UETR, uetr(2999))));
+			assertTrue(log.find(MessageLog.Key.REFERENCE, "REF3000").isEmpty());
+			assertNull(log.findLast(MessageLog.Key.MUR, "REF1"));
+			assertNull(log.findLast(MessageLog.Key.MIR, "whatever"));
+
+			final long position = log.append(message(5));
+			assertEquals(2, log.find(MessageLog.Key.MUR, "MUR5").size());
+			assertEquals("REF5", field20(log.read(position)));
+		}
+	}
+
+	/**
+	 * Messages sharing a key value are found in append order, across the index growth
+	 */
+	@Test
+	public void testRepeatedKey() throws IOException {
+		final File dir = folder.newFolder();
+		try (MessageLog log = new MessageLog(dir, 1024 * 1024)) {
+			for (int i = 0; i < 1500; i++) {
+				final SwiftMessage msg = message(i);
+				msg.getBlock3().getTagByName("108").setValue("SAME");
+				log.append(msg);
+			}
+			final List<String> found = log.find(MessageLog.Key.MUR, "SAME");
+			assertEquals(1500, found.size());
+			for (int i = 0; i < found.size(); i++) {
+				assertEquals("REF" + i, field20(found.get(i)));
+			}
+			assertEquals("REF1499", field20(log.findLast(MessageLog.Key.MUR, "SAME")));
+		}
+	}
+
+	@Test
+	public void testMtSwiftMessage() throws IOException {
+		final String fin = "{1:F01FOOSEDR0AXXX0000000000}{2:O1031200180101BARXXXXXAXXX00000000001801011200N}"
+				+ "{3:{121:" + uetr(1) + "}}{4:\r\n:20:REF1\r\n:23B:CRED\r\n:32A:180101EUR1,00\r\n:71A:SHA\r\n-}";
+		final MtSwiftMessage mt = MtSwiftMessage.parse(fin);
+		try (MessageLog log = new MessageLog(folder.newFolder())) {
+			log.append(mt);
+			assertEquals(fin, log.findLast(MessageLog.Key.MIR, mt.getMir()));
+			assertEquals(fin, log.findLast(MessageLog.Key.UETR, uetr(1)));
+			assertEquals(fin, log.findLast(MessageLog.Key.REFERENCE, "REF1"));
+		}
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		final File dir = folder.newFolder();
+		MessageLog log = new MessageLog(dir, 64 * 1024);
+		for (int i = 0; i < 1000; i++) {
+			log.append(message(i));
+		}
+		log.close();
+
+		log = new MessageLog(dir, 64 * 1024);
+		assertEquals(1000, log.size());
+		assertEquals("REF400", field20(log.findLast(MessageLog.Key.MUR, "MUR400")));
+		log.append(message(1000));
+		assertEquals("REF1000", field20(log.findLast(MessageLog.Key.REFERENCE, "REF1000")));
+		log.close();
+
+		log = new MessageLog(dir, 64 * 1024);
+		assertEquals(1001, log.size());
+		log.close();
+	}
+
+	@Test
+	public void testCorruptedTail() throws IOException {
+		final File dir = folder.newFolder();
+		MessageLog log = new MessageLog(dir);
+		log.append(message(0));
+		final long position = log.append(message(1));
+		log.close();
+
+		// corrupt the second record content
+		try (RandomAccessFile raf = new RandomAccessFile(new File(dir, dir.list()[0]), "rw")) {
+			raf.seek((int) position + 20);
+			raf.write('X');
+		}
+		log = new MessageLog(dir);
+		assertEquals(1, log.size());
+		assertNull(log.findLast(MessageLog.Key.REFERENCE, "REF1"));
+		log.append(message(2));
+		assertEquals("REF2", field20(log.findLast(MessageLog.Key.REFERENCE, "REF2")));
+		log.close();
+	}
+
+	private static SwiftMessage message(final int i) {
+		final MT103 mt = new MT103("FOOSEDR0AXXX", "BARXXXXXAXXX");
+		mt.append(new Field20("REF" + i));
+		mt.append(new Field23B("CRED"));
+		mt.append(new Field32A("180101EUR" + i + ",00"));
+		mt.append(new Field71A("SHA"));
+		mt.getSwiftMessage().setUETR(uetr(i));
+		mt.getSwiftMessage().getBlock3().append(new Field108("MUR" + i));
+		return mt.getSwiftMessage();
+	}
+
+	private static String uetr(final int i) {
+		return String.format("eb6305c9-1f7f-49de-aed0-%012d", i);
+	}
+
+	private static String field20(final String fin) throws IOException {
+		return SwiftMessage.parse(fin).getBlock4().getTagValue("20");
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.prowidesoftware.ProwideException;
+import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.model.MxNode;
+
+/**
+ * Test cases for {@link MxStreamReader}
+ *
+ * @since 7.10.4
+ */
+public class MxStreamReaderTest {
+
+	private static final String CAMT053 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+			"<Doc:Document xmlns:Doc=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\">" +
+			"<Doc:BkToCstmrStmt>" +
+			"<Doc:GrpHdr><Doc:MsgId>STMT1</Doc:MsgId></Doc:GrpHdr>" +
+			"<Doc:Stmt>" +
+			"<Doc:Id>S1</Doc:Id>" +
+			"<Doc:Ntry><Doc:Amt Ccy=\"EUR\">10.00</Doc:Amt><Doc:CdtDbtInd>CRDT</Doc:CdtDbtInd></Doc:Ntry>" +
+			"<Doc:Ntry><Doc:Amt Ccy=\"USD\">20.00</Doc:Amt><Doc:CdtDbtInd>DBIT</Doc:CdtDbtInd>" +
+			"<Doc:NtryDtls><Doc:Ntry>nested</Doc:Ntry></Doc:NtryDtls></Doc:Ntry>" +
+			"<Doc:Ntry><Doc:Amt Ccy=\"GBP\">30.00</Doc:Amt><Doc:CdtDbtInd>CRDT</Doc:CdtDbtInd></Doc:Ntry>" +
+			"<Doc:AddtlStmtInf>end</Doc:AddtlStmtInf>" +
+			"</Doc:Stmt>" +
+			"</Doc:BkToCstmrStmt>" +
+			"</Doc:Document>";
+
+	/**
+	 * The whitespace between the occurrences is not added to the header elements
+	 */
+	@Test
+	public void testIndentedHeader() {
+		final StringBuilder xml = new StringBuilder("<Document>\n  <Stmt>\n    <Id> S1 </Id>\n");
+		for (int i = 0; i < 1000; i++) {
+			xml.append("    <Ntry><Amt>").append(i).append("</Amt></Ntry>\n");
+		}
+		xml.append("    <AddtlStmtInf>end</AddtlStmtInf>\n  </Stmt>\n</Document>\n");
+		final MxStreamReader reader = new MxStreamReader(new StringReader(xml.toString()), "Ntry");
+		int count = 0;
+		while (reader.hasNext()) {
+			assertEquals(String.valueOf(count++), reader.next().singlePathValue("/Ntry/Amt"));
+		}
+		assertEquals(1000, count);
+		final MxNode header = reader.header();
+		assertNull(header.getValue());
+		assertNull(header.findFirst("/Document/Stmt").getValue());
+		assertEquals(" S1 ", header.singlePathValue("/Document/Stmt/Id"));
+		assertEquals("end", header.singlePathValue("/Document/Stmt/AddtlStmtInf"));
+	}
+
+	@Test
+	public void testNodes() {
+		final MxStreamReader reader = new MxStreamReader(new StringReader(CAMT053), "Ntry");
+		final MxNode header = reader.header();
+		assertNotNull(header);
+		assertEquals("STMT1", header.singlePathValue("/Document/BkToCstmrStmt/GrpHdr/MsgId"));
+		assertEquals("S1", header.singlePathValue("/Document/BkToCstmrStmt/Stmt/Id"));
+		assertEquals("urn:iso:std:iso:20022:tech:xsd:camt.053.001.02", header.getAttribute("xmlns"));
+
+		assertTrue(reader.hasNext());
+		MxNode ntry = reader.next();
+		assertNull(ntry.getParent());
+		assertEquals("10.00", ntry.singlePathValue("/Ntry/Amt"));
+		assertEquals("EUR", ntry.findFirst("/Ntry/Amt").getAttribute("Ccy"));
+		assertEquals("urn:iso:std:iso:20022:tech:xsd:camt.053.001.02", ntry.getAttribute("xmlns"));
+
+		ntry = reader.next();
+		assertEquals("DBIT", ntry.singlePathValue("/Ntry/CdtDbtInd"));
+		assertEquals("nested", ntry.singlePathValue("/Ntry/NtryDtls/Ntry"));
+
+		ntry = reader.next();
+		assertEquals("30.00", ntry.singlePathValue("/Ntry/Amt"));
+		assertFalse(reader.hasNext());
+		assertEquals(3, reader.getCount());
+
+		// elements following the repetitions are added to the header
+		assertEquals("end", header.singlePathValue("/Document/BkToCstmrStmt/Stmt/AddtlStmtInf"));
+		assertTrue(header.find("/Document/BkToCstmrStmt/Stmt/Ntry").isEmpty());
+		reader.close();
+	}
+
+	@Test
+	public void testXml() {
+		final MxStreamReader reader = new MxStreamReader(new StringReader(CAMT053), "/Document/BkToCstmrStmt/Stmt/Ntry");
+		int count = 0;
+		while (reader.hasNext()) {
+			final String xml = reader.nextXml();
+			assertTrue(xml, xml.startsWith("<Doc:Ntry xmlns:Doc=\"urn:iso:std:iso:20022:tech:xsd:camt.053.001.02\">"));
+			assertTrue(xml, xml.endsWith("</Doc:Ntry>"));
+			// the fragment must be well-formed on its own
+			final MxNode ntry = new MxParser(xml).parse();
+			assertNotNull(ntry);
+			assertNotNull(ntry.findFirst("/Ntry/Amt").getAttribute("Ccy"));
+			count++;
+		}
+		assertEquals(3, count);
+		reader.close();
+	}
+
+	@Test
+	public void testPathMismatch() {
+		final MxStreamReader reader = new MxStreamReader(new StringReader(CAMT053), "/Document/Ntry");
+		assertFalse(reader.hasNext());
+		assertEquals("S1", reader.header().singlePathValue("/Document/BkToCstmrStmt/Stmt/Id"));
+	}
+
+	@Test
+	public void testIterable() {
+		int count = 0;
+		for (final MxNode node : new MxStreamReader(new StringReader(CAMT053), "Amt")) {
+			assertNotNull(node.getAttribute("Ccy"));
+			count++;
+		}
+		assertEquals(3, count);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNoSuchElement() {
+		final MxStreamReader reader = new MxStreamReader(new StringReader("<A><B/></A>"), "C");
+		reader.next();
+	}
+
+	@Test(expected = ProwideException.class)
+	public void testInvalid() {
+		final MxStreamReader reader = new MxStreamReader(new StringReader("<A><B>1</B><B>2</A>"), "B");
+		while (reader.hasNext()) {
+			reader.next();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.model.SwiftBlock1;
+import com.prowidesoftware.swift.model.SwiftBlock2Input;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftBlockUser;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.UnparsedTextList;
+
+/**
+ * Test cases for {@link SwiftMessageCodec}
+ *
+ * @since 7.10.4
+ */
+public class SwiftMessageCodecTest {
+
+	private static final String MT103 = "{1:F01FOOSEDR0AXXX0000000000}{2:O1031200010103BARXXXXXAXXX00000000000101031200N}{3:{108:MUR1234}{119:STP}}{4:\n" +
+			":20:REF1\n" +
+			":23B:CRED\n" +
+			":32A:060505USD123,45\n" +
+			":50K:/12345\n" +
+			"ÑANDÚ SA\n" +
+			":59:/54321\n" +
+			"BENEFICIARY\n" +
+			":71A:OUR\n" +
+			"-}{5:{CHK:123456789ABC}{PDE:1234}}";
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse(MT103);
+		final byte[] bytes = SwiftMessageCodec.encode(msg);
+		final SwiftMessage decoded = SwiftMessageCodec.decode(bytes);
+		assertEquals(new ConversionService().getFIN(msg), new ConversionService().getFIN(decoded));
+		assertEquals(msg.getBlock1().getLogicalTerminal(), decoded.getBlock1().getLogicalTerminal());
+		assertEquals("BARXXXXXAXXX", decoded.getSender());
+		assertEquals("ÑANDÚ SA", decoded.getBlock4().getTagValue("50K").split("\n")[1].trim());
+		final int fin = new ConversionService().getFIN(msg).getBytes(StandardCharsets.UTF_8).length;
+		assertTrue(bytes.length + " vs " + fin, bytes.length < fin * 4 / 5);
+	}
+
+	@Test
+	public void testInputAndPartialHeaders() throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXU3003}{4:\n:20:REF\n-}");
+		msg.getBlock4().append(new Tag("ZZZ", "custom tag"));
+		msg.getBlock1().setSequenceNumber("12");
+		msg.getBlock1().setSessionNumber(null);
+		final SwiftMessage decoded = SwiftMessageCodec.decode(SwiftMessageCodec.encode(msg));
+		assertEquals(new ConversionService().getFIN(msg), new ConversionService().getFIN(decoded));
+		assertEquals("12", decoded.getBlock1().getSequenceNumber());
+		assertNull(decoded.getBlock1().getSessionNumber());
+		assertEquals("U", decoded.getBlock2().getMessagePriority());
+		assertEquals("3", ((SwiftBlock2Input) decoded.getBlock2()).getDeliveryMonitoring());
+		assertEquals("custom tag", decoded.getBlock4().getTagValue("ZZZ"));
+		assertNull(decoded.getBlock3());
+		assertNull(decoded.getBlock5());
+	}
+
+	@Test
+	public void testUserBlocksAndUnparsedTexts() {
+		final SwiftMessage msg = new SwiftMessage(false);
+		msg.setBlock1(new SwiftBlock1("F01FOOSEDR0AXXX0000000000"));
+		msg.addUserBlock(new SwiftBlockUser("S", Arrays.asList(new Tag("SPD", ""), new Tag("SAC", "x"))));
+		msg.setUnparsedTexts(new UnparsedTextList(Arrays.asList("text 1", "text 2")));
+		final Tag tag = new Tag("20", "REF");
+		tag.setUnparsedTexts(new UnparsedTextList(Arrays.asList("tag text")));
+		msg.setBlock4(new SwiftBlock4());
+		msg.getBlock4().append(tag);
+
+		final SwiftMessage decoded = SwiftMessageCodec.decode(SwiftMessageCodec.encode(msg));
+		assertEquals(1, decoded.getUserBlocks().size());
+		assertEquals("S", decoded.getUserBlocks().get(0).getBlockName());
+		assertEquals("x", decoded.getUserBlocks().get(0).getTagValue("SAC"));
+		assertEquals(Arrays.asList("text 1", "text 2"), decoded.getUnparsedTexts().getTexts());
+		assertEquals("tag text", decoded.getBlock4().getTag(0).getUnparsedTexts().getText(0));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedVersion() throws IOException {
+		final byte[] bytes = SwiftMessageCodec.encode(SwiftMessage.parse(MT103));
+		bytes[1] = (byte) (SwiftMessageCodec.VERSION + 1);
+		SwiftMessageCodec.decode(bytes);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTruncated() throws IOException {
+		final byte[] bytes = SwiftMessageCodec.encode(SwiftMessage.parse(MT103));
+		SwiftMessageCodec.decode(bytes, 0, bytes.length - 10);
+	}
+
+	/**
+	 * A corrupt element count must be rejected instead of being used to allocate the block tags.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCorruptCount() {
+		final byte[] bytes = {(byte) 0xB4, SwiftMessageCodec.VERSION, 1 << 3, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+		SwiftMessageCodec.decode(bytes);
+	}
+}
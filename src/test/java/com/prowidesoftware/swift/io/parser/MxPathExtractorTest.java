@@ -0,0 +1,150 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link MxPathExtractor}
+ *
+ * @since 7.10.4
+ */
+public class MxPathExtractorTest {
+
+	private static final String PACS008 = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+			"<Doc:Document xmlns:Doc=\"urn:iso:std:iso:20022:tech:xsd:pacs.008.001.07\">" +
+			"  <Doc:FIToFICstmrCdtTrf>" +
+			"    <Doc:GrpHdr>" +
+			"      <Doc:MsgId>MSG1</Doc:MsgId>" +
+			"      <Doc:NbOfTxs>2</Doc:NbOfTxs>" +
+			"    </Doc:GrpHdr>" +
+			"    <Doc:CdtTrfTxInf>" +
+			"      <Doc:PmtId><Doc:EndToEndId>E2E1</Doc:EndToEndId></Doc:PmtId>" +
+			"      <Doc:IntrBkSttlmAmt Ccy=\"USD\">1000.00</Doc:IntrBkSttlmAmt>" +
+			"    </Doc:CdtTrfTxInf>" +
+			"    <Doc:CdtTrfTxInf>" +
+			"      <Doc:PmtId><Doc:EndToEndId>E2E2</Doc:EndToEndId></Doc:PmtId>" +
+			"      <Doc:IntrBkSttlmAmt Ccy=\"EUR\">25.5</Doc:IntrBkSttlmAmt>" +
+			"    </Doc:CdtTrfTxInf>" +
+			"  </Doc:FIToFICstmrCdtTrf>" +
+			"</Doc:Document>";
+
+	@Test
+	public void testExtractAll() {
+		final MxPathExtractor extractor = new MxPathExtractor(
+				"/Document/FIToFICstmrCdtTrf/GrpHdr/MsgId",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt/@Ccy",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/PmtId/EndToEndId",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/Purp/Cd");
+		final Map<String, List<String>> values = extractor.extractAll(PACS008);
+		assertEquals(5, values.size());
+		assertEquals(Arrays.asList("MSG1"), values.get("/Document/FIToFICstmrCdtTrf/GrpHdr/MsgId"));
+		assertEquals(Arrays.asList("1000.00", "25.5"), values.get("/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt"));
+		assertEquals(Arrays.asList("USD", "EUR"), values.get("/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt/@Ccy"));
+		assertEquals(Arrays.asList("E2E1", "E2E2"), values.get("/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/PmtId/EndToEndId"));
+		assertTrue(values.get("/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/Purp/Cd").isEmpty());
+	}
+
+	@Test
+	public void testExtractFirst() {
+		final MxPathExtractor extractor = new MxPathExtractor(
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt/@Ccy",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf[1]/IntrBkSttlmAmt",
+				"/Document/FIToFICstmrCdtTrf/GrpHdr/NbOfTxs",
+				"/Document/FIToFICstmrCdtTrf/GrpHdr/CreDtTm");
+		assertArrayEquals(new String[] {"USD", "1000.00", "2", null}, extractor.extractFirst(PACS008));
+	}
+
+	@Test
+	public void testHandlerOrder() {
+		final MxPathExtractor extractor = new MxPathExtractor(
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt",
+				"/Document/FIToFICstmrCdtTrf/CdtTrfTxInf/IntrBkSttlmAmt/@Ccy");
+		final List<String> found = new ArrayList<>();
+		assertTrue(extractor.extract(PACS008, new MxPathExtractor.Handler() {
+			@Override
+			public void value(int index, String path, String value) {
+				found.add(index + "=" + value);
+			}
+		}));
+		assertEquals(Arrays.asList("1=USD", "0=1000.00", "1=EUR", "0=25.5"), found);
+	}
+
+	@Test
+	public void testNestedTargets() {
+		final String xml = "<A><B>x<C>1</C>y</B><B><C>2</C></B></A>";
+		final Map<String, List<String>> values = new MxPathExtractor("/A/B", "/A/B/C").extractAll(xml);
+		assertEquals(Arrays.asList("xy", ""), values.get("/A/B"));
+		assertEquals(Arrays.asList("1", "2"), values.get("/A/B/C"));
+	}
+
+	@Test
+	public void testSkipUnreachable() {
+		// same element names in a subtree that is not part of the path must not match
+		final String xml = "<A><X><B>no</B></X><B>yes</B></A>";
+		assertEquals(Arrays.asList("yes"), new MxPathExtractor("/A/B").extractAll(xml).get("/A/B"));
+		assertTrue(new MxPathExtractor("/Z/B").extractAll(xml).get("/Z/B").isEmpty());
+	}
+
+	@Test
+	public void testWrapper() throws IOException {
+		final MxPathExtractor extractor = new MxPathExtractor(
+				"/Request/RequestPayload/AppHdr/MsgRef",
+				"/Request/RequestPayload/Document/GetAcct/MsgId/Id",
+				"/Request/RequestHeader/RequestType");
+		final InputStream stream = getClass().getResourceAsStream("/mx_sample_request_wrapper.xml");
+		try {
+			assertArrayEquals(new String[] {"11308917", "1", "setr.010.001.03"}, extractor.extractFirst(stream));
+		} finally {
+			stream.close();
+		}
+	}
+
+	@Test
+	public void testInvalid() {
+		final MxPathExtractor extractor = new MxPathExtractor("/A/B");
+		assertNull(extractor.extractAll("<A><B>1</A>"));
+		assertFalse(extractor.extract("", new MxPathExtractor.Handler() {
+			@Override
+			public void value(int index, String path, String value) {
+			}
+		}));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRelativePath() {
+		new MxPathExtractor("Document/FIToFICstmrCdtTrf");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAttributeInMiddle() {
+		new MxPathExtractor("/Document/@Ccy/FIToFICstmrCdtTrf");
+	}
+}
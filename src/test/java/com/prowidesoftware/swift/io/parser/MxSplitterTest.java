@@ -0,0 +1,164 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.model.MxNode;
+
+/**
+ * Test cases for {@link MxSplitter}
+ *
+ * @since 7.10.4
+ */
+public class MxSplitterTest {
+
+	private static final String HEADER = "<h:AppHdr xmlns:h=\"urn:iso:std:iso:20022:tech:xsd:head.001.001.01\"><h:From>A</h:From></h:AppHdr>";
+	private static final String DOCUMENT = "<Doc:Document xmlns:Doc=\"urn:swift:xsd:camt.003.001.04\"><Doc:GetAcct/></Doc:Document>";
+
+	@Test
+	public void testWrapper() {
+		final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><message>" + HEADER + DOCUMENT + "</message>";
+		final MxSplitter split = MxSplitter.split(xml);
+
+		final MxSplitter.Part header = split.getHeader();
+		assertNotNull(header);
+		assertEquals(HEADER, header.toXml());
+		assertEquals("h", header.getPrefix());
+		assertEquals("AppHdr", header.getLocalName());
+		assertEquals("urn:iso:std:iso:20022:tech:xsd:head.001.001.01", header.getNamespace());
+		assertEquals(xml.indexOf("<h:AppHdr"), header.getStart());
+		assertEquals(xml.indexOf("<Doc:Document"), header.getEnd());
+
+		final MxSplitter.Part document = split.getDocument();
+		assertNotNull(document);
+		assertEquals(DOCUMENT, document.getContent().toString());
+		assertEquals("urn:swift:xsd:camt.003.001.04", document.getNamespace());
+		assertTrue(document.getInheritedNamespaces().isEmpty());
+	}
+
+	@Test
+	public void testMissing() {
+		MxSplitter split = MxSplitter.split("<message>" + DOCUMENT + "</message>");
+		assertNull(split.getHeader());
+		assertEquals(DOCUMENT, split.getDocument().toXml());
+
+		split = MxSplitter.split("<message>" + HEADER + "</message>");
+		assertEquals(HEADER, split.getHeader().toXml());
+		assertNull(split.getDocument());
+
+		split = MxSplitter.split("");
+		assertNull(split.getHeader());
+		assertNull(split.getDocument());
+	}
+
+	@Test
+	public void testInheritedNamespaces() {
+		final String xml = "<w:Env xmlns:w=\"urn:wrapper\" xmlns=\"urn:default\" xmlns:Doc=\"urn:doc\" xmlns:x=\"urn:unused\">"
+				+ "<w:Payload><Doc:Document><Doc:A w:attr=\"1\">text</Doc:A></Doc:Document></w:Payload></w:Env>";
+		final MxSplitter.Part document = MxSplitter.split(xml).getDocument();
+		assertEquals("urn:doc", document.getNamespace());
+		assertEquals(2, document.getInheritedNamespaces().size());
+		assertEquals("urn:doc", document.getInheritedNamespaces().get("Doc"));
+		assertEquals("urn:wrapper", document.getInheritedNamespaces().get("w"));
+
+		final String standalone = document.toXml();
+		assertEquals("<Doc:Document xmlns:Doc=\"urn:doc\" xmlns:w=\"urn:wrapper\"><Doc:A w:attr=\"1\">text</Doc:A></Doc:Document>", standalone);
+		final MxNode node = new MxParser(standalone).parse();
+		assertEquals("text", node.singlePathValue("/Document/A"));
+	}
+
+	@Test
+	public void testDefaultNamespaceInherited() {
+		final String xml = "<Env xmlns=\"urn:default\"><AppHdr><From>A</From></AppHdr></Env>";
+		final MxSplitter.Part header = MxSplitter.split(xml).getHeader();
+		assertEquals("urn:default", header.getNamespace());
+		assertEquals("<AppHdr xmlns=\"urn:default\"><From>A</From></AppHdr>", header.toXml());
+	}
+
+	@Test
+	public void testMarkupSkipped() {
+		final String xml = "<?xml version=\"1.0\"?><!DOCTYPE message><!-- <AppHdr> --><message>"
+				+ "<?pi <Document>?><![CDATA[<Document></Document>]]>"
+				+ "<Document a=\"x>y\" b='</Document>'><!-- </Document> --><![CDATA[</Document>]]><B/></Document>"
+				+ "</message>";
+		final MxSplitter split = MxSplitter.split(xml);
+		assertNull(split.getHeader());
+		final String document = split.getDocument().toXml();
+		assertTrue(document, document.startsWith("<Document a="));
+		assertTrue(document, document.endsWith("<B/></Document>"));
+	}
+
+	@Test
+	public void testSelfClosing() {
+		final MxSplitter split = MxSplitter.split("<message><AppHdr/><Document xmlns=\"urn:doc\" /></message>");
+		assertEquals("<AppHdr/>", split.getHeader().toXml());
+		assertEquals("<Document xmlns=\"urn:doc\" />", split.getDocument().toXml());
+	}
+
+	@Test
+	public void testNestedDocument() {
+		final String inner = "<Document xmlns=\"urn:inner\"><B>inner</B></Document>";
+		final String outer = "<Document xmlns=\"urn:outer\"><SplmtryData>" + inner + "</SplmtryData></Document>";
+		final MxSplitter split = MxSplitter.split("<message>" + outer + "<Document>second</Document></message>");
+		assertEquals(outer, split.getDocument().toXml());
+		assertEquals("urn:outer", split.getDocument().getNamespace());
+	}
+
+	@Test
+	public void testStream() throws IOException {
+		// multi-byte characters before and inside the document
+		final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><message note=\"ñandú\">" + HEADER
+				+ "<Doc:Document xmlns:Doc=\"urn:doc\"><Doc:Nm>日本</Doc:Nm></Doc:Document></message>";
+		final byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+		final MxSplitter split = MxSplitter.split(new ByteArrayInputStream(bytes));
+
+		final MxSplitter.Part header = split.getHeader();
+		assertEquals(HEADER, header.toXml());
+		assertEquals(xml.getBytes(StandardCharsets.UTF_8).length - xml.substring(xml.indexOf("<h:AppHdr")).getBytes(StandardCharsets.UTF_8).length, header.getStart());
+
+		final MxSplitter.Part document = split.getDocument();
+		assertEquals("<Doc:Document xmlns:Doc=\"urn:doc\"><Doc:Nm>日本</Doc:Nm></Doc:Document>", document.toXml());
+		assertEquals(header.getEnd(), document.getStart());
+		assertEquals(bytes.length - "</message>".length(), document.getEnd());
+	}
+
+	@Test
+	public void testSample() throws IOException {
+		final InputStream stream = getClass().getResourceAsStream("/mx_sample_request_wrapper.xml");
+		final MxSplitter split = MxSplitter.split(stream);
+		stream.close();
+
+		final String header = split.getHeader().toXml();
+		assertTrue(header, header.startsWith("<AppHdr xmlns:Ah=\"urn:swift:xsd$ahV10\">"));
+		assertEquals("11308917", new MxParser(header).parse().singlePathValue("/AppHdr/MsgRef"));
+
+		final String document = split.getDocument().toXml();
+		assertTrue(document, document.startsWith("<Doc:Document xmlns:Doc=\"urn:swift:xsd:camt.003.001.04\""));
+		assertEquals("1", new MxParser(document).parse().singlePathValue("/Document/GetAcct/MsgId/Id"));
+	}
+
+}
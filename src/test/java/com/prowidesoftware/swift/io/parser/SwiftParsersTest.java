@@ -0,0 +1,133 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.io.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+
+/**
+ * Test cases for {@link SwiftParsers}
+ *
+ * @since 7.10.4
+ */
+public class SwiftParsersTest {
+
+	@Test
+	public void testConcurrentParse() throws Exception {
+		final SwiftParsers parsers = new SwiftParsers(new SwiftParserConfiguration(), 4);
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws IOException {
+						for (int i = 0; i < 500; i++) {
+							final String ref = "REF" + thread + "-" + i;
+							final SwiftMessage msg = parsers.parse(message(ref));
+							assertEquals(ref, msg.getBlock4().getTagValue("20"));
+							assertEquals("103", msg.getType());
+						}
+						return 500;
+					}
+				}));
+			}
+			for (final Future<Integer> result : results) {
+				assertEquals(Integer.valueOf(500), result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertTrue(parsers.idleSize() > 0);
+		assertTrue(parsers.idleSize() <= 4);
+	}
+
+	@Test
+	public void testReuse() throws IOException {
+		final SwiftParsers parsers = new SwiftParsers();
+		for (int i = 0; i < 10; i++) {
+			final MT103 mt = (MT103) parsers.parseMT(message("REF" + i));
+			assertEquals("REF" + i, mt.getField20().getValue());
+			assertEquals(1, parsers.idleSize());
+		}
+		// a parse failure still returns the parser to the pool
+		final SwiftParserConfiguration strict = new SwiftParserConfiguration();
+		strict.setLenient(false);
+		final SwiftParsers strictParsers = new SwiftParsers(strict);
+		try {
+			strictParsers.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\r\n:20:REF\r\n");
+			fail("strict configuration should reject the unclosed block");
+		} catch (final IllegalArgumentException e) {
+			assertEquals(1, strictParsers.idleSize());
+		}
+		assertEquals("REF", strictParsers.parse(message("REF")).getBlock4().getTagValue("20"));
+	}
+
+	@Test
+	public void testConfiguration() throws IOException {
+		final SwiftParserConfiguration conf = new SwiftParserConfiguration();
+		conf.setParseTextBlock(false);
+		final SwiftParsers parsers = new SwiftParsers(conf, 0);
+		// changes after creation are ignored
+		conf.setParseTextBlock(true);
+		assertFalse(parsers.getConfiguration().isParseTextBlock());
+
+		final SwiftMessage msg = parsers.parse(message("REF"));
+		assertEquals("103", msg.getType());
+		assertTrue(msg.getBlock4().isEmpty());
+		assertEquals(0, parsers.idleSize());
+	}
+
+	@Test
+	public void testErrors() throws IOException {
+		final List<String> errors = new ArrayList<>();
+		final SwiftMessage msg = SwiftParsers.getDefault().parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\r\n:20:REF\r\n", errors);
+		assertEquals("REF", msg.getBlock4().getTagValue("20"));
+		assertEquals(1, errors.size());
+
+		// errors are not carried over to the next parse
+		errors.clear();
+		SwiftParsers.getDefault().parse(message("REF"), errors);
+		assertTrue(errors.isEmpty());
+		assertNull(SwiftParsers.getDefault().parseMT("no message here"));
+	}
+
+	private static String message(final String ref) {
+		return "{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\r\n"
+				+ ":20:" + ref + "\r\n"
+				+ ":23B:CRED\r\n"
+				+ ":32A:180101EUR1234,56\r\n"
+				+ ":71A:SHA\r\n"
+				+ "-}";
+	}
+}
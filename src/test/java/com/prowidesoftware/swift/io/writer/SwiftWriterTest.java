@@ -15,17 +15,25 @@
  */
 package com.prowidesoftware.swift.io.writer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.junit.Test;
 
 import com.prowidesoftware.swift.Constants;
+import com.prowidesoftware.swift.io.ConversionService;
 import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.model.SwiftBlock4;
 import com.prowidesoftware.swift.model.SwiftMessage;
 import com.prowidesoftware.swift.model.Tag;
 
@@ -107,6 +115,92 @@ public class SwiftWriterTest {
 		}
 	}
 
+	@Test
+	public void testWriteBytes() throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{3:{108:MUR}}{4:\n" +
+				":20:REF\n" +
+				":50K:/12345\n" +
+				"ÑANDÚ SA\n" +
+				"-}{5:{CHK:123456789ABC}}");
+		msg.getBlock4().append(new Tag("72", "\uD83D\uDE00 \uD83D"));
+		final StringWriter writer = new StringWriter();
+		SwiftWriter.writeMessage(msg, writer);
+		final byte[] expected = writer.toString().getBytes(StandardCharsets.UTF_8);
+
+		final StringBuilder builder = new StringBuilder();
+		SwiftWriter.writeMessage(msg, builder);
+		assertEquals(writer.toString(), builder.toString());
+
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		assertEquals(expected.length, SwiftWriter.writeMessage(msg, stream));
+		assertArrayEquals(expected, stream.toByteArray());
+
+		assertEquals(expected.length, SwiftWriter.byteLength(msg));
+
+		final ByteBuffer buffer = ByteBuffer.allocate((int) SwiftWriter.byteLength(msg));
+		assertEquals(expected.length, SwiftWriter.writeMessage(msg, buffer));
+		assertArrayEquals(expected, buffer.array());
+
+		try {
+			SwiftWriter.writeMessage(msg, ByteBuffer.allocate(expected.length - 1));
+			fail("expected overflow");
+		} catch (final BufferOverflowException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWriteBlocks() throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{3:{108:MUR}}{4:\n:20:REF\n-}{5:{CHK:123456789ABC}}");
+		assertEquals("{1:F01FOOSEDR0AXXX0000000000}", SwiftWriter.writeBlock1(msg.getBlock1()));
+		assertEquals("{2:I103BARXXXXXAXXXN}", SwiftWriter.writeBlock2(msg.getBlock2()));
+		assertEquals("{3:{108:MUR}}", SwiftWriter.writeBlock3(msg.getBlock3()));
+		assertEquals("{4:\r\n:20:REF\r\n-}", SwiftWriter.writeBlock4(msg.getBlock4()));
+		assertEquals("{5:{CHK:123456789ABC}}", SwiftWriter.writeBlock5(msg.getBlock5()));
+	}
+
+	@Test
+	public void testLength() throws IOException {
+		final String[] messages = {
+				"{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{3:{108:MUR}}{4:\n:20:REF\n:50K:/12345\nNAME\n-}{5:{CHK:123456789ABC}}",
+				"{1:F21LITEBEBBADSZ0066000079}{4:{177:1104180901}{451:0}}{1:F01LITEBEBBADSZ0066000079}{2:I999FOOEBEBBXABCN}{4:\n:20:TESTREF1\n-}",
+				"{1:F01FOOSEDR0AXXX0000000000}{2:I094BARXXXXXAXXXN}{4:{135:Y}{134:X}}{S:{SAC:}{COP:P}}",
+				"{1:F01FOOSEDR0AXXX0000000000}{2:I199BARXXXXXAXXXN}{4:\n-}"
+		};
+		for (final String fin : messages) {
+			final SwiftMessage msg = SwiftMessage.parse(fin);
+			assertEquals(fin, new ConversionService().getFIN(msg).length(), msg.getFINLength());
+			assertEquals(fin, crlf(SwiftWriter.writeBlock4(msg.getBlock4())).length(), msg.getBlock4().getFINLength());
+		}
+
+		final SwiftMessage msg = SwiftMessage.parse(messages[0]);
+		final SwiftBlock4 b4 = msg.getBlock4();
+		final String block = SwiftWriter.writeBlock4(b4);
+		// content between "{4:CRLF" and "-}"
+		assertEquals(crlf(block).length() - 7, b4.getTextLength());
+		final Tag tag = b4.getTagByName("50K");
+		assertEquals(":50K:/12345\r\nNAME\r\n".length(), SwiftWriter.textLength(tag));
+		assertEquals(0, new SwiftBlock4().getTextLength());
+	}
+
+	@Test
+	public void testLengthLF() throws IOException {
+		// LF only input, the FIN output has CRLF line breaks
+		final SwiftMessage msg = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\n:20:REF\n"
+				+ ":50K:/12345\nNAME\nADDRESS\n:70:LINE1\nLINE2\rLINE3\r\nLINE4\n:71A:SHA\n-}");
+		final String fin = new ConversionService().getFIN(msg);
+		assertEquals(crlf(fin), fin);
+		assertEquals(fin.length(), msg.getFINLength());
+		assertEquals(fin.length(), SwiftWriter.length(msg));
+		final String block4 = fin.substring(fin.indexOf("{4:"));
+		assertEquals(block4.length(), msg.getBlock4().getFINLength());
+		assertEquals(block4.length() - 7, msg.getBlock4().getTextLength());
+	}
+
+	private static String crlf(final String s) {
+		return s.replaceAll("\r\n|\r|\n", "\r\n");
+	}
+
 	/**
 	 * Parse the given message and write it using FIN Writer
 	 */
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.io.RJEReader;
+import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.io.parser.SwiftParser;
+import com.prowidesoftware.swift.io.writer.SwiftWriter;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
+import com.prowidesoftware.swift.model.MtMetadataWriter;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.SwiftMessageUtils;
+
+/**
+ * Test cases for {@link InMemoryMetrics} and the library instrumentation
+ *
+ * @since 7.10.4
+ */
+public class InMemoryMetricsTest {
+
+	private static final String FIN = "{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\r\n:20:REF\r\n:23B:CRED\r\n:32A:180101EUR1,00\r\n:71A:SHA\r\n-}";
+
+	@After
+	public void tearDown() {
+		Metrics.setListener(null);
+	}
+
+	@Test
+	public void testInstrumentation() throws IOException {
+		final InMemoryMetrics metrics = new InMemoryMetrics();
+		Metrics.setListener(metrics);
+
+		final SwiftMessage msg = new SwiftParser(FIN).message();
+		assertEquals(1, metrics.getCount(Operation.MT_PARSE));
+		assertEquals(FIN.length(), metrics.getSize(Operation.MT_PARSE));
+		assertEquals(4, metrics.getTags(Operation.MT_PARSE));
+		assertEquals(0, metrics.getErrors(Operation.MT_PARSE));
+
+		final String fin = new ConversionService().getFIN(msg);
+		assertEquals(0, metrics.getCount(Operation.MT_WRITE));
+		assertEquals(1, metrics.getCount(Operation.CONVERSION));
+		assertEquals(fin.length(), metrics.getSize(Operation.CONVERSION));
+
+		// internal measuring and hashing passes are not reported
+		msg.getFINLength();
+		SwiftWriter.byteLength(msg);
+		SwiftMessageUtils.calculateChecksum(msg);
+		MtMetadataWriter.write(msg, false);
+		assertEquals(0, metrics.getCount(Operation.MT_WRITE));
+
+		SwiftWriter.writeMessage(msg, new StringBuilder());
+		assertEquals(1, metrics.getCount(Operation.MT_WRITE));
+		assertEquals(FIN.length(), metrics.getSize(Operation.MT_WRITE));
+
+		final String xml = new ConversionService().getXml(msg);
+		assertEquals(2, metrics.getCount(Operation.CONVERSION));
+		new ConversionService().getMessageFromXML(xml);
+		assertEquals(1, metrics.getCount(Operation.XML_PARSE));
+		assertEquals(4, metrics.getTags(Operation.XML_PARSE));
+
+		new MxParser("<Doc:Document xmlns:Doc=\"urn:swift:xsd:$pacs.008.001.02\"><Doc:A>1</Doc:A></Doc:Document>").parse();
+		new MxParser("<Document>").parse();
+		assertEquals(1, metrics.getCount(Operation.MX_PARSE));
+		assertEquals(1, metrics.getFailures(Operation.MX_PARSE));
+
+		new MxParser("<Doc:Document xmlns:Doc=\"urn:swift:xsd:pacs.008.001.02\"><Doc:A>1</Doc:A></Doc:Document>").detectMessage();
+		assertEquals(1, metrics.getCount(Operation.MX_DETECT));
+
+		msg.toJson();
+		msg.toMT().toJson();
+		assertEquals(2, metrics.getCount(Operation.JSON_SERIALIZE));
+
+		final RJEReader reader = new RJEReader(FIN + "$" + FIN);
+		while (reader.hasNext()) {
+			reader.nextSwiftMessage();
+		}
+		assertEquals(2, metrics.getCount(Operation.READ));
+		assertEquals(3, metrics.getCount(Operation.MT_PARSE));
+	}
+
+	@Test
+	public void testMessageId() throws IOException {
+		final List<String> ids = new ArrayList<>();
+		Metrics.setListener(new MetricsListener() {
+			@Override
+			public void completed(final Operation operation, final String id, final long size, final int tags, final long nanos, final int errors) {
+				ids.add(operation + " " + id);
+			}
+
+			@Override
+			public void failed(final Operation operation, final long nanos, final Throwable cause) {
+				ids.add(operation + " failed");
+			}
+		});
+		new SwiftParser(FIN).message();
+		new MxParser("<Doc:Document xmlns:Doc=\"urn:swift:xsd:pacs.008.001.02\"/>").detectMessage();
+		new MxParser("<Document/>").detectMessage();
+		assertEquals(Arrays.asList("MT_PARSE fin.103", "MX_DETECT pacs.008.001.02", "MX_DETECT failed"), ids);
+	}
+
+	@Test
+	public void testLenientErrors() throws IOException {
+		final InMemoryMetrics metrics = new InMemoryMetrics();
+		Metrics.setListener(metrics);
+		new SwiftParser("{1:F01FOOSEDR0AXXX0000000000}{2:I103BARXXXXXAXXXN}{4:\r\n:20:REF\r\n").message();
+		assertEquals(1, metrics.getCount(Operation.MT_PARSE));
+		assertTrue(metrics.getErrors(Operation.MT_PARSE) > 0);
+	}
+
+	@Test
+	public void testHistogram() {
+		final InMemoryMetrics metrics = new InMemoryMetrics();
+		for (int i = 0; i < 99; i++) {
+			metrics.completed(Operation.MT_PARSE, null, 10, 1, 1000, 0);
+		}
+		metrics.completed(Operation.MT_PARSE, null, 10, 1, 1000000, 0);
+		metrics.failed(Operation.MT_PARSE, 3000, null);
+		assertEquals(100, metrics.getCount(Operation.MT_PARSE));
+		assertEquals(1, metrics.getFailures(Operation.MT_PARSE));
+		assertEquals(99 * 1000 + 1000000 + 3000, metrics.getTotalNanos(Operation.MT_PARSE));
+		assertEquals(1024, metrics.getLatencyPercentile(Operation.MT_PARSE, 50));
+		assertEquals(1 << 20, metrics.getLatencyPercentile(Operation.MT_PARSE, 100));
+		assertEquals(99, metrics.getLatencyHistogram(Operation.MT_PARSE)[10]);
+		assertEquals(0, metrics.getLatencyPercentile(Operation.MX_PARSE, 50));
+
+		metrics.reset();
+		assertEquals(0, metrics.getCount(Operation.MT_PARSE));
+		assertEquals(0, metrics.getLatencyPercentile(Operation.MT_PARSE, 99));
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.ConversionService;
+
+/**
+ * Test for {@link MtMetadataWriter}, checking the single pass results match the individual API
+ *
+ * @since 7.10.4
+ */
+public class MtMetadataWriterTest {
+
+	@Test
+	public void testUserMessage() throws IOException {
+		assertEquivalent("{1:F01FOOSEDR0AXXX0000000000}{2:O1031200010103BARXXXXXAXXX00000000000101031200N}{3:{108:MUR1234}{119:STP}}{4:\n" +
+				":20:REF1\n" +
+				":23B:CRED\n" +
+				":32A:060505USD123,45\n" +
+				":50K:/12345\n" +
+				"ÑANDÚ SA\n" +
+				":59:/54321\n" +
+				"BENEFICIARY\n" +
+				":71A:OUR\n" +
+				"-}{5:{CHK:123456789ABC}{PDE:1234}{PDM:5678}}");
+	}
+
+	@Test
+	public void testSemeReference() throws IOException {
+		final MtMetadataWriter metadata = assertEquivalent("{1:F01FOOSEDR0AXXX0000000000}{2:I540BARXXXXXAXXXN}{4:\n" +
+				":16R:GENL\n" +
+				":20C::SEME//SEMEREF\n" +
+				":23G:NEWM\n" +
+				":16S:GENL\n" +
+				"-}");
+		assertEquals("SEMEREF", metadata.getReference());
+	}
+
+	@Test
+	public void testSystemMessage() throws IOException {
+		// block 4 of system messages is written with the tag-block syntax
+		assertEquivalent("{1:F21LITEBEBBADSZ0066000079}{4:{177:1104180901}{451:0}}{1:F01LITEBEBBADSZ0066000079}{2:I999FOOEBEBBXABCN}{4:\n" +
+				":20:TESTREF1\n" +
+				":79:This is text line 1\n" +
+				"-}{5:{CHK:7602B010CF31}{TNG:}}");
+	}
+
+	@Test
+	public void testCategory0() throws IOException {
+		assertEquivalent("{1:F01FOOSEDR0AXXX0000000000}{2:I094BARXXXXXAXXXN}{4:{135:Y}{134:X}}");
+	}
+
+	@Test
+	public void testNoBlock4() {
+		final SwiftMessage model = new SwiftMessage();
+		model.addBlock(new SwiftBlock1("F01FOOSEDR0AXXX0000000000"));
+		final MtMetadataWriter metadata = MtMetadataWriter.write(model, true);
+		assertNull(metadata.getChecksumBody());
+		assertEquals(SwiftMessageUtils.calculateChecksum(model), metadata.getChecksum());
+		assertEquals(new ConversionService().getFIN(model), metadata.getFIN());
+	}
+
+	@Test
+	public void testSpecialCharacters() throws IOException {
+		final SwiftMessage model = SwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:I199BARXXXXXAXXXN}{4:\n:20:REF\n-}");
+		// supplementary characters, broken surrogates and line breaks other than CRLF
+		model.getBlock4().append(new Tag("79", "A\uD83D\uDE00B\nC\rD\uD83D"));
+		model.getBlock4().append(new Tag("72", "\uDE00X\r\n\n"));
+		final MtMetadataWriter metadata = MtMetadataWriter.write(model, true);
+		assertEquals(new ConversionService().getFIN(model), metadata.getFIN());
+		assertEquals(SwiftMessageUtils.calculateChecksum(model), metadata.getChecksum());
+		assertEquals(SwiftMessageUtils.calculateChecksum(model.getBlock4()), metadata.getChecksumBody());
+	}
+
+	private static MtMetadataWriter assertEquivalent(final String fin) throws IOException {
+		final SwiftMessage model = SwiftMessage.parse(fin);
+		final MtMetadataWriter metadata = MtMetadataWriter.write(model, true);
+		assertEquals(new ConversionService().getFIN(model), metadata.getFIN());
+		assertEquals(SwiftMessageUtils.calculateChecksum(model), metadata.getChecksum());
+		assertEquals(SwiftMessageUtils.calculateChecksum(model.getBlock4()), metadata.getChecksumBody());
+		assertEquals(model.getPDE(), metadata.getPDE());
+		assertEquals(model.getPDM(), metadata.getPDM());
+		assertEquals(model.getMUR(), metadata.getMUR());
+		assertEquals(SwiftMessageUtils.reference(model), metadata.getReference());
+
+		final MtMetadataWriter noText = MtMetadataWriter.write(model, false);
+		assertNull(noText.getFIN());
+		assertEquals(metadata.getChecksum(), noText.getChecksum());
+		assertEquals(metadata.getChecksumBody(), noText.getChecksumBody());
+		return metadata;
+	}
+}
@@ -18,8 +18,13 @@ package com.prowidesoftware.swift.model;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.metrics.InMemoryMetrics;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener.Operation;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -76,4 +81,70 @@ public class MtSwiftMessageTest {
 		assertEquals("fin.202", m.getIdentifier());
 	}
 
+	@Test
+	public void testModelCache() throws IOException {
+		final String fin = "{1:F01CARBVEC0AXXX8321000092}{2:I199FOOBARAAXXXXN}{4:\n:20:ABC\n-}";
+		try {
+			MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.NONE);
+			MtSwiftMessage mtsm = new MtSwiftMessage(fin);
+			assertNotSame(mtsm.modelMessage(), mtsm.modelMessage());
+
+			MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.SHARED);
+			mtsm = new MtSwiftMessage(fin);
+			final SwiftMessage shared = mtsm.modelMessage();
+			assertSame(shared, mtsm.modelMessage());
+			assertEquals("ABC", shared.getBlock4().getTagValue("20"));
+			assertTrue(shared.isFrozen());
+			try {
+				shared.getBlock4().getTagByName("20").setValue("XYZ");
+				fail("the shared model must be read-only");
+			} catch (final UnsupportedOperationException e) {
+				// expected
+			}
+
+			// changes in the raw content discard the cached model
+			mtsm.updateFromFIN(fin.replace("ABC", "DEF"));
+			assertEquals("DEF", mtsm.modelMessage().getBlock4().getTagValue("20"));
+			mtsm.setMessage(fin);
+			assertEquals("ABC", mtsm.modelMessage().getBlock4().getTagValue("20"));
+			mtsm.updateFromModel(SwiftMessage.parse(fin.replace("ABC", "GHI")));
+			assertEquals("GHI", mtsm.modelMessage().getBlock4().getTagValue("20"));
+
+			MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.COPY);
+			mtsm = new MtSwiftMessage(fin);
+			final SwiftMessage copy = mtsm.modelMessage();
+			assertNotSame(copy, mtsm.modelMessage());
+			assertFalse(copy.isFrozen());
+			copy.getBlock4().getTagByName("20").setValue("XYZ");
+			assertEquals("ABC", mtsm.modelMessage().getBlock4().getTagValue("20"));
+			assertEquals(new ConversionService().getFIN(SwiftMessage.parse(fin)), new ConversionService().getFIN(mtsm.modelMessage()));
+		} finally {
+			MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.NONE);
+		}
+	}
+
+	/**
+	 * Cache hits do not parse the raw content, see MtModelCacheBenchmark for the timings
+	 */
+	@Test
+	public void testModelCacheHit() throws IOException {
+		final String fin = "{1:F01CARBVEC0AXXX8321000092}{2:I103FOOBARAAXXXXN}{3:{108:MUR}}{4:\n:20:ABC\n:23B:CRED\n:32A:180417EUR1234,56\n:50K:/123\nNAME\n:59:/456\nBENEFICIARY\n:71A:SHA\n-}";
+		final InMemoryMetrics metrics = new InMemoryMetrics();
+		try {
+			Metrics.setListener(metrics);
+			for (final MtSwiftMessage.ModelCache mode : MtSwiftMessage.ModelCache.values()) {
+				MtSwiftMessage.setModelCache(mode);
+				final MtSwiftMessage mtsm = new MtSwiftMessage(fin);
+				final long parsed = metrics.getCount(Operation.MT_PARSE);
+				for (int i = 0; i < 10; i++) {
+					assertEquals("MUR", mtsm.modelMessage().getMUR());
+				}
+				assertEquals(mode.name(), mode == MtSwiftMessage.ModelCache.NONE ? 10 : 0, metrics.getCount(Operation.MT_PARSE) - parsed);
+			}
+		} finally {
+			Metrics.setListener(null);
+			MtSwiftMessage.setModelCache(MtSwiftMessage.ModelCache.NONE);
+		}
+	}
+
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.model.field.Field108;
+import com.prowidesoftware.swift.model.field.Field20;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+import com.prowidesoftware.swift.model.mt.mt5xx.MT535;
+
+/**
+ * Test cases for {@link SwiftMessage#freeze()}
+ *
+ * @since 7.10.4
+ */
+public class SwiftMessageFreezeTest {
+
+	private static final String MT103 = "{1:F01FOOSEDR0AXXX0000000000}{2:O1031200180101BARXXXXXAXXX00000000001801011200N}"
+			+ "{3:{108:MUR1}{121:eb6305c9-1f7f-49de-aed0-16487c27b42d}}{4:\r\n:20:REF1\r\n:23B:CRED\r\n:32A:180101EUR1234,56\r\n:71A:SHA\r\n-}"
+			+ "{5:{CHK:B018C2CA74CD}}{S:{REF:I20070328}}";
+
+	private static final String MT535 = "{1:F01FOOBARXXAXXX3219604112}{2:I535FOOBARXXXXXXN}{4:\r\n"
+			+ ":16R:GENL\r\n:28E:1/ONLY\r\n:20C::SEME//ABC20070327P1\r\n:23G:NEWM\r\n:98A::STAT//20070327\r\n:16S:GENL\r\n"
+			+ ":16R:ADDINFO\r\n:19A::HOLP//USD0,\r\n:16S:ADDINFO\r\n-}";
+
+	@Test
+	public void testFreeze() throws IOException {
+		final SwiftMessage msg = SwiftMessage.parse(MT103);
+		assertFalse(msg.isFrozen());
+		assertTrue(msg == msg.freeze());
+
+		assertTrue(msg.isFrozen());
+		assertTrue(msg.getBlock1().isFrozen());
+		assertTrue(msg.getBlock2().isFrozen());
+		assertTrue(msg.getBlock3().isFrozen());
+		assertTrue(msg.getBlock4().isFrozen());
+		assertTrue(msg.getBlock5().isFrozen());
+		assertTrue(msg.getUserBlock("S").isFrozen());
+		assertTrue(msg.getBlock4().getTagByName("20").isFrozen());
+		assertEquals(SwiftMessage.parse(MT103), msg);
+
+		assertFrozen(new Runnable() { public void run() { msg.setBlock4(new SwiftBlock4()); } });
+		assertFrozen(new Runnable() { public void run() { msg.setUETR("eb6305c9-1f7f-49de-aed0-16487c27b42e"); } });
+		assertFrozen(new Runnable() { public void run() { msg.removeUserBlock("S"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getUserBlocks().clear(); } });
+		assertFrozen(new Runnable() { public void run() { msg.unparsedTextAddText("foo"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock1().setSender("BARXXXXXAXXX"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock2().setMessageType("202"); } });
+		assertFrozen(new Runnable() { public void run() { ((SwiftBlock2Output) msg.getBlock2()).setMIR("180101BARXXXXXAXXX0000000000"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock3().builder().setField108(new Field108("MUR2")); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock4().append(new Field20("REF2")); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock4().removeTag("20"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock4().getTags().add(new Tag("20", "REF2")); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock4().getTagByName("20").setValue("REF2"); } });
+		assertFrozen(new Runnable() { public void run() { msg.getBlock5().getUnparsedTexts().addText("foo"); } });
+		assertFrozen(new Runnable() {
+			public void run() {
+				final Iterator<Tag> it = msg.getBlock4().iterator();
+				it.next();
+				it.remove();
+			}
+		});
+
+		// content unchanged and reading does not create the unparsed texts lists
+		assertEquals(0, msg.getBlock4().getUnparsedTexts().size().intValue());
+		assertEquals(0, msg.getUnparsedTextsSize().intValue());
+		assertEquals(MT103, new ConversionService().getFIN(msg));
+	}
+
+	@Test
+	public void testReadAPI() throws IOException {
+		final MT103 mt103 = (MT103) SwiftMessage.parse(MT103).freeze().toMT();
+		assertEquals("REF1", mt103.getField20().getValue());
+		assertEquals("EUR", mt103.getField32A().getCurrency());
+		assertEquals("MUR1", mt103.getSwiftMessage().getMUR());
+		assertEquals("eb6305c9-1f7f-49de-aed0-16487c27b42d", mt103.getSwiftMessage().getUETR());
+
+		final MT535 mt535 = (MT535) SwiftMessage.parse(MT535).freeze().toMT();
+		final MT535.SequenceA a = mt535.getSequenceA();
+		assertEquals(":SEME//ABC20070327P1", a.getTagValue("20C"));
+		assertEquals(1, mt535.getSequenceCList().size());
+
+		// sequences are new blocks sharing the frozen tags
+		a.append(new Field20("REF2"));
+		assertFrozen(new Runnable() { public void run() { a.getTagByName("20C").setValue(":SEME//XXX"); } });
+		assertEquals(":SEME//ABC20070327P1", mt535.getSequenceA().getTagValue("20C"));
+	}
+
+	@Test
+	public void testConcurrentRead() throws Exception {
+		final SwiftMessage msg = SwiftMessage.parse(MT103).freeze();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				results.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() {
+						for (int j = 0; j < 200; j++) {
+							final MT103 mt = (MT103) msg.toMT();
+							assertEquals("REF1", mt.getField20().getValue());
+							assertEquals(0, msg.getBlock3().getUnparsedTextsSize().intValue());
+						}
+						return new ConversionService().getFIN(msg);
+					}
+				}));
+			}
+			for (final Future<String> result : results) {
+				assertEquals(MT103, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		final SwiftMessage msg = SwiftMessage.parse(MT103).freeze();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(msg);
+		}
+		final SwiftMessage copy = (SwiftMessage) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		assertFalse(copy.isFrozen());
+		assertEquals(msg, copy);
+		copy.getBlock4().getTagByName("20").setValue("REF2");
+		assertEquals("REF1", msg.getBlock4().getTagValue("20"));
+	}
+
+	private static void assertFrozen(final Runnable change) {
+		try {
+			change.run();
+			fail("frozen content should not be changed");
+		} catch (final UnsupportedOperationException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link SwiftMessageSummary}
+ *
+ * @since 7.10.4
+ */
+public class SwiftMessageSummaryTest {
+
+	@Test
+	public void testMapping() {
+		assertEquals(AbstractSwiftMessage.class.getAnnotation(Table.class).name(), SwiftMessageSummary.class.getAnnotation(Table.class).name());
+		for (final Field f : SwiftMessageSummary.class.getDeclaredFields()) {
+			final Column column = f.getAnnotation(Column.class);
+			if (column != null) {
+				assertFalse(f.getName(), column.insertable());
+				assertFalse(f.getName(), column.updatable());
+				assertNull(f.getName(), f.getAnnotation(Lob.class));
+			}
+		}
+	}
+
+	@Test
+	public void testMT() {
+		final MtSwiftMessage mt = MtSwiftMessage.parse("{1:F01FOOSEDR0AXXX0000000000}{2:O1031200180101BARXXXXXAXXX00000000001801011200N}"
+				+ "{3:{108:MUR1}}{4:\r\n:20:REF1\r\n:23B:CRED\r\n:32A:180101EUR1234,56\r\n:71A:SHA\r\n-}");
+		mt.setId(5L);
+		mt.setStatus("RECEIVED");
+
+		final SwiftMessageSummary summary = new SwiftMessageSummary(mt);
+		assertTrue(summary.isMT());
+		assertEquals(Long.valueOf(5), summary.getId());
+		assertEquals("fin.103", summary.getIdentifier());
+		assertEquals(MessageIOType.incoming, summary.getDirection());
+		assertEquals("RECEIVED", summary.getStatus());
+		assertEquals("REF1", summary.getReference());
+		assertEquals("EUR", summary.getCurrency());
+		assertEquals(0, new BigDecimal("1234.56").compareTo(summary.getAmount()));
+		assertEquals(mt.getMir(), summary.getMir());
+		assertEquals("MUR1", summary.getMur());
+
+		final AbstractSwiftMessage msg = summary.toMessage();
+		assertTrue(msg instanceof MtSwiftMessage);
+		assertNull(msg.getMessage());
+		assertNull(msg.getId());
+		assertEquals(mt.getSender(), msg.getSender());
+		assertEquals(mt.getReceiver(), msg.getReceiver());
+		assertEquals(mt.getChecksum(), msg.getChecksum());
+		assertEquals(mt.getMir(), ((MtSwiftMessage) msg).getMir());
+		assertEquals("MUR1", ((MtSwiftMessage) msg).getMur());
+	}
+
+	@Test
+	public void testMX() {
+		final MxSwiftMessage mx = new MxSwiftMessage();
+		mx.setIdentifier("pacs.008.001.07");
+		mx.setSender("FOOSEDR0XXX");
+		mx.setReference("REF2");
+
+		final SwiftMessageSummary summary = new SwiftMessageSummary(mx);
+		assertTrue(summary.isMX());
+		assertNull(summary.getMir());
+
+		final AbstractSwiftMessage msg = summary.toMessage();
+		assertTrue(msg instanceof MxSwiftMessage);
+		assertEquals("pacs.008.001.07", msg.getIdentifier());
+		assertEquals("FOOSEDR0XXX", msg.getSender());
+		assertEquals("REF2", msg.getReference());
+	}
+
+	@Test
+	public void testCopyTo() {
+		final MtSwiftMessage mt = new MtSwiftMessage();
+		mt.setId(5L);
+		mt.setStatus("RECEIVED");
+		final SwiftMessageSummary summary = new SwiftMessageSummary(mt);
+		summary.setStatus("PROCESSED");
+
+		summary.copyTo(mt);
+		assertEquals(Long.valueOf(5), mt.getId());
+		assertEquals("PROCESSED", mt.getStatus());
+
+		final MtSwiftMessage other = new MtSwiftMessage();
+		other.setId(6L);
+		try {
+			summary.copyTo(other);
+			fail("the summary must not be copied into another persisted message");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		assertNull(other.getStatus());
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model.mt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.ConversionService;
+import com.prowidesoftware.swift.model.SwiftBlock4;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field;
+import com.prowidesoftware.swift.model.field.Field28E;
+import com.prowidesoftware.swift.model.field.Field60M;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.field.Field62F;
+import com.prowidesoftware.swift.model.field.Field62M;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+import com.prowidesoftware.swift.model.mt.mt5xx.MT535;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT950;
+
+/**
+ * Test cases for {@link StatementPaginator}
+ *
+ * @since 7.10.4
+ */
+public class StatementPaginatorTest {
+
+	@Test
+	public void testSmallStatement() {
+		final MT940 mt = statement(new MT940("FOOSEDR0AXXX", "BARXXXXXAXXX"), 3);
+		final List<SwiftMessage> pages = new StatementPaginator().paginate(mt.getSwiftMessage());
+		assertEquals(1, pages.size());
+		assertSame(mt.getSwiftMessage(), pages.get(0));
+	}
+
+	@Test
+	public void testMT940() {
+		final MT940 mt = statement(new MT940("FOOSEDR0AXXX", "BARXXXXXAXXX"), 2000);
+		final List<MT940> pages = new StatementPaginator().paginate(mt);
+		assertTrue(pages.size() > 1);
+
+		int lines = 0;
+		BigDecimal previous = null;
+		for (int i = 0; i < pages.size(); i++) {
+			final MT940 page = pages.get(i);
+			final SwiftBlock4 b4 = page.getSwiftMessage().getBlock4();
+			assertFINLength(page.getSwiftMessage(), StatementPaginator.DEFAULT_MAX_TEXT_LENGTH);
+			assertEquals("REF", page.getField20().getValue());
+			assertEquals("00123/" + (i + 1), page.getField28C().getValue());
+			assertEquals("MT940 page " + i, "FOOSEDR0AXXX", page.getSender());
+
+			// the opening balance must match the previous page closing balance
+			final BigDecimal opening;
+			if (i == 0) {
+				assertEquals("C180101EUR1000,", page.getField60F().getValue());
+				opening = new BigDecimal("1000");
+			} else {
+				assertEquals(null, page.getField60F());
+				opening = signed(page.getField60M());
+				assertEquals(previous, opening);
+			}
+			BigDecimal balance = opening;
+			for (final Field61 f : page.getField61()) {
+				balance = "D".equals(f.getDCMark()) ? balance.subtract(f.amount()) : balance.add(f.amount());
+				lines++;
+			}
+			if (i == pages.size() - 1) {
+				assertEquals(null, page.getField62M());
+				assertEquals(mt.getField62F().getValue(), page.getField62F().getValue());
+				assertEquals(0, signed(page.getField62F()).compareTo(balance));
+				assertEquals("closing info", page.getField86().get(page.getField86().size() - 1).getValue());
+			} else {
+				assertEquals(null, page.getField62F());
+				previous = signed(page.getField62M());
+				assertEquals(0, previous.compareTo(balance));
+			}
+		}
+		assertEquals(2000, lines);
+	}
+
+	@Test
+	public void testMT950SmallLimit() {
+		final MT950 mt = statement(new MT950("FOOSEDR0AXXX", "BARXXXXXAXXX"), 10);
+		final int max = 200;
+		final List<MT950> pages = new StatementPaginator(max).paginate(mt);
+		int lines = 0;
+		for (final MT950 page : pages) {
+			assertFINLength(page.getSwiftMessage(), max);
+			lines += page.getField61().size();
+		}
+		assertEquals(10, lines);
+		assertEquals("00123/" + pages.size(), pages.get(pages.size() - 1).getField28C().getValue());
+	}
+
+	@Test
+	public void testMT535() {
+		final MT535 mt = new MT535("FOOSEDR0AXXX", "BARXXXXXAXXX");
+		mt.append(MT535.SequenceA.newInstance(
+				new Tag("28E", "00001/ONLY"),
+				new Tag("20C", ":SEME//REF"),
+				new Tag("23G", "NEWM")));
+		for (int b = 0; b < 3; b++) {
+			final SwiftBlock4 seqB = new SwiftBlock4();
+			seqB.append(new Tag("97A", ":SAFE//ACCOUNT" + b));
+			for (int f = 0; f < 40; f++) {
+				seqB.append(MT535.SequenceB1.newInstance(
+						new Tag("35B", "ISIN US0000000" + f + "\nINSTRUMENT " + f + "\nDESCRIPTION"),
+						new Tag("93B", ":AGGR//UNIT/" + f + ",")));
+			}
+			mt.append(MT535.SequenceB.newInstance(seqB.getTags().toArray(new Tag[0])));
+		}
+		mt.append(MT535.SequenceC.newInstance(new Tag("70E", ":ADTX//FINAL")));
+
+		final int max = 1000;
+		final List<MT535> pages = new StatementPaginator(max).paginate(mt);
+		assertTrue(pages.size() > 3);
+		int instruments = 0;
+		for (int i = 0; i < pages.size(); i++) {
+			final MT535 page = pages.get(i);
+			final SwiftBlock4 b4 = page.getSwiftMessage().getBlock4();
+			assertFINLength(page.getSwiftMessage(), max);
+			final Field28E f28E = page.getField28E();
+			assertEquals(i + 1, f28E.getPageNumberAsNumber().intValue());
+			assertEquals(5, f28E.getPageNumber().length());
+			assertEquals(i == pages.size() - 1 ? "LAST" : "MORE", f28E.getContinuationIndicator());
+			assertEquals(1, page.getSequenceA().getTagsByName("20C").length);
+			assertEquals(b4.getSubBlocks("SUBSAFE").size(), page.getSequenceBList().size());
+			for (final MT535.SequenceB seqB : page.getSequenceBList()) {
+				assertTrue(seqB.getTagByName("97A") != null);
+			}
+			instruments += page.getSequenceB1List().size();
+			assertEquals(i == pages.size() - 1 ? 1 : 0, page.getSequenceCList().size());
+		}
+		assertEquals(120, instruments);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupported() {
+		new StatementPaginator().paginate(new MT103().getSwiftMessage());
+	}
+
+	private static <T extends AbstractMT> T statement(final T mt, final int lines) {
+		mt.append(new Tag("20", "REF"));
+		mt.append(new Tag("25", "ACCOUNT"));
+		mt.append(new Tag("28C", "00123/1"));
+		mt.append(new Tag("60F", "C180101EUR1000,"));
+		BigDecimal balance = new BigDecimal("1000");
+		for (int i = 0; i < lines; i++) {
+			final boolean debit = i % 3 == 0;
+			final BigDecimal amount = new BigDecimal(i + ".5");
+			balance = debit ? balance.subtract(amount) : balance.add(amount);
+			mt.append(new Tag("61", "1801010101" + (debit ? "D" : "C") + i + ",5NTRFREF" + i + "//BANKREF" + i));
+			if (mt instanceof MT940) {
+				mt.append(new Tag("86", "information for line " + i + "\nSECOND LINE\nTHIRD LINE\nFOURTH LINE\nFIFTH LINE\nSIXTH LINE"));
+			}
+		}
+		mt.append(new Field62F().setDCMark(balance.signum() < 0 ? "D" : "C").setDate("180102").setCurrency("EUR").setAmount(balance.abs()));
+		if (mt instanceof MT940) {
+			mt.append(new Tag("86", "closing info"));
+		}
+		return mt;
+	}
+
+	/*
+	 * checks the text block of the page as serialized by getFIN, with CRLF line breaks, does not exceed the limit
+	 */
+	private static void assertFINLength(final SwiftMessage page, final int max) {
+		final String fin = new ConversionService().getFIN(page);
+		final String text = fin.substring(fin.indexOf("{4:\r\n") + 5, fin.lastIndexOf("-}"));
+		assertEquals(text.length(), page.getBlock4().getTextLength());
+		assertTrue(text.length() + " > " + max, text.length() <= max);
+		assertEquals(fin.length(), page.getFINLength());
+	}
+
+	private static BigDecimal signed(final Field f) {
+		final BigDecimal amount = f instanceof Field60M ? ((Field60M) f).amount() : f instanceof Field62M ? ((Field62M) f).amount() : ((Field62F) f).amount();
+		return "D".equals(f.getComponent(1)) ? amount.negate() : amount;
+	}
+}
@@ -16,13 +16,23 @@
 
 package com.prowidesoftware.swift.model.mx;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.xml.bind.annotation.XmlRootElement;
 
 import org.junit.Test;
 import org.w3c.dom.Element;
 
+import com.prowidesoftware.swift.Resolver;
+import com.prowidesoftware.swift.metrics.Metrics;
+import com.prowidesoftware.swift.metrics.MetricsListener;
+
 public class AbstractMXTest {
 
 	@Test
@@ -33,6 +43,47 @@ public class AbstractMXTest {
 		assertNotNull(e);
 	}
 
+	/**
+	 * An MxWrite implementation not aware of the streaming write must still work for write(OutputStream)
+	 */
+	@SuppressWarnings("rawtypes")
+	@Test
+	public void testWriteWithMessageOnlyImplementation() throws IOException {
+		final MxWrite legacy = new MxWrite() {
+			@Override
+			public String message(String namespace, AbstractMX obj, Class[] classes) {
+				return message(namespace, obj, classes, "Doc", true);
+			}
+
+			@Override
+			public String message(String namespace, AbstractMX obj, Class[] classes, String prefix, boolean includeXMLDeclaration) {
+				return "<" + prefix + ":Document xmlns:" + prefix + "=\"" + namespace + "\">\u00e9</" + prefix + ":Document>";
+			}
+		};
+		final List<MetricsListener.Operation> operations = new ArrayList<>();
+		Metrics.setListener(new MetricsListener() {
+			@Override
+			public void completed(Operation operation, String id, long size, int tags, long nanos, int errors) {
+				operations.add(operation);
+			}
+
+			@Override
+			public void failed(Operation operation, long nanos, Throwable cause) {
+			}
+		});
+		Resolver.register(legacy);
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			new MockMsg().write(out);
+			assertEquals("<Doc:Document xmlns:Doc=\"foo:namespace\">\u00e9</Doc:Document>", out.toString("UTF-8"));
+			assertEquals(1, operations.size());
+			assertEquals(MetricsListener.Operation.MX_WRITE, operations.get(0));
+		} finally {
+			Resolver.register((MxWrite) null);
+			Metrics.setListener(null);
+		}
+	}
+
 }
 
 @XmlRootElement
@@ -52,7 +103,7 @@ final class MockMsg extends AbstractMX {
 
 	@Override
 	public String getBusinessProcess() {
-		return null;
+		return "pacs";
 	}
 
 	@Override
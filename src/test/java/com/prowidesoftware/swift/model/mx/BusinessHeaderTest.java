@@ -17,9 +17,12 @@
 package com.prowidesoftware.swift.model.mx;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -143,4 +146,16 @@ public class BusinessHeaderTest {
 		assertEquals("ABCFOOXX", h.to());
 	}
 
+	@Test
+	public void testWriteToStream() throws IOException {
+		final BusinessHeader h = BusinessHeader.create("AAAAUSXXXXX", "BBBBUSXXXXX", "R&F<\u00e9>", null);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertTrue(h.write(out, "h", true));
+		assertEquals(h.xml("h", true), new String(out.toByteArray(), "UTF-8"));
+
+		out.reset();
+		assertFalse(new BusinessHeader().write(out, null, false));
+		assertEquals(0, out.size());
+	}
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.model.mx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.model.MxId;
+import com.prowidesoftware.swift.model.mx.dic.ApplicationHeader;
+import com.prowidesoftware.swift.model.mx.dic.BusinessApplicationHeaderV01;
+
+/**
+ * Test cases for {@link JaxbContextCache}
+ *
+ * @since 7.10.4
+ */
+public class JaxbContextCacheTest {
+
+	@Test
+	public void testContextReused() throws JAXBException {
+		final JaxbContextCache.Entry entry = JaxbContextCache.get(ApplicationHeader.class);
+		assertSame(entry, JaxbContextCache.get(ApplicationHeader.class));
+		assertSame(entry.getContext(), JaxbContextCache.context(ApplicationHeader.class));
+		assertNotSame(entry, JaxbContextCache.get(BusinessApplicationHeaderV01.class));
+		assertNotSame(entry, JaxbContextCache.get(ApplicationHeader.class, BusinessApplicationHeaderV01.class));
+	}
+
+	@Test
+	public void testMarshallerPool() throws JAXBException {
+		final JaxbContextCache.Entry entry = JaxbContextCache.get(BusinessApplicationHeaderV01.class);
+		final Marshaller m1 = entry.acquireMarshaller();
+		final Marshaller m2 = entry.acquireMarshaller();
+		assertNotSame(m1, m2);
+		m1.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+		entry.release(m1);
+		final Marshaller m3 = entry.acquireMarshaller();
+		assertSame(m1, m3);
+		// released instances are reset to defaults
+		assertEquals(Boolean.FALSE, m3.getProperty(Marshaller.JAXB_FORMATTED_OUTPUT));
+		entry.release(m2);
+		entry.release(m3);
+
+		final Unmarshaller u1 = entry.acquireUnmarshaller();
+		entry.release(u1);
+		assertSame(u1, entry.acquireUnmarshaller());
+	}
+
+	@Test
+	public void testPreloadWithoutModel() {
+		// specific MX model classes are not available in Prowide Core
+		assertEquals(0, JaxbContextCache.preload(new MxId("pacs.008.001.07")));
+	}
+
+	@Test
+	public void testBusinessHeaderSerialization() {
+		final BusinessHeader bh = BusinessHeader.create("AAAAUSXXXXX", "BBBBUSXXXXX", "REF", null);
+		final String xml1 = bh.xml();
+		final String xml2 = bh.xml();
+		assertEquals(xml1, xml2);
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2006-2018 Prowide
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.prowidesoftware.swift.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.prowidesoftware.swift.io.PPCReader;
+import com.prowidesoftware.swift.io.RJEReader;
+import com.prowidesoftware.swift.io.parser.MxParser;
+import com.prowidesoftware.swift.model.IBAN;
+import com.prowidesoftware.swift.model.SwiftMessage;
+import com.prowidesoftware.swift.model.Tag;
+import com.prowidesoftware.swift.model.field.Field;
+import com.prowidesoftware.swift.model.field.Field22F;
+import com.prowidesoftware.swift.model.field.Field28E;
+import com.prowidesoftware.swift.model.field.Field61;
+import com.prowidesoftware.swift.model.field.Field62F;
+import com.prowidesoftware.swift.model.mt.AbstractMT;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT101;
+import com.prowidesoftware.swift.model.mt.mt1xx.MT103;
+import com.prowidesoftware.swift.model.mt.mt5xx.MT535;
+import com.prowidesoftware.swift.model.mt.mt9xx.MT940;
+
+/**
+ * Test cases for {@link MessageGenerator}
+ *
+ * @since 7.10.4
+ */
+public class MessageGeneratorTest {
+
+	private static final MessageGenerator.Mix MIX = new MessageGenerator.Mix().add("103", 5).add("202", 2).add("940", 1).add("535", 1).add("300", 1);
+
+	@Test
+	public void testReproducible() {
+		final MessageGenerator g1 = new MessageGenerator(42);
+		final MessageGenerator g2 = new MessageGenerator(42);
+		final MessageGenerator g3 = new MessageGenerator(43);
+		boolean different = false;
+		for (int i = 0; i < 50; i++) {
+			final String fin = g1.mt(MIX).message();
+			assertEquals(fin, g2.mt(MIX).message());
+			different |= !fin.equals(g3.mt(MIX).message());
+		}
+		assertTrue(different);
+		assertEquals(g1.camt053(3), g2.camt053(3));
+	}
+
+	@Test
+	public void testAllTypes() throws IOException {
+		final MessageGenerator g = new MessageGenerator(1);
+		int count = 0;
+		// system messages (category 0) are not included
+		for (int i = 100; i < 1000; i++) {
+			final String type = String.format("%03d", i);
+			for (final String variant : new String[] {"", "_STP", "_REMIT"}) {
+				final AbstractMT mt;
+				try {
+					mt = g.mt(type + variant);
+				} catch (final IllegalArgumentException e) {
+					continue;
+				}
+				count++;
+				final SwiftMessage parsed = SwiftMessage.parse(mt.message());
+				assertEquals(type, parsed.getType());
+				assertFalse(type + variant, parsed.getBlock4().isEmpty());
+				assertEquals(type + variant, mt.getSwiftMessage().getBlock4().size(), parsed.getBlock4().size());
+				for (final Tag tag : parsed.getBlock4().getTags()) {
+					assertEquals(type + variant + " " + tag.getName(), tag.getValue(), Field.getField(tag).getValue());
+				}
+			}
+		}
+		assertTrue(String.valueOf(count), count > 200);
+	}
+
+	@Test
+	public void testSequences() throws NoSuchFieldException {
+		final MessageGenerator g = new MessageGenerator(9);
+		for (int i = 0; i < 20; i++) {
+			final MT535 mt = (MT535) g.mt("535");
+			final MT535.SequenceA a = mt.getSequenceA();
+			assertEquals(MT535.SequenceA.START_TAG, a.getTag(0));
+			assertEquals(MT535.SequenceA.END_TAG, a.getTag(a.size() - 1));
+			assertNotNull(a.getTagByName("20C"));
+			assertNotNull(a.getTagByName("23G"));
+			assertTrue(new Field28E(a.getTagValue("28E")).getComponent2().matches("ONLY|MORE|LAST"));
+			assertTrue(a.getTagByName("97A") != null || a.getTagByName("97B") != null);
+			for (final MT535.SequenceB b : mt.getSequenceBList()) {
+				assertEquals(MT535.SequenceB.START_TAG, b.getTag(0));
+			}
+
+			// qualifiers from the message, different within a fieldset
+			final Set<String> qualifiers = new HashSet<>();
+			for (final Tag t : a.getTagsByName("22F")) {
+				final String qualifier = new Field22F(t.getValue()).getQualifier();
+				assertNotNull(MT535.class.getField(qualifier));
+				assertTrue(qualifier, qualifiers.add(qualifier));
+			}
+			assertEquals(4, qualifiers.size());
+		}
+
+		// mandatory fields are always present
+		for (int i = 0; i < 20; i++) {
+			final MT101 mt = (MT101) g.mt("101");
+			assertNotNull(mt.getField20());
+			assertNotNull(mt.getField28D());
+			assertNotNull(mt.getField30());
+			assertFalse(mt.getField21().isEmpty());
+			assertEquals(mt.getField21().size(), mt.getField32B().size());
+			assertEquals(mt.getField21().size(), mt.getField71A().size());
+		}
+	}
+
+	@Test
+	public void testMT103() {
+		final MT103 mt = new MessageGenerator(3).mt103();
+		assertTrue(mt.getSwiftMessage().getUETR().matches("[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}"));
+		assertEquals(mt.getField32A().getAmount(), mt.getField33B().getAmount());
+		assertTrue(new IBAN(mt.getField50K().getComponent1()).isValid());
+		assertTrue(new IBAN(mt.getField59().getComponent1()).isValid());
+	}
+
+	@Test
+	public void testStatementBalance() {
+		final MT940 mt = new MessageGenerator(4).mt940(200);
+		assertEquals(200, mt.getField61().size());
+		assertEquals(200, mt.getField86().size());
+		BigDecimal balance = signed(mt.getField60F().getDCMark(), mt.getField60F().amount());
+		for (final Field61 f : mt.getField61()) {
+			balance = balance.add(signed(f.getDCMark(), f.amount()));
+		}
+		final Field62F closing = mt.getField62F();
+		assertEquals(0, balance.compareTo(signed(closing.getDCMark(), closing.amount())));
+		assertTrue(mt.getField60F().getCurrency().equals(closing.getCurrency()));
+	}
+
+	@Test
+	public void testValue() {
+		final MessageGenerator g = new MessageGenerator(5);
+		for (final String name : new String[] {"32A", "50K", "59", "35B", "97A", "98C", "19A", "61", "86"}) {
+			assertTrue(name, MessageGenerator.isSupported(name));
+			final String value = g.value(name);
+			assertNotNull(name, value);
+			assertEquals(name, value, Field.getField(name, value).getValue());
+		}
+		assertNull(g.value("ZZZ"));
+		assertFalse(MessageGenerator.isSupported("ZZZ"));
+	}
+
+	@Test
+	public void testMX() {
+		final MessageGenerator g = new MessageGenerator(6);
+		MxParser parser = new MxParser(g.pacs008(3));
+		assertEquals("pacs.008.001.07", parser.detectMessage().id());
+		assertEquals(3, parser.parse().find("/Message/Document/FIToFICstmrCdtTrf/CdtTrfTxInf").size());
+		assertNotNull(parser.parseBusinessHeader().getBusinessApplicationHeader());
+
+		parser = new MxParser(g.camt053(25));
+		assertEquals("camt.053.001.02", parser.detectMessage().id());
+		assertEquals(25, parser.parse().find("/Message/Document/BkToCstmrStmt/Stmt/Ntry").size());
+	}
+
+	@Test
+	public void testRJE() throws IOException {
+		final StringWriter writer = new StringWriter();
+		new MessageGenerator(7).writeRJE(writer, MIX, 30);
+		final RJEReader reader = new RJEReader(writer.toString());
+		int count = 0;
+		while (reader.hasNext()) {
+			assertNotNull(reader.nextSwiftMessage().getType());
+			count++;
+		}
+		assertEquals(30, count);
+	}
+
+	@Test
+	public void testPPC() throws IOException {
+		final StringWriter writer = new StringWriter();
+		new MessageGenerator(8).writePPC(writer, MessageGenerator.Mix.of("103", "950"), 12);
+		final PPCReader reader = new PPCReader(writer.toString());
+		int count = 0;
+		while (reader.hasNext()) {
+			assertNotNull(reader.nextSwiftMessage().getType());
+			count++;
+		}
+		assertEquals(12, count);
+	}
+
+	private static BigDecimal signed(final String mark, final BigDecimal amount) {
+		final BigDecimal result = amount;
+		return mark.endsWith("D") ? result.negate() : result;
+	}
+}